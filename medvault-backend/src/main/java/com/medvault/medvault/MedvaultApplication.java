@@ -2,10 +2,14 @@ package com.medvault.medvault;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableScheduling
+@EnableAsync
+@PropertySource("classpath:medvault-defaults.properties")
 public class MedvaultApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,21 @@
+package com.medvault.medvault.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Blackbird replaces Jackson's reflective getter and constructor calls with generated
+ * lambdas, which makes serializing the response records noticeably cheaper. Spring
+ * Boot registers every Module bean with the application's ObjectMapper; the JSON
+ * itself does not change.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
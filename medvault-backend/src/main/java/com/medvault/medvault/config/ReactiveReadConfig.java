@@ -0,0 +1,22 @@
+package com.medvault.medvault.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Scheduler for the blocking JPA calls behind the reactive read endpoints. It has as
+ * many threads as the connection pool has connections, since more threads would only
+ * wait on the pool, and a bounded queue so a burst is rejected instead of piling up.
+ */
+@Configuration
+public class ReactiveReadConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler jdbcScheduler(@Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                                   @Value("${app.reactive.jdbc-queue-capacity:1000}") int queueCapacity) {
+        return Schedulers.newBoundedElastic(poolSize, queueCapacity, "jdbc");
+    }
+}
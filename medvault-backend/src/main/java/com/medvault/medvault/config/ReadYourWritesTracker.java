@@ -0,0 +1,81 @@
+package com.medvault.medvault.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.medvault.medvault.security.AuthenticatedUser;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+/**
+ * Remembers who wrote recently, so their next reads go to the primary instead of a
+ * replica that may not have caught up yet. A caller is the authenticated user, or
+ * the client address for anonymous requests; work outside a request (jobs) has no
+ * caller and is never pinned. Work handed to another thread on behalf of a request
+ * takes the caller along with {@link #runAs}.
+ */
+public class ReadYourWritesTracker {
+
+    private static final ThreadLocal<String> HANDED_OVER = new ThreadLocal<>();
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(Duration maxReplicaLag, long maxCallers) {
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(maxCallers)
+                .expireAfterWrite(maxReplicaLag)
+                .build();
+    }
+
+    public void recordWrite(String caller) {
+        if (caller != null) {
+            recentWriters.put(caller, Boolean.TRUE);
+        }
+    }
+
+    public boolean mustReadPrimary(String caller) {
+        return caller != null && recentWriters.getIfPresent(caller) != null;
+    }
+
+    public long pinnedCallers() {
+        return recentWriters.estimatedSize();
+    }
+
+    /**
+     * Runs work on the current thread as the given caller, typically one captured with
+     * {@link #currentCaller} on the request thread before a hop to another scheduler.
+     */
+    public static <T> T runAs(String caller, Callable<T> work) throws Exception {
+        String previous = HANDED_OVER.get();
+        HANDED_OVER.set(caller);
+        try {
+            return work.call();
+        } finally {
+            if (previous == null) {
+                HANDED_OVER.remove();
+            } else {
+                HANDED_OVER.set(previous);
+            }
+        }
+    }
+
+    public static String currentCaller() {
+        String handedOver = HANDED_OVER.get();
+        if (handedOver != null) {
+            return handedOver;
+        }
+        Optional<AuthenticatedUser> user = AuthenticatedUser.current();
+        if (user.isPresent()) {
+            return "user:" + user.get().getUserId();
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servlet) {
+            return "addr:" + servlet.getRequest().getRemoteAddr();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,73 @@
+package com.medvault.medvault.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Sends connections for read-only transactions to the replica and everything else
+ * to the primary. The decision is made when a connection is first needed, so this
+ * has to sit behind a LazyConnectionDataSourceProxy: the transaction manager asks
+ * for its connection before the read-only flag is set.
+ *
+ * <p>A committed write transaction pins its caller to the primary for the replica
+ * lag window (see {@link ReadYourWritesTracker}), so a user who just booked or
+ * uploaded something sees it on the next page load. Work that leaves the request
+ * thread has to carry the caller along (see {@link ReadYourWritesTracker#runAs}).
+ * Reads that must never see a lagging replica can use {@link #onPrimary}.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Role {
+        PRIMARY, REPLICA
+    }
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private final ReadYourWritesTracker tracker;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesTracker tracker) {
+        this.tracker = tracker;
+        setTargetDataSources(Map.of(Role.PRIMARY, primary, Role.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Runs work whose read-only transactions must see the primary. The connection is
+     * chosen on first use, so this has to wrap the first query of the transaction.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = PRIMARY_ONLY.get();
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_ONLY.remove();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String caller = ReadYourWritesTracker.currentCaller();
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            boolean primary = PRIMARY_ONLY.get() != null || tracker.mustReadPrimary(caller);
+            return primary ? Role.PRIMARY : Role.REPLICA;
+        }
+        if (caller != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    tracker.recordWrite(caller);
+                }
+            });
+        }
+        return Role.PRIMARY;
+    }
+}
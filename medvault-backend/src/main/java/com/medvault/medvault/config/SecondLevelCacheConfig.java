@@ -0,0 +1,86 @@
+package com.medvault.medvault.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.spi.CachingProvider;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate second-level and query cache for the reference-like data read on almost
+ * every request: doctors, FAQ items and time slots, plus the approved-doctor and
+ * active-FAQ lists. Caffeine holds the regions in-process through JCache.
+ *
+ * <p>Writes made through JPA update the entity regions and invalidate the cached
+ * query results that touch the same table, so nothing needs evicting by hand on
+ * this node. Other nodes are not told, which is why every region expires after a
+ * while: that TTL is the most another node's copy can be out of date. Rows changed
+ * outside the application can be flushed with POST /api/admin/cache/evict.
+ *
+ * <p>Each region's size and TTL can be set with
+ * app.cache.entities.&lt;region&gt;.max-size and .ttl-seconds, the query results with
+ * app.cache.entities.queries.*.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String DOCTORS = "doctors";
+    public static final String FAQ_ITEMS = "faq-items";
+    public static final String TIME_SLOTS = "time-slots";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${app.cache.entities.doctors.max-size:5000}") long doctorsSize,
+            @Value("${app.cache.entities.doctors.ttl-seconds:600}") long doctorsTtl,
+            @Value("${app.cache.entities.faq-items.max-size:2000}") long faqSize,
+            @Value("${app.cache.entities.faq-items.ttl-seconds:3600}") long faqTtl,
+            @Value("${app.cache.entities.time-slots.max-size:50000}") long slotsSize,
+            @Value("${app.cache.entities.time-slots.ttl-seconds:60}") long slotsTtl,
+            @Value("${app.cache.entities.queries.max-size:500}") long queriesSize,
+            @Value("${app.cache.entities.queries.ttl-seconds:300}") long queriesTtl) {
+        // A provider of our own rather than the JVM-wide one, so each application context gets its own caches
+        CachingProvider provider = new CaffeineCachingProvider();
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+        cacheManager.createCache(DOCTORS, region(doctorsSize, doctorsTtl));
+        cacheManager.createCache(FAQ_ITEMS, region(faqSize, faqTtl));
+        cacheManager.createCache(TIME_SLOTS, region(slotsSize, slotsTtl));
+        // Cached query results (ids only; the entities come from their own regions)
+        cacheManager.createCache("default-query-results-region", region(queriesSize, queriesTtl));
+        // When each table last changed; must outlive every cached query result, so no TTL
+        cacheManager.createCache("default-update-timestamps-region", region(10_000, 0));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            // Every region is created above with its limits; an unknown one is a mapping mistake
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            // Hit/miss counts per region, exported as hibernate.second.level.cache.* metrics
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            properties.put(AvailableSettings.LOG_SESSION_METRICS, false);
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maxSize, long ttlSeconds) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        if (ttlSeconds > 0) {
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        }
+        return configuration;
+    }
+}
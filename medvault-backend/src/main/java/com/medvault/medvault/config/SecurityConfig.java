@@ -1,12 +1,18 @@
 package com.medvault.medvault.config;
 
+import com.medvault.medvault.security.JwtAuthenticationFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -17,18 +23,34 @@ import java.util.List;
 @EnableWebSecurity
 public class SecurityConfig {
 
+    @Autowired
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
                 .cors(cors -> {})
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/access-requests/**").permitAll()
+                        // Job runs and cache evictions need an admin; must come before the permitAll below
+                        .requestMatchers("/api/admin/jobs/**", "/api/admin/cache/**").hasRole("ADMIN")
                         .requestMatchers("/api/admin/**").permitAll()
                         .requestMatchers("/api/doctor/**").permitAll()
                         .requestMatchers("/api/patient/**").permitAll()
                         .requestMatchers("/api/chatbot/**").permitAll()
+                        .requestMatchers("/api/reactive/patient/**", "/api/reactive/chatbot/**").permitAll()
+                        // Metrics for the scraper; set management.server.port to keep them off the public port
+                        // The stream checks the Bearer header or its own short-lived token parameter
+                        .requestMatchers(HttpMethod.GET, "/api/notifications/stream/**").permitAll()
+                        // FAQ content is read by everyone but only admins may change it
+                        .requestMatchers(HttpMethod.POST, "/api/faqs/**").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.PUT, "/api/faqs/**").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.DELETE, "/api/faqs/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/health", "/actuator/prometheus", "/actuator/metrics/**").permitAll()
                         // Swagger UI endpoints
                         .requestMatchers("/swagger-ui/**").permitAll()
                         .requestMatchers("/v3/api-docs/**").permitAll()
@@ -39,6 +61,14 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // The JWT filter only runs inside the security chain, not as a standalone servlet filter
+    @Bean
+    public FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthenticationFilterRegistration() {
+        FilterRegistrationBean<JwtAuthenticationFilter> registration = new FilterRegistrationBean<>(jwtAuthenticationFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
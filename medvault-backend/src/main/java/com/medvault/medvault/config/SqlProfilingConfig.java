@@ -0,0 +1,20 @@
+package com.medvault.medvault.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hooks {@link SqlStatementCounter} into Hibernate. With no scope open it only costs
+ * a ThreadLocal lookup per statement, so it stays on even where the request filter
+ * is switched off, and tests can always count statements.
+ */
+@Configuration
+public class SqlProfilingConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+    }
+}
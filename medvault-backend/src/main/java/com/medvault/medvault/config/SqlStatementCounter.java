@@ -0,0 +1,87 @@
+package com.medvault.medvault.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a
+ * {@link Scope} is open. Hibernate SQL carries bind markers instead of values, so
+ * the same statement showing up many times in one scope is the signature of an
+ * N+1: a per-row findById or a lazy association loaded inside a loop.
+ *
+ * <p>{@link SqlStatementProfilingFilter} opens a scope per HTTP request. Tests can
+ * open their own around the code under test and assert a statement budget:
+ *
+ * <pre>
+ * try (SqlStatementCounter.Scope sql = SqlStatementCounter.open()) {
+ *     mockMvc.perform(get("/api/patient/appointments"));
+ *     assertThat(sql.total()).isLessThanOrEqualTo(3);
+ * }
+ * </pre>
+ *
+ * <p>Scopes nest: a statement counts towards every open scope on the thread, so a
+ * test scope still sees what happens inside the request filter's. Statements run
+ * on other threads (async handlers, the reactive JDBC scheduler) are not counted.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        for (Scope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.record(sql);
+        }
+        return sql;
+    }
+
+    public static Scope open() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final Scope parent;
+        private final Map<String, Integer> counts = new LinkedHashMap<>();
+        private int total;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        private void record(String sql) {
+            total++;
+            counts.merge(sql, 1, Integer::sum);
+        }
+
+        public int total() {
+            return total;
+        }
+
+        /**
+         * Statements run at least {@code threshold} times, with their counts, most
+         * repeated first.
+         */
+        public Map<String, Integer> repeated(int threshold) {
+            Map<String, Integer> repeated = new LinkedHashMap<>();
+            counts.entrySet().stream()
+                    .filter(e -> e.getValue() >= threshold)
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .forEach(e -> repeated.put(e.getKey(), e.getValue()));
+            return repeated;
+        }
+
+        @Override
+        public void close() {
+            if (parent == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(parent);
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.medvault.medvault.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements each request runs and logs the ones that go over
+ * budget or repeat the same statement, which is how N+1 loops show up.
+ *
+ * <p>With app.sql-profiler.expose-headers=true (meant for dev) every response also
+ * carries X-SQL-Statement-Count and X-SQL-Repeated-Statements, the latter being the
+ * number of distinct statements that reached the repeat threshold. The headers are
+ * set just before the response commits, so they cover everything up to the first
+ * flushed byte; the log line covers the whole request.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "app.sql-profiler.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatementProfilingFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementProfilingFilter.class);
+
+    static final String COUNT_HEADER = "X-SQL-Statement-Count";
+    static final String REPEATED_HEADER = "X-SQL-Repeated-Statements";
+
+    private static final int MAX_LOGGED_SQL = 300;
+
+    @Value("${app.sql-profiler.warn-statements:30}")
+    private int warnStatements;
+
+    @Value("${app.sql-profiler.repeat-threshold:5}")
+    private int repeatThreshold;
+
+    @Value("${app.sql-profiler.expose-headers:false}")
+    private boolean exposeHeaders;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+            if (!exposeHeaders) {
+                filterChain.doFilter(request, response);
+            } else {
+                HeaderWritingResponse wrapped = new HeaderWritingResponse(response, scope);
+                filterChain.doFilter(request, wrapped);
+                if (!response.isCommitted()) {
+                    wrapped.writeHeaders();
+                }
+            }
+            report(request, scope);
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlStatementCounter.Scope scope) {
+        Map<String, Integer> repeated = scope.repeated(repeatThreshold);
+        if (scope.total() <= warnStatements && repeated.isEmpty()) {
+            return;
+        }
+        logger.warn("{} {} ran {} SQL statements", request.getMethod(), request.getRequestURI(), scope.total());
+        repeated.forEach((sql, count) -> logger.warn("  {} times: {}", count, abbreviate(sql)));
+    }
+
+    private static String abbreviate(String sql) {
+        return sql.length() <= MAX_LOGGED_SQL ? sql : sql.substring(0, MAX_LOGGED_SQL) + "...";
+    }
+
+    private final class HeaderWritingResponse extends OnCommittedResponseWrapper {
+
+        private final SqlStatementCounter.Scope scope;
+
+        HeaderWritingResponse(HttpServletResponse response, SqlStatementCounter.Scope scope) {
+            super(response);
+            this.scope = scope;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeHeaders();
+            disableOnResponseCommitted();
+        }
+
+        void writeHeaders() {
+            setHeader(COUNT_HEADER, String.valueOf(scope.total()));
+            setHeader(REPEATED_HEADER, String.valueOf(scope.repeated(repeatThreshold).size()));
+        }
+    }
+}
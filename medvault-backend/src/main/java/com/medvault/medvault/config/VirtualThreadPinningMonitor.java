@@ -0,0 +1,111 @@
+package com.medvault.medvault.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Watches for virtual threads that block while pinned to their carrier, typically
+ * JDBC or SMTP I/O inside a synchronized block. It streams the JDK's own
+ * jdk.VirtualThreadPinned JFR event and reports each site by its first application
+ * frame. Every site is logged once with its stack, then only counted.
+ *
+ * <p>Only active when virtual threads are on (Java 21+ and
+ * spring.threads.virtual.enabled=true).
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APP_PACKAGE = "com.medvault.";
+
+    private record Site(LongAdder count, LongAdder totalMicros) {
+    }
+
+    @Value("${app.threads.pinning-threshold-ms:20}")
+    private long thresholdMs;
+
+    private final Map<String, Site> sites = new ConcurrentHashMap<>();
+    private RecordingStream stream;
+
+    @PostConstruct
+    public void start() {
+        try {
+            stream = new RecordingStream();
+            stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+            stream.onEvent(PINNED_EVENT, this::record);
+            stream.startAsync();
+            logger.info("Watching for pinned virtual threads blocked longer than {} ms", thresholdMs);
+        } catch (Exception e) {
+            logger.warn("Could not start virtual thread pinning monitor: {}", e.getMessage());
+        }
+    }
+
+    private void record(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() != null ? event.getStackTrace().getFrames() : List.of();
+        String site = siteOf(frames);
+        Site stats = sites.computeIfAbsent(site, key -> {
+            logger.warn("Virtual thread pinned for {} ms at {}:\n{}", event.getDuration().toMillis(), key,
+                    describe(frames));
+            return new Site(new LongAdder(), new LongAdder());
+        });
+        stats.count().increment();
+        stats.totalMicros().add(event.getDuration().toNanos() / 1000);
+    }
+
+    private static String siteOf(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith(APP_PACKAGE)) {
+                return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+            }
+        }
+        return frames.isEmpty() ? "unknown" : frames.get(0).getMethod().getType().getName()
+                + "." + frames.get(0).getMethod().getName();
+    }
+
+    private static String describe(List<RecordedFrame> frames) {
+        StringBuilder trace = new StringBuilder();
+        for (RecordedFrame frame : frames.subList(0, Math.min(frames.size(), 25))) {
+            trace.append("    at ").append(frame.getMethod().getType().getName()).append('.')
+                    .append(frame.getMethod().getName()).append(':').append(frame.getLineNumber()).append('\n');
+        }
+        return trace.toString();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("thresholdMs", thresholdMs);
+        Map<String, Object> bySite = new LinkedHashMap<>();
+        sites.forEach((site, s) -> bySite.put(site, Map.of(
+                "count", s.count().sum(),
+                "totalMs", s.totalMicros().sum() / 1000)));
+        stats.put("pinnedSites", bySite);
+        return stats;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+}
@@ -1,16 +1,32 @@
 package com.medvault.medvault.controller;
 
+import com.medvault.medvault.config.VirtualThreadPinningMonitor;
 import com.medvault.medvault.dto.UserRegistrationRequest;
+import com.medvault.medvault.event.DoctorProfileChangedEvent;
+import com.medvault.medvault.event.PatientProfileChangedEvent;
 import com.medvault.medvault.model.*;
 import com.medvault.medvault.repository.UserRepository;
 import com.medvault.medvault.repository.DoctorRepository;
 import com.medvault.medvault.repository.PatientRepository;
 import com.medvault.medvault.repository.AccessRequestRepository;
+import com.medvault.medvault.security.JwtService;
+import com.medvault.medvault.service.ChatMessageWriteBuffer;
+import com.medvault.medvault.service.DoctorDirectory;
+import com.medvault.medvault.service.DoctorRatingService;
+import com.medvault.medvault.service.EntityCache;
+import com.medvault.medvault.service.IdentityCache;
+import com.medvault.medvault.service.permission.PermissionExpiryScheduler;
+import com.medvault.medvault.service.search.DoctorSearchIndex;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,6 +58,9 @@ public class AdminController {
     @Autowired
     private PatientRepository patientRepository;
 
+    @Autowired
+    private DoctorRatingService doctorRatingService;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -54,6 +73,36 @@ public class AdminController {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private IdentityCache identityCache;
+
+    @Autowired
+    private DoctorDirectory doctorDirectory;
+
+    @Autowired
+    private DoctorSearchIndex doctorSearchIndex;
+
+    @Autowired
+    private ChatMessageWriteBuffer chatMessageWriteBuffer;
+
+    @Autowired
+    private PermissionExpiryScheduler permissionExpiryScheduler;
+
+    @Autowired
+    private EntityCache entityCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectProvider<VirtualThreadPinningMonitor> pinningMonitor;
+
+    @Autowired
+    private Environment environment;
+
     @GetMapping("/user-stats")
     public ResponseEntity<Map<String, Object>> getUserStats() {
         try {
@@ -162,6 +211,7 @@ public class AdminController {
         }
     }
 
+    @Transactional(readOnly = true)
     @GetMapping("/analytics")
     public ResponseEntity<Map<String, Object>> getAnalytics() {
         try {
@@ -193,6 +243,39 @@ public class AdminController {
         }
     }
 
+    @GetMapping("/cache-stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("identity", identityCache.getStats());
+        stats.put("doctorDirectory", doctorDirectory.getStats());
+        stats.put("doctorSearch", doctorSearchIndex.getStats());
+        stats.put("chatWriteBuffer", chatMessageWriteBuffer.getStats());
+        stats.put("permissionExpiry", permissionExpiryScheduler.getStats());
+        stats.put("entities", entityCache.getStats());
+        return ResponseEntity.ok(stats);
+    }
+
+    // For rows changed outside the application, which the entity cache cannot see
+    @PostMapping("/cache/evict")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> evictEntityCache() {
+        try {
+            entityCache.evictAll();
+            return ResponseEntity.ok(Map.of("message", "Entity cache cleared"));
+        } catch (Exception e) {
+            logger.error("Error clearing entity cache: " + e.getMessage(), e);
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to clear entity cache"));
+        }
+    }
+
+    @GetMapping("/thread-stats")
+    public ResponseEntity<Map<String, Object>> getThreadStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("virtualThreads", Threading.VIRTUAL.isActive(environment));
+        pinningMonitor.ifAvailable(monitor -> stats.put("pinning", monitor.getStats()));
+        return ResponseEntity.ok(stats);
+    }
+
     // User Management APIs
     @GetMapping("/users")
     public ResponseEntity<List<User>> getAllUsers() {
@@ -245,6 +328,9 @@ public class AdminController {
                 return ResponseEntity.notFound().build();
             }
             userRepository.deleteById(id);
+            jwtService.revokeAllForUser(id);
+            eventPublisher.publishEvent(new DoctorProfileChangedEvent(null, id));
+            eventPublisher.publishEvent(new PatientProfileChangedEvent(null, id));
             logger.info("Deleted user with ID: {}", id);
             return ResponseEntity.ok().build();
         } catch (Exception e) {
@@ -293,6 +379,7 @@ public class AdminController {
 
             user.setEnabled(false);
             userRepository.save(user);
+            jwtService.revokeAllForUser(id);
 
             logger.info("Disabled user with ID: {}", id);
             return ResponseEntity.ok(Map.of("message", "User disabled successfully"));
@@ -354,6 +441,8 @@ public class AdminController {
                 doctor.setAdminNotes(requestBody.get("notes"));
             }
             doctorRepository.save(doctor);
+            doctorRatingService.createStats(doctor.getId());
+            eventPublisher.publishEvent(new DoctorProfileChangedEvent(doctor.getId(), doctor.getUserId()));
 
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Doctor approved successfully");
@@ -378,6 +467,7 @@ public class AdminController {
             doctor.setStatus(DoctorStatus.REJECTED);
             doctor.setAdminNotes(requestBody.get("notes"));
             doctorRepository.save(doctor);
+            eventPublisher.publishEvent(new DoctorProfileChangedEvent(doctor.getId(), doctor.getUserId()));
 
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Doctor rejected successfully");
@@ -472,6 +562,7 @@ public class AdminController {
                 patient.setAdminNotes(requestBody.get("notes"));
             }
             patientRepository.save(patient);
+            eventPublisher.publishEvent(new PatientProfileChangedEvent(patient.getId(), patient.getUserId()));
 
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Patient approved successfully");
@@ -496,6 +587,7 @@ public class AdminController {
             patient.setStatus(PatientStatus.REJECTED);
             patient.setAdminNotes(requestBody.get("notes"));
             patientRepository.save(patient);
+            eventPublisher.publishEvent(new PatientProfileChangedEvent(patient.getId(), patient.getUserId()));
 
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Patient rejected successfully");
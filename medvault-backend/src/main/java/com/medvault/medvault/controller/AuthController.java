@@ -7,7 +7,10 @@ import com.medvault.medvault.model.Doctor;
 import com.medvault.medvault.model.Patient;
 import com.medvault.medvault.model.Role;
 import com.medvault.medvault.model.User;
+import com.medvault.medvault.security.JwtAuthenticationFilter;
+import com.medvault.medvault.security.JwtService;
 import com.medvault.medvault.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -28,6 +31,9 @@ public class AuthController {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private JwtService jwtService;
+
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) {
         Optional<User> userOpt = userService.findByUsername(loginRequest.getUsername());
@@ -59,25 +65,34 @@ public class AuthController {
         userInfo.put("firstLogin", user.getFirstLogin());
         userInfo.put("enabled", user.isEnabled());
 
+        // Role-specific ids go into the token so later requests don't have to look them up
+        Long doctorId = null;
+        Long patientId = null;
+
         if (user.getRole() == Role.DOCTOR) {
-            userService.findDoctorByUserId(user.getId()).ifPresent(doctor -> {
+            Optional<Doctor> doctorOpt = userService.findDoctorByUserId(user.getId());
+            if (doctorOpt.isPresent()) {
+                Doctor doctor = doctorOpt.get();
+                doctorId = doctor.getId();
                 userInfo.put("firstName", doctor.getFirstName());
                 userInfo.put("lastName", doctor.getLastName());
                 userInfo.put("specialization", doctor.getSpecialization());
-            });
+            }
         } else if (user.getRole() == Role.PATIENT) {
-            userService.findPatientByUserId(user.getId()).ifPresent(patient -> {
+            Optional<Patient> patientOpt = userService.findPatientByUserId(user.getId());
+            if (patientOpt.isPresent()) {
+                Patient patient = patientOpt.get();
+                patientId = patient.getId();
                 userInfo.put("firstName", patient.getFirstName());
                 userInfo.put("lastName", patient.getLastName());
-            });
+            }
         } else {
             // Admin user
             userInfo.put("firstName", "Admin");
             userInfo.put("lastName", "User");
         }
 
-        // Generate JWT token (replace with real implementation)
-        String token = generateJWTToken(user);
+        String token = jwtService.generateToken(user, doctorId, patientId);
 
         Map<String, Object> response = new HashMap<>();
         response.put("message", "Login successful");
@@ -117,8 +132,12 @@ public class AuthController {
         }
     }
 
-    private String generateJWTToken(User user) {
-
-        return "jwt_token_" + user.getId() + "_" + System.currentTimeMillis();
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(HttpServletRequest request) {
+        String token = JwtAuthenticationFilter.resolveToken(request);
+        if (token != null) {
+            jwtService.revoke(token);
+        }
+        return ResponseEntity.ok(Map.of("message", "Logged out successfully"));
     }
 }
@@ -37,4 +37,16 @@ public class ChatbotController {
         List<ChatMessage> history = chatbotService.getChatHistory(sessionId);
         return ResponseEntity.ok(history);
     }
+
+    @GetMapping("/history/{sessionId}/page")
+    public ResponseEntity<Map<String, Object>> getChatHistoryPage(@PathVariable String sessionId,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(defaultValue = "50") int limit) {
+        try {
+            int pageSize = Math.max(1, Math.min(limit, 200));
+            return ResponseEntity.ok(chatbotService.getChatHistoryPage(sessionId, cursor, pageSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
 }
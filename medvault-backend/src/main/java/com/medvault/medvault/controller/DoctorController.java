@@ -1,20 +1,36 @@
 package com.medvault.medvault.controller;
 
+import com.medvault.medvault.dto.AccessibleRecordDTO;
 import com.medvault.medvault.dto.AppointmentDetailDTO;
+import com.medvault.medvault.dto.DoctorDashboardStatsDTO;
+import com.medvault.medvault.dto.DoctorRatingDTO;
 import com.medvault.medvault.dto.DoctorProfileRequest;
 import com.medvault.medvault.dto.FeedbackDTO;
+import com.medvault.medvault.dto.OpenEmergencyDTO;
+import com.medvault.medvault.dto.PatientRecordDTO;
 import com.medvault.medvault.dto.TimeSlotRequest;
+import com.medvault.medvault.event.AppointmentEvent;
+import com.medvault.medvault.event.DoctorProfileChangedEvent;
 import com.medvault.medvault.model.*;
 import com.medvault.medvault.repository.*;
+import com.medvault.medvault.security.AuthenticatedUser;
 import com.medvault.medvault.service.AppointmentStatusService;
+import com.medvault.medvault.service.DoctorRatingService;
 import com.medvault.medvault.service.EmailService;
+import com.medvault.medvault.service.IdentityCache;
+import com.medvault.medvault.service.ResourceVersions;
+import com.medvault.medvault.service.TimeSlotPlanner;
+import com.medvault.medvault.service.emergency.EmergencyDispatcher;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import org.springframework.core.io.Resource;
@@ -29,7 +45,6 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -81,7 +96,35 @@ public class DoctorController {
     @Autowired
     private RecordPermissionRepository recordPermissionRepository;
 
+    @Autowired
+    private IdentityCache identityCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EmergencyDispatcher emergencyDispatcher;
+
+    @Autowired
+    private TimeSlotPlanner timeSlotPlanner;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Autowired
+    private DoctorRatingService doctorRatingService;
+
+
 
+    /**
+     * Resolves the doctor for a path userId without a lookup query: the id comes from the
+     * caller's token claims when the token belongs to that user, otherwise from the identity cache.
+     */
+    private Optional<Doctor> findDoctor(Long userId) {
+        Optional<Long> doctorId = AuthenticatedUser.doctorIdFor(userId)
+                .or(() -> identityCache.findDoctor(userId).map(IdentityCache.DoctorIdentity::doctorId));
+        return doctorId.map(doctorRepository::getReferenceById);
+    }
 
     @PostConstruct
     public void init() {
@@ -139,6 +182,7 @@ public class DoctorController {
                 doctor.setStatus(DoctorStatus.INACTIVE);
             }
             Doctor savedDoctor = doctorRepository.save(doctor);
+            eventPublisher.publishEvent(new DoctorProfileChangedEvent(savedDoctor.getId(), userId));
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Profile saved successfully");
             response.put("doctor", savedDoctor);
@@ -304,6 +348,7 @@ public class DoctorController {
             }
 
             Doctor savedDoctor = doctorRepository.save(doctor);
+            eventPublisher.publishEvent(new DoctorProfileChangedEvent(savedDoctor.getId(), userId));
             logger.info("Updated doctor status to PENDING for user: {}", userId);
 
             Map<String, Object> response = new HashMap<>();
@@ -346,10 +391,10 @@ public class DoctorController {
     @PostMapping("/slots/{userId}")
     public ResponseEntity<Map<String, Object>> createTimeSlot(@PathVariable Long userId, @RequestBody TimeSlotRequest request) {
         try {
-            Doctor doctor = doctorRepository.findByUserId(userId)
+            Doctor doctor = findDoctor(userId)
                     .orElseThrow(() -> new RuntimeException("Doctor not found with user ID: " + userId));
 
-            if (doctor.getStatus() != DoctorStatus.APPROVED) {
+            if (!identityCache.isApprovedDoctor(userId)) {
                 return ResponseEntity.badRequest().body(Map.of("error", "Your profile must be approved to create slots."));
             }
 
@@ -357,25 +402,7 @@ public class DoctorController {
 
             if (Boolean.TRUE.equals(request.getIsRecurring()) && request.getRecurringDays() != null && !request.getRecurringDays().isEmpty()) {
                 // --- Handle Recurring Slots ---
-                LocalDate startDate = request.getStartTime().toLocalDate();
-                LocalDate endDate = LocalDate.parse(request.getRecurringEndDate());
-                LocalTime time = request.getStartTime().toLocalTime();
-
-                for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-                    String currentDayOfWeek = date.getDayOfWeek().toString(); // e.g., "MONDAY"
-
-                    if (request.getRecurringDays().contains(currentDayOfWeek)) {
-                        TimeSlot slot = new TimeSlot();
-                        slot.setDoctorId(doctor.getId());
-                        slot.setStartTime(date.atTime(time));
-                        slot.setEndTime(date.atTime(time).plusMinutes(request.getDuration()));
-                        slot.setIsAvailable(true);
-                        slot.setDuration(request.getDuration());
-                        slot.setAppointmentType(request.getAppointmentType());
-                        slot.setBufferTime(request.getBufferTime());
-                        slotsToSave.add(slot);
-                    }
-                }
+                slotsToSave.addAll(timeSlotPlanner.expandRecurring(request, doctor.getId()));
                 if (slotsToSave.isEmpty()) {
                     return ResponseEntity.badRequest().body(Map.of("error", "No valid dates found for the selected recurring days in the given date range."));
                 }
@@ -404,14 +431,17 @@ public class DoctorController {
     }
 
     @GetMapping("/slots/{userId}")
-    public ResponseEntity<List<TimeSlot>> getTimeSlots(@PathVariable Long userId) {
+    public ResponseEntity<List<TimeSlot>> getTimeSlots(@PathVariable Long userId, WebRequest webRequest) {
         try {
-            Optional<Doctor> doctorOpt = doctorRepository.findByUserId(userId);
+            Optional<Doctor> doctorOpt = findDoctor(userId);
             if (doctorOpt.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
+            if (webRequest.checkNotModified(resourceVersions.etag(ResourceVersions.slotsOf(doctorOpt.get().getId())))) {
+                return null;
+            }
             List<TimeSlot> slots = timeSlotRepository.findByDoctorId(doctorOpt.get().getId());
-            return ResponseEntity.ok(slots);
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(slots);
         } catch (Exception e) {
             logger.error("Error fetching time slots: " + e.getMessage(), e);
             return ResponseEntity.status(500).build();
@@ -421,7 +451,7 @@ public class DoctorController {
     @GetMapping("/appointments/{userId}")
     public ResponseEntity<List<AppointmentDetailDTO>> getAppointments(@PathVariable Long userId) {
         try {
-            Optional<Doctor> doctorOpt = doctorRepository.findByUserId(userId);
+            Optional<Doctor> doctorOpt = findDoctor(userId);
             if (doctorOpt.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
@@ -469,9 +499,9 @@ public class DoctorController {
 
 
     @GetMapping("/dashboard-stats/{userId}")
-    public ResponseEntity<Map<String, Object>> getDashboardStats(@PathVariable Long userId) {
+    public ResponseEntity<?> getDashboardStats(@PathVariable Long userId) {
         try {
-            Optional<Doctor> doctorOpt = doctorRepository.findByUserId(userId);
+            Optional<Doctor> doctorOpt = findDoctor(userId);
             if (doctorOpt.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
@@ -521,13 +551,8 @@ public class DoctorController {
                 logger.error("Error calculating monthly earnings: {}", e.getMessage());
             }
 
-            Map<String, Object> stats = new HashMap<>();
-            stats.put("todayAppointments", todayAppointments);
-            stats.put("totalPatients", totalPatients);
-            stats.put("pendingReviews", pendingReviews);
-            stats.put("monthlyEarnings", monthlyEarnings);
-
-            return ResponseEntity.ok(stats);
+            return ResponseEntity.ok(new DoctorDashboardStatsDTO(todayAppointments, totalPatients, pendingReviews,
+                    monthlyEarnings));
 
         } catch (Exception e) {
             logger.error("Error fetching dashboard stats for user {}: {}", userId, e.getMessage(), e);
@@ -539,7 +564,7 @@ public class DoctorController {
 
     @GetMapping("/my-patients/{userId}")
     public ResponseEntity<List<Patient>> getMyPatients(@PathVariable Long userId) {
-        Optional<Doctor> doctorOpt = doctorRepository.findByUserId(userId);
+        Optional<Doctor> doctorOpt = findDoctor(userId);
         if (doctorOpt.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
@@ -555,6 +580,7 @@ public class DoctorController {
             Appointment appointment = appointmentOpt.get();
             appointment.setStatus(AppointmentStatus.APPROVED);
             appointmentRepository.save(appointment);
+            eventPublisher.publishEvent(AppointmentEvent.of(AppointmentEvent.Type.APPROVED, appointment));
             timeSlotRepository.findById(appointment.getSlotId()).ifPresent(slot -> {
                 slot.setIsAvailable(false);
                 timeSlotRepository.save(slot);
@@ -585,6 +611,7 @@ public class DoctorController {
             appointment.setStatus(AppointmentStatus.REJECTED);
             appointment.setRejectionReason(reason);
             appointmentRepository.save(appointment);
+            eventPublisher.publishEvent(AppointmentEvent.of(AppointmentEvent.Type.REJECTED, appointment));
 
             // ✨ FIX: Fetch the time slot to get the appointment time for the email
             timeSlotRepository.findById(appointment.getSlotId()).ifPresent(slot -> {
@@ -651,10 +678,11 @@ public class DoctorController {
         }
     }
 
+    @Transactional(readOnly = true)
     @GetMapping("/feedback/{userId}")
     public ResponseEntity<Map<String, Object>> getDoctorFeedback(@PathVariable Long userId) {
         try {
-            Optional<Doctor> doctorOpt = doctorRepository.findByUserId(userId);
+            Optional<Doctor> doctorOpt = findDoctor(userId);
             if (doctorOpt.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
@@ -666,19 +694,13 @@ public class DoctorController {
                     .map(this::convertFeedbackToDTO)
                     .collect(Collectors.toList());
 
-            // Calculate statistics
-            Double averageRating = feedbackRepository.getAverageRatingByDoctor(doctor);
-            Long totalFeedbacks = feedbackRepository.getTotalFeedbackCountByDoctor(doctor);
-
-            // Rating distribution
-            Map<Integer, Long> ratingDistribution = feedbacks.stream()
-                    .collect(Collectors.groupingBy(Feedback::getRating, Collectors.counting()));
+            DoctorRatingDTO rating = doctorRatingService.getRating(doctor.getId());
 
             Map<String, Object> response = new HashMap<>();
             response.put("feedbacks", feedbackDTOs);
-            response.put("averageRating", averageRating != null ? Math.round(averageRating * 10.0) / 10.0 : 0.0);
-            response.put("totalFeedbacks", totalFeedbacks);
-            response.put("ratingDistribution", ratingDistribution);
+            response.put("averageRating", rating.averageRating());
+            response.put("totalFeedbacks", rating.totalRatings());
+            response.put("ratingDistribution", rating.ratingDistribution());
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -710,8 +732,7 @@ public class DoctorController {
     public ResponseEntity<Map<String, Object>> triggerCompletionCheck(@PathVariable Long userId) {
         try {
             // Verify doctor exists and is approved (security check)
-            Optional<Doctor> doctorOpt = doctorRepository.findByUserId(userId);
-            if (doctorOpt.isEmpty() || doctorOpt.get().getStatus() != DoctorStatus.APPROVED) {
+            if (!identityCache.isApprovedDoctor(userId)) {
                 return ResponseEntity.badRequest().body(Map.of("error", "Unauthorized"));
             }
 
@@ -731,7 +752,7 @@ public class DoctorController {
     @PostMapping("/cleanup-expired-slots/{userId}")
     public ResponseEntity<Map<String, Object>> cleanupExpiredSlots(@PathVariable Long userId) {
         try {
-            Optional<Doctor> doctorOpt = doctorRepository.findByUserId(userId);
+            Optional<Doctor> doctorOpt = findDoctor(userId);
             if (doctorOpt.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
@@ -772,36 +793,25 @@ public class DoctorController {
                                                                           @RequestBody Map<String, String> requestBody) {
         try {
             // Validate doctor
-            Optional<Doctor> doctorOpt = doctorRepository.findByUserId(doctorUserId);
-            if (doctorOpt.isEmpty() || doctorOpt.get().getStatus() != DoctorStatus.APPROVED) {
+            Optional<Doctor> doctorOpt = findDoctor(doctorUserId);
+            if (doctorOpt.isEmpty() || !identityCache.isApprovedDoctor(doctorUserId)) {
                 return ResponseEntity.badRequest().body(Map.of("error", "Doctor not authorized"));
             }
 
             Doctor doctor = doctorOpt.get();
+            String proposedTime = requestBody.get("proposedTime"); // Expected format: "2024-01-20T14:30:00"
 
-            // Validate emergency appointment
-            Optional<Appointment> appointmentOpt = appointmentRepository.findById(appointmentId);
-            if (appointmentOpt.isEmpty() || !Boolean.TRUE.equals(appointmentOpt.get().getIsEmergency())) {
+            // Atomic claim: only one of several doctors accepting at once gets CLAIMED
+            EmergencyDispatcher.ClaimResult result = emergencyDispatcher.claim(appointmentId, doctor, proposedTime);
+            if (result == EmergencyDispatcher.ClaimResult.NOT_FOUND) {
                 return ResponseEntity.badRequest().body(Map.of("error", "Emergency appointment not found"));
             }
-
-            Appointment appointment = appointmentOpt.get();
-
-            // Check if already accepted by another doctor
-            if (appointment.getDoctor() != null) {
+            if (result == EmergencyDispatcher.ClaimResult.ALREADY_CLAIMED) {
                 return ResponseEntity.badRequest().body(Map.of("error", "Emergency already accepted by another doctor"));
             }
 
-            // Accept the emergency
-            appointment.setDoctor(doctor);
-            appointment.setStatus(AppointmentStatus.APPROVED);
-
-            String proposedTime = requestBody.get("proposedTime"); // Expected format: "2024-01-20T14:30:00"
-            if (proposedTime != null) {
-                appointment.setPatientNotes(appointment.getPatientNotes() + " | Proposed Time: " + proposedTime);
-            }
-
-            appointmentRepository.save(appointment);
+            Appointment appointment = appointmentRepository.findByIdWithPatient(appointmentId).orElseThrow();
+            eventPublisher.publishEvent(AppointmentEvent.of(AppointmentEvent.Type.EMERGENCY_ACCEPTED, appointment));
 
             // Send confirmation to patient
             emailService.sendEmergencyAcceptanceNotification(
@@ -825,25 +835,18 @@ public class DoctorController {
     }
 
     @GetMapping("/emergency-requests/{doctorUserId}")
-    public ResponseEntity<List<Map<String, Object>>> getEmergencyRequests(@PathVariable Long doctorUserId) {
+    public ResponseEntity<List<OpenEmergencyDTO>> getEmergencyRequests(@PathVariable Long doctorUserId) {
         try {
-            Optional<Doctor> doctorOpt = doctorRepository.findByUserId(doctorUserId);
+            Optional<Doctor> doctorOpt = findDoctor(doctorUserId);
             if (doctorOpt.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
 
-            List<Appointment> emergencyRequests = appointmentRepository.findByIsEmergencyTrueAndDoctorIsNullAndStatus(AppointmentStatus.PENDING);
-
-            List<Map<String, Object>> result = emergencyRequests.stream().map(appointment -> {
-                Map<String, Object> emergencyInfo = new HashMap<>();
-                emergencyInfo.put("id", appointment.getId());
-                emergencyInfo.put("patientName", appointment.getPatient().getFirstName() + " " + appointment.getPatient().getLastName());
-                emergencyInfo.put("urgencyLevel", appointment.getUrgencyLevel());
-                emergencyInfo.put("symptoms", appointment.getPatientNotes());
-                emergencyInfo.put("contactNumber", appointment.getPatient().getContactNumber());
-                emergencyInfo.put("createdAt", appointment.getCreatedAt());
-                return emergencyInfo;
-            }).collect(Collectors.toList());
+            // Served from the dispatcher's queue, most urgent first, minus anything
+            // another instance has claimed since its last resync
+            List<OpenEmergencyDTO> result = emergencyDispatcher.unclaimedEmergencies().stream()
+                    .map(OpenEmergencyDTO::of)
+                    .toList();
 
             return ResponseEntity.ok(result);
 
@@ -862,7 +865,7 @@ public class DoctorController {
     public ResponseEntity<Resource> downloadMedicalRecord(@PathVariable Long doctorUserId, @PathVariable Long recordId) {
         try {
             // Validate doctor
-            Optional<Doctor> doctorOpt = doctorRepository.findByUserId(doctorUserId);
+            Optional<Doctor> doctorOpt = findDoctor(doctorUserId);
             if (doctorOpt.isEmpty()) {
                 logger.error("Doctor not found for user ID: {}", doctorUserId);
                 return ResponseEntity.notFound().build();
@@ -922,10 +925,11 @@ public class DoctorController {
     }
 
 
+    @Transactional(readOnly = true)
     @GetMapping("/accessible-records/{userId}")
-    public ResponseEntity<List<Map<String, Object>>> getAccessibleRecords(@PathVariable Long userId) {
+    public ResponseEntity<List<AccessibleRecordDTO>> getAccessibleRecords(@PathVariable Long userId) {
         try {
-            Optional<Doctor> doctorOpt = doctorRepository.findByUserId(userId);
+            Optional<Doctor> doctorOpt = findDoctor(userId);
             if (doctorOpt.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
@@ -936,36 +940,17 @@ public class DoctorController {
             List<RecordPermission> permissions = recordPermissionRepository
                     .findByDoctorAndIsGrantedTrue(doctor);
 
-            List<Map<String, Object>> recordDTOs = permissions.stream()
+            List<AccessibleRecordDTO> recordDTOs = permissions.stream()
                     .collect(Collectors.toMap(
                             permission -> permission.getMedicalRecord().getId(), // Use record ID as key
-                            permission -> {
-                                MedicalRecord record = permission.getMedicalRecord();
-                                Map<String, Object> dto = new HashMap<>();
-                                dto.put("id", record.getId());
-                                dto.put("recordType", record.getRecordType());
-                                dto.put("title", record.getTitle());
-                                dto.put("description", record.getDescription());
-                                dto.put("uploadedAt", record.getUploadedAt());
-                                dto.put("patientName", record.getPatient().getFirstName() + " " + record.getPatient().getLastName());
-                                dto.put("patientId", record.getPatient().getId());
-                                dto.put("permissionType", permission.getPermissionType());
-                                dto.put("grantedAt", permission.getGrantedAt());
-                                dto.put("canWrite", permission.getPermissionType().equals("WRITE") ||
-                                        permission.getPermissionType().equals("FULL_ACCESS"));
-                                dto.put("filePath", record.getFilePath());
-                                return dto;
-                            },
-                            (existing, replacement) -> {
-                                // In case of duplicates, keep the most recent one
-                                LocalDateTime existingDate = (LocalDateTime) existing.get("grantedAt");
-                                LocalDateTime replacementDate = (LocalDateTime) replacement.get("grantedAt");
-                                return replacementDate.isAfter(existingDate) ? replacement : existing;
-                            }
+                            AccessibleRecordDTO::of,
+                            // In case of duplicates, keep the most recent one
+                            (existing, replacement) -> replacement.grantedAt().isAfter(existing.grantedAt())
+                                    ? replacement : existing
                     ))
                     .values()
                     .stream()
-                    .collect(Collectors.toList());
+                    .toList();
 
             return ResponseEntity.ok(recordDTOs);
 
@@ -975,11 +960,12 @@ public class DoctorController {
         }
     }
 
+    @Transactional(readOnly = true)
     @GetMapping("/patient-records/{doctorUserId}/{patientId}")
-    public ResponseEntity<List<Map<String, Object>>> getPatientRecords(@PathVariable Long doctorUserId, @PathVariable Long patientId) {
+    public ResponseEntity<List<PatientRecordDTO>> getPatientRecords(@PathVariable Long doctorUserId, @PathVariable Long patientId) {
         try {
             // Get doctor by user ID
-            Optional<Doctor> doctorOpt = doctorRepository.findByUserId(doctorUserId);
+            Optional<Doctor> doctorOpt = findDoctor(doctorUserId);
             if (doctorOpt.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
@@ -998,7 +984,7 @@ public class DoctorController {
                     .findActivePermissionsByPatientAndDoctor(patient, doctor, now);
 
             // ✅ FIXED: Filter out invalid permissions and handle lazy loading safely
-            List<Map<String, Object>> accessibleRecords = permissions.stream()
+            List<PatientRecordDTO> accessibleRecords = permissions.stream()
                     .filter(permission -> {
                         try {
                             // ✅ NEW: Validate that medical record exists and is not null
@@ -1009,118 +995,21 @@ public class DoctorController {
                             return false;
                         }
                     })
+                    .map(permission -> toPatientRecord(permission, patient, now))
+                    .filter(Objects::nonNull)
                     .collect(Collectors.toMap(
-                            permission -> permission.getMedicalRecord().getId(),
-                            permission -> {
-                                try {
-                                    MedicalRecord record = permission.getMedicalRecord();
-
-                                    Map<String, Object> recordData = new HashMap<>();
-                                    recordData.put("id", record.getId());
-                                    recordData.put("title", record.getTitle() != null ? record.getTitle() : "Untitled Record");
-                                    recordData.put("description", record.getDescription());
-                                    recordData.put("recordType", record.getRecordType() != null ? record.getRecordType() : "OTHER");
-                                    recordData.put("uploadedAt", record.getUploadedAt());
-                                    recordData.put("updatedAt", record.getUpdatedAt());
-
-                                    // ✅ NEW: Add enhanced medical record fields with null safety
-                                    recordData.put("bloodGroup", record.getBloodGroup());
-                                    recordData.put("bloodPressure", record.getBloodPressure());
-                                    recordData.put("heartRate", record.getHeartRate());
-                                    recordData.put("temperature", record.getTemperature());
-                                    recordData.put("weight", record.getWeight());
-                                    recordData.put("diagnosisCondition", record.getDiagnosisCondition());
-                                    recordData.put("medication", record.getMedication());
-
-                                    // ✅ Permission details
-                                    recordData.put("permissionType", permission.getPermissionType());
-                                    recordData.put("grantedAt", permission.getGrantedAt());
-                                    recordData.put("expiresAt", permission.getExpiresAt());
-                                    recordData.put("sharedFields", permission.getSharedFields());
-                                    recordData.put("accessDurationHours", permission.getAccessDurationHours());
-
-                                    // ✅ Calculate remaining time
-                                    if (permission.getExpiresAt() != null) {
-                                        try {
-                                            long hoursRemaining = java.time.Duration.between(now, permission.getExpiresAt()).toHours();
-                                            long minutesRemaining = java.time.Duration.between(now, permission.getExpiresAt()).toMinutes();
-                                            recordData.put("hoursRemaining", Math.max(0, hoursRemaining));
-                                            recordData.put("minutesRemaining", Math.max(0, minutesRemaining));
-                                            recordData.put("isExpiringSoon", hoursRemaining <= 2);
-                                            recordData.put("isExpired", hoursRemaining <= 0);
-                                        } catch (Exception e) {
-                                            logger.warn("Error calculating time remaining: {}", e.getMessage());
-                                            recordData.put("hoursRemaining", -1);
-                                            recordData.put("minutesRemaining", -1);
-                                            recordData.put("isExpiringSoon", false);
-                                            recordData.put("isExpired", false);
-                                        }
-                                    } else {
-                                        recordData.put("hoursRemaining", -1); // No expiry
-                                        recordData.put("minutesRemaining", -1);
-                                        recordData.put("isExpiringSoon", false);
-                                        recordData.put("isExpired", false);
-                                    }
-
-                                    recordData.put("filePath", record.getFilePath());
-                                    recordData.put("patientName", patient.getFirstName() + " " + patient.getLastName());
-                                    recordData.put("patientId", patient.getId());
-
-                                    // ✅ Safe uploader info
-                                    recordData.put("uploadedBy", "Patient: " + patient.getFirstName() + " " + patient.getLastName());
-
-                                    // ✅ NEW: Add granular sharing info
-                                    if (permission.getSharedFields() != null && !permission.getSharedFields().isEmpty()) {
-                                        recordData.put("isGranularSharing", true);
-                                        recordData.put("sharedFieldsList", List.of(permission.getSharedFields().split(",")));
-                                    } else {
-                                        recordData.put("isGranularSharing", false);
-                                        recordData.put("sharedFieldsList", List.of("all"));
-                                    }
-
-                                    return recordData;
-
-                                } catch (Exception e) {
-                                    logger.error("Error processing medical record for permission {}: {}",
-                                            permission.getId(), e.getMessage());
-                                    // Return minimal safe data
-                                    Map<String, Object> errorRecord = new HashMap<>();
-                                    errorRecord.put("id", permission.getId());
-                                    errorRecord.put("title", "Error Loading Record");
-                                    errorRecord.put("recordType", "ERROR");
-                                    errorRecord.put("error", true);
-                                    return errorRecord;
-                                }
-                            },
-                            (existing, replacement) -> {
-                                // In case of duplicates, keep the most recent one
-                                try {
-                                    LocalDateTime existingDate = (LocalDateTime) existing.get("grantedAt");
-                                    LocalDateTime replacementDate = (LocalDateTime) replacement.get("grantedAt");
-                                    return (existingDate != null && replacementDate != null && replacementDate.isAfter(existingDate))
-                                            ? replacement : existing;
-                                } catch (Exception e) {
-                                    return replacement; // Default to replacement if comparison fails
-                                }
-                            }
+                            PatientRecordDTO::id,
+                            record -> record,
+                            // In case of duplicates, keep the most recent one
+                            (existing, replacement) -> existing.grantedAt() != null && replacement.grantedAt() != null
+                                    && replacement.grantedAt().isAfter(existing.grantedAt()) ? replacement : existing
                     ))
                     .values()
                     .stream()
-                    .filter(record -> !Boolean.TRUE.equals(record.get("error"))) // Filter out error records
-                    .sorted((a, b) -> {
-                        // Sort by granted date, most recent first
-                        try {
-                            LocalDateTime dateA = (LocalDateTime) a.get("grantedAt");
-                            LocalDateTime dateB = (LocalDateTime) b.get("grantedAt");
-                            if (dateA == null && dateB == null) return 0;
-                            if (dateA == null) return 1;
-                            if (dateB == null) return -1;
-                            return dateB.compareTo(dateA);
-                        } catch (Exception e) {
-                            return 0; // Keep original order if comparison fails
-                        }
-                    })
-                    .collect(Collectors.toList());
+                    // Most recently granted first
+                    .sorted(Comparator.comparing(PatientRecordDTO::grantedAt,
+                            Comparator.nullsLast(Comparator.reverseOrder())))
+                    .toList();
 
             return ResponseEntity.ok(accessibleRecords);
         } catch (Exception e) {
@@ -1129,12 +1018,22 @@ public class DoctorController {
         }
     }
 
+    // Null when the record cannot be read; it is left out of the list rather than failing the whole page
+    private PatientRecordDTO toPatientRecord(RecordPermission permission, Patient patient, LocalDateTime now) {
+        try {
+            return PatientRecordDTO.of(permission, patient, now);
+        } catch (Exception e) {
+            logger.error("Error processing medical record for permission {}: {}", permission.getId(), e.getMessage());
+            return null;
+        }
+    }
+
     // ✅ ADD THIS METHOD to your DoctorController class
     @GetMapping("/view-record/{doctorUserId}/{recordId}")
     public ResponseEntity<Resource> viewMedicalRecord(@PathVariable Long doctorUserId, @PathVariable Long recordId) {
         try {
             // Validate doctor
-            Optional<Doctor> doctorOpt = doctorRepository.findByUserId(doctorUserId);
+            Optional<Doctor> doctorOpt = findDoctor(doctorUserId);
             if (doctorOpt.isEmpty()) {
                 logger.error("Doctor not found for user ID: {}", doctorUserId);
                 return ResponseEntity.status(403).build(); // Forbidden instead of 404
@@ -0,0 +1,97 @@
+package com.medvault.medvault.controller;
+
+import com.medvault.medvault.event.FaqChangedEvent;
+import com.medvault.medvault.model.FAQItem;
+import com.medvault.medvault.repository.FAQRepository;
+import com.medvault.medvault.service.ResourceVersions;
+import com.medvault.medvault.service.faq.FaqSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/faqs")
+
+public class FaqController {
+
+    private static final Logger logger = LoggerFactory.getLogger(FaqController.class);
+
+    @Autowired
+    private FAQRepository faqRepository;
+
+    @Autowired
+    private FaqSearchIndex faqSearchIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @GetMapping
+    public ResponseEntity<List<FAQItem>> getActiveFaqs(WebRequest webRequest) {
+        if (webRequest.checkNotModified(resourceVersions.etag(ResourceVersions.FAQS))) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache())
+                .body(faqRepository.findByIsActiveTrueOrderByPriorityDesc());
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<FaqSearchIndex.Hit>> searchFaqs(@RequestParam("q") String query,
+                                                               @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(faqSearchIndex.search(query, Math.max(1, Math.min(limit, 50))));
+    }
+
+    @PostMapping
+    public ResponseEntity<?> createFaq(@RequestBody FAQItem faq) {
+        try {
+            faq.setId(null);
+            FAQItem saved = faqRepository.save(faq);
+            eventPublisher.publishEvent(new FaqChangedEvent(saved.getId()));
+            return ResponseEntity.ok(saved);
+        } catch (Exception e) {
+            logger.error("Error creating FAQ: {}", e.getMessage());
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to create FAQ"));
+        }
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<?> updateFaq(@PathVariable Long id, @RequestBody FAQItem faq) {
+        try {
+            if (!faqRepository.existsById(id)) {
+                return ResponseEntity.notFound().build();
+            }
+            faq.setId(id);
+            FAQItem saved = faqRepository.save(faq);
+            eventPublisher.publishEvent(new FaqChangedEvent(id));
+            return ResponseEntity.ok(saved);
+        } catch (Exception e) {
+            logger.error("Error updating FAQ {}: {}", id, e.getMessage());
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to update FAQ"));
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> deleteFaq(@PathVariable Long id) {
+        try {
+            if (!faqRepository.existsById(id)) {
+                return ResponseEntity.notFound().build();
+            }
+            faqRepository.deleteById(id);
+            eventPublisher.publishEvent(new FaqChangedEvent(id));
+            return ResponseEntity.ok(Map.of("message", "FAQ deleted"));
+        } catch (Exception e) {
+            logger.error("Error deleting FAQ {}: {}", id, e.getMessage());
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to delete FAQ"));
+        }
+    }
+}
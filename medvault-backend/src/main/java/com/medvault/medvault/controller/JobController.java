@@ -0,0 +1,40 @@
+package com.medvault.medvault.controller;
+
+import com.medvault.medvault.service.jobs.JobOrchestrator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/jobs")
+public class JobController {
+
+    @Autowired
+    private JobOrchestrator jobOrchestrator;
+
+    @GetMapping
+    public ResponseEntity<List<JobOrchestrator.JobStatus>> getJobs() {
+        return ResponseEntity.ok(jobOrchestrator.statuses());
+    }
+
+    @GetMapping("/{name}")
+    public ResponseEntity<JobOrchestrator.JobStatus> getJob(@PathVariable String name) {
+        return jobOrchestrator.status(name)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/{name}/run")
+    public ResponseEntity<Map<String, Object>> runJob(@PathVariable String name) {
+        return switch (jobOrchestrator.trigger(name)) {
+            case STARTED -> ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of("message", "Job " + name + " started"));
+            case ALREADY_RUNNING -> ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Job " + name + " is already running"));
+            case NOT_FOUND -> ResponseEntity.notFound().build();
+        };
+    }
+}
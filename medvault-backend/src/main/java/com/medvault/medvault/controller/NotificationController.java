@@ -0,0 +1,75 @@
+package com.medvault.medvault.controller;
+
+import com.medvault.medvault.event.AppointmentEvent;
+import com.medvault.medvault.security.AuthenticatedUser;
+import com.medvault.medvault.security.JwtService;
+import com.medvault.medvault.service.IdentityCache;
+import com.medvault.medvault.service.notification.NotificationHub;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/notifications")
+public class NotificationController {
+
+    @Autowired
+    private NotificationHub notificationHub;
+
+    @Autowired
+    private IdentityCache identityCache;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Value("${app.notifications.stream-token-ttl-ms:60000}")
+    private long streamTokenTtlMs;
+
+    /**
+     * Server-sent event stream of the user's appointment updates. Approved doctors
+     * also receive every new and accepted emergency request. Only the user themselves
+     * may subscribe: with a Bearer header, or, from a browser EventSource (which cannot
+     * set headers), with a token from POST /stream-token in the token parameter.
+     */
+    @GetMapping(value = "/stream/{userId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<AppointmentEvent>>> stream(@PathVariable Long userId,
+                                                                          @RequestParam(required = false) String token) {
+        Optional<Long> caller = AuthenticatedUser.current().map(AuthenticatedUser::getUserId)
+                .or(() -> jwtService.verifyStreamToken(token));
+        if (caller.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (!caller.get().equals(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(notificationHub.subscribe(userId, identityCache.isApprovedDoctor(userId)));
+    }
+
+    /**
+     * Short-lived token for opening the stream from EventSource. It is checked once, on
+     * connect; EventSource's automatic reconnect reuses the old URL, so on an error the
+     * client should fetch a new token and open a new EventSource.
+     */
+    @PostMapping("/stream-token")
+    public ResponseEntity<Map<String, Object>> streamToken() {
+        return AuthenticatedUser.current()
+                .map(user -> ResponseEntity.ok(Map.<String, Object>of(
+                        "token", jwtService.generateStreamToken(user, Duration.ofMillis(streamTokenTtlMs)),
+                        "expiresInMs", streamTokenTtlMs)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(notificationHub.getStats());
+    }
+}
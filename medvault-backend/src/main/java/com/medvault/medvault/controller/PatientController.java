@@ -1,14 +1,29 @@
 package com.medvault.medvault.controller;
 
 import com.medvault.medvault.dto.*;
+import com.medvault.medvault.event.AppointmentEvent;
+import com.medvault.medvault.event.PatientProfileChangedEvent;
+import com.medvault.medvault.event.RecordPermissionChangedEvent;
 import com.medvault.medvault.model.*;
 import com.medvault.medvault.repository.*;
+import com.medvault.medvault.security.AuthenticatedUser;
+import com.medvault.medvault.service.AppointmentQueryService;
+import com.medvault.medvault.service.DoctorRatingService;
+import com.medvault.medvault.service.IdentityCache;
 import com.medvault.medvault.service.RecordPermissionService;
+import com.medvault.medvault.service.ResourceVersions;
+import com.medvault.medvault.service.metrics.BusinessMetrics;
+import com.medvault.medvault.service.search.DoctorSearchIndex;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,6 +37,7 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -83,6 +99,36 @@ public class PatientController {
     @Autowired
     private FeedbackRepository feedbackRepository;
 
+    @Autowired
+    private IdentityCache identityCache;
+
+    @Autowired
+    private AppointmentQueryService appointmentQueryService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Autowired
+    private DoctorRatingService doctorRatingService;
+
+    @Autowired
+    private DoctorSearchIndex doctorSearchIndex;
+
+    /**
+     * Resolves the patient for a path userId without a lookup query: the id comes from the
+     * caller's token claims when the token belongs to that user, otherwise from the identity cache.
+     */
+    private Optional<Patient> findPatient(Long userId) {
+        Optional<Long> patientId = AuthenticatedUser.patientIdFor(userId)
+                .or(() -> identityCache.findPatient(userId).map(IdentityCache.PatientIdentity::patientId));
+        return patientId.map(patientRepository::getReferenceById);
+    }
 
     @PostConstruct
     public void init() {
@@ -133,6 +179,7 @@ public class PatientController {
             patient.setProfileComplete(true);
 
             Patient savedPatient = patientRepository.save(patient);
+            eventPublisher.publishEvent(new PatientProfileChangedEvent(savedPatient.getId(), userId));
 
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Profile saved successfully");
@@ -196,6 +243,7 @@ public class PatientController {
             patient.setDocumentUploaded(true);
             patient.setStatus(PatientStatus.PENDING);
             patientRepository.save(patient);
+            eventPublisher.publishEvent(new PatientProfileChangedEvent(patient.getId(), userId));
 
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Document uploaded successfully. Awaiting admin approval.");
@@ -210,21 +258,71 @@ public class PatientController {
     }
 
     @GetMapping("/doctors/approved")
-    public ResponseEntity<List<Doctor>> getApprovedDoctors() {
+    public ResponseEntity<List<Doctor>> getApprovedDoctors(WebRequest webRequest) {
         try {
+            if (webRequest.checkNotModified(resourceVersions.etag(ResourceVersions.APPROVED_DOCTORS))) {
+                return null;
+            }
             List<Doctor> approvedDoctors = doctorRepository.findByStatus(DoctorStatus.APPROVED);
-            return ResponseEntity.ok(approvedDoctors);
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(approvedDoctors);
         } catch (Exception e) {
             logger.error("Error fetching approved doctors: " + e.getMessage(), e);
             return ResponseEntity.status(500).build();
         }
     }
 
+    // Rating summaries for the doctor directory, keyed by doctor id
+    @GetMapping("/doctors/approved/ratings")
+    public ResponseEntity<Map<Long, DoctorRatingDTO>> getApprovedDoctorRatings() {
+        try {
+            List<Long> doctorIds = doctorRepository.findByStatus(DoctorStatus.APPROVED).stream()
+                    .map(Doctor::getId)
+                    .toList();
+            return ResponseEntity.ok(doctorRatingService.getRatings(doctorIds));
+        } catch (Exception e) {
+            logger.error("Error fetching doctor ratings: " + e.getMessage(), e);
+            return ResponseEntity.status(500).build();
+        }
+    }
+
+    // Doctor discovery: filters, facet counts and one sorted page, answered from memory
+    @GetMapping("/doctors/search")
+    public ResponseEntity<?> searchDoctors(@RequestParam(required = false) String specialization,
+                                           @RequestParam(required = false) String language,
+                                           @RequestParam(required = false) Double minFees,
+                                           @RequestParam(required = false) Double maxFees,
+                                           @RequestParam(required = false) Integer minExperience,
+                                           @RequestParam(required = false) Double minRating,
+                                           @RequestParam(required = false)
+                                           @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime availableBefore,
+                                           @RequestParam(defaultValue = "rating") String sort,
+                                           @RequestParam(defaultValue = "0") int page,
+                                           @RequestParam(defaultValue = "20") int size) {
+        DoctorSearchIndex.SortOrder order;
+        try {
+            order = DoctorSearchIndex.SortOrder.valueOf(sort.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown sort: " + sort));
+        }
+        try {
+            DoctorSearchIndex.Criteria criteria = new DoctorSearchIndex.Criteria(specialization, language,
+                    minFees, maxFees, minExperience, minRating, availableBefore);
+            int pageSize = Math.max(1, Math.min(size, 100));
+            return ResponseEntity.ok(doctorSearchIndex.search(criteria, order, Math.max(0, page), pageSize));
+        } catch (Exception e) {
+            logger.error("Error searching doctors: " + e.getMessage(), e);
+            return ResponseEntity.status(500).build();
+        }
+    }
+
     @GetMapping("/doctors/{doctorId}/available-slots")
-    public ResponseEntity<List<TimeSlot>> getAvailableSlots(@PathVariable Long doctorId) {
+    public ResponseEntity<List<TimeSlot>> getAvailableSlots(@PathVariable Long doctorId, WebRequest webRequest) {
         try {
+            if (webRequest.checkNotModified(resourceVersions.etag(ResourceVersions.slotsOf(doctorId)))) {
+                return null;
+            }
             List<TimeSlot> availableSlots = timeSlotRepository.findByDoctorIdAndIsAvailableTrue(doctorId);
-            return ResponseEntity.ok(availableSlots);
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(availableSlots);
         } catch (Exception e) {
             logger.error("Error fetching available slots: " + e.getMessage(), e);
             return ResponseEntity.status(500).build();
@@ -236,12 +334,27 @@ public class PatientController {
     @Transactional
     public ResponseEntity<Map<String, Object>> bookAppointment(@PathVariable Long patientId,
                                                                @RequestBody AppointmentRequest request) {
+        Timer.Sample sample = businessMetrics.start();
+        ResponseEntity<Map<String, Object>> response = attemptBooking(patientId, request);
+        if (response.getStatusCode().is2xxSuccessful()) {
+            businessMetrics.bookingFinished(sample, "booked", "none");
+        } else if (response.getStatusCode().is4xxClientError()) {
+            // The action sent back to the client doubles as the rejection reason
+            Object action = response.getBody() != null ? response.getBody().get("action") : null;
+            businessMetrics.bookingFinished(sample, "rejected", action != null ? action.toString() : "none");
+        } else {
+            businessMetrics.bookingFinished(sample, "error", "none");
+        }
+        return response;
+    }
+
+    private ResponseEntity<Map<String, Object>> attemptBooking(Long patientId, AppointmentRequest request) {
         try {
             logger.info("Booking attempt - Patient ID: {}, Doctor ID: {}, Slot ID: {}",
                     patientId, request.getDoctorId(), request.getSlotId());
 
             // 1. Validate Patient
-            Optional<Patient> patientOpt = patientRepository.findByUserId(patientId);
+            Optional<Patient> patientOpt = findPatient(patientId);
             if (patientOpt.isEmpty()) {
                 return ResponseEntity.badRequest().body(Map.of(
                         "error", "Patient profile not found. Please complete your profile first.",
@@ -250,10 +363,13 @@ public class PatientController {
             }
 
             Patient patient = patientOpt.get();
-            if (patient.getStatus() != PatientStatus.APPROVED) {
+            PatientStatus patientStatus = identityCache.findPatient(patientId)
+                    .map(IdentityCache.PatientIdentity::status)
+                    .orElse(null);
+            if (patientStatus != PatientStatus.APPROVED) {
                 return ResponseEntity.badRequest().body(Map.of(
                         "error", "Your account is pending approval. Please wait for admin approval.",
-                        "status", patient.getStatus().toString(),
+                        "status", String.valueOf(patientStatus),
                         "action", "WAIT_APPROVAL"
                 ));
             }
@@ -280,6 +396,7 @@ public class PatientController {
 
             // 4. Check if slot is still available
             if (!slot.getIsAvailable()) {
+                businessMetrics.slotConflict();
                 return ResponseEntity.badRequest().body(Map.of(
                         "error", "This time slot is no longer available",
                         "action", "SELECT_DIFFERENT_SLOT"
@@ -297,6 +414,7 @@ public class PatientController {
             // 6. Check for duplicate booking
             List<Appointment> existingAppointments = appointmentRepository.findBySlotId(request.getSlotId());
             if (!existingAppointments.isEmpty()) {
+                businessMetrics.slotConflict();
                 return ResponseEntity.badRequest().body(Map.of(
                         "error", "This slot has already been booked by another patient",
                         "action", "SELECT_DIFFERENT_SLOT"
@@ -316,6 +434,7 @@ public class PatientController {
             // 8. Mark slot as booked
             slot.setIsAvailable(false);
             timeSlotRepository.save(slot);
+            eventPublisher.publishEvent(AppointmentEvent.of(AppointmentEvent.Type.BOOKED, savedAppointment));
 
             // 9. ✨ Send email notification to doctor
             Doctor doctor = doctorOpt.get();
@@ -374,15 +493,11 @@ public class PatientController {
 
 
     @GetMapping("/dashboard-stats/{userId}")
-    public ResponseEntity<Map<String, Object>> getDashboardStats(@PathVariable Long userId) {
+    public ResponseEntity<?> getDashboardStats(@PathVariable Long userId) {
         try {
-            Optional<Patient> patientOpt = patientRepository.findByUserId(userId);
+            Optional<Patient> patientOpt = findPatient(userId);
             if (patientOpt.isEmpty()) {
-                Map<String, Object> emptyResponse = new HashMap<>();
-                emptyResponse.put("nextAppointment", null);
-                emptyResponse.put("completedVisits", 0);
-                emptyResponse.put("activePrescriptions", 0);
-                return ResponseEntity.ok(emptyResponse);
+                return ResponseEntity.ok(PatientDashboardStatsDTO.EMPTY);
             }
 
             Patient patient = patientOpt.get();
@@ -407,12 +522,8 @@ public class PatientController {
             long completedVisits = appointmentRepository.countByPatientAndStatus(patient, AppointmentStatus.COMPLETED);
             long activePrescriptions = 0;
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("nextAppointment", nextAppointment != null ? convertToDTO(nextAppointment) : null);
-            response.put("completedVisits", completedVisits);
-            response.put("activePrescriptions", activePrescriptions);
-
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(new PatientDashboardStatsDTO(
+                    nextAppointment != null ? convertToDTO(nextAppointment) : null, completedVisits, activePrescriptions));
         } catch (Exception e) {
             logger.error("Error fetching dashboard stats: " + e.getMessage(), e);
             return ResponseEntity.status(500).body(Map.of("error", "Failed to fetch dashboard stats"));
@@ -424,31 +535,25 @@ public class PatientController {
     @GetMapping("/appointments/{userId}")
     public ResponseEntity<List<AppointmentDTO>> getPatientAppointments(@PathVariable Long userId) {
         try {
-            Optional<Patient> patientOpt = patientRepository.findByUserId(userId);
+            Optional<Patient> patientOpt = findPatient(userId);
             if (patientOpt.isEmpty()) {
                 return ResponseEntity.ok(List.of());
             }
 
-            List<Appointment> appointments = appointmentRepository
-                    .findByPatientOrderByCreatedAtDesc(patientOpt.get());
-
-            List<AppointmentDTO> appointmentDTOs = appointments.stream()
-                    .map(this::convertToDTO) // Use the helper method
-                    .collect(Collectors.toList());
-
-            return ResponseEntity.ok(appointmentDTOs);
+            return ResponseEntity.ok(appointmentQueryService.findPatientAppointments(patientOpt.get().getId()));
         } catch (Exception e) {
             logger.error("Error fetching patient appointments: " + e.getMessage(), e);
             return ResponseEntity.status(500).build();
         }
     }
 
+    @Transactional
     @PostMapping("/feedback/{userId}")
     public ResponseEntity<Map<String, Object>> submitFeedback(@PathVariable Long userId,
                                                               @RequestBody FeedbackRequest request) {
         try {
             // Validate patient
-            Optional<Patient> patientOpt = patientRepository.findByUserId(userId);
+            Optional<Patient> patientOpt = findPatient(userId);
             if (patientOpt.isEmpty()) {
                 return ResponseEntity.badRequest().body(Map.of("error", "Patient not found"));
             }
@@ -495,6 +600,7 @@ public class PatientController {
             feedback.setFeedbackDate(LocalDateTime.now());
 
             feedbackRepository.save(feedback);
+            doctorRatingService.recordRating(appointment.getDoctor().getId(), request.getRating());
 
             return ResponseEntity.ok(Map.of("message", "Feedback submitted successfully"));
 
@@ -507,7 +613,7 @@ public class PatientController {
     @GetMapping("/my-feedback/{userId}")
     public ResponseEntity<List<FeedbackDTO>> getMyFeedback(@PathVariable Long userId) {
         try {
-            Optional<Patient> patientOpt = patientRepository.findByUserId(userId);
+            Optional<Patient> patientOpt = findPatient(userId);
             if (patientOpt.isEmpty()) {
                 return ResponseEntity.ok(List.of());
             }
@@ -550,7 +656,7 @@ public class PatientController {
     @Transactional
     public ResponseEntity<Map<String, Object>> createEmergencyRequest(@PathVariable Long userId, @RequestBody EmergencyRequest request) {
         try {
-            Optional<Patient> patientOpt = patientRepository.findByUserId(userId);
+            Optional<Patient> patientOpt = findPatient(userId);
             if (patientOpt.isEmpty()) {
                 return ResponseEntity.badRequest().body(Map.of("error", "Patient not found"));
             }
@@ -570,6 +676,7 @@ public class PatientController {
             appointment.setUpdatedAt(LocalDateTime.now());
 
             Appointment savedAppointment = appointmentRepository.save(appointment);
+            eventPublisher.publishEvent(AppointmentEvent.of(AppointmentEvent.Type.EMERGENCY_CREATED, savedAppointment));
 
             return ResponseEntity.ok(Map.of(
                     "message", "Emergency request submitted successfully",
@@ -593,7 +700,7 @@ public class PatientController {
                                                                    @RequestParam(value = "description", required = false) String description) {
         try {
             // Validate patient
-            Optional<Patient> patientOpt = patientRepository.findByUserId(userId);
+            Optional<Patient> patientOpt = findPatient(userId);
             if (patientOpt.isEmpty()) {
                 return ResponseEntity.badRequest().body(Map.of("error", "Patient not found"));
             }
@@ -634,10 +741,11 @@ public class PatientController {
         }
     }
 
+    @Transactional(readOnly = true)
     @GetMapping("/medical-records/{userId}")
-    public ResponseEntity<List<Map<String, Object>>> getMedicalRecords(@PathVariable Long userId) {
+    public ResponseEntity<List<MedicalRecordDTO>> getMedicalRecords(@PathVariable Long userId) {
         try {
-            Optional<Patient> patientOpt = patientRepository.findByUserId(userId);
+            Optional<Patient> patientOpt = findPatient(userId);
             if (patientOpt.isEmpty()) {
                 return ResponseEntity.ok(List.of());
             }
@@ -645,63 +753,15 @@ public class PatientController {
             List<MedicalRecord> records = medicalRecordRepository
                     .findByPatientOrderByUploadedAtDesc(patientOpt.get());
 
-            List<Map<String, Object>> recordDTOs = records.stream().map(record -> {
-                Map<String, Object> dto = new HashMap<>();
-                dto.put("id", record.getId());
-                dto.put("recordType", record.getRecordType());
-                dto.put("title", record.getTitle());
-                dto.put("description", record.getDescription());
-                dto.put("uploadedAt", record.getUploadedAt());
-                dto.put("updatedAt", record.getUpdatedAt());
-
-                // ✅ Enhanced fields
-                dto.put("bloodGroup", record.getBloodGroup());
-                dto.put("bloodPressure", record.getBloodPressure());
-                dto.put("heartRate", record.getHeartRate());
-                dto.put("temperature", record.getTemperature());
-                dto.put("weight", record.getWeight());
-                dto.put("diagnosisCondition", record.getDiagnosisCondition());
-                dto.put("medication", record.getMedication());
-
-                // ✅ FIXED: Permission mapping with ID field
-                List<RecordPermission> permissions = recordPermissionRepository.findAll().stream()
-                        .filter(p -> p.getMedicalRecord().getId().equals(record.getId()) && p.getIsGranted())
-                        .collect(Collectors.toList());
-
-                dto.put("sharedWithDoctors", permissions.size());
-                dto.put("permissions", permissions.stream().map(p -> {
-                    Map<String, Object> permMap = new HashMap<>();
-
-                    // ✅ CRITICAL: Add the permission ID field (this was missing!)
-                    permMap.put("id", p.getId());
-                    permMap.put("permissionId", p.getId());  // Alternative field name
-                    permMap.put("doctorId", p.getDoctor().getId());
-                    permMap.put("doctorName", "Dr. " + p.getDoctor().getFirstName() + " " + p.getDoctor().getLastName());
-                    permMap.put("permissionType", p.getPermissionType());
-                    permMap.put("grantedAt", p.getGrantedAt());
-                    permMap.put("expiresAt", p.getExpiresAt());
-                    permMap.put("sharedFields", p.getSharedFields());
-
-                    // ✅ Calculate time remaining
-                    if (p.getExpiresAt() != null) {
-                        try {
-                            long hoursRemaining = java.time.Duration.between(LocalDateTime.now(), p.getExpiresAt()).toHours();
-                            permMap.put("hoursRemaining", Math.max(0, hoursRemaining));
-                        } catch (Exception e) {
-                            permMap.put("hoursRemaining", -1);
-                        }
-                    } else {
-                        permMap.put("hoursRemaining", -1); // No expiry
-                    }
-
-                    // ✅ DEBUG: Log what we're sending to frontend
-                    logger.info("Sending permission: id={}, doctorName={}", p.getId(), permMap.get("doctorName"));
-
-                    return permMap;
-                }).collect(Collectors.toList()));
+            // One query for who each record is shared with, instead of scanning every permission per record
+            Map<Long, List<RecordPermission>> grantedByRecord = recordPermissionRepository
+                    .findGrantedOnRecordsOfPatient(patientOpt.get()).stream()
+                    .collect(Collectors.groupingBy(p -> p.getMedicalRecord().getId()));
 
-                return dto;
-            }).collect(Collectors.toList());
+            LocalDateTime now = LocalDateTime.now();
+            List<MedicalRecordDTO> recordDTOs = records.stream()
+                    .map(record -> MedicalRecordDTO.of(record, grantedByRecord.getOrDefault(record.getId(), List.of()), now))
+                    .toList();
 
             return ResponseEntity.ok(recordDTOs);
         } catch (Exception e) {
@@ -718,7 +778,7 @@ public class PatientController {
                                                                      @RequestBody Map<String, Object> request) {
         try {
             // Validate patient
-            Optional<Patient> patientOpt = patientRepository.findByUserId(userId);
+            Optional<Patient> patientOpt = findPatient(userId);
             if (patientOpt.isEmpty()) {
                 return ResponseEntity.badRequest().body(Map.of("error", "Patient not found"));
             }
@@ -767,6 +827,8 @@ public class PatientController {
             }
 
             recordPermissionRepository.save(permission);
+            eventPublisher.publishEvent(new RecordPermissionChangedEvent(permission.getId(), permission.getExpiresAt()));
+            businessMetrics.permissionChanged("granted", "manual", 1);
 
             // Send email notification to doctor
             emailService.sendRecordAccessGrantedNotification(
@@ -795,7 +857,7 @@ public class PatientController {
     public ResponseEntity<Map<String, Object>> revokeRecordPermission(@PathVariable Long userId,
                                                                       @RequestBody Map<String, Object> request) {
         try {
-            Optional<Patient> patientOpt = patientRepository.findByUserId(userId);
+            Optional<Patient> patientOpt = findPatient(userId);
             if (patientOpt.isEmpty()) {
                 return ResponseEntity.badRequest().body(Map.of("error", "Patient not found"));
             }
@@ -812,6 +874,8 @@ public class PatientController {
             permission.setIsGranted(false);
             permission.setRevokedAt(LocalDateTime.now());
             recordPermissionRepository.save(permission);
+            eventPublisher.publishEvent(new RecordPermissionChangedEvent(permission.getId(), null));
+            businessMetrics.permissionChanged("revoked", "manual", 1);
 
             // Send email notification to doctor
             emailService.sendRecordAccessRevokedNotification(
@@ -845,7 +909,7 @@ public class PatientController {
     public ResponseEntity<Map<String, Object>> grantGranularPermission(@PathVariable Long userId,
                                                                        @RequestBody Map<String, Object> request) {
         try {
-            Optional<Patient> patientOpt = patientRepository.findByUserId(userId);
+            Optional<Patient> patientOpt = findPatient(userId);
             if (patientOpt.isEmpty()) {
                 return ResponseEntity.badRequest().body(Map.of("error", "Patient not found"));
             }
@@ -856,6 +920,7 @@ public class PatientController {
             String permissionType = request.get("permissionType").toString();
 
             // ✅ NEW: Granular field sharing
+            @SuppressWarnings("unchecked")
             List<String> sharedFields = (List<String>) request.get("sharedFields"); // e.g., ["bloodGroup", "bloodPressure"]
 
             // ✅ NEW: Custom time duration (default 24 hours)
@@ -1046,6 +1111,7 @@ public class PatientController {
             // Save all changes
             appointmentRepository.save(appointment);
             timeSlotRepository.save(newSlot);
+            eventPublisher.publishEvent(AppointmentEvent.of(AppointmentEvent.Type.RESCHEDULED, appointment));
 
             logger.info("Appointment {} successfully rescheduled to slot {}", appointmentId, newSlotId);
 
@@ -1121,7 +1187,7 @@ public class PatientController {
                                                                            @RequestParam(value = "diagnosisCondition", required = false) String diagnosisCondition,
                                                                            @RequestParam(value = "medication", required = false) String medication) {
         try {
-            Optional<Patient> patientOpt = patientRepository.findByUserId(userId);
+            Optional<Patient> patientOpt = findPatient(userId);
             if (patientOpt.isEmpty()) {
                 return ResponseEntity.badRequest().body(Map.of("error", "Patient not found"));
             }
@@ -1180,7 +1246,7 @@ public class PatientController {
                                                                  @PathVariable Long recordId,
                                                                  @RequestBody Map<String, Object> updateData) {
         try {
-            Optional<Patient> patientOpt = patientRepository.findByUserId(userId);
+            Optional<Patient> patientOpt = findPatient(userId);
             if (patientOpt.isEmpty()) {
                 return ResponseEntity.badRequest().body(Map.of("error", "Patient not found"));
             }
@@ -1233,7 +1299,7 @@ public class PatientController {
     public ResponseEntity<Map<String, Object>> deleteMedicalRecord(@PathVariable Long userId,
                                                                    @PathVariable Long recordId) {
         try {
-            Optional<Patient> patientOpt = patientRepository.findByUserId(userId);
+            Optional<Patient> patientOpt = findPatient(userId);
             if (patientOpt.isEmpty()) {
                 return ResponseEntity.badRequest().body(Map.of("error", "Patient not found"));
             }
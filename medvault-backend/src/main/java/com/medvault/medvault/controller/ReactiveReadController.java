@@ -0,0 +1,113 @@
+package com.medvault.medvault.controller;
+
+import com.medvault.medvault.config.ReadYourWritesTracker;
+import com.medvault.medvault.dto.AppointmentDTO;
+import com.medvault.medvault.model.ChatMessage;
+import com.medvault.medvault.model.Doctor;
+import com.medvault.medvault.model.DoctorStatus;
+import com.medvault.medvault.model.TimeSlot;
+import com.medvault.medvault.repository.DoctorRepository;
+import com.medvault.medvault.repository.TimeSlotRepository;
+import com.medvault.medvault.security.AuthenticatedUser;
+import com.medvault.medvault.service.AppointmentQueryService;
+import com.medvault.medvault.service.ChatbotService;
+import com.medvault.medvault.service.IdentityCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Non-blocking versions of the hottest read endpoints, same payloads as their MVC
+ * counterparts under /api/patient and /api/chatbot. The request thread goes back to
+ * the container straight away; the JPA work runs on the JDBC scheduler and the
+ * response is written when it completes.
+ *
+ * <p>A timeout or a full scheduler queue answers 503 so clients back off. Anything
+ * that reads the security context has to happen before the hop to the scheduler,
+ * since the context is bound to the request thread; the read-your-writes caller is
+ * carried across.
+ */
+@RestController
+@RequestMapping("/api/reactive")
+public class ReactiveReadController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveReadController.class);
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private TimeSlotRepository timeSlotRepository;
+
+    @Autowired
+    private AppointmentQueryService appointmentQueryService;
+
+    @Autowired
+    private ChatbotService chatbotService;
+
+    @Autowired
+    private IdentityCache identityCache;
+
+    @Autowired
+    private Scheduler jdbcScheduler;
+
+    @Value("${app.reactive.read-timeout-ms:10000}")
+    private long readTimeoutMs;
+
+    @GetMapping("/patient/doctors/approved")
+    public Mono<ResponseEntity<List<Doctor>>> getApprovedDoctors() {
+        return read("approved doctors", () -> doctorRepository.findByStatus(DoctorStatus.APPROVED));
+    }
+
+    @GetMapping("/patient/doctors/{doctorId}/available-slots")
+    public Mono<ResponseEntity<List<TimeSlot>>> getAvailableSlots(@PathVariable Long doctorId) {
+        return read("available slots", () -> timeSlotRepository.findByDoctorIdAndIsAvailableTrue(doctorId));
+    }
+
+    @GetMapping("/patient/appointments/{userId}")
+    public Mono<ResponseEntity<List<AppointmentDTO>>> getPatientAppointments(@PathVariable Long userId) {
+        Optional<Long> tokenPatientId = AuthenticatedUser.patientIdFor(userId);
+        return read("patient appointments", () -> tokenPatientId
+                .or(() -> identityCache.findPatient(userId).map(IdentityCache.PatientIdentity::patientId))
+                .map(appointmentQueryService::findPatientAppointments)
+                .orElse(List.of()));
+    }
+
+    @GetMapping("/chatbot/history/{sessionId}")
+    public Mono<ResponseEntity<List<ChatMessage>>> getChatHistory(@PathVariable String sessionId) {
+        return read("chat history", () -> chatbotService.getChatHistory(sessionId));
+    }
+
+    private <T> Mono<ResponseEntity<T>> read(String what, Callable<T> query) {
+        // Taken here so a caller who just wrote still reads from the primary
+        String caller = ReadYourWritesTracker.currentCaller();
+        return Mono.fromCallable(() -> ReadYourWritesTracker.runAs(caller, query))
+                .subscribeOn(jdbcScheduler)
+                .timeout(Duration.ofMillis(readTimeoutMs))
+                .map(ResponseEntity::ok)
+                .onErrorResume(e -> {
+                    if (e instanceof TimeoutException || e instanceof RejectedExecutionException) {
+                        logger.warn("Could not fetch {} in time: {}", what, e.toString());
+                        return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).<T>build());
+                    }
+                    logger.error("Error fetching {}: {}", what, e.getMessage(), e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).<T>build());
+                });
+    }
+}
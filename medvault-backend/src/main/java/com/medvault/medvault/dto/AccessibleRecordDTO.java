@@ -0,0 +1,25 @@
+package com.medvault.medvault.dto;
+
+import com.medvault.medvault.model.MedicalRecord;
+import com.medvault.medvault.model.RecordPermission;
+
+import java.time.LocalDateTime;
+
+/**
+ * A record shared with the doctor, as listed on their accessible-records page.
+ */
+public record AccessibleRecordDTO(Long id, String recordType, String title, String description,
+                                  LocalDateTime uploadedAt, String patientName, Long patientId,
+                                  String permissionType, LocalDateTime grantedAt, boolean canWrite,
+                                  String filePath) {
+
+    public static AccessibleRecordDTO of(RecordPermission permission) {
+        MedicalRecord record = permission.getMedicalRecord();
+        return new AccessibleRecordDTO(record.getId(), record.getRecordType(), record.getTitle(),
+                record.getDescription(), record.getUploadedAt(),
+                record.getPatient().getFirstName() + " " + record.getPatient().getLastName(),
+                record.getPatient().getId(), permission.getPermissionType(), permission.getGrantedAt(),
+                permission.getPermissionType().equals("WRITE") || permission.getPermissionType().equals("FULL_ACCESS"),
+                record.getFilePath());
+    }
+}
@@ -0,0 +1,5 @@
+package com.medvault.medvault.dto;
+
+public record DoctorDashboardStatsDTO(long todayAppointments, long totalPatients, long pendingReviews,
+                                      double monthlyEarnings) {
+}
@@ -0,0 +1,25 @@
+package com.medvault.medvault.dto;
+
+import com.medvault.medvault.model.DoctorRatingStats;
+
+import java.util.Map;
+
+/**
+ * A doctor's rating summary. averageRating is rounded to one decimal, 0.0 without
+ * ratings; ratingDistribution always has the keys 1 to 5.
+ */
+public record DoctorRatingDTO(Long doctorId, double averageRating, long totalRatings,
+                              Map<Integer, Long> ratingDistribution) {
+
+    public static DoctorRatingDTO of(DoctorRatingStats stats) {
+        long count = stats.getRatingCount();
+        double average = count == 0 ? 0.0 : Math.round(stats.getRatingSum() * 10.0 / count) / 10.0;
+        return new DoctorRatingDTO(stats.getDoctorId(), average, count, Map.of(
+                1, stats.getStars1(), 2, stats.getStars2(), 3, stats.getStars3(),
+                4, stats.getStars4(), 5, stats.getStars5()));
+    }
+
+    public static DoctorRatingDTO none(Long doctorId) {
+        return of(new DoctorRatingStats(doctorId));
+    }
+}
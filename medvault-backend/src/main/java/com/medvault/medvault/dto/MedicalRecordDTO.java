@@ -0,0 +1,29 @@
+package com.medvault.medvault.dto;
+
+import com.medvault.medvault.model.MedicalRecord;
+import com.medvault.medvault.model.RecordPermission;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A record in the patient's own list, with the doctors it is currently shared with.
+ */
+public record MedicalRecordDTO(Long id, String recordType, String title, String description,
+                               LocalDateTime uploadedAt, LocalDateTime updatedAt,
+                               String bloodGroup, String bloodPressure, Integer heartRate, Double temperature,
+                               Double weight, String diagnosisCondition, String medication,
+                               int sharedWithDoctors, List<RecordShareDTO> permissions) {
+
+    /**
+     * granted must be the granted permissions on this record only.
+     */
+    public static MedicalRecordDTO of(MedicalRecord record, List<RecordPermission> granted, LocalDateTime now) {
+        List<RecordShareDTO> shares = granted.stream().map(p -> RecordShareDTO.of(p, now)).toList();
+        return new MedicalRecordDTO(record.getId(), record.getRecordType(), record.getTitle(),
+                record.getDescription(), record.getUploadedAt(), record.getUpdatedAt(),
+                record.getBloodGroup(), record.getBloodPressure(), record.getHeartRate(), record.getTemperature(),
+                record.getWeight(), record.getDiagnosisCondition(), record.getMedication(),
+                shares.size(), shares);
+    }
+}
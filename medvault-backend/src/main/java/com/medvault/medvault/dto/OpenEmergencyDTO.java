@@ -0,0 +1,17 @@
+package com.medvault.medvault.dto;
+
+import com.medvault.medvault.service.emergency.EmergencyDispatcher;
+
+import java.time.LocalDateTime;
+
+/**
+ * An unclaimed emergency in the doctors' queue; id is the appointment id.
+ */
+public record OpenEmergencyDTO(Long id, String patientName, String urgencyLevel, String symptoms,
+                               String contactNumber, LocalDateTime createdAt, int escalationLevel) {
+
+    public static OpenEmergencyDTO of(EmergencyDispatcher.OpenEmergency emergency) {
+        return new OpenEmergencyDTO(emergency.appointmentId(), emergency.patientName(), emergency.urgencyLevel(),
+                emergency.symptoms(), emergency.contactNumber(), emergency.createdAt(), emergency.escalationLevel());
+    }
+}
@@ -0,0 +1,10 @@
+package com.medvault.medvault.dto;
+
+/**
+ * nextAppointment is null when nothing approved is coming up.
+ */
+public record PatientDashboardStatsDTO(AppointmentDTO nextAppointment, long completedVisits,
+                                       long activePrescriptions) {
+
+    public static final PatientDashboardStatsDTO EMPTY = new PatientDashboardStatsDTO(null, 0, 0);
+}
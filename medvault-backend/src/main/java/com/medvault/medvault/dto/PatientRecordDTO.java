@@ -0,0 +1,62 @@
+package com.medvault.medvault.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.medvault.medvault.model.MedicalRecord;
+import com.medvault.medvault.model.Patient;
+import com.medvault.medvault.model.RecordPermission;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A patient's record as the doctor it is shared with sees it: the record, the terms
+ * of the share and how long it has left. The remaining-time fields are -1/false when
+ * the share does not expire.
+ */
+public record PatientRecordDTO(Long id, String title, String description, String recordType,
+                               LocalDateTime uploadedAt, LocalDateTime updatedAt,
+                               String bloodGroup, String bloodPressure, Integer heartRate, Double temperature,
+                               Double weight, String diagnosisCondition, String medication,
+                               String permissionType, LocalDateTime grantedAt, LocalDateTime expiresAt,
+                               String sharedFields, Integer accessDurationHours,
+                               long hoursRemaining, long minutesRemaining,
+                               @JsonProperty("isExpiringSoon") boolean isExpiringSoon,
+                               @JsonProperty("isExpired") boolean isExpired,
+                               String filePath, String patientName, Long patientId, String uploadedBy,
+                               @JsonProperty("isGranularSharing") boolean isGranularSharing,
+                               List<String> sharedFieldsList) {
+
+    public static PatientRecordDTO of(RecordPermission permission, Patient patient, LocalDateTime now) {
+        MedicalRecord record = permission.getMedicalRecord();
+
+        long hoursRemaining = -1;
+        long minutesRemaining = -1;
+        boolean expiringSoon = false;
+        boolean expired = false;
+        if (permission.getExpiresAt() != null) {
+            Duration remaining = Duration.between(now, permission.getExpiresAt());
+            hoursRemaining = Math.max(0, remaining.toHours());
+            minutesRemaining = Math.max(0, remaining.toMinutes());
+            expiringSoon = remaining.toHours() <= 2;
+            expired = remaining.toHours() <= 0;
+        }
+
+        String sharedFields = permission.getSharedFields();
+        boolean granular = sharedFields != null && !sharedFields.isEmpty();
+        String patientName = patient.getFirstName() + " " + patient.getLastName();
+
+        return new PatientRecordDTO(record.getId(),
+                record.getTitle() != null ? record.getTitle() : "Untitled Record",
+                record.getDescription(),
+                record.getRecordType() != null ? record.getRecordType() : "OTHER",
+                record.getUploadedAt(), record.getUpdatedAt(),
+                record.getBloodGroup(), record.getBloodPressure(), record.getHeartRate(), record.getTemperature(),
+                record.getWeight(), record.getDiagnosisCondition(), record.getMedication(),
+                permission.getPermissionType(), permission.getGrantedAt(), permission.getExpiresAt(),
+                sharedFields, permission.getAccessDurationHours(),
+                hoursRemaining, minutesRemaining, expiringSoon, expired,
+                record.getFilePath(), patientName, patient.getId(), "Patient: " + patientName,
+                granular, granular ? List.of(sharedFields.split(",")) : List.of("all"));
+    }
+}
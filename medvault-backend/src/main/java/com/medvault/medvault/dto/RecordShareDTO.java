@@ -0,0 +1,25 @@
+package com.medvault.medvault.dto;
+
+import com.medvault.medvault.model.RecordPermission;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * One doctor a patient's record is shared with. id and permissionId are the same
+ * value; the frontend reads either. hoursRemaining is -1 when the share never expires.
+ */
+public record RecordShareDTO(Long id, Long permissionId, Long doctorId, String doctorName,
+                             String permissionType, LocalDateTime grantedAt, LocalDateTime expiresAt,
+                             String sharedFields, long hoursRemaining) {
+
+    public static RecordShareDTO of(RecordPermission permission, LocalDateTime now) {
+        long hoursRemaining = permission.getExpiresAt() == null
+                ? -1
+                : Math.max(0, Duration.between(now, permission.getExpiresAt()).toHours());
+        return new RecordShareDTO(permission.getId(), permission.getId(), permission.getDoctor().getId(),
+                "Dr. " + permission.getDoctor().getFirstName() + " " + permission.getDoctor().getLastName(),
+                permission.getPermissionType(), permission.getGrantedAt(), permission.getExpiresAt(),
+                permission.getSharedFields(), hoursRemaining);
+    }
+}
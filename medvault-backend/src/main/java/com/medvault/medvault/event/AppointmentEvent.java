@@ -0,0 +1,32 @@
+package com.medvault.medvault.event;
+
+import com.medvault.medvault.model.Appointment;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when an appointment is booked, decided, rescheduled, or when an
+ * emergency request is raised or taken. Pushed to connected clients by the
+ * notification stream.
+ */
+public record AppointmentEvent(Type type, Long appointmentId, Long doctorUserId, Long patientUserId,
+                               String urgencyLevel, LocalDateTime occurredAt) {
+
+    public enum Type {
+        BOOKED, APPROVED, REJECTED, RESCHEDULED, EMERGENCY_CREATED, EMERGENCY_ACCEPTED, EMERGENCY_ESCALATED;
+
+        /**
+         * Emergency events go to every connected doctor, not just the assigned one.
+         */
+        public boolean broadcastToDoctors() {
+            return this == EMERGENCY_CREATED || this == EMERGENCY_ACCEPTED || this == EMERGENCY_ESCALATED;
+        }
+    }
+
+    public static AppointmentEvent of(Type type, Appointment appointment) {
+        return new AppointmentEvent(type, appointment.getId(),
+                appointment.getDoctor() != null ? appointment.getDoctor().getUserId() : null,
+                appointment.getPatient() != null ? appointment.getPatient().getUserId() : null,
+                appointment.getUrgencyLevel(), LocalDateTime.now());
+    }
+}
@@ -0,0 +1,8 @@
+package com.medvault.medvault.event;
+
+/**
+ * Published whenever a doctor's profile or approval status changes.
+ * Either id may be null when only the other one is known.
+ */
+public record DoctorProfileChangedEvent(Long doctorId, Long userId) {
+}
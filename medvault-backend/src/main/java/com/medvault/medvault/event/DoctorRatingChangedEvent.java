@@ -0,0 +1,7 @@
+package com.medvault.medvault.event;
+
+/**
+ * Published when a new rating is counted in a doctor's rating summary.
+ */
+public record DoctorRatingChangedEvent(Long doctorId) {
+}
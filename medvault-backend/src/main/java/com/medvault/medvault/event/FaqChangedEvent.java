@@ -0,0 +1,7 @@
+package com.medvault.medvault.event;
+
+/**
+ * Published whenever an FAQ item is created, edited or deleted.
+ */
+public record FaqChangedEvent(Long faqId) {
+}
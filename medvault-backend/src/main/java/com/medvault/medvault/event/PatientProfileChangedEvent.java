@@ -0,0 +1,8 @@
+package com.medvault.medvault.event;
+
+/**
+ * Published whenever a patient's profile or approval status changes.
+ * Either id may be null when only the other one is known.
+ */
+public record PatientProfileChangedEvent(Long patientId, Long userId) {
+}
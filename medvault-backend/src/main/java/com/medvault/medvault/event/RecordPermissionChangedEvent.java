@@ -0,0 +1,10 @@
+package com.medvault.medvault.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a record permission is granted or revoked. expiresAt is null when
+ * the permission is revoked or has no expiry.
+ */
+public record RecordPermissionChangedEvent(Long permissionId, LocalDateTime expiresAt) {
+}
@@ -0,0 +1,10 @@
+package com.medvault.medvault.event;
+
+import java.util.Set;
+
+/**
+ * Published after a transaction that created, changed or deleted time slots commits,
+ * once per transaction, with the doctors whose slots were touched.
+ */
+public record TimeSlotsChangedEvent(Set<Long> doctorIds) {
+}
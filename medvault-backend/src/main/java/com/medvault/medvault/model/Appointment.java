@@ -27,7 +27,8 @@ public class Appointment {
     @JsonBackReference("doctor-appointments") // Prevents loop from doctor
     private Doctor doctor;
 
-    @Column(name = "slot_id", nullable = false)
+    // Null for emergency requests, which are not tied to a slot
+    @Column(name = "slot_id")
     private Long slotId;
 
     @Column(name = "patient_notes", columnDefinition = "TEXT")
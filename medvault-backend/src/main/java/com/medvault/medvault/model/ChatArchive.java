@@ -0,0 +1,45 @@
+package com.medvault.medvault.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.ToString;
+import java.time.LocalDateTime;
+
+/**
+ * One archived chat session: its messages as gzip-compressed JSON, moved out of
+ * chat_messages by the retention job.
+ */
+@Entity
+@Data
+@Table(name = "chat_archives", indexes = {
+        @Index(name = "idx_chat_archives_session", columnList = "session_id"),
+        @Index(name = "idx_chat_archives_patient", columnList = "patient_id")
+})
+public class ChatArchive {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "session_id", nullable = false)
+    private String sessionId;
+
+    @Column(name = "patient_id")
+    private Long patientId;
+
+    @Column(name = "message_count", nullable = false)
+    private Integer messageCount;
+
+    @Column(name = "first_message_at")
+    private LocalDateTime firstMessageAt;
+
+    @Column(name = "last_message_at")
+    private LocalDateTime lastMessageAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    @Lob
+    @Column(name = "payload", nullable = false, columnDefinition = "LONGBLOB")
+    @ToString.Exclude
+    private byte[] payload;
+}
@@ -6,7 +6,10 @@ import java.time.LocalDateTime;
 
 @Entity
 @Data
-@Table(name = "chat_messages")
+@Table(name = "chat_messages", indexes = {
+        @Index(name = "idx_chat_messages_session_created", columnList = "session_id, created_at"),
+        @Index(name = "idx_chat_messages_patient_created", columnList = "patient_id, created_at")
+})
 public class ChatMessage {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,62 @@
+package com.medvault.medvault.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Running totals of the ratings a doctor has received: how many, their sum and how
+ * many of each star value. Only ever incremented, through
+ * DoctorRatingStatsRepository.addRating, in the transaction that saves the feedback.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "doctor_rating_stats")
+public class DoctorRatingStats implements Persistable<Long> {
+    @Id
+    @Column(name = "doctor_id")
+    private Long doctorId;
+
+    @Column(name = "rating_count", nullable = false)
+    private Long ratingCount = 0L;
+
+    @Column(name = "rating_sum", nullable = false)
+    private Long ratingSum = 0L;
+
+    @Column(name = "stars_1", nullable = false)
+    private Long stars1 = 0L;
+
+    @Column(name = "stars_2", nullable = false)
+    private Long stars2 = 0L;
+
+    @Column(name = "stars_3", nullable = false)
+    private Long stars3 = 0L;
+
+    @Column(name = "stars_4", nullable = false)
+    private Long stars4 = 0L;
+
+    @Column(name = "stars_5", nullable = false)
+    private Long stars5 = 0L;
+
+    // Set on rows built here, so saving one inserts it. A merge would first look the
+    // row up and could write these zeros over counts another request just added.
+    @Transient
+    private boolean created;
+
+    public DoctorRatingStats(Long doctorId) {
+        this.doctorId = doctorId;
+        this.created = true;
+    }
+
+    @Override
+    public Long getId() {
+        return doctorId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return created;
+    }
+}
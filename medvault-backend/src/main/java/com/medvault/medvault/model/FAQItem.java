@@ -3,8 +3,14 @@ package com.medvault.medvault.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import com.medvault.medvault.service.ResourceVersionListener;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@EntityListeners(ResourceVersionListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "faq-items")
 @Data
 @Table(name = "faq_items")
 public class FAQItem {
@@ -0,0 +1,28 @@
+package com.medvault.medvault.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Lease on a cluster-wide job. Only read and written through JobLock with plain
+ * SQL; mapped here so the table is created with the rest of the schema. Times are
+ * UTC.
+ */
+@Entity
+@Data
+@Table(name = "scheduler_locks")
+public class SchedulerLock {
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "locked_at", nullable = false)
+    private LocalDateTime lockedAt;
+
+    @Column(name = "locked_by", nullable = false)
+    private String lockedBy;
+}
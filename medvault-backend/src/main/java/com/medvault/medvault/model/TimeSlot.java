@@ -3,8 +3,15 @@ package com.medvault.medvault.model;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.time.LocalDateTime;
+import com.medvault.medvault.service.ResourceVersionListener;
+import com.medvault.medvault.service.TimeSlotChangeListener;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@EntityListeners({ResourceVersionListener.class, TimeSlotChangeListener.class})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "time-slots")
 @Data
 @Table(name = "time_slots")
 public class TimeSlot {
@@ -5,11 +5,14 @@ import com.medvault.medvault.model.AppointmentStatus;
 import com.medvault.medvault.model.Doctor;
 import com.medvault.medvault.model.Patient;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,6 +34,46 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     // Add these methods to your existing AppointmentRepository
     List<Appointment> findByIsEmergencyTrueAndDoctorIsNullAndStatus(AppointmentStatus status);
 
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.patient " +
+            "WHERE a.isEmergency = true AND a.doctor IS NULL AND a.status = :status")
+    List<Appointment> findOpenEmergenciesWithPatient(@Param("status") AppointmentStatus status);
+
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.patient WHERE a.id = :id")
+    Optional<Appointment> findByIdWithPatient(@Param("id") Long id);
+
+    boolean existsByIdAndIsEmergencyTrue(Long id);
+
+    // Which of the given emergencies nobody has claimed yet, by primary key
+    @Query("SELECT a.id FROM Appointment a WHERE a.id IN :ids AND a.doctor IS NULL AND a.status = :status")
+    List<Long> findUnclaimedIds(@Param("ids") Collection<Long> ids, @Param("status") AppointmentStatus status);
+
+    // A patient's appointments with doctor and slot loaded in the same query
+    @Query("SELECT a FROM Appointment a LEFT JOIN FETCH a.doctor LEFT JOIN FETCH a.timeSlot " +
+            "WHERE a.patient.id = :patientId ORDER BY a.createdAt DESC")
+    List<Appointment> findByPatientIdWithDoctorAndSlot(@Param("patientId") Long patientId);
+
+    // [doctorId, count] rows: emergencies each doctor took on since the given time
+    @Query("SELECT a.doctor.id, COUNT(a) FROM Appointment a WHERE a.isEmergency = true " +
+            "AND a.status = :status AND a.updatedAt >= :since GROUP BY a.doctor.id")
+    List<Object[]> countEmergenciesByDoctorSince(@Param("status") AppointmentStatus status,
+                                                 @Param("since") LocalDateTime since);
+
+    /**
+     * Assigns an open emergency to the doctor in one conditional UPDATE. Returns 1 for
+     * the single caller that wins, 0 for everyone else.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Appointment a SET a.doctor = :doctor, a.status = :status, a.updatedAt = :now, " +
+            "a.patientNotes = CONCAT(COALESCE(a.patientNotes, ''), :notesSuffix) " +
+            "WHERE a.id = :id AND a.isEmergency = true AND a.doctor IS NULL " +
+            "AND a.status = com.medvault.medvault.model.AppointmentStatus.PENDING")
+    int claimEmergency(@Param("id") Long id,
+                       @Param("doctor") Doctor doctor,
+                       @Param("status") AppointmentStatus status,
+                       @Param("notesSuffix") String notesSuffix,
+                       @Param("now") LocalDateTime now);
+
 
 
     // ✨ ADD THIS MISSING METHOD
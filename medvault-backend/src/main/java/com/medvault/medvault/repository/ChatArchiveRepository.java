@@ -0,0 +1,11 @@
+package com.medvault.medvault.repository;
+
+import com.medvault.medvault.model.ChatArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface ChatArchiveRepository extends JpaRepository<ChatArchive, Long> {
+    List<ChatArchive> findBySessionIdOrderByArchivedAtAsc(String sessionId);
+}
@@ -1,8 +1,12 @@
 package com.medvault.medvault.repository;
 
 import com.medvault.medvault.model.ChatMessage;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long> {
@@ -11,4 +15,24 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long>
 
     @Query("SELECT cm FROM ChatMessage cm WHERE cm.patientId = ?1 ORDER BY cm.createdAt DESC")
     List<ChatMessage> findRecentChatsByPatient(Long patientId);
+
+    // Keyset paging over (created_at, id); both use the (session_id, created_at) index
+    List<ChatMessage> findBySessionIdOrderByCreatedAtAscIdAsc(String sessionId, Limit limit);
+
+    @Query("SELECT cm FROM ChatMessage cm WHERE cm.sessionId = :sessionId " +
+            "AND (cm.createdAt > :createdAt OR (cm.createdAt = :createdAt AND cm.id > :id)) " +
+            "ORDER BY cm.createdAt ASC, cm.id ASC")
+    List<ChatMessage> findSessionPageAfter(@Param("sessionId") String sessionId,
+                                           @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") Long id,
+                                           Limit limit);
+
+    // Sessions whose newest message is older than the cutoff, for archival
+    @Query("SELECT cm.sessionId FROM ChatMessage cm WHERE cm.sessionId IS NOT NULL " +
+            "GROUP BY cm.sessionId HAVING MAX(cm.createdAt) < :cutoff")
+    List<String> findSessionsIdleSince(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM ChatMessage cm WHERE cm.sessionId = :sessionId")
+    int deleteBySessionId(@Param("sessionId") String sessionId);
 }
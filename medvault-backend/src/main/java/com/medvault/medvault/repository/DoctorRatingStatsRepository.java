@@ -0,0 +1,34 @@
+package com.medvault.medvault.repository;
+
+import com.medvault.medvault.model.DoctorRatingStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DoctorRatingStatsRepository extends JpaRepository<DoctorRatingStats, Long> {
+
+    List<DoctorRatingStats> findByDoctorIdIn(Collection<Long> doctorIds);
+
+    /**
+     * Adds one rating of 1-5 stars in a single UPDATE, so concurrent submissions
+     * can't lose each other's increments. Returns 0 if the doctor has no row yet.
+     */
+    default int addRating(Long doctorId, int rating) {
+        return increment(doctorId, rating, rating == 1 ? 1 : 0, rating == 2 ? 1 : 0, rating == 3 ? 1 : 0,
+                rating == 4 ? 1 : 0, rating == 5 ? 1 : 0);
+    }
+
+    @Modifying
+    @Query("UPDATE DoctorRatingStats s SET s.ratingCount = s.ratingCount + 1, s.ratingSum = s.ratingSum + :rating, " +
+            "s.stars1 = s.stars1 + :one, s.stars2 = s.stars2 + :two, s.stars3 = s.stars3 + :three, " +
+            "s.stars4 = s.stars4 + :four, s.stars5 = s.stars5 + :five WHERE s.doctorId = :doctorId")
+    int increment(@Param("doctorId") Long doctorId, @Param("rating") int rating,
+                  @Param("one") int one, @Param("two") int two, @Param("three") int three,
+                  @Param("four") int four, @Param("five") int five);
+}
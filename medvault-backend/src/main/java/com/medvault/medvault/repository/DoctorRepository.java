@@ -1,8 +1,12 @@
 package com.medvault.medvault.repository;
 
+import com.medvault.medvault.config.ReplicaRoutingDataSource;
 import com.medvault.medvault.model.Doctor;
 import com.medvault.medvault.model.DoctorStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
@@ -10,6 +14,16 @@ import java.util.Optional;
 @Repository
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     Optional<Doctor> findByUserId(Long userId);
-    List<Doctor> findByStatus(DoctorStatus status);
+
+    // Served from the query cache; any write to doctors invalidates it
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Doctor> findAllByStatus(DoctorStatus status);
+
+    // Always on the primary: a result read from a lagging replica would be cached as
+    // current and served until the next write to doctors
+    default List<Doctor> findByStatus(DoctorStatus status) {
+        return ReplicaRoutingDataSource.onPrimary(() -> findAllByStatus(status));
+    }
+
     long countByStatus(DoctorStatus status);
 }
@@ -1,18 +1,28 @@
 package com.medvault.medvault.repository;
 
+import com.medvault.medvault.config.ReplicaRoutingDataSource;
 import com.medvault.medvault.model.FAQItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import java.util.List;
 
 public interface FAQRepository extends JpaRepository<FAQItem, Long> {
-    List<FAQItem> findByIsActiveTrueOrderByPriorityDesc();
-    List<FAQItem> findByCategoryAndIsActiveTrue(String category);
+    // Served from the query cache; any write to faq_items invalidates it
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<FAQItem> findAllByIsActiveTrueOrderByPriorityDesc();
 
-    @Query("SELECT f FROM FAQItem f WHERE f.isActive = true AND " +
-            "(LOWER(f.question) LIKE LOWER(CONCAT('%', ?1, '%')) OR " +
-            "LOWER(f.keywords) LIKE LOWER(CONCAT('%', ?1, '%')) OR " +
-            "LOWER(f.answer) LIKE LOWER(CONCAT('%', ?1, '%'))) " +
-            "ORDER BY f.priority DESC")
-    List<FAQItem> searchFAQs(String keyword);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<FAQItem> findAllByCategoryAndIsActiveTrue(String category);
+
+    // Cached queries always run on the primary, so a lagging replica's result is never
+    // cached as current
+    default List<FAQItem> findByIsActiveTrueOrderByPriorityDesc() {
+        return ReplicaRoutingDataSource.onPrimary(this::findAllByIsActiveTrueOrderByPriorityDesc);
+    }
+
+    default List<FAQItem> findByCategoryAndIsActiveTrue(String category) {
+        return ReplicaRoutingDataSource.onPrimary(() -> findAllByCategoryAndIsActiveTrue(category));
+    }
 }
@@ -9,6 +9,7 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -42,6 +43,10 @@ public interface RecordPermissionRepository extends JpaRepository<RecordPermissi
 
     List<RecordPermission> findByMedicalRecordAndIsGrantedTrue(MedicalRecord medicalRecord);
 
+    // Granted permissions on any of the patient's records, doctor included, for the records page
+    @Query("SELECT rp FROM RecordPermission rp JOIN FETCH rp.doctor WHERE rp.medicalRecord.patient = :patient AND rp.isGranted = true")
+    List<RecordPermission> findGrantedOnRecordsOfPatient(@Param("patient") Patient patient);
+
     @Query("SELECT COUNT(rp) FROM RecordPermission rp WHERE rp.doctor = :doctor AND rp.isGranted = true")
     Long countAccessibleRecordsByDoctor(@Param("doctor") Doctor doctor);
 
@@ -69,6 +74,16 @@ public interface RecordPermissionRepository extends JpaRepository<RecordPermissi
     @Query("UPDATE RecordPermission rp SET rp.isGranted = false, rp.revokedAt = :now WHERE rp.isGranted = true AND rp.revokedAt IS NULL AND rp.expiresAt IS NOT NULL AND rp.expiresAt <= :now")
     int autoRevokeExpiredPermissions(@Param("now") LocalDateTime now);
 
+    // Revokes only the given permissions, and only if they really have expired by now
+    @Modifying
+    @Transactional
+    @Query("UPDATE RecordPermission rp SET rp.isGranted = false, rp.revokedAt = :now WHERE rp.id IN :ids AND rp.isGranted = true AND rp.revokedAt IS NULL AND rp.expiresAt IS NOT NULL AND rp.expiresAt <= :now")
+    int revokeExpiredByIds(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    // Id and expiry of every active permission expiring before the given time
+    @Query("SELECT rp.id, rp.expiresAt FROM RecordPermission rp WHERE rp.isGranted = true AND rp.revokedAt IS NULL AND rp.expiresAt IS NOT NULL AND rp.expiresAt <= :until")
+    List<Object[]> findExpiriesUntil(@Param("until") LocalDateTime until);
+
     // ✅ NEW: Find permissions expiring soon (for notifications)
     @Query("SELECT rp FROM RecordPermission rp WHERE rp.isGranted = true AND rp.revokedAt IS NULL AND rp.expiresAt IS NOT NULL AND rp.expiresAt BETWEEN :now AND :warningTime")
     List<RecordPermission> findPermissionsExpiringSoon(@Param("now") LocalDateTime now, @Param("warningTime") LocalDateTime warningTime);
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -35,6 +36,22 @@ public interface TimeSlotRepository extends JpaRepository<TimeSlot, Long> {
                                                 @Param("endTime") LocalDateTime endTime);
 
 
+    // [doctorId, count] rows for the emergency availability snapshot
+    @Query("SELECT t.doctorId, COUNT(t) FROM TimeSlot t WHERE t.isAvailable = true " +
+            "AND t.startTime BETWEEN :from AND :to GROUP BY t.doctorId")
+    List<Object[]> countAvailableSlotsByDoctorBetween(@Param("from") LocalDateTime from,
+                                                      @Param("to") LocalDateTime to);
+
+    // [doctorId, earliest free start] rows for the doctor search index
+    @Query("SELECT t.doctorId, MIN(t.startTime) FROM TimeSlot t WHERE t.isAvailable = true " +
+            "AND t.startTime > :now GROUP BY t.doctorId")
+    List<Object[]> findNextAvailableStartByDoctor(@Param("now") LocalDateTime now);
+
+    @Query("SELECT t.doctorId, MIN(t.startTime) FROM TimeSlot t WHERE t.doctorId IN :doctorIds " +
+            "AND t.isAvailable = true AND t.startTime > :now GROUP BY t.doctorId")
+    List<Object[]> findNextAvailableStartByDoctorIn(@Param("doctorIds") Collection<Long> doctorIds,
+                                                    @Param("now") LocalDateTime now);
+
     @Query("SELECT t FROM TimeSlot t WHERE t.doctorId = ?1 AND t.isAvailable = true")
     List<TimeSlot> findAvailableSlotsByDoctorId(Long doctorId);
 
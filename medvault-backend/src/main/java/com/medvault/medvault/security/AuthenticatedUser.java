@@ -0,0 +1,55 @@
+package com.medvault.medvault.security;
+
+import com.medvault.medvault.model.Role;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+
+/**
+ * Identity carried by a verified session token. Controllers use it to resolve the
+ * caller's doctor/patient id without going back to the database.
+ */
+@Getter
+@AllArgsConstructor
+public class AuthenticatedUser {
+
+    private final Long userId;
+    private final String username;
+    private final Role role;
+    private final Long doctorId;
+    private final Long patientId;
+
+    public static Optional<AuthenticatedUser> current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return Optional.of(user);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Doctor id from the token, but only when the token belongs to the given user.
+     */
+    public static Optional<Long> doctorIdFor(Long userId) {
+        return current()
+                .filter(user -> user.getUserId().equals(userId))
+                .map(AuthenticatedUser::getDoctorId);
+    }
+
+    /**
+     * Patient id from the token, but only when the token belongs to the given user.
+     */
+    public static Optional<Long> patientIdFor(Long userId) {
+        return current()
+                .filter(user -> user.getUserId().equals(userId))
+                .map(AuthenticatedUser::getPatientId);
+    }
+
+    @Override
+    public String toString() {
+        return username;
+    }
+}
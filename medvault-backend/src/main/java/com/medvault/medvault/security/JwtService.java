@@ -0,0 +1,238 @@
+package com.medvault.medvault.security;
+
+import com.medvault.medvault.model.Role;
+import com.medvault.medvault.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Issues and verifies HS256 session tokens. Verification is purely local: the
+ * signature is checked against the shared secret and the identity is read from
+ * the claims, so no database lookup is needed per request.
+ */
+@Service
+public class JwtService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtService.class);
+
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLE = "role";
+    static final String CLAIM_DOCTOR_ID = "doctorId";
+    static final String CLAIM_PATIENT_ID = "patientId";
+    static final String CLAIM_SCOPE = "scope";
+
+    static final String SCOPE_NOTIFICATIONS = "notifications";
+
+    private final SecretKey signingKey;
+    private final long expirationMs;
+    private final int verificationCacheSize;
+    private final TokenRevocationList revocationList;
+
+    // Tokens that already passed signature verification; saves re-parsing on every request
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+
+    @Autowired
+    public JwtService(@Value("${app.jwt.secret:}") String secret,
+                      @Value("${app.jwt.expiration-ms:86400000}") long expirationMs,
+                      @Value("${app.jwt.verification-cache-size:10000}") int verificationCacheSize,
+                      TokenRevocationList revocationList) {
+        this.signingKey = Keys.hmacShaKeyFor(resolveSecret(secret));
+        this.expirationMs = expirationMs;
+        this.verificationCacheSize = verificationCacheSize;
+        this.revocationList = revocationList;
+    }
+
+    public String generateToken(User user, Long doctorId, Long patientId) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .subject(user.getUsername())
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_ROLE, user.getRole().name())
+                .claim(CLAIM_DOCTOR_ID, doctorId)
+                .claim(CLAIM_PATIENT_ID, patientId)
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expirationMs))
+                .signWith(signingKey)
+                .compact();
+    }
+
+    /**
+     * Returns the identity for a valid, unexpired and unrevoked token.
+     */
+    public Optional<AuthenticatedUser> verify(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = verifiedTokens.get(token);
+        if (cached == null) {
+            cached = parse(token);
+            if (cached == null) {
+                return Optional.empty();
+            }
+            if (verifiedTokens.size() >= verificationCacheSize) {
+                verifiedTokens.values().removeIf(entry -> entry.expiresAt <= now);
+                if (verifiedTokens.size() >= verificationCacheSize) {
+                    verifiedTokens.clear();
+                }
+            }
+            verifiedTokens.put(token, cached);
+        }
+
+        if (cached.expiresAt <= now) {
+            verifiedTokens.remove(token);
+            return Optional.empty();
+        }
+        if (revocationList.isRevoked(cached.tokenId, cached.user.getUserId(), cached.issuedAt)) {
+            return Optional.empty();
+        }
+        return Optional.of(cached.user);
+    }
+
+    /**
+     * A token that only opens the user's notification stream. EventSource cannot send
+     * an Authorization header, so this one travels in the URL; keep it short-lived.
+     * {@link #verify} rejects it, so a leaked URL grants nothing else.
+     */
+    public String generateStreamToken(AuthenticatedUser user, Duration ttl) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .subject(user.getUsername())
+                .claim(CLAIM_USER_ID, user.getUserId())
+                .claim(CLAIM_SCOPE, SCOPE_NOTIFICATIONS)
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + ttl.toMillis()))
+                .signWith(signingKey)
+                .compact();
+    }
+
+    /**
+     * Returns the user a valid, unexpired and unrevoked stream token was issued to.
+     */
+    public Optional<Long> verifyStreamToken(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            Claims claims = Jwts.parser()
+                    .verifyWith(signingKey)
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload();
+            Long userId = toLong(claims.get(CLAIM_USER_ID));
+            if (userId == null || !SCOPE_NOTIFICATIONS.equals(claims.get(CLAIM_SCOPE, String.class))
+                    || revocationList.isRevoked(claims.getId(), userId, claims.getIssuedAt().getTime())) {
+                return Optional.empty();
+            }
+            return Optional.of(userId);
+        } catch (JwtException | IllegalArgumentException | NullPointerException e) {
+            logger.debug("Rejected stream token: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Revokes a single token (logout). Invalid tokens are ignored.
+     */
+    public boolean revoke(String token) {
+        VerifiedToken verified = verifiedTokens.get(token);
+        if (verified == null) {
+            verified = parse(token);
+        }
+        if (verified == null) {
+            return false;
+        }
+        revocationList.revoke(verified.tokenId, verified.expiresAt);
+        verifiedTokens.remove(token);
+        return true;
+    }
+
+    /**
+     * Revokes every token issued to the user so far, e.g. when the account is disabled.
+     */
+    public void revokeAllForUser(Long userId) {
+        revocationList.revokeAllForUser(userId);
+    }
+
+    private VerifiedToken parse(String token) {
+        try {
+            Claims claims = Jwts.parser()
+                    .verifyWith(signingKey)
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload();
+            // Scoped tokens (notification streams) are not session tokens
+            if (claims.get(CLAIM_SCOPE) != null) {
+                return null;
+            }
+
+            AuthenticatedUser user = new AuthenticatedUser(
+                    toLong(claims.get(CLAIM_USER_ID)),
+                    claims.getSubject(),
+                    Role.valueOf(claims.get(CLAIM_ROLE, String.class)),
+                    toLong(claims.get(CLAIM_DOCTOR_ID)),
+                    toLong(claims.get(CLAIM_PATIENT_ID)));
+
+            if (user.getUserId() == null) {
+                return null;
+            }
+            return new VerifiedToken(user, claims.getId(),
+                    claims.getIssuedAt().getTime(), claims.getExpiration().getTime());
+        } catch (JwtException | IllegalArgumentException | NullPointerException e) {
+            logger.debug("Rejected session token: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static Long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
+    private static byte[] resolveSecret(String secret) {
+        if (secret == null || secret.isBlank()) {
+            logger.warn("app.jwt.secret is not set - using a random key, sessions will not survive a restart");
+            byte[] key = new byte[32];
+            new SecureRandom().nextBytes(key);
+            return key;
+        }
+        byte[] key = secret.getBytes(StandardCharsets.UTF_8);
+        if (key.length < 32) {
+            throw new IllegalStateException("app.jwt.secret must be at least 32 bytes for HS256");
+        }
+        return key;
+    }
+
+    private static final class VerifiedToken {
+        private final AuthenticatedUser user;
+        private final String tokenId;
+        private final long issuedAt;
+        private final long expiresAt;
+
+        private VerifiedToken(AuthenticatedUser user, String tokenId, long issuedAt, long expiresAt) {
+            this.user = user;
+            this.tokenId = tokenId;
+            this.issuedAt = issuedAt;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
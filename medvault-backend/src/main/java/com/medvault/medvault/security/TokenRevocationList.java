@@ -0,0 +1,51 @@
+package com.medvault.medvault.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory list of revoked tokens. Entries only need to live until the token
+ * would have expired anyway, so the list stays small.
+ */
+@Component
+public class TokenRevocationList {
+
+    @Value("${app.jwt.expiration-ms:86400000}")
+    private long tokenLifetimeMs;
+
+    // token id -> expiry of the revoked token (epoch millis)
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    // user id -> tokens issued at or before this instant are rejected
+    private final Map<Long, Long> revokedBefore = new ConcurrentHashMap<>();
+
+    public void revoke(String tokenId, long expiresAtMillis) {
+        revokedTokens.put(tokenId, expiresAtMillis);
+    }
+
+    public void revokeAllForUser(Long userId) {
+        revokedBefore.put(userId, System.currentTimeMillis());
+    }
+
+    public boolean isRevoked(String tokenId, Long userId, long issuedAtMillis) {
+        if (tokenId != null && revokedTokens.containsKey(tokenId)) {
+            return true;
+        }
+        Long cutoff = userId != null ? revokedBefore.get(userId) : null;
+        return cutoff != null && issuedAtMillis <= cutoff;
+    }
+
+    public int size() {
+        return revokedTokens.size() + revokedBefore.size();
+    }
+
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt < now);
+        // Once every token issued before the cutoff has expired, the cutoff is no longer needed
+        revokedBefore.values().removeIf(cutoff -> cutoff + tokenLifetimeMs < now);
+    }
+}
@@ -0,0 +1,60 @@
+package com.medvault.medvault.service;
+
+import com.medvault.medvault.dto.AppointmentDTO;
+import com.medvault.medvault.model.Appointment;
+import com.medvault.medvault.model.Doctor;
+import com.medvault.medvault.model.TimeSlot;
+import com.medvault.medvault.repository.AppointmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Read-only appointment views shared by the MVC and reactive endpoints. Everything
+ * is mapped to DTOs inside the transaction, so callers on other threads (outside
+ * open-session-in-view) never touch a lazy association.
+ */
+@Service
+public class AppointmentQueryService {
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    /**
+     * A patient's appointments, newest first. Doctor and slot come from the same query
+     * instead of one slot lookup per appointment.
+     */
+    @Transactional(readOnly = true)
+    public List<AppointmentDTO> findPatientAppointments(Long patientId) {
+        return appointmentRepository.findByPatientIdWithDoctorAndSlot(patientId).stream()
+                .map(AppointmentQueryService::toPatientView)
+                .toList();
+    }
+
+    public static AppointmentDTO toPatientView(Appointment appointment) {
+        AppointmentDTO dto = new AppointmentDTO();
+        dto.setId(appointment.getId());
+        dto.setStatus(appointment.getStatus());
+        dto.setPatientNotes(appointment.getPatientNotes());
+        dto.setCreatedAt(appointment.getCreatedAt());
+        dto.setUpdatedAt(appointment.getUpdatedAt());
+
+        Doctor doctor = appointment.getDoctor();
+        if (doctor != null) {
+            dto.setDoctorId(doctor.getId());
+            dto.setDoctorName("Dr. " + doctor.getFirstName() + " " + doctor.getLastName());
+            dto.setDoctorSpecialization(doctor.getSpecialization());
+            dto.setDoctorContact(doctor.getContactNumber());
+            dto.setConsultationFees(doctor.getConsultationFees());
+        }
+
+        TimeSlot slot = appointment.getSlotId() != null ? appointment.getTimeSlot() : null;
+        if (slot != null) {
+            dto.setAppointmentStartTime(slot.getStartTime());
+            dto.setAppointmentEndTime(slot.getEndTime());
+        }
+        return dto;
+    }
+}
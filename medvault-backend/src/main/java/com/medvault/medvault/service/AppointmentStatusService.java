@@ -8,7 +8,6 @@ import com.medvault.medvault.repository.TimeSlotRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,7 +26,6 @@ public class AppointmentStatusService {
     @Autowired
     private TimeSlotRepository timeSlotRepository;
 
-    @Scheduled(fixedRate = 300000) // Every 5 minutes
     @Transactional
     public void updateCompletedAppointments() {
         try {
@@ -0,0 +1,126 @@
+package com.medvault.medvault.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medvault.medvault.model.ChatArchive;
+import com.medvault.medvault.model.ChatMessage;
+import com.medvault.medvault.repository.ChatArchiveRepository;
+import com.medvault.medvault.repository.ChatMessageRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps chat_messages small: sessions idle for longer than the retention period are
+ * moved, one transaction per session, into chat_archives as gzip-compressed JSON.
+ * Archived sessions can still be read back through {@link #readArchived}.
+ */
+@Service
+public class ChatArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatArchiveService.class);
+
+    private static final TypeReference<List<ChatMessage>> MESSAGE_LIST = new TypeReference<>() {
+    };
+
+    @Autowired
+    private ChatMessageRepository chatMessageRepository;
+
+    @Autowired
+    private ChatArchiveRepository chatArchiveRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.chat.retention.days:90}")
+    private int retentionDays;
+
+    @Value("${app.chat.retention.sessions-per-run:500}")
+    private int sessionsPerRun;
+
+    public void archiveIdleSessions() {
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+            List<String> sessions = chatMessageRepository.findSessionsIdleSince(cutoff, Limit.of(sessionsPerRun));
+            if (sessions.isEmpty()) {
+                return;
+            }
+
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            int archivedMessages = 0;
+            for (String sessionId : sessions) {
+                Integer count = transaction.execute(status -> archiveSession(sessionId));
+                archivedMessages += count != null ? count : 0;
+            }
+            logger.info("Archived {} chat sessions ({} messages) idle since {}", sessions.size(), archivedMessages, cutoff);
+        } catch (Exception e) {
+            logger.error("Error archiving chat sessions: {}", e.getMessage(), e);
+        }
+    }
+
+    int archiveSession(String sessionId) {
+        List<ChatMessage> messages = chatMessageRepository.findBySessionIdOrderByCreatedAtAsc(sessionId);
+        if (messages.isEmpty()) {
+            return 0;
+        }
+
+        ChatArchive archive = new ChatArchive();
+        archive.setSessionId(sessionId);
+        archive.setPatientId(messages.get(0).getPatientId());
+        archive.setMessageCount(messages.size());
+        archive.setFirstMessageAt(messages.get(0).getCreatedAt());
+        archive.setLastMessageAt(messages.get(messages.size() - 1).getCreatedAt());
+        archive.setArchivedAt(LocalDateTime.now());
+        archive.setPayload(compress(messages));
+        chatArchiveRepository.save(archive);
+
+        chatMessageRepository.deleteBySessionId(sessionId);
+        return messages.size();
+    }
+
+    public List<ChatMessage> readArchived(String sessionId) {
+        List<ChatMessage> messages = new ArrayList<>();
+        for (ChatArchive archive : chatArchiveRepository.findBySessionIdOrderByArchivedAtAsc(sessionId)) {
+            messages.addAll(decompress(archive.getPayload()));
+        }
+        return messages;
+    }
+
+    byte[] compress(List<ChatMessage> messages) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(out, messages);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    List<ChatMessage> decompress(byte[] payload) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            return objectMapper.readValue(in, MESSAGE_LIST);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
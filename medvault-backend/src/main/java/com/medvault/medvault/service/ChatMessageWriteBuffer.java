@@ -0,0 +1,245 @@
+package com.medvault.medvault.service;
+
+import com.medvault.medvault.model.ChatMessage;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind buffer for chat messages. Messages are queued in memory and written
+ * with one JDBC batch insert every {@code batch-size} messages or
+ * {@code flush-interval-ms}, whichever comes first. Plain JDBC is used because
+ * Hibernate cannot batch inserts for IDENTITY ids.
+ *
+ * <p>The buffer is bounded: when it is full the caller flushes inline instead of
+ * dropping messages. Pending messages are flushed on shutdown, and
+ * {@link #readThrough} merges them into query results so a session always sees
+ * its own messages.
+ */
+@Service
+public class ChatMessageWriteBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatMessageWriteBuffer.class);
+
+    static final String INSERT_SQL = "INSERT INTO chat_messages " +
+            "(session_id, patient_id, message, response, is_user_message, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int capacity;
+
+    private final ReentrantLock bufferLock = new ReentrantLock();
+    private List<ChatMessage> buffer = new ArrayList<>();
+
+    // Readers hold the read lock across "query DB + copy buffer", so no flush can move
+    // a message from the buffer to the table in between (no gaps, no duplicates)
+    private final ReentrantReadWriteLock flushLock = new ReentrantReadWriteLock();
+
+    private final ScheduledExecutorService flusher;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong inlineFlushes = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    @Autowired
+    public ChatMessageWriteBuffer(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.chat.write-buffer.batch-size:50}") int batchSize,
+                                  @Value("${app.chat.write-buffer.flush-interval-ms:200}") long flushIntervalMs,
+                                  @Value("${app.chat.write-buffer.capacity:5000}") int capacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.capacity = Math.max(capacity, batchSize);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "chat-write-buffer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void enqueue(ChatMessage message) {
+        int size;
+        bufferLock.lock();
+        try {
+            buffer.add(message);
+            size = buffer.size();
+        } finally {
+            bufferLock.unlock();
+        }
+
+        if (size >= capacity) {
+            // Back-pressure: the writer is behind, so this request pays for the flush
+            inlineFlushes.incrementAndGet();
+            flushQuietly();
+        } else if (size >= batchSize && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                flushRequested.set(false);
+                flushQuietly();
+            });
+        }
+    }
+
+    /**
+     * Runs the query and appends the still-buffered messages accepted by the filter.
+     */
+    public List<ChatMessage> readThrough(Supplier<List<ChatMessage>> query, Predicate<ChatMessage> pending) {
+        flushLock.readLock().lock();
+        try {
+            List<ChatMessage> result = new ArrayList<>(query.get());
+            bufferLock.lock();
+            try {
+                for (ChatMessage message : buffer) {
+                    if (pending.test(message)) {
+                        result.add(message);
+                    }
+                }
+            } finally {
+                bufferLock.unlock();
+            }
+            return result;
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes everything buffered so far. Returns the number of rows inserted.
+     */
+    public int flush() {
+        flushLock.writeLock().lock();
+        try {
+            List<ChatMessage> batch = drain();
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            try {
+                // One transaction, so a failed batch can be retried without duplicating rows
+                transactionTemplate.executeWithoutResult(status -> insert(batch));
+            } catch (RuntimeException e) {
+                requeue(batch);
+                throw e;
+            }
+            written.addAndGet(batch.size());
+            batches.incrementAndGet();
+            return batch.size();
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.error("Error writing chat messages, will retry: {}", e.getMessage());
+        }
+    }
+
+    private List<ChatMessage> drain() {
+        bufferLock.lock();
+        try {
+            List<ChatMessage> batch = buffer;
+            buffer = new ArrayList<>();
+            return batch;
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    // Puts a failed batch back in front of newer messages, keeping at most `capacity`
+    private void requeue(List<ChatMessage> batch) {
+        bufferLock.lock();
+        try {
+            List<ChatMessage> merged = new ArrayList<>(batch);
+            merged.addAll(buffer);
+            int overflow = merged.size() - capacity;
+            if (overflow > 0) {
+                dropped.addAndGet(overflow);
+                logger.error("Chat write buffer full, dropping {} oldest messages", overflow);
+                merged = new ArrayList<>(merged.subList(overflow, merged.size()));
+            }
+            buffer = merged;
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    private void insert(List<ChatMessage> batch) {
+        for (int from = 0; from < batch.size(); from += batchSize) {
+            List<ChatMessage> chunk = batch.subList(from, Math.min(from + batchSize, batch.size()));
+            jdbcTemplate.batchUpdate(INSERT_SQL, chunk, chunk.size(), (ps, message) -> {
+                ps.setString(1, message.getSessionId());
+                if (message.getPatientId() != null) {
+                    ps.setLong(2, message.getPatientId());
+                } else {
+                    ps.setNull(2, Types.BIGINT);
+                }
+                ps.setString(3, message.getMessage());
+                ps.setString(4, message.getResponse());
+                ps.setObject(5, message.getIsUserMessage(), Types.BOOLEAN);
+                ps.setTimestamp(6, message.getCreatedAt() != null ? Timestamp.valueOf(message.getCreatedAt()) : null);
+            });
+        }
+    }
+
+    public int pendingCount() {
+        bufferLock.lock();
+        try {
+            return buffer.size();
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", pendingCount());
+        stats.put("written", written.get());
+        stats.put("batches", batches.get());
+        stats.put("inlineFlushes", inlineFlushes.get());
+        stats.put("dropped", dropped.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int remaining = pendingCount();
+        if (remaining > 0) {
+            logger.info("Flushing {} buffered chat messages on shutdown", remaining);
+            flushQuietly();
+        }
+    }
+}
@@ -2,17 +2,31 @@ package com.medvault.medvault.service;
 
 import com.medvault.medvault.model.*;
 import com.medvault.medvault.repository.*;
+import com.medvault.medvault.service.chatbot.ChatIntentClassifier;
+import com.medvault.medvault.service.chatbot.ClassifiedMessage;
+import com.medvault.medvault.service.faq.FaqSearchIndex;
+import com.medvault.medvault.service.metrics.BusinessMetrics;
+import com.medvault.medvault.service.search.DoctorSearchIndex;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 public class ChatbotService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ChatbotService.class);
+
     @Autowired
-    private FAQRepository faqRepository;
+    private FaqSearchIndex faqSearchIndex;
     @Autowired
     private ChatMessageRepository chatMessageRepository;
     @Autowired
@@ -20,269 +34,66 @@ public class ChatbotService {
     @Autowired
     private AppointmentRepository appointmentRepository;
     @Autowired
-    private DoctorRepository doctorRepository;
+    private IdentityCache identityCache;
+    @Autowired
+    private ChatIntentClassifier intentClassifier;
+    @Autowired
+    private DoctorDirectory doctorDirectory;
+    @Autowired
+    private DoctorSearchIndex doctorSearchIndex;
+    @Autowired
+    private ChatMessageWriteBuffer chatMessageWriteBuffer;
+    @Autowired
+    private ChatArchiveService chatArchiveService;
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
+    // Minimum BM25 score for an FAQ answer to replace the generic help text
+    @Value("${app.faq.chatbot-min-score:2.0}")
+    private double faqMinScore;
 
     public String processMessage(String message, Long patientId, String sessionId) {
-        System.out.println("=== PROCESSING MESSAGE ===");
-        System.out.println("Input: " + message);
-        System.out.println("Patient ID: " + patientId);
+        logger.debug("Processing chat message for patient {} in session {}", patientId, sessionId);
 
         // Save user message
         saveMessage(sessionId, patientId, message, null, true);
 
         String response = generateEnhancedResponse(message.toLowerCase().trim(), patientId);
 
-        System.out.println("Final Response: " + response.substring(0, Math.min(100, response.length())) + "...");
-        System.out.println("=== END PROCESSING ===");
-
         // Save bot response
         saveMessage(sessionId, patientId, message, response, false);
         return response;
     }
 
     private String generateEnhancedResponse(String message, Long patientId) {
-        Optional<Patient> patientOpt = patientRepository.findByUserId(patientId);
-        String patientName = patientOpt.map(Patient::getFirstName).orElse("there");
-
-        // Check platform-specific first (appointments, doctors, etc.)
-        if (isPlatformSpecificQuery(message)) {
-            return generateHealthcareResponse(message, patientId, patientName);
-        }
-
-        // For health questions, provide instructional responses instead of API calls
-        if (isHealthQuestionForAI(message)) {
-            return generateInstructionalHealthResponse(message, patientName);
-        }
-
-        // Everything else gets contextual help
-        return generateContextualHelpResponse(message, patientName);
-    }
-
-    private boolean isPlatformSpecificQuery(String message) {
-        String[] platformKeywords = {
-                // Greetings - should be handled by platform
-                "hi", "hello", "hey", "good morning", "good afternoon", "good evening", "start", "begin",
-
-                // Appointment management - ENHANCED
-                "book appointment", "booking appointment", "schedule appointment",
-                "book an appointment", "make appointment", "want appointment", "need appointment",
-                "cancel appointment", "cancel my", "reschedule", "upcoming appointment",
-                "my appointments", "view appointments", "manage appointments",
-
-                // Doctor searches
-                "show doctors", "list doctors", "available doctors", "show me doctors",
-                "find doctor", "find a doctor", "doctors near me", "see doctors",
-                "cardiologist", "neurologist", "dermatologist", "orthopedic",
-                "pediatrician", "psychiatrist", "psychologist", "gynecologist",
-
-                // Medical records
-                "medical records", "my records", "health records", "medical history",
-                "prescription history", "lab results", "test results",
-
-                // Emergency
-                "emergency", "urgent", "emergency assistance",
-
-                // Platform navigation
-                "access", "how do i", "where can i", "how to",
-                "update profile", "payment methods", "insurance",
-
-                // Mental health platform services
-                "see psychiatrist", "need psychiatrist", "book psychiatrist",
-                "mental health support"
+        String patientName = identityCache.findPatient(patientId)
+                .map(IdentityCache.PatientIdentity::firstName)
+                .orElse("there");
+
+        // One pass over the message decides the intent; priority rules live in ChatIntentClassifier
+        Timer.Sample sample = businessMetrics.start();
+        ClassifiedMessage classified = intentClassifier.classify(message);
+
+        String response = switch (classified.intent()) {
+            case GREETING -> getPersonalizedGreeting(patientName);
+            case SHOW_DOCTORS -> getDetailedDoctorsList(patientName);
+            case SPECIALTY_DOCTORS -> getSpecialtyDoctors(classified.specialty(), patientName);
+            case APPOINTMENT_BOOKING -> getEnhancedBookingFlow(message, patientId, patientName);
+            case APPOINTMENT_MANAGEMENT -> getAppointmentManagement(classified, patientId, patientName);
+            case MEDICAL_RECORDS -> getMedicalRecordsInfo(patientName);
+            case EMERGENCY -> getEmergencyResponse(patientName);
+            case MENTAL_HEALTH -> getMentalHealthSupport(classified, patientName);
+            case DOCTOR_REVIEW -> getDoctorReviewInstructions(patientId, patientName);
+            case HEALTH_SYMPTOM -> getSymptomInstructions(message, patientName);
+            case HEALTH_CONDITION -> getConditionInstructions(message, patientName);
+            case HEALTH_TREATMENT -> getTreatmentInstructions(message, patientName);
+            case HEALTH_MEDICATION -> getMedicationInstructions(message, patientName);
+            case HEALTH_PREVENTION -> getPreventionInstructions(message, patientName);
+            case HEALTH_GENERAL -> getGeneralHealthInstructions(message, patientName);
+            case CONTEXTUAL_HELP -> generateContextualHelpResponse(message, patientName);
         };
-
-        return Arrays.stream(platformKeywords)
-                .anyMatch(keyword -> message.toLowerCase().contains(keyword.toLowerCase()));
-    }
-
-    private String generateHealthcareResponse(String message, Long patientId, String patientName) {
-        // Handle greetings first
-        if (isGreeting(message)) {
-            return getPersonalizedGreeting(patientName);
-        }
-
-        // Handle platform-specific queries
-        if (isShowDoctorsQuery(message)) {
-            return getDetailedDoctorsList(patientName);
-        }
-
-        if (isSpecificSpecialtyQuery(message)) {
-            return getSpecialtyDoctors(message, patientName);
-        }
-
-        // ENHANCED: Better appointment booking detection
-        if (isAppointmentBookingQuery(message)) {
-            return getEnhancedBookingFlow(message, patientId, patientName);
-        }
-
-        if (isAppointmentManagementQuery(message)) {
-            return getAppointmentManagement(message, patientId, patientName);
-        }
-
-        if (isMedicalRecordsQuery(message)) {
-            return getMedicalRecordsInfo(patientName);
-        }
-
-        if (isEmergencyQuery(message)) {
-            return getEmergencyResponse(patientName);
-        }
-
-        if (isMentalHealthQuery(message)) {
-            return getMentalHealthSupport(message, patientName);
-        }
-
-        if (isDoctorReviewQuery(message)) {
-            return getDoctorReviewInstructions(patientId, patientName);
-        }
-
-        // For health questions and other queries, provide instructional responses
-        return generateInstructionalHealthResponse(message, patientName);
-    }
-
-    // ENHANCED DETECTION METHODS
-    private boolean isGreeting(String message) {
-        String[] greetings = {"hi", "hello", "hey", "good morning", "good afternoon", "good evening", "start", "begin"};
-        return Arrays.stream(greetings).anyMatch(greeting ->
-                message.equals(greeting) || message.startsWith(greeting + " ") || message.startsWith(greeting + "!"));
-    }
-
-    private boolean isShowDoctorsQuery(String message) {
-        return message.contains("show doctors") || message.contains("list doctors") ||
-                message.contains("available doctors") || message.contains("show me doctors") ||
-                message.contains("find doctor") || message.contains("find a doctor") ||
-                message.contains("see doctors") || message.equals("doctors");
-    }
-
-    private boolean isSpecificSpecialtyQuery(String message) {
-        String[] specialties = {
-                "cardiologist", "neurologist", "dermatologist", "orthopedic",
-                "pediatrician", "psychiatrist", "psychologist", "gynecologist",
-                "cardiology", "neurology", "dermatology", "orthopedics",
-                "pediatrics", "psychiatry", "psychology", "gynecology",
-                "endocrinologist", "urologist", "oncologist", "radiologist"
-        };
-        return Arrays.stream(specialties).anyMatch(message::contains);
-    }
-
-    // NEW: Enhanced appointment booking detection
-    private boolean isAppointmentBookingQuery(String message) {
-        String[] bookingKeywords = {
-                "book appointment", "book an appointment", "booking appointment",
-                "schedule appointment", "make appointment", "want appointment",
-                "need appointment", "see doctor", "visit doctor", "consultation",
-                "appointment with", "book with"
-        };
-
-        return Arrays.stream(bookingKeywords)
-                .anyMatch(keyword -> message.toLowerCase().contains(keyword.toLowerCase()));
-    }
-
-    private boolean isDoctorReviewQuery(String message) {
-        return message.contains("review") || message.contains("rate") || message.contains("rating") ||
-                message.contains("stars") || message.contains("feedback") || message.contains("opinion");
-    }
-
-    private boolean isMentalHealthQuery(String message) {
-        return message.contains("mental health") || message.contains("psychiatrist") ||
-                message.contains("psychologist") || message.contains("therapy") ||
-                message.contains("counseling") || message.contains("anxiety") ||
-                message.contains("depression") || message.contains("stress") ||
-                message.contains("anxious") || message.contains("sad") ||
-                message.contains("worried") || message.contains("panic") ||
-                message.contains("see psychiatrist") || message.contains("need psychiatrist");
-    }
-
-    private boolean isBookingQuery(String message) {
-        return message.contains("book") || message.contains("booking") ||
-                message.contains("schedule") || message.contains("appointment");
-    }
-
-    private boolean isAppointmentManagementQuery(String message) {
-        return message.contains("my appointments") || message.contains("reschedule") ||
-                message.contains("cancel appointment") || message.contains("upcoming appointment") ||
-                message.contains("cancel my") || message.contains("cancel upcoming") ||
-                message.contains("view appointments") || message.contains("manage appointments");
-    }
-
-    private boolean isEmergencyQuery(String message) {
-        return message.contains("emergency") || message.contains("urgent") ||
-                message.contains("help me") || message.contains("emergency assistance");
-    }
-
-    private boolean isMedicalRecordsQuery(String message) {
-        return message.contains("medical records") || message.contains("my records") ||
-                message.contains("health records") || message.contains("medical history") ||
-                message.contains("access") && (message.contains("records") || message.contains("history"));
-    }
-
-    private boolean isHealthQuestionForAI(String message) {
-        String[] healthKeywords = {
-                "what causes", "what is", "what are", "symptoms", "causes",
-                "blood pressure", "diabetes", "anxiety", "headache", "fever",
-                "how do", "why do", "treatment", "medication", "side effects",
-                "pain", "hurt", "ache", "feel sick", "not well", "diagnosis",
-                "disease", "condition", "illness", "infection", "prevention"
-        };
-
-        String lowerMessage = message.toLowerCase();
-        return Arrays.stream(healthKeywords).anyMatch(lowerMessage::contains);
-    }
-
-    // NEW: Instructional health response instead of API calls
-    private String generateInstructionalHealthResponse(String message, String patientName) {
-        // Categorize the health question and provide appropriate instructions
-        if (isSymptomQuery(message)) {
-            return getSymptomInstructions(message, patientName);
-        }
-
-        if (isConditionQuery(message)) {
-            return getConditionInstructions(message, patientName);
-        }
-
-        if (isTreatmentQuery(message)) {
-            return getTreatmentInstructions(message, patientName);
-        }
-
-        if (isMedicationQuery(message)) {
-            return getMedicationInstructions(message, patientName);
-        }
-
-        if (isPreventionQuery(message)) {
-            return getPreventionInstructions(message, patientName);
-        }
-
-        // General health question response
-        return getGeneralHealthInstructions(message, patientName);
-    }
-
-    private boolean isSymptomQuery(String message) {
-        return message.contains("symptom") || message.contains("feel") ||
-                message.contains("pain") || message.contains("hurt") ||
-                message.contains("ache") || message.contains("fever") ||
-                message.contains("headache") || message.contains("sick");
-    }
-
-    private boolean isConditionQuery(String message) {
-        return message.contains("what is") || message.contains("what are") ||
-                message.contains("diabetes") || message.contains("hypertension") ||
-                message.contains("asthma") || message.contains("condition") ||
-                message.contains("disease") || message.contains("illness");
-    }
-
-    private boolean isTreatmentQuery(String message) {
-        return message.contains("treatment") || message.contains("cure") ||
-                message.contains("how to treat") || message.contains("therapy");
-    }
-
-    private boolean isMedicationQuery(String message) {
-        return message.contains("medication") || message.contains("medicine") ||
-                message.contains("pills") || message.contains("drugs") ||
-                message.contains("side effects") || message.contains("dosage");
-    }
-
-    private boolean isPreventionQuery(String message) {
-        return message.contains("prevent") || message.contains("avoid") ||
-                message.contains("prevention") || message.contains("protect");
+        businessMetrics.chatbotReplied(sample, classified.intent());
+        return response;
     }
 
     private String getSymptomInstructions(String message, String patientName) {
@@ -409,6 +220,13 @@ public class ChatbotService {
     }
 
     private String generateContextualHelpResponse(String message, String patientName) {
+        List<FaqSearchIndex.Hit> faqs = faqSearchIndex.search(message, 1);
+        if (!faqs.isEmpty() && faqs.get(0).score() >= faqMinScore) {
+            FaqSearchIndex.Hit faq = faqs.get(0);
+            return String.format("Here's what I found for you, %s! 💡\n\n**%s**\n%s\n\n" +
+                    "Is there anything else I can help you with?", patientName, faq.question(), faq.answer());
+        }
+
         return String.format("I want to help you, %s! 🤝\n\n" +
                 "**I can assist you with:**\n\n" +
                 "🏥 **Healthcare Services:**\n" +
@@ -460,29 +278,23 @@ public class ChatbotService {
     // NEW: Comprehensive booking guide
     private String getComprehensiveBookingGuide(String patientName) {
         try {
-            List<Doctor> availableDoctors = doctorRepository.findByStatus(DoctorStatus.APPROVED);
+            DoctorDirectory.Snapshot directory = doctorDirectory.snapshot();
 
-            if (availableDoctors.isEmpty()) {
+            if (directory.isEmpty()) {
                 return String.format("Hi %s! I'd love to help you book an appointment, but our doctors are currently " +
                         "updating their schedules. Please try again in a few minutes or contact support at 1800-MEDVAULT.", patientName);
             }
 
-            Map<String, List<Doctor>> doctorsBySpecialty = availableDoctors.stream()
-                    .collect(Collectors.groupingBy(Doctor::getSpecialization));
-
             StringBuilder response = new StringBuilder(String.format(
                     "Perfect! I'm ready to help you book an appointment, %s! 🏥\n\n" +
                             "**Available Booking Options:**\n\n", patientName));
 
             // Show top specialties with available doctors
-            doctorsBySpecialty.entrySet().stream()
-                    .sorted((a, b) -> Integer.compare(b.getValue().size(), a.getValue().size()))
-                    .limit(6)
-                    .forEach(entry -> {
-                        String emoji = getSpecializationEmoji(entry.getKey());
-                        response.append(String.format("%s **%s** (%d doctors available)\n",
-                                emoji, entry.getKey(), entry.getValue().size()));
-                    });
+            directory.topSpecialties().forEach(specialty -> {
+                String emoji = getSpecializationEmoji(specialty.name());
+                response.append(String.format("%s **%s** (%d doctors available)\n",
+                        emoji, specialty.name(), specialty.count()));
+            });
 
             response.append("\n**How to Book:**\n")
                     .append("🔹 Go to 'Book Appointment' in your dashboard\n")
@@ -557,27 +369,24 @@ public class ChatbotService {
 
     private String getDetailedDoctorsList(String patientName) {
         try {
-            List<Doctor> doctors = doctorRepository.findByStatus(DoctorStatus.APPROVED);
+            DoctorDirectory.Snapshot directory = doctorDirectory.snapshot();
 
-            if (doctors.isEmpty()) {
+            if (directory.isEmpty()) {
                 return String.format("I apologize, %s. We're currently updating our doctor profiles. " +
                         "Please try again in a few minutes or contact support at 1800-MEDVAULT.", patientName);
             }
 
-            Map<String, List<Doctor>> doctorsBySpecialty = doctors.stream()
-                    .collect(Collectors.groupingBy(Doctor::getSpecialization));
-
             StringBuilder response = new StringBuilder(String.format("Here are our available doctors, %s:\n\n", patientName));
 
-            doctorsBySpecialty.forEach((specialty, docs) -> {
-                String emoji = getSpecializationEmoji(specialty);
-                response.append(String.format("%s **%s** (%d doctors)\n", emoji, specialty, docs.size()));
+            directory.specialties().forEach(specialty -> {
+                String emoji = getSpecializationEmoji(specialty.name());
+                response.append(String.format("%s **%s** (%d doctors)\n", emoji, specialty.name(), specialty.count()));
 
-                docs.stream().limit(2).forEach(doctor -> {
+                specialty.doctors().stream().limit(2).forEach(doctor -> {
                     response.append(String.format("   • Dr. %s %s - ₹%s consultation\n",
-                            doctor.getFirstName(),
-                            doctor.getLastName(),
-                            doctor.getConsultationFees() != null ? doctor.getConsultationFees() : "Contact for pricing"));
+                            doctor.firstName(),
+                            doctor.lastName(),
+                            doctor.consultationFees() != null ? doctor.consultationFees() : "Contact for pricing"));
                 });
                 response.append("\n");
             });
@@ -591,14 +400,12 @@ public class ChatbotService {
         }
     }
 
-    private String getSpecialtyDoctors(String message, String patientName) {
+    private String getSpecialtyDoctors(String specialty, String patientName) {
         try {
-            List<Doctor> doctors = doctorRepository.findByStatus(DoctorStatus.APPROVED);
-            String specialty = extractSpecialty(message);
-
-            List<Doctor> specialtyDoctors = doctors.stream()
-                    .filter(d -> d.getSpecialization().toLowerCase().contains(specialty.toLowerCase()))
-                    .collect(Collectors.toList());
+            // Best rated first; the index matches specializations containing the text, as the directory did
+            List<DoctorSearchIndex.Hit> specialtyDoctors = doctorSearchIndex.search(
+                    DoctorSearchIndex.Criteria.bySpecialization(specialty), DoctorSearchIndex.SortOrder.RATING, 0, 3)
+                    .doctors();
 
             if (specialtyDoctors.isEmpty()) {
                 return String.format("Hi %s! We don't currently have %s specialists available. " +
@@ -609,16 +416,16 @@ public class ChatbotService {
             StringBuilder response = new StringBuilder(String.format("Great choice, %s! Here are our %s specialists:\n\n",
                     patientName, specialty));
 
-            specialtyDoctors.stream().limit(3).forEach(doctor -> {
+            specialtyDoctors.forEach(doctor -> {
                 response.append(String.format("👨‍⚕️ **Dr. %s %s**\n" +
                                 "💰 Consultation: ₹%s\n" +
                                 "📞 Contact: %s\n" +
                                 "⭐ Experience: %s\n\n",
-                        doctor.getFirstName(),
-                        doctor.getLastName(),
-                        doctor.getConsultationFees() != null ? doctor.getConsultationFees() : "Contact for pricing",
-                        doctor.getContactNumber() != null ? doctor.getContactNumber() : "Available through booking",
-                        doctor.getSpecialization()));
+                        doctor.firstName(),
+                        doctor.lastName(),
+                        doctor.consultationFees() != null ? doctor.consultationFees() : "Contact for pricing",
+                        doctor.contactNumber() != null ? doctor.contactNumber() : "Available through booking",
+                        doctor.specialization()));
             });
 
             response.append("Would you like me to help you book an appointment with any of these specialists?");
@@ -630,9 +437,8 @@ public class ChatbotService {
         }
     }
 
-    private String getMentalHealthSupport(String message, String patientName) {
-        if (message.contains("see psychiatrist") || message.contains("need psychiatrist") ||
-                message.contains("book psychiatrist")) {
+    private String getMentalHealthSupport(ClassifiedMessage message, String patientName) {
+        if (message.mentions("see psychiatrist", "need psychiatrist", "book psychiatrist")) {
             return String.format("I understand you're looking for psychiatric care, %s. 🧠\n\n" +
                     "Our psychiatrists can help with:\n" +
                     "💊 Medication management for depression, anxiety, bipolar disorder\n" +
@@ -645,7 +451,7 @@ public class ChatbotService {
                     "Would you like me to help you book a consultation?", patientName);
         }
 
-        if (message.contains("anxiety") || message.contains("anxious")) {
+        if (message.mentions("anxiety", "anxious")) {
             return String.format("I understand you're feeling anxious, %s. You're not alone, and I'm here to help. 💙\n\n" +
                     "Immediate relief techniques:\n" +
                     "🧘 Deep breathing: 4 counts in, hold 4, exhale 6\n" +
@@ -685,8 +491,8 @@ public class ChatbotService {
                 "You can choose a doctor from any specialty. Which type of doctor are you looking for?", patientName);
     }
 
-    private String getAppointmentManagement(String message, Long patientId, String patientName) {
-        if (message.contains("cancel")) {
+    private String getAppointmentManagement(ClassifiedMessage message, Long patientId, String patientName) {
+        if (message.mentions("cancel")) {
             return String.format("I understand you want to cancel an appointment, %s! Here's how to do it:\n\n" +
                     "📱 **To Cancel Your Appointment:**\n" +
                     "1️⃣ Go to 'My Appointments' section in your dashboard\n" +
@@ -700,7 +506,7 @@ public class ChatbotService {
                     "Need help finding a specific appointment to cancel?", patientName);
         }
 
-        if (message.contains("reschedule")) {
+        if (message.mentions("reschedule")) {
             return String.format("Of course, %s! Here's how to reschedule your appointment:\n\n" +
                     "📱 Go to 'My Appointments' section\n" +
                     "🔍 Find the appointment you want to change\n" +
@@ -767,21 +573,6 @@ public class ChatbotService {
     }
 
     // UTILITY METHODS
-    private String extractSpecialty(String message) {
-        if (message.contains("cardiologist") || message.contains("cardiology")) return "Cardiology";
-        if (message.contains("neurologist") || message.contains("neurology")) return "Neurology";
-        if (message.contains("dermatologist") || message.contains("dermatology")) return "Dermatology";
-        if (message.contains("orthopedic") || message.contains("orthopedics")) return "Orthopedics";
-        if (message.contains("pediatrician") || message.contains("pediatrics")) return "Pediatrics";
-        if (message.contains("psychiatrist") || message.contains("psychiatry")) return "Psychiatry";
-        if (message.contains("psychologist") || message.contains("psychology")) return "Psychology";
-        if (message.contains("gynecologist") || message.contains("gynecology")) return "Gynecology";
-        if (message.contains("endocrinologist")) return "Endocrinology";
-        if (message.contains("urologist")) return "Urology";
-        if (message.contains("oncologist")) return "Oncology";
-        return "General Medicine";
-    }
-
     private String getSpecializationEmoji(String specialization) {
         String spec = specialization.toLowerCase();
         if (spec.contains("cardio")) return "❤️";
@@ -804,18 +595,94 @@ public class ChatbotService {
             chatMessage.setResponse(response);
             chatMessage.setIsUserMessage(isUserMessage);
             chatMessage.setCreatedAt(LocalDateTime.now());
-            chatMessageRepository.save(chatMessage);
+            chatMessageWriteBuffer.enqueue(chatMessage);
         } catch (Exception e) {
-            System.err.println("Error saving chat message: " + e.getMessage());
+            logger.error("Error saving chat message: {}", e.getMessage());
         }
     }
 
+    // Not read-only, so it runs on the primary: the buffer flushes on a job thread, which
+    // does not pin this caller, and a replica could miss messages that just left the buffer
+    @Transactional
     public List<ChatMessage> getChatHistory(String sessionId) {
         try {
-            return chatMessageRepository.findBySessionIdOrderByCreatedAtAsc(sessionId);
+            return chatMessageWriteBuffer.readThrough(() -> {
+                // chat_messages is read first: that read fixes the transaction's snapshot, and
+                // it has to happen under readThrough so no flush commits before the buffer copy
+                List<ChatMessage> stored = chatMessageRepository.findBySessionIdOrderByCreatedAtAsc(sessionId);
+                // Archived messages all predate the ones still in chat_messages
+                List<ChatMessage> history = new ArrayList<>(chatArchiveService.readArchived(sessionId));
+                history.addAll(stored);
+                return history;
+            }, pending -> sessionId.equals(pending.getSessionId()));
         } catch (Exception e) {
-            System.err.println("Error retrieving chat history: " + e.getMessage());
+            logger.error("Error retrieving chat history: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * One page of a session's history, oldest first, archived messages included.
+     * Pass the returned nextCursor to get the following page; it is null on the last
+     * page, which also includes messages that are still waiting to be written. Runs
+     * on the primary for the same reason as getChatHistory.
+     */
+    @Transactional
+    public Map<String, Object> getChatHistoryPage(String sessionId, String cursor, int limit) {
+        ChatMessage after = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor);
+
+        AtomicBoolean more = new AtomicBoolean();
+        // Everything is read under readThrough, chat_messages first, for the same reason as
+        // in getChatHistory; buffered messages only belong on the last page
+        List<ChatMessage> messages = chatMessageWriteBuffer.readThrough(() -> {
+            Limit fetch = Limit.of(limit + 1);
+            List<ChatMessage> stored = after == null
+                    ? chatMessageRepository.findBySessionIdOrderByCreatedAtAscIdAsc(sessionId, fetch)
+                    : chatMessageRepository.findSessionPageAfter(sessionId, after.getCreatedAt(), after.getId(), fetch);
+
+            // Archived messages come first; a cursor past them simply filters them all out
+            List<ChatMessage> page = new ArrayList<>();
+            for (ChatMessage archived : chatArchiveService.readArchived(sessionId)) {
+                if (after == null || isAfter(archived, after)) {
+                    page.add(archived);
+                }
+            }
+            page.addAll(stored);
+            if (page.size() > limit) {
+                more.set(true);
+                return page.subList(0, limit);
+            }
+            return page;
+        }, pending -> !more.get() && sessionId.equals(pending.getSessionId()));
+        boolean hasMore = more.get();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("messages", messages);
+        result.put("hasMore", hasMore);
+        result.put("nextCursor", hasMore ? encodeCursor(messages.get(messages.size() - 1)) : null);
+        return result;
+    }
+
+    private static boolean isAfter(ChatMessage message, ChatMessage position) {
+        int byTime = message.getCreatedAt().compareTo(position.getCreatedAt());
+        return byTime > 0 || (byTime == 0 && message.getId() > position.getId());
+    }
+
+    private static String encodeCursor(ChatMessage last) {
+        String raw = last.getCreatedAt() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ChatMessage decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            ChatMessage position = new ChatMessage();
+            position.setCreatedAt(LocalDateTime.parse(raw.substring(0, separator)));
+            position.setId(Long.valueOf(raw.substring(separator + 1)));
+            return position;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid history cursor");
+        }
+    }
+}
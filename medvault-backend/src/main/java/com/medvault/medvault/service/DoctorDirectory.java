@@ -0,0 +1,121 @@
+package com.medvault.medvault.service;
+
+import com.medvault.medvault.event.DoctorProfileChangedEvent;
+import com.medvault.medvault.model.Doctor;
+import com.medvault.medvault.model.DoctorStatus;
+import com.medvault.medvault.repository.DoctorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Precomputed view of the approved doctors, grouped by specialization, for the
+ * chatbot's directory answers. The snapshot is immutable and swapped in whole, so
+ * readers never lock or hit the database; it is rebuilt after doctor profile or
+ * approval changes, and periodically in case rows were changed outside the app.
+ */
+@Service
+public class DoctorDirectory {
+
+    private static final Logger logger = LoggerFactory.getLogger(DoctorDirectory.class);
+
+    private static final int TOP_SPECIALTIES = 6;
+
+    public record Entry(Long doctorId, String firstName, String lastName, String specialization,
+                        Double consultationFees, String contactNumber, String email) {
+        static Entry of(Doctor doctor) {
+            return new Entry(doctor.getId(), doctor.getFirstName(), doctor.getLastName(),
+                    doctor.getSpecialization(), doctor.getConsultationFees(), doctor.getContactNumber(),
+                    doctor.getEmail());
+        }
+    }
+
+    public record Specialty(String name, List<Entry> doctors) {
+        public int count() {
+            return doctors.size();
+        }
+    }
+
+    public record Snapshot(List<Entry> doctors, List<Specialty> specialties, List<Specialty> topSpecialties) {
+        public boolean isEmpty() {
+            return doctors.isEmpty();
+        }
+    }
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    private volatile Snapshot snapshot;
+
+    // A lock rather than synchronized: a virtual thread blocked on JDBC inside a monitor pins its carrier
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        return current != null ? current : rebuild();
+    }
+
+    public Snapshot rebuild() {
+        rebuildLock.lock();
+        try {
+            return doRebuild();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private Snapshot doRebuild() {
+        List<Entry> doctors = doctorRepository.findByStatus(DoctorStatus.APPROVED).stream()
+                .filter(d -> d.getSpecialization() != null)
+                .map(Entry::of)
+                .toList();
+
+        // groupingBy keeps the order the chatbot has always listed specialties in
+        Map<String, List<Entry>> grouped = doctors.stream()
+                .collect(Collectors.groupingBy(Entry::specialization));
+        List<Specialty> specialties = grouped.entrySet().stream()
+                .map(e -> new Specialty(e.getKey(), List.copyOf(e.getValue())))
+                .toList();
+        List<Specialty> top = specialties.stream()
+                .sorted((a, b) -> Integer.compare(b.count(), a.count()))
+                .limit(TOP_SPECIALTIES)
+                .toList();
+
+        Snapshot built = new Snapshot(doctors, specialties, top);
+        snapshot = built;
+        logger.debug("Doctor directory rebuilt: {} doctors in {} specialties", doctors.size(), specialties.size());
+        return built;
+    }
+
+    // After commit, so the rebuild sees the new row
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDoctorProfileChanged(DoctorProfileChangedEvent event) {
+        refresh();
+    }
+
+    public void refresh() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.warn("Could not rebuild doctor directory, keeping previous snapshot: {}", e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return Collections.singletonMap("built", false);
+        }
+        return Map.of("built", true,
+                "doctors", current.doctors().size(),
+                "specialties", current.specialties().size());
+    }
+}
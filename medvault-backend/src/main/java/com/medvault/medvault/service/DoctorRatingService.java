@@ -0,0 +1,81 @@
+package com.medvault.medvault.service;
+
+import com.medvault.medvault.dto.DoctorRatingDTO;
+import com.medvault.medvault.event.DoctorRatingChangedEvent;
+import com.medvault.medvault.model.DoctorRatingStats;
+import com.medvault.medvault.repository.DoctorRatingStatsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-doctor rating aggregates (doctor_rating_stats), so the average, count and
+ * star distribution are one primary-key read instead of a pass over feedback.
+ */
+@Service
+public class DoctorRatingService {
+
+    @Autowired
+    private DoctorRatingStatsRepository statsRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Counts a new rating. Call it in the transaction that saves the feedback, so
+     * both commit or neither does.
+     */
+    @Transactional
+    public void recordRating(Long doctorId, int rating) {
+        if (rating < 1 || rating > 5) {
+            throw new IllegalArgumentException("Rating must be between 1 and 5");
+        }
+        if (statsRepository.addRating(doctorId, rating) == 0) {
+            // Rows are created on approval; this covers a doctor approved some other way.
+            // Inserted in this transaction: on MySQL the update above holds a gap lock that
+            // a second connection's insert would wait on until the lock timeout.
+            statsRepository.saveAndFlush(new DoctorRatingStats(doctorId));
+            if (statsRepository.addRating(doctorId, rating) == 0) {
+                throw new IllegalStateException("No rating stats for doctor " + doctorId);
+            }
+        }
+        eventPublisher.publishEvent(new DoctorRatingChangedEvent(doctorId));
+    }
+
+    /**
+     * Creates the doctor's empty aggregate if it doesn't exist yet. Called when a doctor
+     * is approved, so ratings only ever update an existing row.
+     */
+    @Transactional
+    public void createStats(Long doctorId) {
+        if (!statsRepository.existsById(doctorId)) {
+            statsRepository.saveAndFlush(new DoctorRatingStats(doctorId));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public DoctorRatingDTO getRating(Long doctorId) {
+        return statsRepository.findById(doctorId).map(DoctorRatingDTO::of)
+                .orElseGet(() -> DoctorRatingDTO.none(doctorId));
+    }
+
+    /**
+     * Summaries keyed by doctor id, in the order given; doctors without ratings get
+     * an empty one.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, DoctorRatingDTO> getRatings(Collection<Long> doctorIds) {
+        Map<Long, DoctorRatingDTO> ratings = new LinkedHashMap<>();
+        doctorIds.forEach(id -> ratings.put(id, DoctorRatingDTO.none(id)));
+        if (!doctorIds.isEmpty()) {
+            statsRepository.findByDoctorIdIn(doctorIds)
+                    .forEach(stats -> ratings.put(stats.getDoctorId(), DoctorRatingDTO.of(stats)));
+        }
+        return ratings;
+    }
+}
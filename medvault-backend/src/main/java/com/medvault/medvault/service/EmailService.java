@@ -1,6 +1,8 @@
 // service/EmailService.java
 package com.medvault.medvault.service;
 
+import com.medvault.medvault.service.metrics.BusinessMetrics;
+import io.micrometer.core.instrument.Timer;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import org.slf4j.Logger;
@@ -10,13 +12,20 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 
+/**
+ * Outgoing mail. Every send runs on the async task executor (virtual threads when
+ * spring.threads.virtual.enabled is set), so a slow SMTP server never holds up the
+ * request or scheduler thread that triggered it. Failures are logged, not thrown.
+ */
 @Service
+@Async
 public class EmailService {
 
     private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
@@ -26,6 +35,9 @@ public class EmailService {
     @Autowired
     private JavaMailSender mailSender;
 
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
     // It's best practice to configure these in your application.properties
     @Value("${spring.mail.username}")
     private String fromEmail;
@@ -41,6 +53,8 @@ public class EmailService {
      * @param htmlContent The main content of the email in HTML format.
      */
     private void sendHtmlEmail(String to, String subject, String htmlContent) {
+        Timer.Sample sample = businessMetrics.start();
+        boolean sent = false;
         try {
             MimeMessage message = mailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
@@ -51,10 +65,27 @@ public class EmailService {
             helper.setText(htmlContent, true);
 
             mailSender.send(message);
+            sent = true;
             logger.info("HTML email sent successfully to {}", to);
         } catch (MessagingException e) {
             logger.error("Failed to send HTML email to {}: {}", to, e.getMessage());
             // Depending on your application's needs, you might want to re-throw this as a custom exception
+        } finally {
+            businessMetrics.emailFinished(sample, "html", sent);
+        }
+    }
+
+    /**
+     * Sends a plain-text message and records it; exceptions still reach the caller.
+     */
+    private void sendPlainEmail(SimpleMailMessage message) {
+        Timer.Sample sample = businessMetrics.start();
+        boolean sent = false;
+        try {
+            mailSender.send(message);
+            sent = true;
+        } finally {
+            businessMetrics.emailFinished(sample, "plain", sent);
         }
     }
 
@@ -245,7 +276,7 @@ public class EmailService {
                     doctorName, patientName, urgencyLevel, symptoms, contactNumber, emergencyId
             ));
 
-            mailSender.send(message);
+            sendPlainEmail(message);
             logger.info("Emergency notification sent to doctor: {}", doctorEmail);
         } catch (Exception e) {
             logger.error("Failed to send emergency notification: {}", e.getMessage());
@@ -272,7 +303,7 @@ public class EmailService {
                     proposedTime != null ? proposedTime : "To be confirmed via call"
             ));
 
-            mailSender.send(message);
+            sendPlainEmail(message);
             logger.info("Emergency acceptance notification sent to patient: {}", patientEmail);
         } catch (Exception e) {
             logger.error("Failed to send emergency acceptance notification: {}", e.getMessage());
@@ -298,7 +329,7 @@ public class EmailService {
                     doctorName, patientName, recordTitle, permissionType
             ));
 
-            mailSender.send(message);
+            sendPlainEmail(message);
             logger.info("Record access notification sent to doctor: {}", doctorEmail);
         } catch (Exception e) {
             logger.error("Failed to send record access notification: {}", e.getMessage());
@@ -321,7 +352,7 @@ public class EmailService {
                     doctorName, patientName, recordTitle
             ));
 
-            mailSender.send(message);
+            sendPlainEmail(message);
             logger.info("Record access revoked notification sent to doctor: {}", doctorEmail);
         } catch (Exception e) {
             logger.error("Failed to send record access revoked notification: {}", e.getMessage());
@@ -0,0 +1,59 @@
+package com.medvault.medvault.service;
+
+import com.medvault.medvault.config.SecondLevelCacheConfig;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admin view of Hibernate's second-level cache (see {@link SecondLevelCacheConfig}):
+ * per-region counters, and a way to drop everything after rows were changed behind
+ * the application's back.
+ */
+@Service
+public class EntityCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(EntityCache.class);
+
+    private static final List<String> REGIONS = List.of(
+            SecondLevelCacheConfig.DOCTORS, SecondLevelCacheConfig.FAQ_ITEMS, SecondLevelCacheConfig.TIME_SLOTS);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    public void evictAll() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        logger.info("Evicted all second-level cache regions");
+    }
+
+    public Map<String, Object> getStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        if (!statistics.isStatisticsEnabled()) {
+            stats.put("statisticsEnabled", false);
+            return stats;
+        }
+        for (String region : REGIONS) {
+            CacheRegionStatistics regionStats = statistics.getDomainDataRegionStatistics(region);
+            stats.put(region, Map.of(
+                    "hits", regionStats.getHitCount(),
+                    "misses", regionStats.getMissCount(),
+                    "puts", regionStats.getPutCount(),
+                    "size", regionStats.getElementCountInMemory()));
+        }
+        stats.put("queries", Map.of(
+                "hits", statistics.getQueryCacheHitCount(),
+                "misses", statistics.getQueryCacheMissCount(),
+                "puts", statistics.getQueryCachePutCount()));
+        return stats;
+    }
+}
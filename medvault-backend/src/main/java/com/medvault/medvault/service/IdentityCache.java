@@ -0,0 +1,170 @@
+package com.medvault.medvault.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.medvault.medvault.event.DoctorProfileChangedEvent;
+import com.medvault.medvault.event.PatientProfileChangedEvent;
+import com.medvault.medvault.model.Doctor;
+import com.medvault.medvault.model.DoctorStatus;
+import com.medvault.medvault.model.Patient;
+import com.medvault.medvault.model.PatientStatus;
+import com.medvault.medvault.repository.DoctorRepository;
+import com.medvault.medvault.repository.PatientRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Near cache for the userId -> doctor/patient identity lookups done at the start of
+ * most requests. Only small immutable snapshots are cached, never JPA entities, so
+ * nothing detached leaks into other sessions. Entries are evicted on profile and
+ * approval changes and expire after a TTL as a safety net.
+ */
+@Service
+public class IdentityCache {
+
+    public record DoctorIdentity(Long doctorId, Long userId, DoctorStatus status,
+                                 String firstName, String lastName) {
+        static DoctorIdentity of(Doctor doctor) {
+            return new DoctorIdentity(doctor.getId(), doctor.getUserId(), doctor.getStatus(),
+                    doctor.getFirstName(), doctor.getLastName());
+        }
+    }
+
+    public record PatientIdentity(Long patientId, Long userId, PatientStatus status,
+                                  String firstName, String lastName) {
+        static PatientIdentity of(Patient patient) {
+            return new PatientIdentity(patient.getId(), patient.getUserId(), patient.getStatus(),
+                    patient.getFirstName(), patient.getLastName());
+        }
+    }
+
+    private final DoctorRepository doctorRepository;
+    private final PatientRepository patientRepository;
+
+    // Optional values so "no profile yet" is cached too
+    private final Cache<Long, Optional<DoctorIdentity>> doctors;
+    private final Cache<Long, Optional<PatientIdentity>> patients;
+
+    // Bumped on every eviction; a load that started before one is not cached
+    private final AtomicLong evictions = new AtomicLong();
+
+    @Autowired
+    public IdentityCache(DoctorRepository doctorRepository,
+                         PatientRepository patientRepository,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.cache.identity.max-size:10000}") long maxSize,
+                         @Value("${app.cache.identity.ttl-seconds:300}") long ttlSeconds) {
+        this.doctorRepository = doctorRepository;
+        this.patientRepository = patientRepository;
+        this.doctors = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.patients = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, doctors, "identity.doctors");
+        CaffeineCacheMetrics.monitor(meterRegistry, patients, "identity.patients");
+    }
+
+    public Optional<DoctorIdentity> findDoctor(Long userId) {
+        if (userId == null) {
+            return Optional.empty();
+        }
+        return getOrLoad(doctors, userId, id -> doctorRepository.findByUserId(id).map(DoctorIdentity::of));
+    }
+
+    public Optional<PatientIdentity> findPatient(Long userId) {
+        if (userId == null) {
+            return Optional.empty();
+        }
+        return getOrLoad(patients, userId, id -> patientRepository.findByUserId(id).map(PatientIdentity::of));
+    }
+
+    /**
+     * Loads outside the cache's compute lock. Caffeine's get(key, loader) runs the
+     * loader inside ConcurrentHashMap.compute, which is a synchronized block, so a
+     * virtual thread doing JDBC there would pin its carrier thread.
+     */
+    private <T> Optional<T> getOrLoad(Cache<Long, Optional<T>> cache, Long userId,
+                                      Function<Long, Optional<T>> loader) {
+        Optional<T> cached = cache.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = evictions.get();
+        Optional<T> loaded = loader.apply(userId);
+        if (evictions.get() == generation) {
+            Optional<T> raced = cache.asMap().putIfAbsent(userId, loaded);
+            return raced != null ? raced : loaded;
+        }
+        return loaded;
+    }
+
+    public boolean isApprovedDoctor(Long userId) {
+        return findDoctor(userId).map(doctor -> doctor.status() == DoctorStatus.APPROVED).orElse(false);
+    }
+
+    public void evictDoctor(Long doctorId, Long userId) {
+        evictions.incrementAndGet();
+        if (userId != null) {
+            doctors.invalidate(userId);
+        } else if (doctorId != null) {
+            doctors.asMap().values().removeIf(entry -> entry.map(d -> doctorId.equals(d.doctorId())).orElse(false));
+        }
+    }
+
+    public void evictPatient(Long patientId, Long userId) {
+        evictions.incrementAndGet();
+        if (userId != null) {
+            patients.invalidate(userId);
+        } else if (patientId != null) {
+            patients.asMap().values().removeIf(entry -> entry.map(p -> patientId.equals(p.patientId())).orElse(false));
+        }
+    }
+
+    // Runs once the transaction is over so a concurrent reader can't re-cache the pre-update
+    // row; on rollback too, since a lookup inside the transaction may have cached its changes
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onDoctorProfileChanged(DoctorProfileChangedEvent event) {
+        evictDoctor(event.doctorId(), event.userId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onPatientProfileChanged(PatientProfileChangedEvent event) {
+        evictPatient(event.patientId(), event.userId());
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("doctors", describe(doctors.stats(), doctors.estimatedSize()));
+        stats.put("patients", describe(patients.stats(), patients.estimatedSize()));
+        return stats;
+    }
+
+    private static Map<String, Object> describe(CacheStats stats, long size) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", size);
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", Math.round(stats.hitRate() * 1000.0) / 1000.0);
+        result.put("evictionCount", stats.evictionCount());
+        return result;
+    }
+}
@@ -1,9 +1,11 @@
 package com.medvault.medvault.service;
 
+import com.medvault.medvault.event.RecordPermissionChangedEvent;
 import com.medvault.medvault.model.*;
 import com.medvault.medvault.repository.*;
+import com.medvault.medvault.service.metrics.BusinessMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
@@ -24,6 +26,12 @@ public class RecordPermissionService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
     // ✅ FIXED: Granular permission method with proper constructor
     @Transactional
     public RecordPermission grantGranularPermission(Patient patient, Doctor doctor, MedicalRecord record,
@@ -71,7 +79,10 @@ public class RecordPermissionService {
             permission.setExpiresAt(LocalDateTime.now().plusHours(permission.getAccessDurationHours()));
         }
 
-        return recordPermissionRepository.save(permission);
+        RecordPermission saved = recordPermissionRepository.save(permission);
+        eventPublisher.publishEvent(new RecordPermissionChangedEvent(saved.getId(), saved.getExpiresAt()));
+        businessMetrics.permissionChanged("granted", "granular", 1);
+        return saved;
     }
 
     // ✅ Immediate revoke method
@@ -103,6 +114,8 @@ public class RecordPermissionService {
             permission.setIsGranted(false);
             permission.setRevokedAt(LocalDateTime.now());
             recordPermissionRepository.save(permission);
+            eventPublisher.publishEvent(new RecordPermissionChangedEvent(permissionId, null));
+            businessMetrics.permissionChanged("revoked", "manual", 1);
 
             // ✅ NOTIFY: Send email to doctor (optional)
             try {
@@ -126,8 +139,8 @@ public class RecordPermissionService {
         }
     }
 
-    // ✅ FIXED: Auto-revoke scheduled task
-    @Scheduled(fixedRate = 900000) // 15 minutes
+    // ✅ FIXED: Auto-revoke scheduled task. PermissionExpiryScheduler revokes on time;
+    // this sweep only catches what it missed (e.g. grants made on a node that went down)
     @Transactional
     public void autoRevokeExpiredPermissions() {
         try {
@@ -135,7 +148,8 @@ public class RecordPermissionService {
             int revokedCount = recordPermissionRepository.autoRevokeExpiredPermissions(now);
 
             if (revokedCount > 0) {
-                logger.info("Auto-revoked {} expired permissions at {}", revokedCount, now);
+                businessMetrics.permissionChanged("revoked", "safety_net", revokedCount);
+                logger.warn("Safety-net sweep auto-revoked {} expired permissions at {}", revokedCount, now);
             }
         } catch (Exception e) {
             logger.error("Error during auto-revoke of expired permissions: {}", e.getMessage(), e);
@@ -143,7 +157,6 @@ public class RecordPermissionService {
     }
 
     // ✅ NEW: Send expiry warnings
-    @Scheduled(fixedRate = 3600000) // 1 hour
     public void sendExpiryWarnings() {
         try {
             LocalDateTime now = LocalDateTime.now();
@@ -0,0 +1,56 @@
+package com.medvault.medvault.service;
+
+import com.medvault.medvault.model.Doctor;
+import com.medvault.medvault.model.FAQItem;
+import com.medvault.medvault.model.TimeSlot;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that bumps the {@link ResourceVersions} counter for whatever a
+ * doctor, FAQ item or time slot change affects. The bump waits for the commit, so a
+ * request that reads in between still gets the old data under the old tag.
+ *
+ * <p>Hibernate gets this bean from Spring. JPA slice tests have no ResourceVersions,
+ * hence the optional injection.
+ */
+@Component
+public class ResourceVersionListener {
+
+    @Autowired(required = false)
+    private ResourceVersions resourceVersions;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void changed(Object entity) {
+        if (resourceVersions == null) {
+            return;
+        }
+        String aggregate;
+        if (entity instanceof Doctor) {
+            aggregate = ResourceVersions.APPROVED_DOCTORS;
+        } else if (entity instanceof FAQItem) {
+            aggregate = ResourceVersions.FAQS;
+        } else if (entity instanceof TimeSlot slot) {
+            aggregate = ResourceVersions.slotsOf(slot.getDoctorId());
+        } else {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    resourceVersions.bump(aggregate);
+                }
+            });
+        } else {
+            resourceVersions.bump(aggregate);
+        }
+    }
+}
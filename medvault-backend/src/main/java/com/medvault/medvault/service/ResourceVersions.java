@@ -0,0 +1,59 @@
+package com.medvault.medvault.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Version counters for the data behind the pollable list endpoints, used as their
+ * ETags so a conditional GET can be answered with 304 before any query runs.
+ * {@link ResourceVersionListener} bumps a counter after every committed change to the
+ * entities behind it.
+ *
+ * <p>The counters live in this JVM only, so nodes that have seen the same number of
+ * changes hand out the same tag, and a client's tag stays valid when the load
+ * balancer sends it elsewhere. The ETag also carries a time window of
+ * app.http.etag.max-stale-ms: a change made through another node, which this one
+ * has not counted, is picked up within that window at the latest. Tags are weak
+ * (W/): the JSON is equivalent, not byte-identical, and Tomcat only compresses
+ * responses with weak ETags.
+ */
+@Component
+public class ResourceVersions {
+
+    public static final String APPROVED_DOCTORS = "doctors";
+    public static final String FAQS = "faqs";
+
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final long maxStaleMs;
+    private final LongSupplier clock;
+
+    @Autowired
+    public ResourceVersions(@Value("${app.http.etag.max-stale-ms:60000}") long maxStaleMs) {
+        this(maxStaleMs, System::currentTimeMillis);
+    }
+
+    ResourceVersions(long maxStaleMs, LongSupplier clock) {
+        this.maxStaleMs = maxStaleMs;
+        this.clock = clock;
+    }
+
+    public static String slotsOf(Long doctorId) {
+        return "slots:" + doctorId;
+    }
+
+    public String etag(String aggregate) {
+        AtomicLong version = versions.get(aggregate);
+        long window = clock.getAsLong() / maxStaleMs;
+        return "W/\"" + (version == null ? 0 : version.get()) + "-" + window + "\"";
+    }
+
+    public void bump(String aggregate) {
+        versions.computeIfAbsent(aggregate, key -> new AtomicLong()).incrementAndGet();
+    }
+}
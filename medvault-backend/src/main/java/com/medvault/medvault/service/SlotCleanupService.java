@@ -5,7 +5,6 @@ import com.medvault.medvault.repository.TimeSlotRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.stereotype.Service;
 
@@ -21,8 +20,6 @@ public class SlotCleanupService {
     @Autowired
     private TimeSlotRepository timeSlotRepository;
 
-    // Run every hour
-    @Scheduled(fixedRate = 3600000) // 1 hour = 3600000 milliseconds
     public void cleanupExpiredSlots() {
         try {
             LocalDateTime now = LocalDateTime.now();
@@ -0,0 +1,74 @@
+package com.medvault.medvault.service;
+
+import com.medvault.medvault.event.TimeSlotsChangedEvent;
+import com.medvault.medvault.model.TimeSlot;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * JPA entity listener that publishes a {@link TimeSlotsChangedEvent} for every slot
+ * write, so bookings, new slots and the cleanup job are all seen without each caller
+ * publishing. Inside a transaction the doctor ids are collected and published once
+ * after commit: deleting a thousand expired slots is one event, not a thousand.
+ */
+@Component
+public class TimeSlotChangeListener {
+
+    // Transaction resource key for the doctor ids collected so far
+    private static final Object CHANGED_DOCTORS = new Object();
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    @SuppressWarnings("unchecked")
+    public void changed(TimeSlot slot) {
+        if (eventPublisher == null || slot.getDoctorId() == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eventPublisher.publishEvent(new TimeSlotsChangedEvent(Set.of(slot.getDoctorId())));
+            return;
+        }
+        Set<Long> doctorIds = (Set<Long>) TransactionSynchronizationManager.getResource(CHANGED_DOCTORS);
+        if (doctorIds == null) {
+            Set<Long> collected = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(CHANGED_DOCTORS, collected);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                // A REQUIRES_NEW transaction in between collects and publishes its own
+                @Override
+                public void suspend() {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CHANGED_DOCTORS);
+                }
+
+                @Override
+                public void resume() {
+                    TransactionSynchronizationManager.bindResource(CHANGED_DOCTORS, collected);
+                }
+
+                @Override
+                public void afterCommit() {
+                    eventPublisher.publishEvent(new TimeSlotsChangedEvent(Set.copyOf(collected)));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CHANGED_DOCTORS);
+                }
+            });
+            doctorIds = collected;
+        }
+        doctorIds.add(slot.getDoctorId());
+    }
+}
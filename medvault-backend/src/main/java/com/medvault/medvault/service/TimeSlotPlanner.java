@@ -0,0 +1,42 @@
+package com.medvault.medvault.service;
+
+import com.medvault.medvault.dto.TimeSlotRequest;
+import com.medvault.medvault.model.TimeSlot;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns a recurring slot request into the individual slots to save: one slot at the
+ * requested time on every selected weekday up to the end date.
+ */
+@Service
+public class TimeSlotPlanner {
+
+    public List<TimeSlot> expandRecurring(TimeSlotRequest request, Long doctorId) {
+        List<TimeSlot> slots = new ArrayList<>();
+        LocalDate startDate = request.getStartTime().toLocalDate();
+        LocalDate endDate = LocalDate.parse(request.getRecurringEndDate());
+        LocalTime time = request.getStartTime().toLocalTime();
+
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            String currentDayOfWeek = date.getDayOfWeek().toString(); // e.g., "MONDAY"
+
+            if (request.getRecurringDays().contains(currentDayOfWeek)) {
+                TimeSlot slot = new TimeSlot();
+                slot.setDoctorId(doctorId);
+                slot.setStartTime(date.atTime(time));
+                slot.setEndTime(date.atTime(time).plusMinutes(request.getDuration()));
+                slot.setIsAvailable(true);
+                slot.setDuration(request.getDuration());
+                slot.setAppointmentType(request.getAppointmentType());
+                slot.setBufferTime(request.getBufferTime());
+                slots.add(slot);
+            }
+        }
+        return slots;
+    }
+}
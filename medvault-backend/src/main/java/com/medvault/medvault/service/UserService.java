@@ -3,8 +3,11 @@ package com.medvault.medvault.service;
 import com.medvault.medvault.model.*;
 import com.medvault.medvault.repository.*;
 import com.medvault.medvault.dto.UserRegistrationRequest;
+import com.medvault.medvault.event.DoctorProfileChangedEvent;
+import com.medvault.medvault.event.PatientProfileChangedEvent;
 import lombok.Data;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -32,6 +35,9 @@ public class UserService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Transactional
     public User registerUser(UserRegistrationRequest request) {
         // Generate temporary password
@@ -78,6 +84,7 @@ public class UserService {
         doctor.setYearsOfExperience(request.getExperienceYears());
 
         doctorRepository.save(doctor);
+        eventPublisher.publishEvent(new DoctorProfileChangedEvent(doctor.getId(), userId));
     }
 
     private void createPatientRecord(Long userId, UserRegistrationRequest request) {
@@ -100,6 +107,7 @@ public class UserService {
         }
 
         patientRepository.save(patient);
+        eventPublisher.publishEvent(new PatientProfileChangedEvent(patient.getId(), userId));
     }
 
     public Optional<User> findByUsername(String username) {
@@ -0,0 +1,23 @@
+package com.medvault.medvault.service.chatbot;
+
+/**
+ * What the chatbot decided a message is about. Declared in the order the rules are evaluated.
+ */
+public enum ChatIntent {
+    GREETING,
+    SHOW_DOCTORS,
+    SPECIALTY_DOCTORS,
+    APPOINTMENT_BOOKING,
+    APPOINTMENT_MANAGEMENT,
+    MEDICAL_RECORDS,
+    EMERGENCY,
+    MENTAL_HEALTH,
+    DOCTOR_REVIEW,
+    HEALTH_SYMPTOM,
+    HEALTH_CONDITION,
+    HEALTH_TREATMENT,
+    HEALTH_MEDICATION,
+    HEALTH_PREVENTION,
+    HEALTH_GENERAL,
+    CONTEXTUAL_HELP
+}
@@ -0,0 +1,288 @@
+package com.medvault.medvault.service.chatbot;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Classifies chat messages with a single pass over the text. Every keyword the chatbot
+ * looks for is compiled into one {@link KeywordAutomaton}; the rules below then only
+ * test bits, in the same priority order ChatbotService has always used:
+ *
+ * <ol>
+ *   <li>platform queries: greeting, doctor list, specialty, booking, appointment
+ *       management, records, emergency, mental health, reviews, else health instructions</li>
+ *   <li>health questions: symptom, condition, treatment, medication, prevention, general</li>
+ *   <li>everything else: contextual help</li>
+ * </ol>
+ *
+ * Messages are expected to be lower-cased and trimmed already.
+ */
+@Component
+public class ChatIntentClassifier {
+
+    private static final String[] PLATFORM = {
+            // Greetings - should be handled by platform
+            "hi", "hello", "hey", "good morning", "good afternoon", "good evening", "start", "begin",
+
+            // Appointment management
+            "book appointment", "booking appointment", "schedule appointment",
+            "book an appointment", "make appointment", "want appointment", "need appointment",
+            "cancel appointment", "cancel my", "reschedule", "upcoming appointment",
+            "my appointments", "view appointments", "manage appointments",
+
+            // Doctor searches
+            "show doctors", "list doctors", "available doctors", "show me doctors",
+            "find doctor", "find a doctor", "doctors near me", "see doctors",
+            "cardiologist", "neurologist", "dermatologist", "orthopedic",
+            "pediatrician", "psychiatrist", "psychologist", "gynecologist",
+
+            // Medical records
+            "medical records", "my records", "health records", "medical history",
+            "prescription history", "lab results", "test results",
+
+            // Emergency
+            "emergency", "urgent", "emergency assistance",
+
+            // Platform navigation
+            "access", "how do i", "where can i", "how to",
+            "update profile", "payment methods", "insurance",
+
+            // Mental health platform services
+            "see psychiatrist", "need psychiatrist", "book psychiatrist",
+            "mental health support"
+    };
+
+    private static final String[] GREETINGS = {
+            "hi", "hello", "hey", "good morning", "good afternoon", "good evening", "start", "begin"
+    };
+
+    private static final String[] SHOW_DOCTORS = {
+            "show doctors", "list doctors", "available doctors", "show me doctors",
+            "find doctor", "find a doctor", "see doctors"
+    };
+
+    private static final String[] SPECIALTIES = {
+            "cardiologist", "neurologist", "dermatologist", "orthopedic",
+            "pediatrician", "psychiatrist", "psychologist", "gynecologist",
+            "cardiology", "neurology", "dermatology", "orthopedics",
+            "pediatrics", "psychiatry", "psychology", "gynecology",
+            "endocrinologist", "urologist", "oncologist", "radiologist"
+    };
+
+    private static final String[] BOOKING = {
+            "book appointment", "book an appointment", "booking appointment",
+            "schedule appointment", "make appointment", "want appointment",
+            "need appointment", "see doctor", "visit doctor", "consultation",
+            "appointment with", "book with"
+    };
+
+    private static final String[] APPOINTMENT_MANAGEMENT = {
+            "my appointments", "reschedule", "cancel appointment", "upcoming appointment",
+            "cancel my", "cancel upcoming", "view appointments", "manage appointments"
+    };
+
+    private static final String[] MEDICAL_RECORDS = {
+            "medical records", "my records", "health records", "medical history"
+    };
+
+    private static final String[] RECORDS_ACCESS = {"access"};
+    private static final String[] RECORDS_SUBJECT = {"records", "history"};
+
+    private static final String[] EMERGENCY = {
+            "emergency", "urgent", "help me", "emergency assistance"
+    };
+
+    private static final String[] MENTAL_HEALTH = {
+            "mental health", "psychiatrist", "psychologist", "therapy",
+            "counseling", "anxiety", "depression", "stress",
+            "anxious", "sad", "worried", "panic",
+            "see psychiatrist", "need psychiatrist"
+    };
+
+    private static final String[] DOCTOR_REVIEW = {
+            "review", "rate", "rating", "stars", "feedback", "opinion"
+    };
+
+    private static final String[] HEALTH_QUESTION = {
+            "what causes", "what is", "what are", "symptoms", "causes",
+            "blood pressure", "diabetes", "anxiety", "headache", "fever",
+            "how do", "why do", "treatment", "medication", "side effects",
+            "pain", "hurt", "ache", "feel sick", "not well", "diagnosis",
+            "disease", "condition", "illness", "infection", "prevention"
+    };
+
+    private static final String[] SYMPTOM = {
+            "symptom", "feel", "pain", "hurt", "ache", "fever", "headache", "sick"
+    };
+
+    private static final String[] CONDITION = {
+            "what is", "what are", "diabetes", "hypertension",
+            "asthma", "condition", "disease", "illness"
+    };
+
+    private static final String[] TREATMENT = {
+            "treatment", "cure", "how to treat", "therapy"
+    };
+
+    private static final String[] MEDICATION = {
+            "medication", "medicine", "pills", "drugs", "side effects", "dosage"
+    };
+
+    private static final String[] PREVENTION = {
+            "prevent", "avoid", "prevention", "protect"
+    };
+
+    /**
+     * Keywords the response builders branch on after classification
+     * (see {@link ClassifiedMessage#mentions(String...)}).
+     */
+    public static final String[] RESPONSE_KEYWORDS = {
+            "cancel", "reschedule",
+            "see psychiatrist", "need psychiatrist", "book psychiatrist",
+            "anxiety", "anxious"
+    };
+
+    private record SpecialtyRule(String name, String... keywords) {
+    }
+
+    // Checked in order; the first hit names the specialty
+    private static final List<SpecialtyRule> SPECIALTY_RULES = List.of(
+            new SpecialtyRule("Cardiology", "cardiologist", "cardiology"),
+            new SpecialtyRule("Neurology", "neurologist", "neurology"),
+            new SpecialtyRule("Dermatology", "dermatologist", "dermatology"),
+            new SpecialtyRule("Orthopedics", "orthopedic", "orthopedics"),
+            new SpecialtyRule("Pediatrics", "pediatrician", "pediatrics"),
+            new SpecialtyRule("Psychiatry", "psychiatrist", "psychiatry"),
+            new SpecialtyRule("Psychology", "psychologist", "psychology"),
+            new SpecialtyRule("Gynecology", "gynecologist", "gynecology"),
+            new SpecialtyRule("Endocrinology", "endocrinologist"),
+            new SpecialtyRule("Urology", "urologist"),
+            new SpecialtyRule("Oncology", "oncologist")
+    );
+
+    private static final String DEFAULT_SPECIALTY = "General Medicine";
+
+    private final KeywordAutomaton automaton;
+
+    private final int[] platform;
+    private final int[] greetings;
+    private final int[] showDoctors;
+    private final int[] specialties;
+    private final int[] booking;
+    private final int[] appointmentManagement;
+    private final int[] medicalRecords;
+    private final int[] recordsAccess;
+    private final int[] recordsSubject;
+    private final int[] emergency;
+    private final int[] mentalHealth;
+    private final int[] doctorReview;
+    private final int[] healthQuestion;
+    private final int[] symptom;
+    private final int[] condition;
+    private final int[] treatment;
+    private final int[] medication;
+    private final int[] prevention;
+    private final int[][] specialtyKeywords;
+
+    public ChatIntentClassifier() {
+        List<String> keywords = new ArrayList<>();
+        for (String[] group : List.of(PLATFORM, GREETINGS, SHOW_DOCTORS, SPECIALTIES, BOOKING,
+                APPOINTMENT_MANAGEMENT, MEDICAL_RECORDS, RECORDS_ACCESS, RECORDS_SUBJECT, EMERGENCY,
+                MENTAL_HEALTH, DOCTOR_REVIEW, HEALTH_QUESTION, SYMPTOM, CONDITION, TREATMENT,
+                MEDICATION, PREVENTION, RESPONSE_KEYWORDS)) {
+            keywords.addAll(List.of(group));
+        }
+        automaton = new KeywordAutomaton(keywords);
+
+        platform = automaton.idsOf(PLATFORM);
+        greetings = automaton.idsOf(GREETINGS);
+        showDoctors = automaton.idsOf(SHOW_DOCTORS);
+        specialties = automaton.idsOf(SPECIALTIES);
+        booking = automaton.idsOf(BOOKING);
+        appointmentManagement = automaton.idsOf(APPOINTMENT_MANAGEMENT);
+        medicalRecords = automaton.idsOf(MEDICAL_RECORDS);
+        recordsAccess = automaton.idsOf(RECORDS_ACCESS);
+        recordsSubject = automaton.idsOf(RECORDS_SUBJECT);
+        emergency = automaton.idsOf(EMERGENCY);
+        mentalHealth = automaton.idsOf(MENTAL_HEALTH);
+        doctorReview = automaton.idsOf(DOCTOR_REVIEW);
+        healthQuestion = automaton.idsOf(HEALTH_QUESTION);
+        symptom = automaton.idsOf(SYMPTOM);
+        condition = automaton.idsOf(CONDITION);
+        treatment = automaton.idsOf(TREATMENT);
+        medication = automaton.idsOf(MEDICATION);
+        prevention = automaton.idsOf(PREVENTION);
+        specialtyKeywords = new int[SPECIALTY_RULES.size()][];
+        for (int i = 0; i < SPECIALTY_RULES.size(); i++) {
+            specialtyKeywords[i] = automaton.idsOf(SPECIALTY_RULES.get(i).keywords());
+        }
+    }
+
+    public ClassifiedMessage classify(String message) {
+        KeywordAutomaton.Matches matches = automaton.scan(message);
+        ChatIntent intent = resolveIntent(message, matches);
+        String specialty = intent == ChatIntent.SPECIALTY_DOCTORS ? resolveSpecialty(matches) : null;
+        return new ClassifiedMessage(intent, automaton, matches, specialty);
+    }
+
+    private ChatIntent resolveIntent(String message, KeywordAutomaton.Matches matches) {
+        if (matches.containsAny(platform)) {
+            if (isGreeting(message, matches)) return ChatIntent.GREETING;
+            if (matches.containsAny(showDoctors) || message.equals("doctors")) return ChatIntent.SHOW_DOCTORS;
+            if (matches.containsAny(specialties)) return ChatIntent.SPECIALTY_DOCTORS;
+            if (matches.containsAny(booking)) return ChatIntent.APPOINTMENT_BOOKING;
+            if (matches.containsAny(appointmentManagement)) return ChatIntent.APPOINTMENT_MANAGEMENT;
+            if (matches.containsAny(medicalRecords)
+                    || matches.containsAny(recordsAccess) && matches.containsAny(recordsSubject)) {
+                return ChatIntent.MEDICAL_RECORDS;
+            }
+            if (matches.containsAny(emergency)) return ChatIntent.EMERGENCY;
+            if (matches.containsAny(mentalHealth)) return ChatIntent.MENTAL_HEALTH;
+            if (matches.containsAny(doctorReview)) return ChatIntent.DOCTOR_REVIEW;
+            return resolveHealthIntent(matches);
+        }
+
+        if (matches.containsAny(healthQuestion)) {
+            return resolveHealthIntent(matches);
+        }
+
+        return ChatIntent.CONTEXTUAL_HELP;
+    }
+
+    private ChatIntent resolveHealthIntent(KeywordAutomaton.Matches matches) {
+        if (matches.containsAny(symptom)) return ChatIntent.HEALTH_SYMPTOM;
+        if (matches.containsAny(condition)) return ChatIntent.HEALTH_CONDITION;
+        if (matches.containsAny(treatment)) return ChatIntent.HEALTH_TREATMENT;
+        if (matches.containsAny(medication)) return ChatIntent.HEALTH_MEDICATION;
+        if (matches.containsAny(prevention)) return ChatIntent.HEALTH_PREVENTION;
+        return ChatIntent.HEALTH_GENERAL;
+    }
+
+    // A greeting is the whole message, or starts it followed by a space or "!"
+    private boolean isGreeting(String message, KeywordAutomaton.Matches matches) {
+        for (int i = 0; i < greetings.length; i++) {
+            if (matches.startsWith(greetings[i])) {
+                int length = GREETINGS[i].length();
+                if (message.length() == length) {
+                    return true;
+                }
+                char next = message.charAt(length);
+                if (next == ' ' || next == '!') {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private String resolveSpecialty(KeywordAutomaton.Matches matches) {
+        for (int i = 0; i < specialtyKeywords.length; i++) {
+            if (matches.containsAny(specialtyKeywords[i])) {
+                return SPECIALTY_RULES.get(i).name();
+            }
+        }
+        return DEFAULT_SPECIALTY;
+    }
+}
@@ -0,0 +1,40 @@
+package com.medvault.medvault.service.chatbot;
+
+/**
+ * Result of classifying one chat message. Besides the intent it keeps the keyword matches,
+ * so response builders can branch on keywords without scanning the message again.
+ */
+public final class ClassifiedMessage {
+
+    private final ChatIntent intent;
+    private final KeywordAutomaton automaton;
+    private final KeywordAutomaton.Matches matches;
+    private final String specialty;
+
+    ClassifiedMessage(ChatIntent intent, KeywordAutomaton automaton,
+                      KeywordAutomaton.Matches matches, String specialty) {
+        this.intent = intent;
+        this.automaton = automaton;
+        this.matches = matches;
+        this.specialty = specialty;
+    }
+
+    public ChatIntent intent() {
+        return intent;
+    }
+
+    /**
+     * Specialty named in the message; only set for {@link ChatIntent#SPECIALTY_DOCTORS}.
+     */
+    public String specialty() {
+        return specialty;
+    }
+
+    /**
+     * Whether the message contains any of the given keywords. Only keywords registered with
+     * {@link ChatIntentClassifier} can be asked about.
+     */
+    public boolean mentions(String... keywords) {
+        return matches.containsAny(automaton.idsOf(keywords));
+    }
+}
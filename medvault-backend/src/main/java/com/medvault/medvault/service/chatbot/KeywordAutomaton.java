@@ -0,0 +1,197 @@
+package com.medvault.medvault.service.chatbot;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aho-Corasick automaton over a fixed keyword set. All keywords are compiled once into
+ * a dense transition table, so finding every keyword in a message is a single pass with
+ * one array lookup per character. Thread-safe after construction.
+ */
+public final class KeywordAutomaton {
+
+    private static final int ASCII = 128;
+
+    private final Map<String, Integer> keywordIds;
+    private final int[] charClass = new int[ASCII];
+    private final int alphabetSize;
+    private final int[][] transitions;
+    private final int[][] outputs;
+    private final int[] keywordLengths;
+
+    public KeywordAutomaton(Collection<String> keywords) {
+        keywordIds = new LinkedHashMap<>();
+        for (String keyword : keywords) {
+            if (keyword == null || keyword.isEmpty()) {
+                throw new IllegalArgumentException("Keywords must not be empty");
+            }
+            keywordIds.putIfAbsent(keyword, keywordIds.size());
+        }
+
+        // Only characters that occur in some keyword get their own column; everything else
+        // (including non-ASCII text) shares column 0, which never advances the automaton.
+        int nextClass = 1;
+        for (String keyword : keywordIds.keySet()) {
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = keyword.charAt(i);
+                if (c >= ASCII) {
+                    throw new IllegalArgumentException("Keywords must be ASCII: " + keyword);
+                }
+                if (charClass[c] == 0) {
+                    charClass[c] = nextClass++;
+                }
+            }
+        }
+        alphabetSize = nextClass;
+
+        // 1. Trie
+        List<int[]> gotoTable = new ArrayList<>();
+        List<List<Integer>> stateOutputs = new ArrayList<>();
+        gotoTable.add(newRow());
+        stateOutputs.add(new ArrayList<>());
+        keywordLengths = new int[keywordIds.size()];
+
+        for (Map.Entry<String, Integer> entry : keywordIds.entrySet()) {
+            String keyword = entry.getKey();
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                int symbol = charClass[keyword.charAt(i)];
+                if (gotoTable.get(state)[symbol] < 0) {
+                    gotoTable.get(state)[symbol] = gotoTable.size();
+                    gotoTable.add(newRow());
+                    stateOutputs.add(new ArrayList<>());
+                }
+                state = gotoTable.get(state)[symbol];
+            }
+            stateOutputs.get(state).add(entry.getValue());
+            keywordLengths[entry.getValue()] = keyword.length();
+        }
+
+        // 2. Failure links, folded into a complete DFA (breadth-first)
+        int stateCount = gotoTable.size();
+        transitions = new int[stateCount][];
+        int[] failure = new int[stateCount];
+        Deque<Integer> queue = new ArrayDeque<>();
+
+        transitions[0] = gotoTable.get(0).clone();
+        for (int symbol = 0; symbol < alphabetSize; symbol++) {
+            int next = transitions[0][symbol];
+            if (next < 0) {
+                transitions[0][symbol] = 0;
+            } else {
+                failure[next] = 0;
+                queue.add(next);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            stateOutputs.get(state).addAll(stateOutputs.get(failure[state]));
+            transitions[state] = gotoTable.get(state).clone();
+            for (int symbol = 0; symbol < alphabetSize; symbol++) {
+                int next = transitions[state][symbol];
+                if (next < 0) {
+                    transitions[state][symbol] = transitions[failure[state]][symbol];
+                } else {
+                    failure[next] = transitions[failure[state]][symbol];
+                    queue.add(next);
+                }
+            }
+        }
+
+        outputs = new int[stateCount][];
+        for (int state = 0; state < stateCount; state++) {
+            outputs[state] = stateOutputs.get(state).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    private int[] newRow() {
+        int[] row = new int[alphabetSize];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    public int size() {
+        return keywordIds.size();
+    }
+
+    /**
+     * Id of a compiled keyword, for use with {@link Matches}.
+     */
+    public int idOf(String keyword) {
+        Integer id = keywordIds.get(keyword);
+        if (id == null) {
+            throw new IllegalArgumentException("Keyword not compiled into automaton: " + keyword);
+        }
+        return id;
+    }
+
+    public int[] idsOf(String... keywords) {
+        int[] ids = new int[keywords.length];
+        for (int i = 0; i < keywords.length; i++) {
+            ids[i] = idOf(keywords[i]);
+        }
+        return ids;
+    }
+
+    public Matches scan(CharSequence text) {
+        BitSet found = new BitSet(keywordIds.size());
+        BitSet atStart = new BitSet(keywordIds.size());
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            state = transitions[state][c < ASCII ? charClass[c] : 0];
+            for (int id : outputs[state]) {
+                found.set(id);
+                if (i + 1 == keywordLengths[id]) {
+                    atStart.set(id);
+                }
+            }
+        }
+        return new Matches(found, atStart);
+    }
+
+    /**
+     * Keywords found in one scanned text.
+     */
+    public static final class Matches {
+        private final BitSet found;
+        private final BitSet atStart;
+
+        private Matches(BitSet found, BitSet atStart) {
+            this.found = found;
+            this.atStart = atStart;
+        }
+
+        public boolean contains(int id) {
+            return found.get(id);
+        }
+
+        public boolean containsAny(int[] ids) {
+            for (int id : ids) {
+                if (found.get(id)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * True when the keyword occurs at the very beginning of the text.
+         */
+        public boolean startsWith(int id) {
+            return atStart.get(id);
+        }
+
+        public boolean isEmpty() {
+            return found.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.medvault.medvault.service.emergency;
+
+import com.medvault.medvault.event.AppointmentEvent;
+import com.medvault.medvault.model.Appointment;
+import com.medvault.medvault.model.AppointmentStatus;
+import com.medvault.medvault.model.Doctor;
+import com.medvault.medvault.model.Patient;
+import com.medvault.medvault.repository.AppointmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Hands out open emergency requests.
+ *
+ * <p>Claims are decided by the database: a single conditional UPDATE assigns the
+ * doctor only while the appointment is still unassigned, so exactly one of several
+ * simultaneous claimers wins. Open emergencies are also kept in memory, ordered by
+ * urgency and then age, so doctors' dashboards can list them without a query. An
+ * emergency nobody claims within the escalation window is escalated: it moves up
+ * the queue and doctors are notified again.
+ *
+ * <p>The queue only changes once a claim is committed (the EMERGENCY_ACCEPTED event)
+ * or on the periodic resync, which also picks up claims made on other instances.
+ * Doctors' dashboards use {@link #unclaimedEmergencies}, which confirms the queue
+ * against the database so they never list an emergency already taken elsewhere.
+ */
+@Service
+public class EmergencyDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmergencyDispatcher.class);
+
+    public enum ClaimResult { CLAIMED, ALREADY_CLAIMED, NOT_FOUND }
+
+    public record OpenEmergency(Long appointmentId, String urgencyLevel, LocalDateTime createdAt,
+                                Long patientUserId, String patientName, String symptoms,
+                                String contactNumber, int escalationLevel) {
+
+        /**
+         * Urgency rank plus one step per escalation; higher goes first.
+         */
+        public int priority() {
+            return urgencyRank(urgencyLevel) + escalationLevel;
+        }
+
+        OpenEmergency escalated() {
+            return new OpenEmergency(appointmentId, urgencyLevel, createdAt, patientUserId, patientName,
+                    symptoms, contactNumber, escalationLevel + 1);
+        }
+    }
+
+    // Most urgent first, then oldest first
+    static final Comparator<OpenEmergency> DISPATCH_ORDER = Comparator
+            .comparingInt(OpenEmergency::priority).reversed()
+            .thenComparing(OpenEmergency::createdAt, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(OpenEmergency::appointmentId);
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.emergency.escalation-minutes:5}")
+    private long escalationMinutes;
+
+    @Value("${app.emergency.max-escalations:3}")
+    private int maxEscalations;
+
+    private final ConcurrentSkipListSet<OpenEmergency> queue = new ConcurrentSkipListSet<>(DISPATCH_ORDER);
+    private final Map<Long, OpenEmergency> byId = new HashMap<>();
+
+    /**
+     * Assigns the emergency to the doctor if nobody has claimed it yet. Joins the
+     * caller's transaction when there is one.
+     */
+    public ClaimResult claim(Long appointmentId, Doctor doctor, String proposedTime) {
+        String notesSuffix = proposedTime != null ? " | Proposed Time: " + proposedTime : "";
+        int updated = appointmentRepository.claimEmergency(appointmentId, doctor, AppointmentStatus.APPROVED,
+                notesSuffix, LocalDateTime.now());
+        if (updated == 1) {
+            // Leaves the queue when the EMERGENCY_ACCEPTED event commits, not before
+            return ClaimResult.CLAIMED;
+        }
+        return appointmentRepository.existsByIdAndIsEmergencyTrue(appointmentId)
+                ? ClaimResult.ALREADY_CLAIMED
+                : ClaimResult.NOT_FOUND;
+    }
+
+    /**
+     * Open emergencies, most urgent first.
+     */
+    public List<OpenEmergency> openEmergencies() {
+        return new ArrayList<>(queue);
+    }
+
+    /**
+     * Open emergencies, most urgent first, minus any the database says were claimed
+     * since the last resync (on this instance or another); those are dropped from the
+     * queue as well. Costs one primary-key lookup for the whole queue.
+     */
+    public List<OpenEmergency> unclaimedEmergencies() {
+        List<OpenEmergency> open = openEmergencies();
+        if (open.isEmpty()) {
+            return open;
+        }
+        List<Long> ids = open.stream().map(OpenEmergency::appointmentId).toList();
+        Set<Long> unclaimed = new HashSet<>(appointmentRepository.findUnclaimedIds(ids, AppointmentStatus.PENDING));
+
+        List<OpenEmergency> result = new ArrayList<>(unclaimed.size());
+        for (OpenEmergency emergency : open) {
+            if (unclaimed.contains(emergency.appointmentId())) {
+                result.add(emergency);
+            } else {
+                remove(emergency.appointmentId());
+            }
+        }
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentEvent(AppointmentEvent event) {
+        switch (event.type()) {
+            case EMERGENCY_CREATED -> appointmentRepository.findByIdWithPatient(event.appointmentId())
+                    .ifPresent(appointment -> add(toOpenEmergency(appointment, 0)));
+            case EMERGENCY_ACCEPTED -> remove(event.appointmentId());
+            default -> {
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOpenEmergencies() {
+        try {
+            resync();
+            logger.info("Loaded {} open emergency requests", queue.size());
+        } catch (Exception e) {
+            logger.error("Error loading open emergencies: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Re-reads the open set (picks up claims made on other instances) and escalates
+     * anything that has waited past its window.
+     */
+    public void escalateUnclaimed() {
+        try {
+            resync();
+            LocalDateTime now = LocalDateTime.now();
+            for (OpenEmergency emergency : openEmergencies()) {
+                if (isDueForEscalation(emergency, now)) {
+                    escalate(emergency);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Error escalating emergencies: {}", e.getMessage(), e);
+        }
+    }
+
+    boolean isDueForEscalation(OpenEmergency emergency, LocalDateTime now) {
+        if (emergency.escalationLevel() >= maxEscalations || emergency.createdAt() == null) {
+            return false;
+        }
+        Duration waited = Duration.between(emergency.createdAt(), now);
+        return waited.toMinutes() >= escalationMinutes * (emergency.escalationLevel() + 1);
+    }
+
+    private void escalate(OpenEmergency emergency) {
+        OpenEmergency escalated;
+        synchronized (this) {
+            if (byId.get(emergency.appointmentId()) != emergency) {
+                return; // claimed or escalated meanwhile
+            }
+            escalated = emergency.escalated();
+            replace(emergency, escalated);
+        }
+        logger.warn("Emergency {} ({}) unclaimed for {} min, escalated to level {}", escalated.appointmentId(),
+                escalated.urgencyLevel(), Duration.between(escalated.createdAt(), LocalDateTime.now()).toMinutes(),
+                escalated.escalationLevel());
+        eventPublisher.publishEvent(new AppointmentEvent(AppointmentEvent.Type.EMERGENCY_ESCALATED,
+                escalated.appointmentId(), null, escalated.patientUserId(), escalated.urgencyLevel(),
+                LocalDateTime.now()));
+    }
+
+    private void resync() {
+        List<Appointment> open = appointmentRepository.findOpenEmergenciesWithPatient(AppointmentStatus.PENDING);
+        synchronized (this) {
+            Map<Long, OpenEmergency> previous = new HashMap<>(byId);
+            queue.clear();
+            byId.clear();
+            for (Appointment appointment : open) {
+                OpenEmergency known = previous.get(appointment.getId());
+                add(toOpenEmergency(appointment, known != null ? known.escalationLevel() : 0));
+            }
+        }
+    }
+
+    private synchronized void add(OpenEmergency emergency) {
+        OpenEmergency existing = byId.get(emergency.appointmentId());
+        if (existing != null) {
+            queue.remove(existing);
+        }
+        byId.put(emergency.appointmentId(), emergency);
+        queue.add(emergency);
+    }
+
+    private synchronized void remove(Long appointmentId) {
+        OpenEmergency existing = byId.remove(appointmentId);
+        if (existing != null) {
+            queue.remove(existing);
+        }
+    }
+
+    private void replace(OpenEmergency current, OpenEmergency replacement) {
+        queue.remove(current);
+        byId.put(replacement.appointmentId(), replacement);
+        queue.add(replacement);
+    }
+
+    private static OpenEmergency toOpenEmergency(Appointment appointment, int escalationLevel) {
+        Patient patient = appointment.getPatient();
+        return new OpenEmergency(appointment.getId(), appointment.getUrgencyLevel(), appointment.getCreatedAt(),
+                patient.getUserId(), patient.getFirstName() + " " + patient.getLastName(),
+                appointment.getPatientNotes(), patient.getContactNumber(), escalationLevel);
+    }
+
+    static int urgencyRank(String urgencyLevel) {
+        if (urgencyLevel == null) {
+            return 2;
+        }
+        return switch (urgencyLevel.toUpperCase(Locale.ROOT)) {
+            case "CRITICAL" -> 4;
+            case "HIGH" -> 3;
+            case "LOW" -> 1;
+            default -> 2;
+        };
+    }
+}
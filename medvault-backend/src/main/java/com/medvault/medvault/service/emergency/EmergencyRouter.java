@@ -0,0 +1,230 @@
+package com.medvault.medvault.service.emergency;
+
+import com.medvault.medvault.event.AppointmentEvent;
+import com.medvault.medvault.model.Appointment;
+import com.medvault.medvault.model.Patient;
+import com.medvault.medvault.repository.AppointmentRepository;
+import com.medvault.medvault.service.DoctorDirectory;
+import com.medvault.medvault.service.EmailService;
+import com.medvault.medvault.service.IdentityCache;
+import com.medvault.medvault.service.chatbot.KeywordAutomaton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Picks which doctors to alert about a new emergency and alerts them. Mail goes out
+ * through the async {@link EmailService}, so the alerts are sent in parallel.
+ *
+ * <p>Approved doctors are scored from in-memory data only (the doctor directory and
+ * the availability snapshot): how well their specialization fits the symptoms, how
+ * many free slots they have in the next few hours, and how many emergencies they
+ * took on recently. The top K are emailed; HIGH and CRITICAL requests go to twice
+ * as many doctors. Each escalation alerts the next K doctors who have not been
+ * alerted yet.
+ */
+@Service
+public class EmergencyRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmergencyRouter.class);
+
+    static final double SPECIALTY_WEIGHT = 0.5;
+    static final double AVAILABILITY_WEIGHT = 0.3;
+    static final double LOAD_WEIGHT = 0.2;
+
+    private static final int SLOTS_FOR_FULL_AVAILABILITY = 4;
+    private static final int LOAD_FOR_FULL_PENALTY = 3;
+
+    // Symptom words that point at a specialty; anything else routes to general medicine first
+    private static final Map<String, String[]> SPECIALTY_SYMPTOMS = new LinkedHashMap<>();
+
+    static {
+        SPECIALTY_SYMPTOMS.put("cardio", new String[]{"chest pain", "chest tightness", "heart", "palpitation",
+                "blood pressure", "cardiac"});
+        SPECIALTY_SYMPTOMS.put("neuro", new String[]{"seizure", "stroke", "numbness", "faint", "unconscious",
+                "migraine", "severe headache", "dizz"});
+        SPECIALTY_SYMPTOMS.put("ortho", new String[]{"fracture", "broken", "sprain", "dislocat", "bone", "joint"});
+        SPECIALTY_SYMPTOMS.put("dermat", new String[]{"rash", "burn", "hives", "skin"});
+        SPECIALTY_SYMPTOMS.put("pediatric", new String[]{"child", "baby", "infant", "toddler"});
+        SPECIALTY_SYMPTOMS.put("psych", new String[]{"panic", "suicid", "self harm", "anxiety", "hallucinat"});
+        SPECIALTY_SYMPTOMS.put("gyn", new String[]{"pregnan", "bleeding", "miscarriage", "labor"});
+    }
+
+    public record RankedDoctor(DoctorDirectory.Entry doctor, double score) {
+    }
+
+    private final KeywordAutomaton symptomAutomaton;
+    private final Map<String, int[]> symptomIds = new LinkedHashMap<>();
+
+    @Autowired
+    private DoctorDirectory doctorDirectory;
+
+    @Autowired
+    private DoctorAvailability doctorAvailability;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private IdentityCache identityCache;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private EmergencyDispatcher emergencyDispatcher;
+
+    @Value("${app.emergency.routing.top-k:3}")
+    private int topK;
+
+    // Doctors already alerted per open emergency, so escalations reach new ones
+    private final Map<Long, Set<Long>> alerted = new ConcurrentHashMap<>();
+
+    public EmergencyRouter() {
+        List<String> keywords = new ArrayList<>();
+        SPECIALTY_SYMPTOMS.values().forEach(words -> keywords.addAll(List.of(words)));
+        symptomAutomaton = new KeywordAutomaton(keywords);
+        SPECIALTY_SYMPTOMS.forEach((specialty, words) -> symptomIds.put(specialty, symptomAutomaton.idsOf(words)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentEvent(AppointmentEvent event) {
+        try {
+            switch (event.type()) {
+                case EMERGENCY_CREATED, EMERGENCY_ESCALATED -> appointmentRepository
+                        .findByIdWithPatient(event.appointmentId())
+                        .filter(appointment -> appointment.getDoctor() == null)
+                        .ifPresent(this::routeAndNotify);
+                case EMERGENCY_ACCEPTED -> {
+                    alerted.remove(event.appointmentId());
+                    identityCache.findDoctor(event.doctorUserId())
+                            .ifPresent(doctor -> doctorAvailability.recordEmergencyAccepted(doctor.doctorId()));
+                }
+                default -> {
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Error routing emergency {}: {}", event.appointmentId(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Forgets emergencies the dispatcher no longer has open. Acceptances on this node
+     * are dropped right away; this catches the rest (claimed on another node, cancelled
+     * or otherwise closed), which would otherwise stay in the map for good.
+     */
+    public void pruneClosed() {
+        Set<Long> open = new HashSet<>();
+        emergencyDispatcher.openEmergencies().forEach(emergency -> open.add(emergency.appointmentId()));
+        retainOpen(open);
+    }
+
+    void retainOpen(Set<Long> openIds) {
+        int before = alerted.size();
+        alerted.keySet().retainAll(openIds);
+        if (alerted.size() < before) {
+            logger.debug("Dropped alert history for {} closed emergencies", before - alerted.size());
+        }
+    }
+
+    Set<Long> alertedFor(Long emergencyId) {
+        return alerted.computeIfAbsent(emergencyId, id -> ConcurrentHashMap.newKeySet());
+    }
+
+    int trackedEmergencies() {
+        return alerted.size();
+    }
+
+    void routeAndNotify(Appointment emergency) {
+        long started = System.nanoTime();
+        Set<Long> alreadyAlerted = alertedFor(emergency.getId());
+        int k = EmergencyDispatcher.urgencyRank(emergency.getUrgencyLevel()) >= 3 ? topK * 2 : topK;
+
+        List<RankedDoctor> chosen = rank(doctorDirectory.snapshot().doctors(), doctorAvailability.snapshot(),
+                inferSpecialties(emergency.getPatientNotes()), alreadyAlerted, k);
+        chosen.forEach(ranked -> alreadyAlerted.add(ranked.doctor().doctorId()));
+        logger.info("Emergency {} ({}) routed to {} doctors in {} ms", emergency.getId(), emergency.getUrgencyLevel(),
+                chosen.size(), (System.nanoTime() - started) / 1_000_000);
+
+        Patient patient = emergency.getPatient();
+        String patientName = patient.getFirstName() + " " + patient.getLastName();
+        for (RankedDoctor ranked : chosen) {
+            DoctorDirectory.Entry doctor = ranked.doctor();
+            if (doctor.email() == null) {
+                continue;
+            }
+            emailService.sendEmergencyRequestNotification(doctor.email(),
+                    doctor.firstName() + " " + doctor.lastName(), patientName, emergency.getUrgencyLevel(),
+                    emergency.getPatientNotes(), patient.getContactNumber(), emergency.getId());
+        }
+    }
+
+    /**
+     * Specialty stems (e.g. "cardio") suggested by the symptom text.
+     */
+    Set<String> inferSpecialties(String symptoms) {
+        Set<String> specialties = new LinkedHashSet<>();
+        if (symptoms == null) {
+            return specialties;
+        }
+        KeywordAutomaton.Matches matches = symptomAutomaton.scan(symptoms.toLowerCase(Locale.ROOT));
+        symptomIds.forEach((specialty, ids) -> {
+            if (matches.containsAny(ids)) {
+                specialties.add(specialty);
+            }
+        });
+        return specialties;
+    }
+
+    static List<RankedDoctor> rank(List<DoctorDirectory.Entry> doctors, DoctorAvailability.Snapshot availability,
+                                   Set<String> specialties, Set<Long> excluded, int k) {
+        List<RankedDoctor> ranked = new ArrayList<>();
+        for (DoctorDirectory.Entry doctor : doctors) {
+            if (excluded.contains(doctor.doctorId())) {
+                continue;
+            }
+            ranked.add(new RankedDoctor(doctor, score(doctor, availability, specialties)));
+        }
+        ranked.sort(Comparator.comparingDouble(RankedDoctor::score).reversed()
+                .thenComparing(r -> r.doctor().doctorId()));
+        return ranked.size() > k ? ranked.subList(0, k) : ranked;
+    }
+
+    static double score(DoctorDirectory.Entry doctor, DoctorAvailability.Snapshot availability, Set<String> specialties) {
+        double availabilityScore = Math.min(availability.freeSlots(doctor.doctorId()), SLOTS_FOR_FULL_AVAILABILITY)
+                / (double) SLOTS_FOR_FULL_AVAILABILITY;
+        double loadPenalty = Math.min(availability.emergencyLoad(doctor.doctorId()), LOAD_FOR_FULL_PENALTY)
+                / (double) LOAD_FOR_FULL_PENALTY;
+        return SPECIALTY_WEIGHT * specialtyFit(doctor.specialization(), specialties)
+                + AVAILABILITY_WEIGHT * availabilityScore
+                - LOAD_WEIGHT * loadPenalty;
+    }
+
+    static double specialtyFit(String specialization, Set<String> specialties) {
+        String spec = specialization != null ? specialization.toLowerCase(Locale.ROOT) : "";
+        boolean general = spec.contains("general") || spec.contains("family") || spec.contains("emergency");
+        if (specialties.isEmpty()) {
+            return general ? 1.0 : 0.5;
+        }
+        for (String specialty : specialties) {
+            if (spec.contains(specialty)) {
+                return 1.0;
+            }
+        }
+        return general ? 0.6 : 0.1;
+    }
+}
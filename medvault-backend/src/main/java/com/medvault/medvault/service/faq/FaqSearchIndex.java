@@ -0,0 +1,211 @@
+package com.medvault.medvault.service.faq;
+
+import com.medvault.medvault.event.FaqChangedEvent;
+import com.medvault.medvault.model.FAQItem;
+import com.medvault.medvault.repository.FAQRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory inverted index over the active FAQ items, ranked with BM25. Question,
+ * keyword and answer terms count with different weights, and an item's priority
+ * gives a small boost on top of the text score.
+ *
+ * <p>The index is immutable and swapped in whole, so searches take no lock and
+ * never touch the database. It is rebuilt after every FAQ change and periodically
+ * as a safety net.
+ */
+@Service
+public class FaqSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(FaqSearchIndex.class);
+
+    public record Hit(Long id, String category, String question, String answer, int priority, double score) {
+    }
+
+    @Autowired
+    private FAQRepository faqRepository;
+
+    private volatile Snapshot snapshot;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public List<Hit> search(String query, int limit) {
+        Snapshot current = snapshot;
+        return (current != null ? current : rebuild()).search(query, limit);
+    }
+
+    Snapshot rebuild() {
+        rebuildLock.lock();
+        try {
+            Snapshot built = Snapshot.build(faqRepository.findByIsActiveTrueOrderByPriorityDesc());
+            snapshot = built;
+            logger.debug("FAQ index rebuilt: {} items, {} terms", built.size(), built.termCount());
+            return built;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFaqChanged(FaqChangedEvent event) {
+        refresh();
+    }
+
+    public void refresh() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.warn("Could not rebuild FAQ index, keeping previous one: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * One immutable build of the index.
+     */
+    static final class Snapshot {
+
+        static final double K1 = 1.2;
+        static final double B = 0.75;
+
+        static final double QUESTION_WEIGHT = 3.0;
+        static final double KEYWORDS_WEIGHT = 2.0;
+        static final double ANSWER_WEIGHT = 1.0;
+
+        // score * (1 + PRIORITY_BOOST * ln(1 + priority))
+        static final double PRIORITY_BOOST = 0.1;
+
+        private record Posting(int[] docs, float[] weightedTf) {
+        }
+
+        private final FAQItem[] items;
+        private final float[] lengthNorm;
+        private final float[] priorityBoost;
+        private final Map<String, Posting> postings;
+        private final Map<String, Double> idf;
+
+        private Snapshot(FAQItem[] items, float[] lengthNorm, float[] priorityBoost,
+                         Map<String, Posting> postings, Map<String, Double> idf) {
+            this.items = items;
+            this.lengthNorm = lengthNorm;
+            this.priorityBoost = priorityBoost;
+            this.postings = postings;
+            this.idf = idf;
+        }
+
+        static Snapshot build(List<FAQItem> source) {
+            List<FAQItem> active = source.stream()
+                    .filter(item -> !Boolean.FALSE.equals(item.getIsActive()))
+                    .toList();
+            int n = active.size();
+            FAQItem[] items = active.toArray(new FAQItem[0]);
+
+            List<Map<String, Float>> termFrequencies = new ArrayList<>(n);
+            float[] lengths = new float[n];
+            double totalLength = 0;
+            for (int doc = 0; doc < n; doc++) {
+                Map<String, Float> tf = new HashMap<>();
+                lengths[doc] = addField(tf, items[doc].getQuestion(), QUESTION_WEIGHT)
+                        + addField(tf, items[doc].getKeywords(), KEYWORDS_WEIGHT)
+                        + addField(tf, items[doc].getAnswer(), ANSWER_WEIGHT);
+                totalLength += lengths[doc];
+                termFrequencies.add(tf);
+            }
+            double averageLength = n == 0 || totalLength == 0 ? 1 : totalLength / n;
+
+            Map<String, List<Integer>> docsByTerm = new HashMap<>();
+            for (int doc = 0; doc < n; doc++) {
+                for (String term : termFrequencies.get(doc).keySet()) {
+                    docsByTerm.computeIfAbsent(term, t -> new ArrayList<>()).add(doc);
+                }
+            }
+
+            Map<String, Posting> postings = new HashMap<>(docsByTerm.size() * 2);
+            Map<String, Double> idf = new HashMap<>(docsByTerm.size() * 2);
+            docsByTerm.forEach((term, docList) -> {
+                int[] docs = new int[docList.size()];
+                float[] tf = new float[docList.size()];
+                for (int i = 0; i < docs.length; i++) {
+                    docs[i] = docList.get(i);
+                    tf[i] = termFrequencies.get(docs[i]).get(term);
+                }
+                postings.put(term, new Posting(docs, tf));
+                idf.put(term, Math.log(1 + (n - docs.length + 0.5) / (docs.length + 0.5)));
+            });
+
+            float[] lengthNorm = new float[n];
+            float[] priorityBoost = new float[n];
+            for (int doc = 0; doc < n; doc++) {
+                lengthNorm[doc] = (float) (K1 * (1 - B + B * lengths[doc] / averageLength));
+                int priority = items[doc].getPriority() != null ? Math.max(0, items[doc].getPriority()) : 0;
+                priorityBoost[doc] = (float) (1 + PRIORITY_BOOST * Math.log1p(priority));
+            }
+            return new Snapshot(items, lengthNorm, priorityBoost, postings, idf);
+        }
+
+        private static float addField(Map<String, Float> tf, String text, double weight) {
+            List<String> terms = FaqTextAnalyzer.analyze(text);
+            for (String term : terms) {
+                tf.merge(term, (float) weight, Float::sum);
+            }
+            return (float) (terms.size() * weight);
+        }
+
+        List<Hit> search(String query, int limit) {
+            if (items.length == 0 || limit <= 0) {
+                return List.of();
+            }
+            float[] scores = null;
+            for (String term : new LinkedHashSet<>(FaqTextAnalyzer.analyze(query))) {
+                Posting posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                if (scores == null) {
+                    scores = new float[items.length];
+                }
+                double termIdf = idf.get(term);
+                for (int i = 0; i < posting.docs().length; i++) {
+                    int doc = posting.docs()[i];
+                    float tf = posting.weightedTf()[i];
+                    scores[doc] += (float) (termIdf * tf * (K1 + 1) / (tf + lengthNorm[doc]));
+                }
+            }
+            if (scores == null) {
+                return List.of();
+            }
+
+            List<Hit> hits = new ArrayList<>();
+            for (int doc = 0; doc < items.length; doc++) {
+                if (scores[doc] > 0) {
+                    FAQItem item = items[doc];
+                    hits.add(new Hit(item.getId(), item.getCategory(), item.getQuestion(), item.getAnswer(),
+                            item.getPriority() != null ? item.getPriority() : 0,
+                            scores[doc] * priorityBoost[doc]));
+                }
+            }
+            hits.sort((a, b) -> a.score() != b.score()
+                    ? Double.compare(b.score(), a.score())
+                    : Integer.compare(b.priority(), a.priority()));
+            return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+        }
+
+        int size() {
+            return items.length;
+        }
+
+        int termCount() {
+            return postings.size();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.medvault.medvault.service.faq;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Turns FAQ text and search queries into index terms: lower-cased alphanumeric
+ * tokens, minus common stop words, reduced by a light suffix-stripping stemmer
+ * ("booking", "booked" and "books" all become "book"). The stemmer only has to be
+ * consistent between indexing and querying, not linguistically exact.
+ */
+final class FaqTextAnalyzer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "can", "do", "does", "for", "from",
+            "how", "i", "if", "in", "is", "it", "me", "my", "of", "on", "or", "so", "that", "the",
+            "this", "to", "was", "what", "when", "where", "which", "who", "why", "will", "with",
+            "you", "your");
+
+    private FaqTextAnalyzer() {
+    }
+
+    static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = lower.substring(start, i);
+                if (token.length() > 1 && !STOP_WORDS.contains(token)) {
+                    terms.add(stem(token));
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    static String stem(String word) {
+        String w = word;
+        if (w.length() > 4 && w.endsWith("ies")) {
+            w = w.substring(0, w.length() - 3) + "y";
+        } else if (w.endsWith("sses")) {
+            w = w.substring(0, w.length() - 2);
+        } else if (w.length() > 3 && w.endsWith("s") && !w.endsWith("ss") && !w.endsWith("us")) {
+            w = w.substring(0, w.length() - 1);
+        }
+
+        if (w.length() > 5 && w.endsWith("ing")) {
+            w = undouble(w.substring(0, w.length() - 3));
+        } else if (w.length() > 4 && w.endsWith("ed")) {
+            w = undouble(w.substring(0, w.length() - 2));
+        } else if (w.length() > 4 && w.endsWith("ly")) {
+            w = w.substring(0, w.length() - 2);
+        }
+
+        if (w.length() > 4 && w.endsWith("e")) {
+            w = w.substring(0, w.length() - 1);
+        }
+        return w;
+    }
+
+    // "cancell" -> "cancel", "stopp" -> "stop"
+    private static String undouble(String w) {
+        int n = w.length();
+        if (n > 3 && w.charAt(n - 1) == w.charAt(n - 2) && !isVowel(w.charAt(n - 1)) && w.charAt(n - 1) != 's') {
+            return w.substring(0, n - 1);
+        }
+        return w;
+    }
+
+    private static boolean isVowel(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u';
+    }
+}
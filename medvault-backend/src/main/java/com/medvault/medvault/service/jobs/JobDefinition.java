@@ -0,0 +1,55 @@
+package com.medvault.medvault.service.jobs;
+
+import java.time.Duration;
+
+/**
+ * What to run and when. A zero timeout means the run is never interrupted; jitter
+ * delays each run by a random amount up to the given duration, so jobs that share
+ * a period (and instances that share a schedule) don't all fire at once. A
+ * cluster-wide job runs on only one node per tick (see {@link JobLock}); the others
+ * run on every node, which is right for jobs that refresh node-local state.
+ */
+public record JobDefinition(String name, Kind kind, Duration period, String cron, Duration initialDelay,
+                            Duration jitter, Duration timeout, boolean clusterWide, Runnable task) {
+
+    public enum Kind { FIXED_RATE, FIXED_DELAY, CRON }
+
+    public static JobDefinition fixedRate(String name, Duration period, Runnable task) {
+        return new JobDefinition(name, Kind.FIXED_RATE, period, null, Duration.ZERO, Duration.ZERO, Duration.ZERO,
+                false, task);
+    }
+
+    public static JobDefinition fixedDelay(String name, Duration delay, Runnable task) {
+        return new JobDefinition(name, Kind.FIXED_DELAY, delay, null, Duration.ZERO, Duration.ZERO, Duration.ZERO,
+                false, task);
+    }
+
+    public static JobDefinition cron(String name, String expression, Runnable task) {
+        return new JobDefinition(name, Kind.CRON, null, expression, Duration.ZERO, Duration.ZERO, Duration.ZERO,
+                false, task);
+    }
+
+    public JobDefinition initialDelay(Duration initialDelay) {
+        return new JobDefinition(name, kind, period, cron, initialDelay, jitter, timeout, clusterWide, task);
+    }
+
+    public JobDefinition jitter(Duration jitter) {
+        return new JobDefinition(name, kind, period, cron, initialDelay, jitter, timeout, clusterWide, task);
+    }
+
+    public JobDefinition timeout(Duration timeout) {
+        return new JobDefinition(name, kind, period, cron, initialDelay, jitter, timeout, clusterWide, task);
+    }
+
+    public JobDefinition oncePerCluster() {
+        return new JobDefinition(name, kind, period, cron, initialDelay, jitter, timeout, true, task);
+    }
+
+    public String describe() {
+        return switch (kind) {
+            case FIXED_RATE -> "every " + period;
+            case FIXED_DELAY -> period + " after each run";
+            case CRON -> "cron " + cron;
+        };
+    }
+}
@@ -0,0 +1,91 @@
+package com.medvault.medvault.service.jobs;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Database lease that lets exactly one node run a cluster-wide job per tick.
+ *
+ * <p>A node takes the lease with one conditional UPDATE that only matches an expired
+ * lease, or with an INSERT the first time a job is seen. The database decides, so
+ * only one of several nodes racing for the same tick gets it. On release the lease
+ * is kept until at least lockedAt + lockAtLeastFor, so a node whose jittered run
+ * fires a little later does not repeat the same tick. If the holder dies, its lease
+ * simply runs out and the next node to try takes over.
+ */
+@Component
+public class JobLock {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobLock.class);
+
+    public record Lease(String name, LocalDateTime lockedAt, LocalDateTime lockedUntil) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nodeId;
+    private final Clock clock = Clock.systemUTC();
+
+    public JobLock(JdbcTemplate jdbcTemplate, @Value("${app.jobs.lock.node-id:}") String nodeId) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nodeId = nodeId.isBlank()
+                ? ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8)
+                : nodeId;
+    }
+
+    /**
+     * Takes the lease for the given time if nobody holds it. Empty when another node
+     * holds it or the lock table can't be reached.
+     */
+    public Optional<Lease> tryAcquire(String name, Duration leaseTime) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime until = now.plus(leaseTime);
+        try {
+            int updated = jdbcTemplate.update(
+                    "UPDATE scheduler_locks SET locked_until = ?, locked_at = ?, locked_by = ? " +
+                            "WHERE name = ? AND locked_until <= ?",
+                    until, now, nodeId, name, now);
+            if (updated == 1) {
+                return Optional.of(new Lease(name, now, until));
+            }
+            jdbcTemplate.update(
+                    "INSERT INTO scheduler_locks (name, locked_until, locked_at, locked_by) VALUES (?, ?, ?, ?)",
+                    name, until, now, nodeId);
+            return Optional.of(new Lease(name, now, until));
+        } catch (DataIntegrityViolationException e) {
+            return Optional.empty(); // row exists and the lease is still live
+        } catch (Exception e) {
+            logger.error("Could not acquire job lock {}: {}", name, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Ends the lease, but not before lockedAt + lockAtLeastFor.
+     */
+    public void release(Lease lease, Duration lockAtLeastFor) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime earliest = lease.lockedAt().plus(lockAtLeastFor);
+        try {
+            jdbcTemplate.update("UPDATE scheduler_locks SET locked_until = ? WHERE name = ? AND locked_by = ?",
+                    earliest.isAfter(now) ? earliest : now, lease.name(), nodeId);
+        } catch (Exception e) {
+            logger.warn("Could not release job lock {}, it expires at {}: {}", lease.name(), lease.lockedUntil(),
+                    e.getMessage());
+        }
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+}
@@ -0,0 +1,331 @@
+package com.medvault.medvault.service.jobs;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.TriggerContext;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.Locale;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the application's background jobs on the shared task scheduler.
+ *
+ * <p>On top of plain scheduling it:
+ * <ul>
+ *   <li>never runs a job twice at once. A run that finds the previous one still
+ *   going is skipped and recorded as SKIPPED.</li>
+ *   <li>interrupts runs that exceed their timeout. The job stays "running" until
+ *   its code actually returns, so a run that ignores the interrupt still blocks the
+ *   next one.</li>
+ *   <li>adds random jitter to every run.</li>
+ *   <li>runs cluster-wide jobs on one node per tick, guarded by a {@link JobLock}
+ *   lease.</li>
+ *   <li>keeps the recent run history with durations and outcomes.</li>
+ * </ul>
+ * Timeout, jitter and on/off can be overridden per job with
+ * app.jobs.&lt;name&gt;.timeout, .jitter, .enabled and .lock-at-least (e.g.
+ * app.jobs.slot-cleanup.timeout=2m).
+ */
+@Service
+public class JobOrchestrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobOrchestrator.class);
+
+    public enum Outcome { SUCCEEDED, FAILED, TIMED_OUT, SKIPPED, LOCKED_ELSEWHERE }
+
+    public enum TriggerResult { STARTED, ALREADY_RUNNING, NOT_FOUND }
+
+    public record JobRun(String trigger, LocalDateTime startedAt, long durationMs, Outcome outcome, String error) {
+    }
+
+    public record JobStatus(String name, String schedule, long timeoutMs, long jitterMs, boolean enabled,
+                            boolean clusterWide, boolean running, Instant nextRun, long runs, long failures,
+                            long timeouts, long skipped, long lockedElsewhere, List<JobRun> history) {
+    }
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private JobLock jobLock;
+
+    // Falls back to the global registry where there is no registry bean (plain test contexts)
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    @Value("${app.jobs.history-size:20}")
+    private int historySize;
+
+    // Lease for cluster-wide jobs without a timeout; with one, the lease is timeout + 1 minute
+    @Value("${app.jobs.lock.default-lease-ms:600000}")
+    private long defaultLeaseMs;
+
+    private final Map<String, JobState> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Registers the job and starts its schedule. Registering a name twice replaces
+     * the earlier schedule.
+     */
+    public void register(JobDefinition definition) {
+        JobDefinition effective = definition
+                .timeout(environment.getProperty(key(definition, "timeout"), Duration.class, definition.timeout()))
+                .jitter(environment.getProperty(key(definition, "jitter"), Duration.class, definition.jitter()));
+        boolean enabled = environment.getProperty(key(definition, "enabled"), Boolean.class, true);
+
+        JobState state = new JobState(effective, enabled);
+        JobState previous = jobs.put(effective.name(), state);
+        if (previous != null && previous.future != null) {
+            previous.future.cancel(false);
+        }
+        if (enabled) {
+            state.future = taskScheduler.schedule(() -> execute(state, "schedule"), new JitteredTrigger(state));
+        }
+        logger.info("Job {} scheduled {}{}", effective.name(), effective.describe(), enabled ? "" : " (disabled)");
+    }
+
+    /**
+     * Starts a run now, outside the schedule. Overlap rules still apply.
+     */
+    public TriggerResult trigger(String name) {
+        JobState state = jobs.get(name);
+        if (state == null) {
+            return TriggerResult.NOT_FOUND;
+        }
+        if (state.running.get()) {
+            return TriggerResult.ALREADY_RUNNING;
+        }
+        taskScheduler.schedule(() -> execute(state, "manual"), Instant.now());
+        return TriggerResult.STARTED;
+    }
+
+    public List<JobStatus> statuses() {
+        List<JobStatus> statuses = new ArrayList<>();
+        jobs.values().forEach(state -> statuses.add(state.status()));
+        statuses.sort(Comparator.comparing(JobStatus::name));
+        return statuses;
+    }
+
+    public Optional<JobStatus> status(String name) {
+        return Optional.ofNullable(jobs.get(name)).map(JobState::status);
+    }
+
+    void execute(JobState state, String trigger) {
+        JobDefinition job = state.definition;
+        if (!state.running.compareAndSet(false, true)) {
+            logger.info("Job {} still running, skipping this {} run", job.name(), trigger);
+            record(state, new JobRun(trigger, LocalDateTime.now(), 0, Outcome.SKIPPED, null));
+            return;
+        }
+
+        Optional<JobLock.Lease> lease = Optional.empty();
+        if (job.clusterWide()) {
+            lease = jobLock.tryAcquire(job.name(), leaseTime(job));
+            if (lease.isEmpty()) {
+                record(state, new JobRun(trigger, LocalDateTime.now(), 0, Outcome.LOCKED_ELSEWHERE, null));
+                state.running.set(false);
+                return;
+            }
+        }
+
+        long runId = state.runIds.incrementAndGet();
+        LocalDateTime startedAt = LocalDateTime.now();
+        long started = System.nanoTime();
+        synchronized (state) {
+            state.runner = Thread.currentThread();
+            state.currentRun = runId;
+        }
+        ScheduledFuture<?> watchdog = job.timeout().isZero() ? null
+                : taskScheduler.schedule(() -> timeOut(state, runId), Instant.now().plus(job.timeout()));
+
+        Outcome outcome = Outcome.SUCCEEDED;
+        String error = null;
+        try {
+            job.task().run();
+        } catch (Exception e) {
+            outcome = Outcome.FAILED;
+            error = e.getMessage();
+            logger.error("Job {} failed: {}", job.name(), e.getMessage(), e);
+        } finally {
+            if (watchdog != null) {
+                watchdog.cancel(false);
+            }
+            boolean timedOut;
+            synchronized (state) {
+                state.runner = null;
+                timedOut = state.timedOutRun == runId;
+            }
+            // Don't leave a watchdog interrupt behind for the next task on this thread
+            Thread.interrupted();
+            lease.ifPresent(held -> jobLock.release(held, lockAtLeastFor(job)));
+
+            long durationMs = (System.nanoTime() - started) / 1_000_000;
+            record(state, new JobRun(trigger, startedAt, durationMs, timedOut ? Outcome.TIMED_OUT : outcome, error));
+            state.running.set(false);
+            logger.debug("Job {} finished in {} ms ({})", job.name(), durationMs, timedOut ? Outcome.TIMED_OUT : outcome);
+        }
+    }
+
+    private void record(JobState state, JobRun run) {
+        state.record(run, historySize);
+        Timer.builder("medvault.jobs.run")
+                .description("Background job runs; skipped and locked-elsewhere runs are recorded with zero duration")
+                .tag("job", state.definition.name())
+                .tag("outcome", run.outcome().name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry)
+                .record(Duration.ofMillis(run.durationMs()));
+    }
+
+    private void timeOut(JobState state, long runId) {
+        synchronized (state) {
+            if (state.runner == null || state.currentRun != runId) {
+                return;
+            }
+            state.timedOutRun = runId;
+            logger.warn("Job {} exceeded its {} timeout, interrupting", state.definition.name(),
+                    state.definition.timeout());
+            state.runner.interrupt();
+        }
+    }
+
+    private Duration leaseTime(JobDefinition job) {
+        return job.timeout().isZero() ? Duration.ofMillis(defaultLeaseMs) : job.timeout().plusMinutes(1);
+    }
+
+    /**
+     * How long a finished cluster-wide run keeps its lease, so other nodes whose
+     * jittered run for the same tick fires later skip it. Half the period, or the
+     * jitter plus a minute for cron jobs.
+     */
+    private Duration lockAtLeastFor(JobDefinition job) {
+        Duration fallback = job.kind() == JobDefinition.Kind.CRON
+                ? job.jitter().plusMinutes(1)
+                : job.period().dividedBy(2);
+        return environment.getProperty(key(job, "lock-at-least"), Duration.class, fallback);
+    }
+
+    private static String key(JobDefinition definition, String property) {
+        return "app.jobs." + definition.name() + "." + property;
+    }
+
+    static final class JobState {
+
+        final JobDefinition definition;
+        final boolean enabled;
+        final AtomicBoolean running = new AtomicBoolean();
+        final AtomicLong runIds = new AtomicLong();
+        private final Deque<JobRun> history = new ArrayDeque<>();
+        private long runs;
+        private long failures;
+        private long timeouts;
+        private long skipped;
+        private long lockedElsewhere;
+
+        // Guarded by this
+        Thread runner;
+        long currentRun;
+        long timedOutRun;
+
+        volatile ScheduledFuture<?> future;
+        volatile Instant nextRun;
+
+        JobState(JobDefinition definition, boolean enabled) {
+            this.definition = definition;
+            this.enabled = enabled;
+        }
+
+        synchronized void record(JobRun run, int historySize) {
+            switch (run.outcome()) {
+                case SKIPPED -> skipped++;
+                case LOCKED_ELSEWHERE -> lockedElsewhere++;
+                case FAILED -> failures++;
+                case TIMED_OUT -> timeouts++;
+                default -> {
+                }
+            }
+            if (run.outcome() != Outcome.SKIPPED && run.outcome() != Outcome.LOCKED_ELSEWHERE) {
+                runs++;
+            }
+            history.addFirst(run);
+            while (history.size() > historySize) {
+                history.removeLast();
+            }
+        }
+
+        synchronized JobStatus status() {
+            return new JobStatus(definition.name(), definition.describe(), definition.timeout().toMillis(),
+                    definition.jitter().toMillis(), enabled, definition.clusterWide(), running.get(), nextRun, runs,
+                    failures, timeouts, skipped, lockedElsewhere, List.copyOf(history));
+        }
+    }
+
+    /**
+     * The job's schedule plus a random delay of up to its jitter. Fixed-rate jobs keep
+     * their own nominal times so jitter never accumulates into drift.
+     */
+    static final class JitteredTrigger implements Trigger {
+
+        private final JobState state;
+        private final CronTrigger cronTrigger;
+        private Instant nominal;
+
+        JitteredTrigger(JobState state) {
+            this.state = state;
+            this.cronTrigger = state.definition.kind() == JobDefinition.Kind.CRON
+                    ? new CronTrigger(state.definition.cron()) : null;
+        }
+
+        @Override
+        public Instant nextExecution(TriggerContext context) {
+            JobDefinition job = state.definition;
+            Instant now = context.getClock().instant();
+            Instant base = switch (job.kind()) {
+                case FIXED_RATE -> {
+                    nominal = nominal == null ? now.plus(job.initialDelay()) : nominal.plus(job.period());
+                    // After a long stall, start again from now instead of firing a burst of catch-up runs
+                    if (nominal.isBefore(now.minus(job.period()))) {
+                        nominal = now;
+                    }
+                    yield nominal;
+                }
+                case FIXED_DELAY -> context.lastCompletion() == null
+                        ? now.plus(job.initialDelay())
+                        : context.lastCompletion().plus(job.period());
+                case CRON -> cronTrigger.nextExecution(context);
+            };
+            if (base == null) {
+                return null;
+            }
+            long jitterMs = job.jitter().toMillis();
+            Instant next = jitterMs > 0 ? base.plusMillis(ThreadLocalRandom.current().nextLong(jitterMs + 1)) : base;
+            state.nextRun = next;
+            return next;
+        }
+    }
+}
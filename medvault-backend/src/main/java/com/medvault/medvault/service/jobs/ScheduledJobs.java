@@ -0,0 +1,183 @@
+package com.medvault.medvault.service.jobs;
+
+import com.medvault.medvault.security.TokenRevocationList;
+import com.medvault.medvault.service.AppointmentStatusService;
+import com.medvault.medvault.service.ChatArchiveService;
+import com.medvault.medvault.service.DoctorDirectory;
+import com.medvault.medvault.service.RecordPermissionService;
+import com.medvault.medvault.service.SlotCleanupService;
+import com.medvault.medvault.service.emergency.DoctorAvailability;
+import com.medvault.medvault.service.emergency.EmergencyDispatcher;
+import com.medvault.medvault.service.emergency.EmergencyRouter;
+import com.medvault.medvault.service.faq.FaqSearchIndex;
+import com.medvault.medvault.service.permission.PermissionExpiryScheduler;
+import com.medvault.medvault.service.search.DoctorSearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Every background job in the application, in one place. Schedules keep their old
+ * periods and property keys; timeouts and jitter are the defaults here and can be
+ * overridden per job (see {@link JobOrchestrator}). Jobs that change shared data or
+ * send mail run once per cluster; cache refreshes run on every node.
+ */
+@Component
+public class ScheduledJobs {
+
+    @Autowired
+    private JobOrchestrator orchestrator;
+
+    @Autowired
+    private AppointmentStatusService appointmentStatusService;
+
+    @Autowired
+    private RecordPermissionService recordPermissionService;
+
+    @Autowired
+    private PermissionExpiryScheduler permissionExpiryScheduler;
+
+    @Autowired
+    private SlotCleanupService slotCleanupService;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private DoctorDirectory doctorDirectory;
+
+    @Autowired
+    private DoctorSearchIndex doctorSearchIndex;
+
+    @Autowired
+    private FaqSearchIndex faqSearchIndex;
+
+    @Autowired
+    private ChatArchiveService chatArchiveService;
+
+    @Autowired
+    private EmergencyDispatcher emergencyDispatcher;
+
+    @Autowired
+    private DoctorAvailability doctorAvailability;
+
+    @Autowired
+    private EmergencyRouter emergencyRouter;
+
+    @Value("${app.permissions.sweep-ms:21600000}")
+    private long permissionSweepMs;
+
+    @Value("${app.permissions.expiry.reload-ms:3600000}")
+    private long permissionReloadMs;
+
+    @Value("${app.cache.doctor-directory.refresh-ms:300000}")
+    private long doctorDirectoryRefreshMs;
+
+    @Value("${app.search.doctors.refresh-ms:300000}")
+    private long doctorSearchRefreshMs;
+
+    @Value("${app.faq.index-refresh-ms:900000}")
+    private long faqIndexRefreshMs;
+
+    @Value("${app.chat.retention.cron:0 30 3 * * *}")
+    private String chatRetentionCron;
+
+    @Value("${app.emergency.escalation-check-ms:30000}")
+    private long escalationCheckMs;
+
+    @Value("${app.emergency.routing.availability-refresh-ms:60000}")
+    private long availabilityRefreshMs;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void registerJobs() {
+        orchestrator.register(JobDefinition
+                .fixedRate("appointment-completion", Duration.ofMinutes(5),
+                        appointmentStatusService::updateCompletedAppointments)
+                .timeout(Duration.ofMinutes(2))
+                .jitter(Duration.ofSeconds(20))
+                .oncePerCluster());
+
+        // Safety net only; expiries are normally revoked on time by the two jobs below
+        orchestrator.register(JobDefinition
+                .fixedRate("permission-auto-revoke", Duration.ofMillis(permissionSweepMs),
+                        recordPermissionService::autoRevokeExpiredPermissions)
+                .initialDelay(Duration.ofMinutes(5))
+                .timeout(Duration.ofMinutes(2))
+                .jitter(Duration.ofMinutes(5))
+                .oncePerCluster());
+
+        orchestrator.register(JobDefinition
+                .fixedRate("permission-expiry-reload", Duration.ofMillis(permissionReloadMs),
+                        permissionExpiryScheduler::reload)
+                .timeout(Duration.ofMinutes(1))
+                .jitter(Duration.ofSeconds(10)));
+
+        orchestrator.register(JobDefinition
+                .fixedRate("permission-expiry", Duration.ofSeconds(1), permissionExpiryScheduler::tick)
+                .timeout(Duration.ofSeconds(30)));
+
+        orchestrator.register(JobDefinition
+                .fixedRate("permission-expiry-warnings", Duration.ofHours(1),
+                        recordPermissionService::sendExpiryWarnings)
+                .timeout(Duration.ofMinutes(10))
+                .jitter(Duration.ofMinutes(2))
+                .oncePerCluster());
+
+        orchestrator.register(JobDefinition
+                .fixedRate("slot-cleanup", Duration.ofHours(1), slotCleanupService::cleanupExpiredSlots)
+                .timeout(Duration.ofMinutes(5))
+                .jitter(Duration.ofMinutes(2))
+                .oncePerCluster());
+
+        orchestrator.register(JobDefinition
+                .fixedRate("token-revocation-purge", Duration.ofMinutes(10), tokenRevocationList::purgeExpired)
+                .timeout(Duration.ofMinutes(1))
+                .jitter(Duration.ofSeconds(30)));
+
+        orchestrator.register(JobDefinition
+                .fixedDelay("doctor-directory-refresh", Duration.ofMillis(doctorDirectoryRefreshMs),
+                        doctorDirectory::refresh)
+                .initialDelay(Duration.ofMillis(doctorDirectoryRefreshMs))
+                .timeout(Duration.ofMinutes(1))
+                .jitter(Duration.ofSeconds(15)));
+
+        // Changes made through the app are applied as they happen; this also drops next slots that have started
+        orchestrator.register(JobDefinition
+                .fixedDelay("doctor-search-refresh", Duration.ofMillis(doctorSearchRefreshMs),
+                        doctorSearchIndex::refresh)
+                .initialDelay(Duration.ofMillis(doctorSearchRefreshMs))
+                .timeout(Duration.ofMinutes(1))
+                .jitter(Duration.ofSeconds(15)));
+
+        orchestrator.register(JobDefinition
+                .fixedDelay("faq-index-refresh", Duration.ofMillis(faqIndexRefreshMs), faqSearchIndex::refresh)
+                .initialDelay(Duration.ofMillis(faqIndexRefreshMs))
+                .timeout(Duration.ofMinutes(1))
+                .jitter(Duration.ofSeconds(30)));
+
+        orchestrator.register(JobDefinition
+                .cron("chat-archive", chatRetentionCron, chatArchiveService::archiveIdleSessions)
+                .timeout(Duration.ofMinutes(30))
+                .jitter(Duration.ofMinutes(5))
+                .oncePerCluster());
+
+        // Patients are waiting on these two, so they only get a little jitter
+        orchestrator.register(JobDefinition
+                .fixedDelay("emergency-escalation", Duration.ofMillis(escalationCheckMs),
+                        emergencyDispatcher::escalateUnclaimed)
+                .timeout(Duration.ofSeconds(20))
+                .jitter(Duration.ofSeconds(2)));
+
+        orchestrator.register(JobDefinition
+                .fixedDelay("doctor-availability-refresh", Duration.ofMillis(availabilityRefreshMs), () -> {
+                    doctorAvailability.refresh();
+                    emergencyRouter.pruneClosed();
+                })
+                .timeout(Duration.ofSeconds(30))
+                .jitter(Duration.ofSeconds(5)));
+    }
+}
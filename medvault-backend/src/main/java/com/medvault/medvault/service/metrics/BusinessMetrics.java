@@ -0,0 +1,98 @@
+package com.medvault.medvault.service.metrics;
+
+import com.medvault.medvault.service.chatbot.ChatIntent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Locale;
+
+/**
+ * Meters for what the application does, as opposed to how the JVM or HTTP layer is
+ * doing. Everything is under "medvault." and shows up in /actuator/metrics and
+ * /actuator/prometheus. Tag values come from small fixed sets (outcomes, intents,
+ * reasons), never from ids or user input.
+ */
+@Component
+public class BusinessMetrics {
+
+    private final MeterRegistry registry;
+    private final Counter slotConflicts;
+
+    public BusinessMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.slotConflicts = Counter.builder("medvault.booking.slot.conflicts")
+                .description("Bookings refused because the slot was taken in the meantime")
+                .register(registry);
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    /**
+     * outcome is booked, rejected or error; reason is the action the client is told
+     * to take when rejected (e.g. select_different_slot), otherwise none. Inside a
+     * transaction the outcome is recorded once it commits; a booking that rolls back
+     * counts as an error with reason rolled_back.
+     */
+    public void bookingFinished(Timer.Sample sample, String outcome, String reason) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        recordBooking(sample, outcome, reason);
+                    } else {
+                        recordBooking(sample, "error", "rolled_back");
+                    }
+                }
+            });
+        } else {
+            recordBooking(sample, outcome, reason);
+        }
+    }
+
+    private void recordBooking(Timer.Sample sample, String outcome, String reason) {
+        sample.stop(Timer.builder("medvault.booking")
+                .description("Appointment booking attempts")
+                .tag("outcome", outcome)
+                .tag("reason", reason.toLowerCase(Locale.ROOT))
+                .register(registry));
+    }
+
+    public void slotConflict() {
+        slotConflicts.increment();
+    }
+
+    /**
+     * action is granted or revoked; reason says how (manual, granular, expired,
+     * safety_net).
+     */
+    public void permissionChanged(String action, String reason, int count) {
+        Counter.builder("medvault.permissions.changes")
+                .description("Record permissions granted and revoked")
+                .tag("action", action)
+                .tag("reason", reason)
+                .register(registry)
+                .increment(count);
+    }
+
+    public void emailFinished(Timer.Sample sample, String format, boolean sent) {
+        sample.stop(Timer.builder("medvault.email.send")
+                .description("Outgoing mail, including the SMTP round trip")
+                .tag("format", format)
+                .tag("outcome", sent ? "sent" : "failed")
+                .register(registry));
+    }
+
+    public void chatbotReplied(Timer.Sample sample, ChatIntent intent) {
+        sample.stop(Timer.builder("medvault.chatbot.reply")
+                .description("Chatbot replies by detected intent")
+                .tag("intent", intent.name().toLowerCase(Locale.ROOT))
+                .register(registry));
+    }
+}
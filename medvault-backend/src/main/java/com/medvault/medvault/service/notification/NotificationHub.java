@@ -0,0 +1,123 @@
+package com.medvault.medvault.service.notification;
+
+import com.medvault.medvault.event.AppointmentEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans appointment events out to connected clients as server-sent events.
+ *
+ * <p>Each connected user has one multicast sink (shared by their open tabs), and
+ * doctors additionally share one broadcast sink for emergencies. Streams are served
+ * through async servlet requests, so an idle connection holds no thread; only the
+ * shared heartbeat timer runs while nothing happens. A slow client gets a bounded
+ * buffer that drops its oldest events instead of holding up the others.
+ */
+@Service
+public class NotificationHub {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationHub.class);
+
+    private static final Sinks.EmitFailureHandler RETRY_ON_CONTENTION =
+            Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100));
+
+    // Open connections per user; the sink is shared by all of them
+    private static final class UserChannel {
+        private final Sinks.Many<AppointmentEvent> sink = Sinks.many().multicast().directBestEffort();
+        private int connections;
+    }
+
+    private final Map<Long, UserChannel> channels = new ConcurrentHashMap<>();
+    private final Sinks.Many<AppointmentEvent> doctorBroadcast = Sinks.many().multicast().directBestEffort();
+    private final Flux<ServerSentEvent<AppointmentEvent>> heartbeat;
+    private final int clientBufferSize;
+
+    private final AtomicLong connections = new AtomicLong();
+    private final AtomicLong published = new AtomicLong();
+
+    public NotificationHub(@Value("${app.notifications.heartbeat-seconds:25}") long heartbeatSeconds,
+                           @Value("${app.notifications.client-buffer-size:256}") int clientBufferSize) {
+        this.clientBufferSize = clientBufferSize;
+        // One timer for all connections
+        this.heartbeat = Flux.interval(Duration.ofSeconds(heartbeatSeconds))
+                .map(tick -> ServerSentEvent.<AppointmentEvent>builder().comment("keepalive").build())
+                .share();
+    }
+
+    public Flux<ServerSentEvent<AppointmentEvent>> subscribe(Long userId, boolean doctor) {
+        Flux<AppointmentEvent> events = Flux.using(() -> acquire(userId),
+                channel -> channel.sink.asFlux(),
+                channel -> release(userId));
+        if (doctor) {
+            events = events.mergeWith(doctorBroadcast.asFlux()
+                    // The assigned doctor already gets it on their own sink
+                    .filter(event -> !userId.equals(event.doctorUserId())));
+        }
+
+        Flux<ServerSentEvent<AppointmentEvent>> stream = events
+                .map(event -> ServerSentEvent.builder(event)
+                        .event(event.type().name())
+                        .retry(Duration.ofSeconds(5))
+                        .build());
+
+        // The buffer goes after the merge: merge prefetches from each source, so a buffer
+        // before it would only start dropping once the merge's own queue was full too
+        return Flux.merge(stream, heartbeat)
+                .onBackpressureBuffer(clientBufferSize, dropped -> logger.debug("Dropped notification for user {}", userId),
+                        BufferOverflowStrategy.DROP_OLDEST)
+                .doOnSubscribe(subscription -> connections.incrementAndGet())
+                .doFinally(signal -> connections.decrementAndGet());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentEvent(AppointmentEvent event) {
+        published.incrementAndGet();
+        if (event.type().broadcastToDoctors()) {
+            doctorBroadcast.emitNext(event, RETRY_ON_CONTENTION);
+        }
+        emitTo(event.doctorUserId(), event);
+        emitTo(event.patientUserId(), event);
+    }
+
+    private void emitTo(Long userId, AppointmentEvent event) {
+        if (userId == null) {
+            return;
+        }
+        UserChannel channel = channels.get(userId);
+        if (channel != null) {
+            channel.sink.emitNext(event, RETRY_ON_CONTENTION);
+        }
+    }
+
+    // Counting under compute() keeps connect and disconnect of the same user atomic
+    private UserChannel acquire(Long userId) {
+        return channels.compute(userId, (id, channel) -> {
+            UserChannel current = channel != null ? channel : new UserChannel();
+            current.connections++;
+            return current;
+        });
+    }
+
+    private void release(Long userId) {
+        channels.computeIfPresent(userId, (id, channel) -> --channel.connections == 0 ? null : channel);
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "connections", connections.get(),
+                "connectedUsers", channels.size(),
+                "eventsPublished", published.get());
+    }
+}
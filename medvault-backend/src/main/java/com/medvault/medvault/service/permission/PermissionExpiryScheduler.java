@@ -0,0 +1,95 @@
+package com.medvault.medvault.service.permission;
+
+import com.medvault.medvault.event.RecordPermissionChangedEvent;
+import com.medvault.medvault.repository.RecordPermissionRepository;
+import com.medvault.medvault.service.metrics.BusinessMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Revokes time-limited record permissions within a second of their expiresAt.
+ *
+ * <p>Upcoming expiries sit in a {@link TimingWheel}: the next few hours' worth are
+ * loaded from the database on start-up and on every reload, and each grant or
+ * revoke on this node adds or cancels its entry straight away. {@link #tick()}
+ * runs every second and revokes whatever fell due with one UPDATE. The periodic
+ * database sweep in RecordPermissionService is kept as a safety net for grants
+ * made on a node that went down before they expired.
+ */
+@Service
+public class PermissionExpiryScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(PermissionExpiryScheduler.class);
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    @Autowired
+    private RecordPermissionRepository recordPermissionRepository;
+
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
+    @Value("${app.permissions.expiry.lookahead-ms:7200000}")
+    private long lookaheadMs;
+
+    @Value("${app.permissions.expiry.retry-ms:30000}")
+    private long retryMs;
+
+    private final TimingWheel<Long> wheel = new TimingWheel<>(1000, 60, System.currentTimeMillis());
+
+    /**
+     * Loads every active permission that expires within the lookahead. Entries
+     * already in the wheel are simply rescheduled.
+     */
+    public void reload() {
+        LocalDateTime until = LocalDateTime.now().plusNanos(lookaheadMs * 1_000_000);
+        List<Object[]> rows = recordPermissionRepository.findExpiriesUntil(until);
+        for (Object[] row : rows) {
+            wheel.schedule((Long) row[0], toEpochMs((LocalDateTime) row[1]));
+        }
+        logger.debug("Loaded {} permission expiries up to {}", rows.size(), until);
+    }
+
+    public void tick() {
+        List<Long> due = wheel.advance(System.currentTimeMillis());
+        if (due.isEmpty()) {
+            return;
+        }
+        try {
+            int revoked = recordPermissionRepository.revokeExpiredByIds(due, LocalDateTime.now());
+            businessMetrics.permissionChanged("revoked", "expired", revoked);
+            logger.info("Revoked {} expired permissions ({} due)", revoked, due.size());
+        } catch (Exception e) {
+            logger.error("Could not revoke {} expired permissions, retrying in {} ms: {}", due.size(), retryMs,
+                    e.getMessage());
+            long retryAt = System.currentTimeMillis() + retryMs;
+            due.forEach(id -> wheel.schedule(id, retryAt));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPermissionChanged(RecordPermissionChangedEvent event) {
+        if (event.expiresAt() == null) {
+            wheel.cancel(event.permissionId());
+        } else {
+            wheel.schedule(event.permissionId(), toEpochMs(event.expiresAt()));
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of("pending", wheel.size(), "lookaheadMs", lookaheadMs);
+    }
+
+    private static long toEpochMs(LocalDateTime time) {
+        return time.atZone(ZONE).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,166 @@
+package com.medvault.medvault.service.permission;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hierarchical timing wheel: schedules and cancels in O(1) and hands back the keys
+ * that fell due each time the clock is advanced.
+ *
+ * <p>The lowest wheel has {@code wheelSize} buckets of one tick each. A deadline too
+ * far out for it goes to a coarser wheel whose tick is the whole span of the wheel
+ * below (created when first needed), so with a one-second tick and 60 buckets the
+ * levels are seconds, minutes, hours, and so on. When the clock reaches a coarse
+ * bucket its entries are moved down into the finer wheels, and they fire from the
+ * lowest one. An entry therefore fires on the first advance at or after its
+ * deadline, never earlier, and at most one tick late.
+ *
+ * <p>Scheduling a key again replaces its earlier deadline. Cancelled entries are
+ * dropped when their bucket comes up rather than searched for.
+ */
+public class TimingWheel<K> {
+
+    private final Level root;
+    private final Map<K, Entry<K>> live = new HashMap<>();
+    private final List<K> overdue = new ArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public TimingWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("tickMs must be positive and wheelSize at least 2");
+        }
+        this.root = new Level(tickMs, wheelSize, startMs - Math.floorMod(startMs, tickMs));
+    }
+
+    /**
+     * Schedules the key for the given time. A deadline already in the past is
+     * returned by the next {@link #advance}.
+     */
+    public void schedule(K key, long deadlineMs) {
+        lock.lock();
+        try {
+            // Rounded up to a whole tick so nothing fires before its deadline
+            Entry<K> entry = new Entry<>(key, deadlineMs + Math.floorMod(-deadlineMs, root.tick));
+            live.put(key, entry);
+            if (!root.add(entry)) {
+                overdue.add(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean cancel(K key) {
+        lock.lock();
+        try {
+            return live.remove(key) != null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves the clock forward to nowMs and returns every key whose deadline has
+     * passed, in no particular order. Moving backwards does nothing.
+     */
+    public List<K> advance(long nowMs) {
+        lock.lock();
+        try {
+            List<K> due = new ArrayList<>();
+            for (K key : overdue) {
+                if (live.remove(key) != null) {
+                    due.add(key);
+                }
+            }
+            overdue.clear();
+
+            while (root.current + root.tick <= nowMs) {
+                long time = root.current + root.tick;
+                List<Entry<K>> moved = new ArrayList<>();
+                for (Level level = root; level != null; level = level.overflow) {
+                    if (Math.floorMod(time, level.tick) != 0) {
+                        break; // coarser levels only turn when the finer one wraps
+                    }
+                    level.current = time;
+                    moved.addAll(level.drain(time));
+                }
+                for (Entry<K> entry : moved) {
+                    if (live.get(entry.key) != entry) {
+                        continue; // cancelled or rescheduled since
+                    }
+                    if (!root.add(entry)) {
+                        live.remove(entry.key);
+                        due.add(entry.key);
+                    }
+                }
+            }
+            return due;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return live.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Entry<K>(K key, long deadlineMs) {
+    }
+
+    private final class Level {
+
+        final long tick;
+        final int size;
+        final long span;
+        final List<List<Entry<K>>> buckets;
+        long current;
+        Level overflow;
+
+        Level(long tick, int size, long current) {
+            this.tick = tick;
+            this.size = size;
+            this.span = tick * size;
+            this.current = current;
+            this.buckets = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                buckets.add(new ArrayList<>());
+            }
+        }
+
+        /**
+         * False when the entry is due within the current tick of this level.
+         */
+        boolean add(Entry<K> entry) {
+            if (entry.deadlineMs() < current + tick) {
+                return false;
+            }
+            if (entry.deadlineMs() < current + span) {
+                buckets.get((int) Math.floorMod(entry.deadlineMs() / tick, (long) size)).add(entry);
+                return true;
+            }
+            if (overflow == null) {
+                overflow = new Level(span, size, current - Math.floorMod(current, span));
+            }
+            // Beyond our span means at least one overflow tick out, so the overflow always takes it
+            return overflow.add(entry);
+        }
+
+        List<Entry<K>> drain(long time) {
+            List<Entry<K>> bucket = buckets.get((int) Math.floorMod(time / tick, (long) size));
+            if (bucket.isEmpty()) {
+                return List.of();
+            }
+            List<Entry<K>> drained = new ArrayList<>(bucket);
+            bucket.clear();
+            return drained;
+        }
+    }
+}
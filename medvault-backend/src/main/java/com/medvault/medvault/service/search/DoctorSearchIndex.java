@@ -0,0 +1,574 @@
+package com.medvault.medvault.service.search;
+
+import com.medvault.medvault.dto.DoctorRatingDTO;
+import com.medvault.medvault.event.DoctorProfileChangedEvent;
+import com.medvault.medvault.event.DoctorRatingChangedEvent;
+import com.medvault.medvault.event.TimeSlotsChangedEvent;
+import com.medvault.medvault.model.Doctor;
+import com.medvault.medvault.model.DoctorRatingStats;
+import com.medvault.medvault.model.DoctorStatus;
+import com.medvault.medvault.repository.DoctorRatingStatsRepository;
+import com.medvault.medvault.repository.DoctorRepository;
+import com.medvault.medvault.repository.TimeSlotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory search over the approved doctors for patients picking a doctor: filter by
+ * specialization, language, fee range, experience, rating and next free slot, with
+ * facet counts and sorted pages.
+ *
+ * <p>Doctors are stored column by column. Specializations and languages have one
+ * bitset each, the numeric filters are a scan over primitive arrays, and every sort
+ * order is kept as a presorted array of positions, so a search does no sorting and
+ * never touches the database. Profile, approval, rating and slot changes reload just
+ * the affected doctors into a copy of the snapshot; the periodic full rebuild catches
+ * rows changed outside the app and next slots that have since started.
+ */
+@Service
+public class DoctorSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(DoctorSearchIndex.class);
+
+    public enum SortOrder {
+        RATING(Comparator.comparingDouble(Hit::averageRating).reversed()
+                .thenComparing(Comparator.comparingLong(Hit::totalRatings).reversed())),
+        FEES(Comparator.comparing(Hit::consultationFees, Comparator.nullsLast(Comparator.naturalOrder()))),
+        EXPERIENCE(Comparator.comparing(Hit::yearsOfExperience, Comparator.nullsLast(Comparator.reverseOrder()))),
+        NEXT_AVAILABLE(Comparator.comparing(Hit::nextAvailableSlot, Comparator.nullsLast(Comparator.naturalOrder()))),
+        NAME(Comparator.comparing(Hit::lastName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+                .thenComparing(Hit::firstName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+
+        private final Comparator<Hit> comparator;
+
+        SortOrder(Comparator<Hit> comparator) {
+            // The id makes every order total, which the incremental inserts rely on
+            this.comparator = comparator.thenComparing(Hit::doctorId);
+        }
+    }
+
+    /**
+     * Search filters; null means no filter. Specialization and language match any
+     * value containing the text, ignoring case. Doctors with no value for a numeric
+     * filter don't match it.
+     */
+    public record Criteria(String specialization, String language, Double minFees, Double maxFees,
+                           Integer minExperience, Double minRating, LocalDateTime availableBefore) {
+        public static Criteria bySpecialization(String specialization) {
+            return new Criteria(specialization, null, null, null, null, null, null);
+        }
+
+        boolean hasRangeFilter() {
+            return minFees != null || maxFees != null || minExperience != null || minRating != null
+                    || availableBefore != null;
+        }
+    }
+
+    public record Hit(Long doctorId, String firstName, String lastName, String specialization,
+                      List<String> languages, String qualification, Integer yearsOfExperience,
+                      Double consultationFees, String contactNumber, double averageRating, long totalRatings,
+                      LocalDateTime nextAvailableSlot) {
+        static Hit of(Doctor doctor, DoctorRatingStats stats, LocalDateTime nextAvailableSlot) {
+            DoctorRatingDTO rating = stats != null ? DoctorRatingDTO.of(stats) : DoctorRatingDTO.none(doctor.getId());
+            return new Hit(doctor.getId(), doctor.getFirstName(), doctor.getLastName(), doctor.getSpecialization(),
+                    languagesOf(doctor.getLanguagesSpoken()), doctor.getQualification(),
+                    doctor.getYearsOfExperience(), doctor.getConsultationFees(), doctor.getContactNumber(),
+                    rating.averageRating(), rating.totalRatings(), nextAvailableSlot);
+        }
+    }
+
+    /**
+     * One page of matches. The facet counts, largest first, apply every filter except
+     * the facet's own, so they show what picking another value would return.
+     */
+    public record Result(List<Hit> doctors, int total, int page, int size,
+                         Map<String, Integer> specializations, Map<String, Integer> languages) {
+    }
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private DoctorRatingStatsRepository ratingStatsRepository;
+
+    @Autowired
+    private TimeSlotRepository timeSlotRepository;
+
+    // Above this many changed doctors a full rebuild is cheaper than patching the columns
+    @Value("${app.search.doctors.max-incremental-batch:32}")
+    private int maxIncrementalBatch;
+
+    private volatile Snapshot snapshot;
+
+    // A lock rather than synchronized: a virtual thread blocked on JDBC inside a monitor pins its carrier
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // Doctors changed since the last update, applied by whichever thread gets the lock
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    public Result search(Criteria criteria, SortOrder sort, int page, int size) {
+        return snapshot().search(criteria, sort, page, size);
+    }
+
+    Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        rebuild();
+        return snapshot;
+    }
+
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Map<Long, DoctorRatingStats> ratings = byDoctorId(ratingStatsRepository.findAll());
+            Map<Long, LocalDateTime> nextSlots = toNextSlots(timeSlotRepository.findNextAvailableStartByDoctor(now));
+            List<Hit> hits = doctorRepository.findByStatus(DoctorStatus.APPROVED).stream()
+                    .map(d -> Hit.of(d, ratings.get(d.getId()), nextSlots.get(d.getId())))
+                    .toList();
+            Snapshot built = Snapshot.build(hits);
+            snapshot = built;
+            logger.debug("Doctor search index rebuilt: {} doctors", built.size());
+        } finally {
+            rebuildLock.unlock();
+        }
+        // Changes that arrived while the rebuild was reading may not be in it
+        applyPending();
+    }
+
+    public void refresh() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.warn("Could not rebuild doctor search index, keeping previous snapshot: {}", e.getMessage());
+        }
+    }
+
+    // After commit, so the reload sees the new row
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDoctorProfileChanged(DoctorProfileChangedEvent event) {
+        if (event.doctorId() != null) {
+            doctorsChanged(Set.of(event.doctorId()));
+        } else {
+            // Only the user is known (account deleted), which is rare enough to rebuild for
+            refresh();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDoctorRatingChanged(DoctorRatingChangedEvent event) {
+        doctorsChanged(Set.of(event.doctorId()));
+    }
+
+    // Already published after commit, see TimeSlotChangeListener
+    @EventListener
+    public void onTimeSlotsChanged(TimeSlotsChangedEvent event) {
+        doctorsChanged(event.doctorIds());
+    }
+
+    void doctorsChanged(Collection<Long> doctorIds) {
+        pending.addAll(doctorIds);
+        applyPending();
+    }
+
+    // A thread that finds the lock taken leaves its ids to the holder, which checks again after unlocking
+    private void applyPending() {
+        while (!pending.isEmpty() && rebuildLock.tryLock()) {
+            Set<Long> batch = new HashSet<>();
+            boolean rebuildAll = false;
+            try {
+                for (Iterator<Long> it = pending.iterator(); it.hasNext(); ) {
+                    batch.add(it.next());
+                    it.remove();
+                }
+                Snapshot current = snapshot;
+                // Not built yet: the first search loads everything fresh
+                if (current != null) {
+                    if (batch.size() > maxIncrementalBatch) {
+                        rebuildAll = true;
+                    } else {
+                        snapshot = current.withChanges(batch, load(batch));
+                    }
+                }
+            } catch (Exception e) {
+                logger.warn("Could not update doctors {} in the search index, keeping previous snapshot: {}",
+                        batch, e.getMessage());
+            } finally {
+                rebuildLock.unlock();
+            }
+            if (rebuildAll) {
+                refresh();
+            }
+        }
+    }
+
+    // The approved doctors among the given ids; the others are dropped from the index
+    private Map<Long, Hit> load(Set<Long> doctorIds) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, DoctorRatingStats> ratings = byDoctorId(ratingStatsRepository.findByDoctorIdIn(doctorIds));
+        Map<Long, LocalDateTime> nextSlots =
+                toNextSlots(timeSlotRepository.findNextAvailableStartByDoctorIn(doctorIds, now));
+        Map<Long, Hit> hits = new HashMap<>();
+        for (Doctor doctor : doctorRepository.findAllById(doctorIds)) {
+            if (doctor.getStatus() == DoctorStatus.APPROVED) {
+                hits.put(doctor.getId(), Hit.of(doctor, ratings.get(doctor.getId()), nextSlots.get(doctor.getId())));
+            }
+        }
+        return hits;
+    }
+
+    public Map<String, Object> getStats() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return Map.of("built", false);
+        }
+        return Map.of("built", true,
+                "doctors", current.size(),
+                "specializations", current.specializations.size(),
+                "languages", current.languages.size());
+    }
+
+    private static Map<Long, DoctorRatingStats> byDoctorId(List<DoctorRatingStats> stats) {
+        Map<Long, DoctorRatingStats> byId = new HashMap<>();
+        stats.forEach(s -> byId.put(s.getDoctorId(), s));
+        return byId;
+    }
+
+    private static Map<Long, LocalDateTime> toNextSlots(List<Object[]> rows) {
+        Map<Long, LocalDateTime> next = new HashMap<>();
+        for (Object[] row : rows) {
+            if (row[0] != null && row[1] != null) {
+                next.put(((Number) row[0]).longValue(), (LocalDateTime) row[1]);
+            }
+        }
+        return next;
+    }
+
+    static List<String> languagesOf(String languagesSpoken) {
+        if (languagesSpoken == null) {
+            return List.of();
+        }
+        Set<String> languages = new LinkedHashSet<>();
+        for (String language : languagesSpoken.split("[,;/]")) {
+            if (!language.isBlank()) {
+                languages.add(language.trim());
+            }
+        }
+        return List.copyOf(languages);
+    }
+
+    private static String key(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * One immutable build of the index. Positions index the column arrays; a doctor
+     * keeps its position across incremental updates, and a removed doctor's position
+     * stays empty until the next full rebuild.
+     */
+    static final class Snapshot {
+
+        // Column values standing for "unknown", which no filter accepts
+        private static final int NO_EXPERIENCE = -1;
+        private static final long NO_SLOT = Long.MAX_VALUE;
+
+        private record Facet(String label, BitSet doctors) {
+        }
+
+        private final Hit[] hits;
+        private final double[] fees;
+        private final int[] experience;
+        private final double[] rating;
+        private final long[] nextSlot;
+        private final BitSet live;
+        private final Map<Long, Integer> positions;
+        private final Map<String, Facet> specializations;
+        private final Map<String, Facet> languages;
+        private final Map<SortOrder, int[]> orders;
+
+        private Snapshot(Hit[] hits, double[] fees, int[] experience, double[] rating, long[] nextSlot, BitSet live,
+                         Map<Long, Integer> positions, Map<String, Facet> specializations,
+                         Map<String, Facet> languages, Map<SortOrder, int[]> orders) {
+            this.hits = hits;
+            this.fees = fees;
+            this.experience = experience;
+            this.rating = rating;
+            this.nextSlot = nextSlot;
+            this.live = live;
+            this.positions = positions;
+            this.specializations = specializations;
+            this.languages = languages;
+            this.orders = orders;
+        }
+
+        static Snapshot build(List<Hit> source) {
+            int n = source.size();
+            Snapshot built = new Snapshot(source.toArray(new Hit[0]), new double[n], new int[n], new double[n],
+                    new long[n], new BitSet(n), new HashMap<>(n * 2), new HashMap<>(), new HashMap<>(),
+                    new EnumMap<>(SortOrder.class));
+            Set<BitSet> owned = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (int position = 0; position < n; position++) {
+                built.put(position, built.hits[position], owned);
+            }
+            for (SortOrder order : SortOrder.values()) {
+                Comparator<Hit> comparator = order.comparator;
+                built.orders.put(order, IntStream.range(0, n).boxed()
+                        .sorted((a, b) -> comparator.compare(built.hits[a], built.hits[b]))
+                        .mapToInt(Integer::intValue)
+                        .toArray());
+            }
+            return built;
+        }
+
+        int size() {
+            return positions.size();
+        }
+
+        /**
+         * A copy with the given doctors replaced by their entries in loaded, or removed
+         * when they have none. Columns are copied once and each sort order gets a
+         * binary-search insert per doctor; only the facets the changed doctors are in
+         * get new bitsets.
+         */
+        Snapshot withChanges(Collection<Long> doctorIds, Map<Long, Hit> loaded) {
+            int added = (int) loaded.keySet().stream().filter(id -> !positions.containsKey(id)).count();
+            int n = hits.length + added;
+            Snapshot next = new Snapshot(Arrays.copyOf(hits, n), Arrays.copyOf(fees, n),
+                    Arrays.copyOf(experience, n), Arrays.copyOf(rating, n), Arrays.copyOf(nextSlot, n),
+                    (BitSet) live.clone(), new HashMap<>(positions), new HashMap<>(specializations),
+                    new HashMap<>(languages), new EnumMap<>(orders));
+            Set<BitSet> owned = Collections.newSetFromMap(new IdentityHashMap<>());
+            int free = hits.length;
+            for (Long doctorId : doctorIds) {
+                Integer position = positions.get(doctorId);
+                Hit hit = loaded.get(doctorId);
+                if (position != null && live.get(position)) {
+                    next.remove(position, owned);
+                }
+                if (hit != null) {
+                    int at = position != null ? position : free++;
+                    next.hits[at] = hit;
+                    next.put(at, hit, owned);
+                    next.orders.replaceAll((sort, order) -> next.inserted(order, at, sort.comparator));
+                } else if (position != null) {
+                    next.positions.remove(doctorId);
+                }
+            }
+            return next;
+        }
+
+        private void put(int position, Hit hit, Set<BitSet> owned) {
+            fees[position] = hit.consultationFees() != null ? hit.consultationFees() : Double.NaN;
+            experience[position] = hit.yearsOfExperience() != null ? hit.yearsOfExperience() : NO_EXPERIENCE;
+            rating[position] = hit.averageRating();
+            nextSlot[position] = hit.nextAvailableSlot() != null
+                    ? hit.nextAvailableSlot().toEpochSecond(ZoneOffset.UTC) : NO_SLOT;
+            live.set(position);
+            positions.put(hit.doctorId(), position);
+            if (hit.specialization() != null && !hit.specialization().isBlank()) {
+                addTo(specializations, key(hit.specialization()), hit.specialization().trim(), position, owned);
+            }
+            for (String language : hit.languages()) {
+                addTo(languages, key(language), language, position, owned);
+            }
+        }
+
+        private void remove(int position, Set<BitSet> owned) {
+            Hit old = hits[position];
+            live.clear(position);
+            if (old.specialization() != null && !old.specialization().isBlank()) {
+                removeFrom(specializations, key(old.specialization()), position, owned);
+            }
+            for (String language : old.languages()) {
+                removeFrom(languages, key(language), position, owned);
+            }
+            orders.replaceAll((sort, order) -> without(order, position));
+        }
+
+        // Bitsets not in owned may be shared with the previous snapshot, so they are copied before changing
+        private static void addTo(Map<String, Facet> facets, String key, String label, int position,
+                                  Set<BitSet> owned) {
+            Facet facet = facets.get(key);
+            if (facet == null) {
+                facet = new Facet(label, new BitSet());
+                facets.put(key, facet);
+                owned.add(facet.doctors());
+            } else if (!owned.contains(facet.doctors())) {
+                facet = owned(facets, key, facet, owned);
+            }
+            facet.doctors().set(position);
+        }
+
+        private static void removeFrom(Map<String, Facet> facets, String key, int position, Set<BitSet> owned) {
+            Facet facet = facets.get(key);
+            if (facet == null) {
+                return;
+            }
+            if (!owned.contains(facet.doctors())) {
+                facet = owned(facets, key, facet, owned);
+            }
+            facet.doctors().clear(position);
+            if (facet.doctors().isEmpty()) {
+                facets.remove(key);
+            }
+        }
+
+        private static Facet owned(Map<String, Facet> facets, String key, Facet shared, Set<BitSet> owned) {
+            Facet copy = new Facet(shared.label(), (BitSet) shared.doctors().clone());
+            facets.put(key, copy);
+            owned.add(copy.doctors());
+            return copy;
+        }
+
+        private static int[] without(int[] order, int position) {
+            int[] result = new int[order.length - 1];
+            int j = 0;
+            for (int p : order) {
+                if (p != position) {
+                    result[j++] = p;
+                }
+            }
+            return result;
+        }
+
+        private int[] inserted(int[] order, int position, Comparator<Hit> comparator) {
+            int lo = 0;
+            int hi = order.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (comparator.compare(hits[order[mid]], hits[position]) < 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            int[] result = new int[order.length + 1];
+            System.arraycopy(order, 0, result, 0, lo);
+            result[lo] = position;
+            System.arraycopy(order, lo, result, lo + 1, order.length - lo);
+            return result;
+        }
+
+        Result search(Criteria criteria, SortOrder sort, int page, int size) {
+            if (page < 0 || size < 1) {
+                throw new IllegalArgumentException("Page must be 0 or more and size at least 1");
+            }
+            BitSet inRange = inRange(criteria);
+            BitSet bySpecialization = containing(specializations, criteria.specialization());
+            BitSet byLanguage = containing(languages, criteria.language());
+
+            BitSet matches = intersect(inRange, bySpecialization, byLanguage);
+            Map<String, Integer> specializationCounts = counts(specializations, intersect(inRange, byLanguage, null));
+            Map<String, Integer> languageCounts = counts(languages, intersect(inRange, bySpecialization, null));
+
+            List<Hit> doctors = new ArrayList<>(Math.min(size, matches.cardinality()));
+            long skip = (long) page * size;
+            for (int position : orders.get(sort)) {
+                if (doctors.size() == size) {
+                    break;
+                }
+                if (matches.get(position) && skip-- <= 0) {
+                    doctors.add(hits[position]);
+                }
+            }
+            return new Result(doctors, matches.cardinality(), page, size, specializationCounts, languageCounts);
+        }
+
+        private BitSet inRange(Criteria criteria) {
+            if (!criteria.hasRangeFilter()) {
+                return live;
+            }
+            double minFees = criteria.minFees() != null ? criteria.minFees() : Double.NEGATIVE_INFINITY;
+            double maxFees = criteria.maxFees() != null ? criteria.maxFees() : Double.POSITIVE_INFINITY;
+            boolean anyFees = criteria.minFees() == null && criteria.maxFees() == null;
+            int minExperience = criteria.minExperience() != null ? criteria.minExperience() : Integer.MIN_VALUE;
+            double minRating = criteria.minRating() != null ? criteria.minRating() : Double.NEGATIVE_INFINITY;
+            long slotBefore = criteria.availableBefore() != null
+                    ? criteria.availableBefore().toEpochSecond(ZoneOffset.UTC) : NO_SLOT;
+            BitSet result = new BitSet(hits.length);
+            for (int p = live.nextSetBit(0); p >= 0; p = live.nextSetBit(p + 1)) {
+                // NaN fails both comparisons, so doctors without fees only pass when fees aren't filtered
+                if ((anyFees || (fees[p] >= minFees && fees[p] <= maxFees))
+                        && experience[p] >= minExperience
+                        && rating[p] >= minRating
+                        && (criteria.availableBefore() == null || nextSlot[p] <= slotBefore)) {
+                    result.set(p);
+                }
+            }
+            return result;
+        }
+
+        // Null when there is no filter; an empty set when nothing matches
+        private static BitSet containing(Map<String, Facet> facets, String text) {
+            if (text == null || text.isBlank()) {
+                return null;
+            }
+            String needle = key(text);
+            BitSet result = new BitSet();
+            facets.forEach((key, facet) -> {
+                if (key.contains(needle)) {
+                    result.or(facet.doctors());
+                }
+            });
+            return result;
+        }
+
+        private static BitSet intersect(BitSet first, BitSet second, BitSet third) {
+            BitSet result = (BitSet) first.clone();
+            if (second != null) {
+                result.and(second);
+            }
+            if (third != null) {
+                result.and(third);
+            }
+            return result;
+        }
+
+        private static Map<String, Integer> counts(Map<String, Facet> facets, BitSet scope) {
+            List<Map.Entry<String, Integer>> counts = new ArrayList<>(facets.size());
+            for (Facet facet : facets.values()) {
+                BitSet matching = (BitSet) facet.doctors().clone();
+                matching.and(scope);
+                int count = matching.cardinality();
+                if (count > 0) {
+                    counts.add(Map.entry(facet.label(), count));
+                }
+            }
+            counts.sort(Map.Entry.<String, Integer>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey()));
+            Map<String, Integer> sorted = new LinkedHashMap<>();
+            counts.forEach(e -> sorted.put(e.getKey(), e.getValue()));
+            return sorted;
+        }
+    }
+}
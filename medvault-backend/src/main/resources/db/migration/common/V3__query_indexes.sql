@@ -0,0 +1,44 @@
+-- An index behind the WHERE clause of every query in the repository package.
+-- RepositoryQueryPlanTests runs EXPLAIN on each of them and fails on a full scan,
+-- so a new query without an index shows up there.
+-- Foreign key columns not listed here are already indexed by their constraint.
+
+-- Doctor dashboard and appointment lists: by doctor, optionally by status, newest first
+create index idx_appointments_doctor_status_created on appointment_slots (doctor_id, status, created_at);
+-- The same for the patient side
+create index idx_appointments_patient_status_created on appointment_slots (patient_id, status, created_at);
+-- Who booked a slot
+create index idx_appointments_slot_status on appointment_slots (slot_id, status);
+-- Open emergencies and the emergencies each doctor took on recently
+create index idx_appointments_status_emergency on appointment_slots (status, is_emergency, updated_at);
+
+-- A doctor's (available, upcoming) slots
+create index idx_time_slots_doctor_available_start on time_slots (doctor_id, is_available, start_time);
+-- Available slots across all doctors in a time range
+create index idx_time_slots_available_start on time_slots (is_available, start_time);
+
+-- A doctor's active permissions
+create index idx_record_permissions_doctor_active on record_permissions (doctor_id, is_granted, revoked_at, expires_at);
+-- Who may see a given record
+create index idx_record_permissions_record_granted on record_permissions (medical_record_id, is_granted);
+-- The expiry sweep: granted, not revoked, expiring before a time
+create index idx_record_permissions_expiry on record_permissions (is_granted, revoked_at, expires_at);
+
+create index idx_medical_records_patient_uploaded on medical_records (patient_id, uploaded_at);
+
+create index idx_feedback_doctor_date on feedback (doctor_id, feedback_date);
+create index idx_feedback_patient_date on feedback (patient_id, feedback_date);
+
+create index idx_doctors_status on doctors (status);
+
+create index idx_patients_user on patients (user_id);
+create index idx_patients_status on patients (status);
+
+create index idx_users_role on users (role);
+create index idx_users_created on users (created_at);
+
+create index idx_access_requests_status_created on access_requests (status, created_at);
+create index idx_access_requests_created on access_requests (created_at);
+
+create index idx_faq_items_active_priority on faq_items (is_active, priority);
+create index idx_faq_items_category_active on faq_items (category, is_active);
@@ -0,0 +1,29 @@
+-- Running rating totals per doctor, kept up to date by DoctorRatingService as
+-- feedback comes in, so averages and distributions never need the feedback table.
+
+create table doctor_rating_stats (
+    doctor_id bigint not null,
+    rating_count bigint not null,
+    rating_sum bigint not null,
+    stars_1 bigint not null,
+    stars_2 bigint not null,
+    stars_3 bigint not null,
+    stars_4 bigint not null,
+    stars_5 bigint not null,
+    primary key (doctor_id),
+    constraint fk_doctor_rating_stats_doctor foreign key (doctor_id) references doctors (id)
+);
+
+-- Every existing doctor, from the feedback given so far
+insert into doctor_rating_stats (doctor_id, rating_count, rating_sum, stars_1, stars_2, stars_3, stars_4, stars_5)
+select d.id,
+       count(f.id),
+       coalesce(sum(f.rating), 0),
+       sum(case when f.rating = 1 then 1 else 0 end),
+       sum(case when f.rating = 2 then 1 else 0 end),
+       sum(case when f.rating = 3 then 1 else 0 end),
+       sum(case when f.rating = 4 then 1 else 0 end),
+       sum(case when f.rating = 5 then 1 else 0 end)
+from doctors d
+left join feedback f on f.doctor_id = d.id
+group by d.id;
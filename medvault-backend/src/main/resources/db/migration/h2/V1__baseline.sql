@@ -0,0 +1,204 @@
+-- H2 counterpart of mysql/V1__baseline.sql for tests and local runs on the embedded
+-- database. Keep the two in step; the indexes in common/ apply to both.
+
+create table users (
+    id bigint generated by default as identity,
+    username varchar(255) not null,
+    email varchar(255) not null,
+    password varchar(255) not null,
+    role varchar(32) not null,
+    first_login boolean,
+    enabled boolean,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    first_name varchar(255),
+    last_name varchar(255),
+    primary key (id),
+    constraint uk_users_username unique (username),
+    constraint uk_users_email unique (email)
+);
+
+create table access_requests (
+    id bigint generated by default as identity,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    email varchar(255) not null,
+    phone varchar(255) not null,
+    requested_role varchar(32) not null,
+    specialization varchar(255),
+    qualification varchar(255),
+    experience_years integer,
+    date_of_birth date,
+    gender varchar(32),
+    address varchar(255),
+    emergency_contact varchar(255),
+    message varchar(255),
+    status varchar(32),
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    reviewed_by bigint,
+    reviewed_at timestamp(6),
+    primary key (id),
+    constraint uk_access_requests_email unique (email)
+);
+
+create table doctors (
+    id bigint generated by default as identity,
+    user_id bigint,
+    first_name varchar(255),
+    last_name varchar(255),
+    gender varchar(32),
+    date_of_birth date,
+    contact_number varchar(255),
+    email varchar(255),
+    qualification varchar(255),
+    years_of_experience integer,
+    address clob,
+    specialization varchar(255),
+    consultation_fees double precision,
+    languages_spoken varchar(255),
+    medical_degree_certificate varchar(255),
+    medical_license_number varchar(255),
+    government_id_path varchar(255),
+    clinic_affiliation_path varchar(255),
+    documents_uploaded boolean,
+    profile_complete boolean,
+    status varchar(32),
+    admin_notes clob,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    primary key (id),
+    constraint uk_doctors_user unique (user_id)
+);
+
+create table patients (
+    id bigint generated by default as identity,
+    user_id bigint,
+    first_name varchar(255),
+    last_name varchar(255),
+    gender varchar(32),
+    date_of_birth date,
+    contact_number varchar(255),
+    email varchar(255),
+    address clob,
+    emergency_contact varchar(255),
+    government_id_path varchar(255),
+    document_uploaded boolean,
+    profile_complete boolean,
+    status varchar(32),
+    admin_notes clob,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    primary key (id)
+);
+
+create table time_slots (
+    id bigint generated by default as identity,
+    duration integer,
+    appointment_type varchar(255),
+    buffer_time integer,
+    doctor_id bigint,
+    start_time timestamp(6),
+    end_time timestamp(6),
+    is_available boolean,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    primary key (id)
+);
+
+create table appointment_slots (
+    id bigint generated by default as identity,
+    patient_id bigint,
+    doctor_id bigint,
+    slot_id bigint not null,
+    patient_notes clob,
+    rejection_reason clob,
+    status varchar(32),
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    is_emergency boolean,
+    urgency_level varchar(255),
+    reschedule_count integer,
+    original_appointment_id bigint,
+    reschedule_reason varchar(255),
+    primary key (id),
+    constraint fk_appointments_patient foreign key (patient_id) references patients (id),
+    constraint fk_appointments_doctor foreign key (doctor_id) references doctors (id),
+    constraint fk_appointments_slot foreign key (slot_id) references time_slots (id)
+);
+
+create table feedback (
+    id bigint generated by default as identity,
+    patient_id bigint not null,
+    doctor_id bigint not null,
+    appointment_id bigint not null,
+    rating integer not null,
+    comment clob,
+    feedback_date timestamp(6),
+    is_anonymous boolean,
+    primary key (id),
+    constraint fk_feedback_patient foreign key (patient_id) references patients (id),
+    constraint fk_feedback_doctor foreign key (doctor_id) references doctors (id),
+    constraint fk_feedback_appointment foreign key (appointment_id) references appointment_slots (id)
+);
+
+create table medical_records (
+    id bigint generated by default as identity,
+    patient_id bigint not null,
+    record_type varchar(255) not null,
+    title varchar(255) not null,
+    description clob,
+    file_path varchar(255),
+    uploaded_at timestamp(6) not null,
+    updated_at timestamp(6),
+    blood_group varchar(255),
+    blood_pressure varchar(255),
+    heart_rate integer,
+    temperature double precision,
+    weight double precision,
+    diagnosis_condition varchar(255),
+    medication clob,
+    primary key (id),
+    constraint fk_medical_records_patient foreign key (patient_id) references patients (id)
+);
+
+create table record_permissions (
+    id bigint generated by default as identity,
+    patient_id bigint not null,
+    doctor_id bigint not null,
+    medical_record_id bigint not null,
+    permission_type varchar(255) not null,
+    is_granted boolean not null,
+    granted_at timestamp(6),
+    revoked_at timestamp(6),
+    expires_at timestamp(6),
+    access_duration_hours integer,
+    auto_revoke_enabled boolean,
+    shared_fields clob,
+    primary key (id),
+    constraint fk_record_permissions_patient foreign key (patient_id) references patients (id),
+    constraint fk_record_permissions_doctor foreign key (doctor_id) references doctors (id),
+    constraint fk_record_permissions_record foreign key (medical_record_id) references medical_records (id)
+);
+
+create table faq_items (
+    id bigint generated by default as identity,
+    category varchar(255),
+    question clob,
+    answer clob,
+    keywords clob,
+    priority integer,
+    is_active boolean,
+    primary key (id)
+);
+
+create table chat_messages (
+    id bigint generated by default as identity,
+    session_id varchar(255),
+    patient_id bigint,
+    message clob,
+    response clob,
+    is_user_message boolean,
+    created_at timestamp(6),
+    primary key (id)
+);
@@ -0,0 +1,29 @@
+-- H2 counterpart of mysql/V2__chat_archive_and_job_locks.sql.
+
+alter table appointment_slots alter column slot_id set null;
+
+create index idx_chat_messages_session_created on chat_messages (session_id, created_at);
+create index idx_chat_messages_patient_created on chat_messages (patient_id, created_at);
+
+create table chat_archives (
+    id bigint generated by default as identity,
+    session_id varchar(255) not null,
+    patient_id bigint,
+    message_count integer not null,
+    first_message_at timestamp(6),
+    last_message_at timestamp(6),
+    archived_at timestamp(6) not null,
+    payload blob not null,
+    primary key (id)
+);
+
+create index idx_chat_archives_session on chat_archives (session_id);
+create index idx_chat_archives_patient on chat_archives (patient_id);
+
+create table scheduler_locks (
+    name varchar(64) not null,
+    locked_until timestamp(6) not null,
+    locked_at timestamp(6) not null,
+    locked_by varchar(255) not null,
+    primary key (name)
+);
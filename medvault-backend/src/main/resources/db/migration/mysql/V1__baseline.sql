@@ -0,0 +1,206 @@
+-- The schema as Hibernate's auto-DDL created it for the last release without
+-- migrations. A database that already has these tables is baselined at version 1
+-- (spring.flyway.baseline-on-migrate), so this only runs against an empty schema;
+-- every later change belongs in V2 or above, never here.
+
+create table users (
+    id bigint not null auto_increment,
+    username varchar(255) not null,
+    email varchar(255) not null,
+    password varchar(255) not null,
+    role enum ('ADMIN','DOCTOR','PATIENT') not null,
+    first_login bit,
+    enabled bit,
+    created_at datetime(6),
+    updated_at datetime(6),
+    first_name varchar(255),
+    last_name varchar(255),
+    primary key (id),
+    constraint uk_users_username unique (username),
+    constraint uk_users_email unique (email)
+) engine=InnoDB;
+
+create table access_requests (
+    id bigint not null auto_increment,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    email varchar(255) not null,
+    phone varchar(255) not null,
+    requested_role enum ('ADMIN','DOCTOR','PATIENT') not null,
+    specialization varchar(255),
+    qualification varchar(255),
+    experience_years integer,
+    date_of_birth date,
+    gender enum ('MALE','FEMALE','OTHER'),
+    address varchar(255),
+    emergency_contact varchar(255),
+    message varchar(255),
+    status enum ('PENDING','APPROVED','REJECTED'),
+    created_at datetime(6),
+    updated_at datetime(6),
+    reviewed_by bigint,
+    reviewed_at datetime(6),
+    primary key (id),
+    constraint uk_access_requests_email unique (email)
+) engine=InnoDB;
+
+create table doctors (
+    id bigint not null auto_increment,
+    user_id bigint,
+    first_name varchar(255),
+    last_name varchar(255),
+    gender enum ('MALE','FEMALE','OTHER'),
+    date_of_birth date,
+    contact_number varchar(255),
+    email varchar(255),
+    qualification varchar(255),
+    years_of_experience integer,
+    address text,
+    specialization varchar(255),
+    consultation_fees float(53),
+    languages_spoken varchar(255),
+    medical_degree_certificate varchar(255),
+    medical_license_number varchar(255),
+    government_id_path varchar(255),
+    clinic_affiliation_path varchar(255),
+    documents_uploaded bit,
+    profile_complete bit,
+    status enum ('INACTIVE','PENDING','APPROVED','REJECTED'),
+    admin_notes text,
+    created_at datetime(6),
+    updated_at datetime(6),
+    primary key (id),
+    constraint uk_doctors_user unique (user_id)
+) engine=InnoDB;
+
+create table patients (
+    id bigint not null auto_increment,
+    user_id bigint,
+    first_name varchar(255),
+    last_name varchar(255),
+    gender enum ('MALE','FEMALE','OTHER'),
+    date_of_birth date,
+    contact_number varchar(255),
+    email varchar(255),
+    address text,
+    emergency_contact varchar(255),
+    government_id_path varchar(255),
+    document_uploaded bit,
+    profile_complete bit,
+    status enum ('INACTIVE','PENDING','APPROVED','REJECTED'),
+    admin_notes text,
+    created_at datetime(6),
+    updated_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+create table time_slots (
+    id bigint not null auto_increment,
+    duration integer,
+    appointment_type varchar(255),
+    buffer_time integer,
+    doctor_id bigint,
+    start_time datetime(6),
+    end_time datetime(6),
+    is_available bit,
+    created_at datetime(6),
+    updated_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+create table appointment_slots (
+    id bigint not null auto_increment,
+    patient_id bigint,
+    doctor_id bigint,
+    slot_id bigint not null,
+    patient_notes text,
+    rejection_reason text,
+    status enum ('PENDING','APPROVED','REJECTED','COMPLETED','CANCELLED'),
+    created_at datetime(6),
+    updated_at datetime(6),
+    is_emergency bit,
+    urgency_level varchar(255),
+    reschedule_count integer,
+    original_appointment_id bigint,
+    reschedule_reason varchar(255),
+    primary key (id),
+    constraint fk_appointments_patient foreign key (patient_id) references patients (id),
+    constraint fk_appointments_doctor foreign key (doctor_id) references doctors (id),
+    constraint fk_appointments_slot foreign key (slot_id) references time_slots (id)
+) engine=InnoDB;
+
+create table feedback (
+    id bigint not null auto_increment,
+    patient_id bigint not null,
+    doctor_id bigint not null,
+    appointment_id bigint not null,
+    rating integer not null,
+    comment text,
+    feedback_date datetime(6),
+    is_anonymous bit,
+    primary key (id),
+    constraint fk_feedback_patient foreign key (patient_id) references patients (id),
+    constraint fk_feedback_doctor foreign key (doctor_id) references doctors (id),
+    constraint fk_feedback_appointment foreign key (appointment_id) references appointment_slots (id)
+) engine=InnoDB;
+
+create table medical_records (
+    id bigint not null auto_increment,
+    patient_id bigint not null,
+    record_type varchar(255) not null,
+    title varchar(255) not null,
+    description text,
+    file_path varchar(255),
+    uploaded_at datetime(6) not null,
+    updated_at datetime(6),
+    blood_group varchar(255),
+    blood_pressure varchar(255),
+    heart_rate integer,
+    temperature float(53),
+    weight float(53),
+    diagnosis_condition varchar(255),
+    medication text,
+    primary key (id),
+    constraint fk_medical_records_patient foreign key (patient_id) references patients (id)
+) engine=InnoDB;
+
+create table record_permissions (
+    id bigint not null auto_increment,
+    patient_id bigint not null,
+    doctor_id bigint not null,
+    medical_record_id bigint not null,
+    permission_type varchar(255) not null,
+    is_granted bit not null,
+    granted_at datetime(6),
+    revoked_at datetime(6),
+    expires_at datetime(6),
+    access_duration_hours integer,
+    auto_revoke_enabled bit,
+    shared_fields text,
+    primary key (id),
+    constraint fk_record_permissions_patient foreign key (patient_id) references patients (id),
+    constraint fk_record_permissions_doctor foreign key (doctor_id) references doctors (id),
+    constraint fk_record_permissions_record foreign key (medical_record_id) references medical_records (id)
+) engine=InnoDB;
+
+create table faq_items (
+    id bigint not null auto_increment,
+    category varchar(255),
+    question text,
+    answer text,
+    keywords text,
+    priority integer,
+    is_active bit,
+    primary key (id)
+) engine=InnoDB;
+
+create table chat_messages (
+    id bigint not null auto_increment,
+    session_id varchar(255),
+    patient_id bigint,
+    message text,
+    response text,
+    is_user_message bit,
+    created_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
@@ -0,0 +1,31 @@
+-- Schema changes made since the baseline, before the query indexes in V3:
+-- emergency appointments without a slot, the chat history indexes, the chat
+-- archive and the cluster-wide job locks.
+
+alter table appointment_slots modify slot_id bigint null;
+
+create index idx_chat_messages_session_created on chat_messages (session_id, created_at);
+create index idx_chat_messages_patient_created on chat_messages (patient_id, created_at);
+
+create table chat_archives (
+    id bigint not null auto_increment,
+    session_id varchar(255) not null,
+    patient_id bigint,
+    message_count integer not null,
+    first_message_at datetime(6),
+    last_message_at datetime(6),
+    archived_at datetime(6) not null,
+    payload longblob not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_chat_archives_session on chat_archives (session_id);
+create index idx_chat_archives_patient on chat_archives (patient_id);
+
+create table scheduler_locks (
+    name varchar(64) not null,
+    locked_until datetime(6) not null,
+    locked_at datetime(6) not null,
+    locked_by varchar(255) not null,
+    primary key (name)
+) engine=InnoDB;
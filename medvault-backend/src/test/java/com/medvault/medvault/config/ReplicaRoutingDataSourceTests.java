@@ -0,0 +1,126 @@
+package com.medvault.medvault.config;
+
+import com.medvault.medvault.model.Role;
+import com.medvault.medvault.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingDataSourceTests {
+
+	private final ReadYourWritesTracker tracker = new ReadYourWritesTracker(Duration.ofSeconds(30), 1000);
+
+	private JdbcTemplate jdbc;
+	private TransactionTemplate writes;
+	private TransactionTemplate reads;
+
+	@BeforeEach
+	void twoDatabases() {
+		DataSource primary = database("primary");
+		DataSource replica = database("replica");
+		DataSource routing = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica, tracker));
+
+		DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+		jdbc = new JdbcTemplate(routing);
+		writes = new TransactionTemplate(transactionManager);
+		reads = new TransactionTemplate(transactionManager);
+		reads.setReadOnly(true);
+	}
+
+	@AfterEach
+	void clearCaller() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void readOnlyTransactionsGoToTheReplica() {
+		assertThat(serverIn(reads)).isEqualTo("replica");
+	}
+
+	@Test
+	void writesAndNonTransactionalWorkGoToThePrimary() {
+		assertThat(serverIn(writes)).isEqualTo("primary");
+		assertThat(server()).isEqualTo("primary");
+	}
+
+	@Test
+	void callerReadsTheirOwnWritesFromThePrimary() {
+		actAs(7L);
+		writes.executeWithoutResult(status -> jdbc.update("update server set visits = visits + 1"));
+		assertThat(serverIn(reads)).isEqualTo("primary");
+
+		actAs(8L);
+		assertThat(serverIn(reads)).isEqualTo("replica");
+	}
+
+	@Test
+	void rolledBackWritesDoNotPin() {
+		actAs(9L);
+		writes.executeWithoutResult(status -> {
+			jdbc.update("update server set visits = visits + 1");
+			status.setRollbackOnly();
+		});
+
+		assertThat(serverIn(reads)).isEqualTo("replica");
+	}
+
+	@Test
+	void primaryOnlyReadsSkipTheReplica() {
+		assertThat(ReplicaRoutingDataSource.onPrimary(() -> serverIn(reads))).isEqualTo("primary");
+		assertThat(serverIn(reads)).isEqualTo("replica");
+	}
+
+	@Test
+	void callerCarriedToAnotherThreadStillReadsTheirWrites() throws Exception {
+		actAs(10L);
+		writes.executeWithoutResult(status -> jdbc.update("update server set visits = visits + 1"));
+		String caller = ReadYourWritesTracker.currentCaller();
+
+		ExecutorService scheduler = Executors.newSingleThreadExecutor();
+		try {
+			assertThat(scheduler.submit(() -> serverIn(reads)).get()).isEqualTo("replica");
+			assertThat(scheduler.submit(() -> ReadYourWritesTracker.runAs(caller, () -> serverIn(reads))).get())
+					.isEqualTo("primary");
+		} finally {
+			scheduler.shutdown();
+		}
+	}
+
+	private String serverIn(TransactionTemplate transaction) {
+		return transaction.execute(status -> server());
+	}
+
+	private String server() {
+		return jdbc.queryForObject("select name from server", String.class);
+	}
+
+	private static void actAs(Long userId) {
+		AuthenticatedUser user = new AuthenticatedUser(userId, "user" + userId, Role.PATIENT, null, userId);
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(user, null, List.of()));
+	}
+
+	private static DataSource database(String name) {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		jdbc.execute("create table if not exists server (name varchar(20), visits int)");
+		jdbc.update("delete from server");
+		jdbc.update("insert into server values (?, 0)", name);
+		return dataSource;
+	}
+}
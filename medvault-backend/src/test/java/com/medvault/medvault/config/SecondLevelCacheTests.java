@@ -0,0 +1,66 @@
+package com.medvault.medvault.config;
+
+import com.medvault.medvault.model.Doctor;
+import com.medvault.medvault.model.DoctorStatus;
+import com.medvault.medvault.repository.DoctorRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({SecondLevelCacheConfig.class, SqlProfilingConfig.class})
+// Cached entries only become visible to other sessions once the writing transaction commits
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTests {
+
+	@Autowired
+	private DoctorRepository doctorRepository;
+
+	@Test
+	void doctorsAreReadFromTheCacheAfterTheFirstLoad() {
+		Doctor doctor = doctorRepository.save(doctor(5001L));
+		doctorRepository.findById(doctor.getId()).orElseThrow();
+
+		try (SqlStatementCounter.Scope sql = SqlStatementCounter.open()) {
+			doctorRepository.findById(doctor.getId()).orElseThrow();
+			doctorRepository.findById(doctor.getId()).orElseThrow();
+
+			assertThat(sql.total()).isZero();
+		}
+	}
+
+	@Test
+	void approvedDoctorListIsCachedUntilADoctorChanges() {
+		Doctor doctor = doctorRepository.save(doctor(5002L));
+		doctorRepository.findByStatus(DoctorStatus.APPROVED);
+
+		try (SqlStatementCounter.Scope sql = SqlStatementCounter.open()) {
+			assertThat(doctorRepository.findByStatus(DoctorStatus.APPROVED))
+					.extracting(Doctor::getId).contains(doctor.getId());
+			assertThat(sql.total()).isZero();
+		}
+
+		doctor.setStatus(DoctorStatus.REJECTED);
+		doctorRepository.save(doctor);
+
+		try (SqlStatementCounter.Scope sql = SqlStatementCounter.open()) {
+			assertThat(doctorRepository.findByStatus(DoctorStatus.APPROVED))
+					.extracting(Doctor::getId).doesNotContain(doctor.getId());
+			assertThat(sql.total()).isPositive();
+		}
+	}
+
+	private static Doctor doctor(Long userId) {
+		Doctor doctor = new Doctor();
+		doctor.setUserId(userId);
+		doctor.setFirstName("Doc");
+		doctor.setLastName(String.valueOf(userId));
+		doctor.setStatus(DoctorStatus.APPROVED);
+		return doctor;
+	}
+}
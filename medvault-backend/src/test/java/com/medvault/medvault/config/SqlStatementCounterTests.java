@@ -0,0 +1,96 @@
+package com.medvault.medvault.config;
+
+import com.medvault.medvault.model.Appointment;
+import com.medvault.medvault.model.Doctor;
+import com.medvault.medvault.model.DoctorStatus;
+import com.medvault.medvault.model.Patient;
+import com.medvault.medvault.repository.AppointmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(SqlProfilingConfig.class)
+class SqlStatementCounterTests {
+
+	private static final int APPOINTMENTS = 4;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+
+	private Long patientId;
+
+	@BeforeEach
+	void appointmentsWithDifferentDoctors() {
+		Patient patient = new Patient();
+		patient.setUserId(1001L);
+		patient.setFirstName("Pat");
+		patient.setLastName("Ient");
+		entityManager.persist(patient);
+		for (int i = 0; i < APPOINTMENTS; i++) {
+			Doctor doctor = new Doctor();
+			doctor.setUserId(2000L + i);
+			doctor.setFirstName("Doc");
+			doctor.setLastName(String.valueOf(i));
+			doctor.setStatus(DoctorStatus.APPROVED);
+			entityManager.persist(doctor);
+
+			Appointment appointment = new Appointment();
+			appointment.setPatient(patient);
+			appointment.setDoctor(doctor);
+			entityManager.persist(appointment);
+		}
+		entityManager.flush();
+		entityManager.clear();
+		patientId = patient.getId();
+	}
+
+	@Test
+	void lazyLoadsInALoopShowUpAsRepeatedStatements() {
+		try (SqlStatementCounter.Scope sql = SqlStatementCounter.open()) {
+			Patient patient = entityManager.find(Patient.class, patientId);
+			for (Appointment appointment : appointmentRepository.findByPatientOrderByCreatedAtDesc(patient)) {
+				appointment.getDoctor().getLastName();
+			}
+
+			assertThat(sql.total()).isEqualTo(2 + APPOINTMENTS);
+			assertThat(sql.repeated(APPOINTMENTS)).hasSize(1);
+		}
+	}
+
+	@Test
+	void fetchJoinStaysWithinBudget() {
+		try (SqlStatementCounter.Scope sql = SqlStatementCounter.open()) {
+			List<Appointment> appointments = appointmentRepository.findByPatientIdWithDoctorAndSlot(patientId);
+			appointments.forEach(appointment -> appointment.getDoctor().getLastName());
+
+			assertThat(appointments).hasSize(APPOINTMENTS);
+			assertThat(sql.total()).isEqualTo(1);
+			assertThat(sql.repeated(2)).isEmpty();
+		}
+	}
+
+	@Test
+	void nestedScopesCountTowardsTheOuterOne() {
+		try (SqlStatementCounter.Scope outer = SqlStatementCounter.open()) {
+			try (SqlStatementCounter.Scope inner = SqlStatementCounter.open()) {
+				appointmentRepository.findByPatientIdWithDoctorAndSlot(patientId);
+				assertThat(inner.total()).isEqualTo(1);
+			}
+			appointmentRepository.findByPatientIdWithDoctorAndSlot(patientId);
+
+			assertThat(outer.total()).isEqualTo(2);
+			assertThat(outer.repeated(2)).containsValue(2);
+		}
+	}
+}
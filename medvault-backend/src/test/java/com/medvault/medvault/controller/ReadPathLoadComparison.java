@@ -0,0 +1,112 @@
+package com.medvault.medvault.controller;
+
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Side-by-side load test of the MVC read endpoints and their /api/reactive twins
+ * against a running server. Each path gets the same number of requests at the same
+ * concurrency; throughput, latency percentiles and error counts are printed per
+ * path. Run the server with a small Tomcat thread pool (for example
+ * server.tomcat.threads.max=50) to see the difference at high concurrency. Run with:
+ * <pre>
+ * mvn test-compile org.codehaus.mojo:exec-maven-plugin:3.5.0:java \
+ *     -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.medvault.medvault.controller.ReadPathLoadComparison \
+ *     -Dexec.args="http://localhost:8080 &lt;patientUserId&gt; &lt;doctorId&gt; &lt;sessionId&gt; 500 20000"
+ * </pre>
+ * The last two arguments are concurrency and requests per path.
+ *
+ * <p>To compare thread modes, run it at 2000 concurrency against the same server
+ * started twice on Java 21, once with spring.threads.virtual.enabled=true and once
+ * without, and compare the MVC rows.
+ */
+public class ReadPathLoadComparison {
+
+	private record Result(String path, int requests, int errors, double seconds, List<Long> latenciesMicros) {
+
+		long percentile(double p) {
+			if (latenciesMicros.isEmpty()) {
+				return 0;
+			}
+			int index = (int) Math.ceil(p / 100.0 * latenciesMicros.size()) - 1;
+			return latenciesMicros.get(Math.max(0, Math.min(index, latenciesMicros.size() - 1)));
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%-60s %8.0f req/s  p50 %6.1f ms  p99 %7.1f ms  max %7.1f ms  errors %d",
+					path, requests / seconds, percentile(50) / 1000.0, percentile(99) / 1000.0,
+					percentile(100) / 1000.0, errors);
+		}
+	}
+
+	public static void main(String[] args) {
+		if (args.length < 4) {
+			System.err.println("usage: ReadPathLoadComparison <baseUrl> <patientUserId> <doctorId> <sessionId> "
+					+ "[concurrency=200] [requestsPerPath=10000]");
+			System.exit(1);
+		}
+		String baseUrl = args[0];
+		String patientUserId = args[1];
+		String doctorId = args[2];
+		String sessionId = args[3];
+		int concurrency = args.length > 4 ? Integer.parseInt(args[4]) : 200;
+		int requests = args.length > 5 ? Integer.parseInt(args[5]) : 10_000;
+
+		WebClient client = WebClient.builder()
+				.baseUrl(baseUrl)
+				.codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(16 * 1024 * 1024))
+				.build();
+
+		List<String> mvcPaths = List.of(
+				"/api/patient/doctors/approved",
+				"/api/patient/doctors/" + doctorId + "/available-slots",
+				"/api/patient/appointments/" + patientUserId,
+				"/api/chatbot/history/" + sessionId);
+
+		for (String mvcPath : mvcPaths) {
+			String reactivePath = mvcPath.replaceFirst("^/api/", "/api/reactive/");
+			// Warm both paths up before measuring either
+			run(client, mvcPath, concurrency, Math.min(requests, 1000));
+			run(client, reactivePath, concurrency, Math.min(requests, 1000));
+
+			System.out.println(run(client, mvcPath, concurrency, requests));
+			System.out.println(run(client, reactivePath, concurrency, requests));
+			System.out.println();
+		}
+	}
+
+	private static Result run(WebClient client, String path, int concurrency, int requests) {
+		List<Long> latencies = Collections.synchronizedList(new ArrayList<>(requests));
+		AtomicInteger errors = new AtomicInteger();
+		long started = System.nanoTime();
+
+		Flux.range(0, requests)
+				.flatMap(i -> {
+					long sent = System.nanoTime();
+					return client.get().uri(path)
+							.retrieve()
+							.toBodilessEntity()
+							.timeout(Duration.ofSeconds(30))
+							.doOnSuccess(response -> latencies.add((System.nanoTime() - sent) / 1000))
+							.onErrorResume(e -> {
+								errors.incrementAndGet();
+								return Mono.empty();
+							});
+				}, concurrency)
+				.blockLast();
+
+		double seconds = (System.nanoTime() - started) / 1e9;
+		List<Long> sorted = new ArrayList<>(latencies);
+		Collections.sort(sorted);
+		return new Result(path, requests, errors.get(), seconds, sorted);
+	}
+}
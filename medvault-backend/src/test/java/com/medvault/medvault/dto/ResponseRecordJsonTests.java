@@ -0,0 +1,93 @@
+package com.medvault.medvault.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.medvault.medvault.model.Doctor;
+import com.medvault.medvault.model.MedicalRecord;
+import com.medvault.medvault.model.Patient;
+import com.medvault.medvault.model.RecordPermission;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The records replaced per-row HashMaps; the frontend still expects the same keys.
+ */
+class ResponseRecordJsonTests {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 9, 0);
+
+	private final ObjectMapper mapper = new ObjectMapper()
+			.registerModule(new JavaTimeModule())
+			.registerModule(new BlackbirdModule());
+
+	@Test
+	void patientRecordKeepsItsKeys() {
+		JsonNode json = mapper.valueToTree(PatientRecordDTO.of(permission(), patient(), NOW));
+
+		assertThat(fieldNames(json)).containsExactlyInAnyOrder("id", "title", "description", "recordType",
+				"uploadedAt", "updatedAt", "bloodGroup", "bloodPressure", "heartRate", "temperature", "weight",
+				"diagnosisCondition", "medication", "permissionType", "grantedAt", "expiresAt", "sharedFields",
+				"accessDurationHours", "hoursRemaining", "minutesRemaining", "isExpiringSoon", "isExpired",
+				"filePath", "patientName", "patientId", "uploadedBy", "isGranularSharing", "sharedFieldsList");
+		assertThat(json.get("hoursRemaining").asLong()).isEqualTo(1);
+		assertThat(json.get("isExpiringSoon").asBoolean()).isTrue();
+		assertThat(json.get("sharedFieldsList")).hasSize(2);
+	}
+
+	@Test
+	void medicalRecordKeepsItsKeys() {
+		RecordPermission permission = permission();
+		JsonNode json = mapper.valueToTree(MedicalRecordDTO.of(permission.getMedicalRecord(), List.of(permission), NOW));
+
+		assertThat(fieldNames(json)).containsExactlyInAnyOrder("id", "recordType", "title", "description",
+				"uploadedAt", "updatedAt", "bloodGroup", "bloodPressure", "heartRate", "temperature", "weight",
+				"diagnosisCondition", "medication", "sharedWithDoctors", "permissions");
+		assertThat(fieldNames(json.get("permissions").get(0))).containsExactlyInAnyOrder("id", "permissionId",
+				"doctorId", "doctorName", "permissionType", "grantedAt", "expiresAt", "sharedFields", "hoursRemaining");
+		assertThat(json.get("permissions").get(0).get("doctorName").asText()).isEqualTo("Dr. Asha Raman");
+	}
+
+	private static List<String> fieldNames(JsonNode node) {
+		List<String> names = new ArrayList<>();
+		node.fieldNames().forEachRemaining(names::add);
+		return names;
+	}
+
+	private static Patient patient() {
+		Patient patient = new Patient();
+		patient.setId(3L);
+		patient.setFirstName("Vikram");
+		patient.setLastName("Iyer");
+		return patient;
+	}
+
+	private static RecordPermission permission() {
+		Doctor doctor = new Doctor();
+		doctor.setId(2L);
+		doctor.setFirstName("Asha");
+		doctor.setLastName("Raman");
+
+		MedicalRecord record = new MedicalRecord();
+		record.setId(1L);
+		record.setPatient(patient());
+		record.setTitle("Lipid profile");
+		record.setUploadedAt(NOW.minusDays(1));
+
+		RecordPermission permission = new RecordPermission();
+		permission.setId(4L);
+		permission.setDoctor(doctor);
+		permission.setMedicalRecord(record);
+		permission.setPermissionType("READ");
+		permission.setGrantedAt(NOW.minusHours(23));
+		permission.setExpiresAt(NOW.plusMinutes(90));
+		permission.setSharedFields("bloodGroup,medication");
+		return permission;
+	}
+}
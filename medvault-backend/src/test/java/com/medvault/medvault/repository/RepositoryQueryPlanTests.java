@@ -0,0 +1,266 @@
+package com.medvault.medvault.repository;
+
+import com.medvault.medvault.config.SqlProfilingConfig;
+import com.medvault.medvault.config.SqlStatementCounter;
+import com.medvault.medvault.model.AccessRequest;
+import com.medvault.medvault.model.Appointment;
+import com.medvault.medvault.model.AppointmentStatus;
+import com.medvault.medvault.model.ChatArchive;
+import com.medvault.medvault.model.ChatMessage;
+import com.medvault.medvault.model.Doctor;
+import com.medvault.medvault.model.DoctorStatus;
+import com.medvault.medvault.model.FAQItem;
+import com.medvault.medvault.model.Feedback;
+import com.medvault.medvault.model.MedicalRecord;
+import com.medvault.medvault.model.Patient;
+import com.medvault.medvault.model.RecordPermission;
+import com.medvault.medvault.model.Role;
+import com.medvault.medvault.model.TimeSlot;
+import com.medvault.medvault.model.User;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.repository.support.Repositories;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Calls every query method of every repository against a seeded database built by
+ * the Flyway migrations, and runs EXPLAIN on each statement it issues. A statement
+ * with a WHERE clause that H2 can only answer with a table scan fails the test.
+ * Statements without one (listings, whole-table aggregates) are not checked.
+ */
+@DataJpaTest
+@Import(SqlProfilingConfig.class)
+class RepositoryQueryPlanTests {
+
+	private static final int ROWS = 12;
+	private static final Pattern WHERE = Pattern.compile("\\bwhere\\b", Pattern.CASE_INSENSITIVE);
+
+	// Reads the whole table on purpose; say why when adding to this
+	private static final Map<String, String> FULL_SCANS_ALLOWED = Map.of(
+			"ChatMessageRepository.findSessionsIdleSince", "the archival sweep looks at every session");
+
+	// Native MySQL that H2 cannot parse; say why when adding to this
+	private static final Map<String, String> MYSQL_ONLY = Map.of(
+			"UserRepository.getMonthlyRegistrationStats", "month and year are reserved words in H2; no WHERE clause either");
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private ApplicationContext applicationContext;
+
+	private final Map<Class<?>, Object> samples = new HashMap<>();
+
+	@BeforeEach
+	void seed() {
+		LocalDateTime now = LocalDateTime.now();
+		for (int i = 0; i < ROWS; i++) {
+			entityManager.persist(new User("user" + i, "user" + i + "@example.com", "secret", Role.values()[i % 3]));
+
+			Doctor doctor = new Doctor();
+			doctor.setUserId(1000L + i);
+			doctor.setFirstName("Doc");
+			doctor.setLastName(String.valueOf(i));
+			doctor.setStatus(DoctorStatus.values()[i % DoctorStatus.values().length]);
+			entityManager.persist(doctor);
+
+			Patient patient = new Patient();
+			patient.setUserId(2000L + i);
+			patient.setFirstName("Pat");
+			patient.setLastName(String.valueOf(i));
+			entityManager.persist(patient);
+
+			TimeSlot slot = new TimeSlot();
+			slot.setDoctorId(doctor.getId());
+			slot.setStartTime(now.plusHours(i));
+			slot.setEndTime(now.plusHours(i).plusMinutes(30));
+			slot.setIsAvailable(i % 2 == 0);
+			entityManager.persist(slot);
+
+			Appointment appointment = new Appointment();
+			appointment.setPatient(patient);
+			appointment.setDoctor(doctor);
+			appointment.setSlotId(slot.getId());
+			appointment.setStatus(AppointmentStatus.values()[i % AppointmentStatus.values().length]);
+			appointment.setIsEmergency(i % 4 == 0);
+			entityManager.persist(appointment);
+
+			Feedback feedback = new Feedback();
+			feedback.setPatient(patient);
+			feedback.setDoctor(doctor);
+			feedback.setAppointment(appointment);
+			feedback.setRating(1 + i % 5);
+			feedback.setFeedbackDate(now);
+			entityManager.persist(feedback);
+
+			MedicalRecord record = new MedicalRecord();
+			record.setPatient(patient);
+			record.setRecordType("LAB");
+			record.setTitle("Record " + i);
+			record.setUploadedAt(now);
+			entityManager.persist(record);
+
+			RecordPermission permission = new RecordPermission();
+			permission.setPatient(patient);
+			permission.setDoctor(doctor);
+			permission.setMedicalRecord(record);
+			permission.setPermissionType("READ");
+			permission.setIsGranted(i % 3 != 0);
+			permission.setGrantedAt(now);
+			permission.setExpiresAt(now.plusHours(i - ROWS / 2));
+			entityManager.persist(permission);
+
+			FAQItem faq = new FAQItem();
+			faq.setCategory("category" + i % 3);
+			faq.setQuestion("Question " + i);
+			faq.setAnswer("Answer " + i);
+			faq.setPriority(i);
+			entityManager.persist(faq);
+
+			ChatMessage message = new ChatMessage();
+			message.setSessionId("session" + i % 4);
+			message.setPatientId(patient.getId());
+			message.setMessage("Hello " + i);
+			message.setIsUserMessage(true);
+			entityManager.persist(message);
+
+			ChatArchive archive = new ChatArchive();
+			archive.setSessionId("archived" + i);
+			archive.setPatientId(patient.getId());
+			archive.setMessageCount(1);
+			archive.setArchivedAt(now);
+			archive.setPayload(new byte[]{1});
+			entityManager.persist(archive);
+
+			AccessRequest request = new AccessRequest();
+			request.setFirstName("Req");
+			request.setLastName(String.valueOf(i));
+			request.setEmail("request" + i + "@example.com");
+			request.setPhone("555-" + i);
+			request.setRequestedRole(Role.values()[i % 3]);
+			entityManager.persist(request);
+
+			if (i == 0) {
+				samples.put(Doctor.class, doctor);
+				samples.put(Patient.class, patient);
+				samples.put(Appointment.class, appointment);
+				samples.put(MedicalRecord.class, record);
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void everyRepositoryQueryUsesAnIndex() throws Exception {
+		Repositories repositories = new Repositories(applicationContext);
+		List<String> fullScans = new ArrayList<>();
+		int explained = 0;
+		for (Class<?> domainType : repositories) {
+			Class<?> repositoryInterface = repositories.getRequiredRepositoryInformation(domainType).getRepositoryInterface();
+			Object repository = repositories.getRepositoryFor(domainType).orElseThrow();
+			for (Method method : repositoryInterface.getDeclaredMethods()) {
+				if (method.isDefault() || method.isSynthetic() || Modifier.isStatic(method.getModifiers())) {
+					continue;
+				}
+				String name = repositoryInterface.getSimpleName() + "." + method.getName();
+				if (MYSQL_ONLY.containsKey(name)) {
+					continue;
+				}
+				for (String sql : statementsOf(repository, method, name)) {
+					if (!WHERE.matcher(sql).find()) {
+						continue;
+					}
+					explained++;
+					String plan = explain(sql);
+					if (plan.toLowerCase().contains("tablescan") && !FULL_SCANS_ALLOWED.containsKey(name)) {
+						fullScans.add(name + ": " + plan);
+					}
+				}
+			}
+		}
+
+		assertThat(explained).isPositive();
+		assertThat(fullScans).as("queries that scan a whole table").isEmpty();
+	}
+
+	private Set<String> statementsOf(Object repository, Method method, String name) throws IllegalAccessException {
+		Object[] args = Arrays.stream(method.getParameterTypes()).map(type -> sample(type, name)).toArray();
+		try (SqlStatementCounter.Scope sql = SqlStatementCounter.open()) {
+			method.invoke(repository, args);
+			return sql.repeated(1).keySet();
+		} catch (InvocationTargetException e) {
+			throw new AssertionError(name + " failed on the seeded database", e.getCause());
+		}
+	}
+
+	private Object sample(Class<?> type, String method) {
+		if (samples.containsKey(type)) {
+			return samples.get(type);
+		}
+		if (type.isEnum()) {
+			return type.getEnumConstants()[0];
+		}
+		if (type == Long.class) {
+			return 1L;
+		}
+		if (type == int.class || type == Integer.class) {
+			return ROWS;
+		}
+		if (type == Boolean.class) {
+			return true;
+		}
+		if (type == String.class) {
+			return "session0";
+		}
+		if (type == LocalDateTime.class) {
+			return LocalDateTime.now();
+		}
+		if (type == Collection.class) {
+			return List.of(1L, 2L);
+		}
+		if (type == Limit.class) {
+			return Limit.of(ROWS);
+		}
+		throw new IllegalArgumentException("No sample " + type.getSimpleName() + " for " + method + "; add one here");
+	}
+
+	private String explain(String sql) {
+		// Nulls will do: H2 picks the plan when the statement is prepared, before any value is bound
+		long parameters = sql.chars().filter(c -> c == '?').count();
+		return entityManager.getEntityManager().unwrap(Session.class).doReturningWork(connection -> {
+			try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+				for (int i = 1; i <= parameters; i++) {
+					statement.setObject(i, null);
+				}
+				try (ResultSet plan = statement.executeQuery()) {
+					plan.next();
+					return plan.getString(1);
+				}
+			}
+		});
+	}
+}
@@ -0,0 +1,94 @@
+package com.medvault.medvault.security;
+
+import com.medvault.medvault.model.Role;
+import com.medvault.medvault.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtServiceTests {
+
+	private static final String SECRET = "test-secret-that-is-long-enough-for-hs256";
+
+	private final TokenRevocationList revocationList = new TokenRevocationList();
+	private final JwtService jwtService = new JwtService(SECRET, 60_000, 100, revocationList);
+
+	@Test
+	void verifiesIssuedTokenAndCarriesRoleIds() {
+		String token = jwtService.generateToken(user(7L, Role.DOCTOR), 42L, null);
+
+		AuthenticatedUser verified = jwtService.verify(token).orElseThrow();
+
+		assertThat(verified.getUserId()).isEqualTo(7L);
+		assertThat(verified.getUsername()).isEqualTo("user7@medvault.test");
+		assertThat(verified.getRole()).isEqualTo(Role.DOCTOR);
+		assertThat(verified.getDoctorId()).isEqualTo(42L);
+		assertThat(verified.getPatientId()).isNull();
+	}
+
+	@Test
+	void rejectsTamperedAndForeignTokens() {
+		String token = jwtService.generateToken(user(7L, Role.PATIENT), null, 9L);
+		String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+		JwtService otherKey = new JwtService("another-secret-that-is-long-enough-too", 60_000, 100, new TokenRevocationList());
+
+		assertThat(jwtService.verify(tampered)).isEmpty();
+		assertThat(otherKey.verify(token)).isEmpty();
+		assertThat(jwtService.verify("jwt_token_7_1700000000000")).isEmpty();
+	}
+
+	@Test
+	void rejectsExpiredTokens() {
+		JwtService shortLived = new JwtService(SECRET, -1_000, 100, revocationList);
+		String token = shortLived.generateToken(user(7L, Role.PATIENT), null, 9L);
+
+		assertThat(shortLived.verify(token)).isEmpty();
+	}
+
+	@Test
+	void revokedTokensAreRejectedEvenWhenCached() {
+		String token = jwtService.generateToken(user(7L, Role.PATIENT), null, 9L);
+		String other = jwtService.generateToken(user(8L, Role.PATIENT), null, 10L);
+		assertThat(jwtService.verify(token)).isPresent();
+
+		assertThat(jwtService.revoke(token)).isTrue();
+
+		assertThat(jwtService.verify(token)).isEmpty();
+		assertThat(jwtService.verify(other)).isPresent();
+	}
+
+	@Test
+	void revokingAllTokensForUserOnlyAffectsThatUser() {
+		String token = jwtService.generateToken(user(7L, Role.DOCTOR), 1L, null);
+		String other = jwtService.generateToken(user(8L, Role.DOCTOR), 2L, null);
+
+		jwtService.revokeAllForUser(7L);
+
+		assertThat(jwtService.verify(token)).isEmpty();
+		assertThat(jwtService.verify(other)).isPresent();
+	}
+
+	@Test
+	void streamTokensOnlyOpenNotificationStreams() {
+		String session = jwtService.generateToken(user(7L, Role.PATIENT), null, 9L);
+		AuthenticatedUser caller = jwtService.verify(session).orElseThrow();
+		String stream = jwtService.generateStreamToken(caller, Duration.ofMinutes(1));
+
+		assertThat(jwtService.verifyStreamToken(stream)).contains(7L);
+		assertThat(jwtService.verify(stream)).isEmpty();
+		assertThat(jwtService.verifyStreamToken(session)).isEmpty();
+		assertThat(jwtService.verifyStreamToken(jwtService.generateStreamToken(caller, Duration.ofMillis(-1_000))))
+				.isEmpty();
+
+		jwtService.revokeAllForUser(7L);
+		assertThat(jwtService.verifyStreamToken(stream)).isEmpty();
+	}
+
+	private static User user(Long id, Role role) {
+		User user = new User("user" + id + "@medvault.test", "user" + id + "@medvault.test", "secret", role);
+		user.setId(id);
+		return user;
+	}
+}
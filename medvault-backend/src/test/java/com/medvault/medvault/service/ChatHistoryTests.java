@@ -0,0 +1,185 @@
+package com.medvault.medvault.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medvault.medvault.model.ChatArchive;
+import com.medvault.medvault.model.ChatMessage;
+import com.medvault.medvault.repository.ChatArchiveRepository;
+import com.medvault.medvault.repository.ChatMessageRepository;
+import com.medvault.medvault.service.chatbot.ChatIntentClassifier;
+import com.medvault.medvault.service.faq.FaqSearchIndex;
+import com.medvault.medvault.service.metrics.BusinessMetrics;
+import com.medvault.medvault.service.search.DoctorSearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+@Import({ChatbotService.class, ChatArchiveService.class, ChatMessageWriteBuffer.class, ChatHistoryTests.Collaborators.class})
+// Only the explicit flushes below write buffered messages
+@TestPropertySource(properties = "app.chat.write-buffer.flush-interval-ms=600000")
+// The buffer and the archiver commit on their own, like the scheduled jobs do
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ChatHistoryTests {
+
+	private static final LocalDateTime LONG_AGO = LocalDateTime.now().minusDays(200).truncatedTo(ChronoUnit.SECONDS);
+
+	@Autowired
+	private ChatbotService chatbot;
+
+	@Autowired
+	private ChatArchiveService archiver;
+
+	@Autowired
+	private ChatMessageWriteBuffer buffer;
+
+	@Autowired
+	private ChatMessageRepository messageRepository;
+
+	@Autowired
+	private ChatArchiveRepository archiveRepository;
+
+	@AfterEach
+	void cleanUp() {
+		buffer.flush();
+		messageRepository.deleteAll();
+		archiveRepository.deleteAll();
+	}
+
+	@Test
+	void archivesOnlyIdleSessions() {
+		write(message("idle", "old 1", LONG_AGO), message("idle", "old 2", LONG_AGO.plusMinutes(1)),
+				message("active", "recent", LocalDateTime.now()));
+
+		archiver.archiveIdleSessions();
+
+		List<ChatArchive> archives = archiveRepository.findBySessionIdOrderByArchivedAtAsc("idle");
+		assertThat(archives).singleElement().satisfies(archive -> {
+			assertThat(archive.getMessageCount()).isEqualTo(2);
+			assertThat(archive.getFirstMessageAt()).isEqualTo(LONG_AGO);
+		});
+		assertThat(messageRepository.findBySessionIdOrderByCreatedAtAsc("idle")).isEmpty();
+		assertThat(messageRepository.findBySessionIdOrderByCreatedAtAsc("active")).hasSize(1);
+		assertThat(archiveRepository.findBySessionIdOrderByArchivedAtAsc("active")).isEmpty();
+	}
+
+	@Test
+	void historyMergesArchivedStoredAndPendingMessages() {
+		session();
+
+		assertThat(chatbot.getChatHistory("s1")).extracting(ChatMessage::getMessage)
+				.containsExactly("a1", "a2", "a3", "m1", "m2", "p1");
+	}
+
+	@Test
+	void pagesFollowTheCursorFromTheArchiveToTheBuffer() {
+		session();
+
+		Map<String, Object> first = chatbot.getChatHistoryPage("s1", null, 2);
+		assertThat(messages(first)).containsExactly("a1", "a2");
+		assertThat(first.get("hasMore")).isEqualTo(true);
+
+		Map<String, Object> second = chatbot.getChatHistoryPage("s1", (String) first.get("nextCursor"), 2);
+		assertThat(messages(second)).containsExactly("a3", "m1");
+		assertThat(second.get("hasMore")).isEqualTo(true);
+
+		Map<String, Object> last = chatbot.getChatHistoryPage("s1", (String) second.get("nextCursor"), 2);
+		assertThat(messages(last)).containsExactly("m2", "p1");
+		assertThat(last.get("hasMore")).isEqualTo(false);
+		assertThat(last.get("nextCursor")).isNull();
+	}
+
+	@Test
+	void rejectsCursorsItDidNotIssue() {
+		assertThatThrownBy(() -> chatbot.getChatHistoryPage("s1", "not-a-cursor", 2))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	// Three archived messages, two in chat_messages and one still buffered
+	private void session() {
+		write(message("s1", "a1", LONG_AGO), message("s1", "a2", LONG_AGO.plusMinutes(1)),
+				message("s1", "a3", LONG_AGO.plusMinutes(2)));
+		archiver.archiveIdleSessions();
+
+		LocalDateTime now = LocalDateTime.now();
+		write(message("s1", "m1", now.minusMinutes(2)), message("s1", "m2", now.minusMinutes(1)));
+		buffer.enqueue(message("s1", "p1", now));
+	}
+
+	private void write(ChatMessage... messages) {
+		for (ChatMessage message : messages) {
+			buffer.enqueue(message);
+		}
+		buffer.flush();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<String> messages(Map<String, Object> page) {
+		return ((List<ChatMessage>) page.get("messages")).stream().map(ChatMessage::getMessage).toList();
+	}
+
+	private static ChatMessage message(String sessionId, String text, LocalDateTime createdAt) {
+		ChatMessage message = new ChatMessage();
+		message.setSessionId(sessionId);
+		message.setPatientId(1L);
+		message.setMessage(text);
+		message.setIsUserMessage(true);
+		message.setCreatedAt(createdAt);
+		return message;
+	}
+
+	@TestConfiguration
+	static class Collaborators {
+
+		@Bean
+		ObjectMapper objectMapper() {
+			return new ObjectMapper().findAndRegisterModules();
+		}
+
+		// Not used for history, only needed to build the chatbot
+		@Bean
+		FaqSearchIndex faqSearchIndex() {
+			return mock(FaqSearchIndex.class);
+		}
+
+		@Bean
+		IdentityCache identityCache() {
+			return mock(IdentityCache.class);
+		}
+
+		@Bean
+		ChatIntentClassifier chatIntentClassifier() {
+			return mock(ChatIntentClassifier.class);
+		}
+
+		@Bean
+		DoctorDirectory doctorDirectory() {
+			return mock(DoctorDirectory.class);
+		}
+
+		@Bean
+		DoctorSearchIndex doctorSearchIndex() {
+			return mock(DoctorSearchIndex.class);
+		}
+
+		@Bean
+		BusinessMetrics businessMetrics() {
+			return mock(BusinessMetrics.class);
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package com.medvault.medvault.service;
+
+import com.medvault.medvault.model.ChatMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class ChatMessageWriteBufferTests {
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final List<ChatMessage> table = new ArrayList<>();
+
+	// Long interval so only the explicit flushes below write anything
+	private final ChatMessageWriteBuffer buffer =
+			new ChatMessageWriteBuffer(jdbcTemplate, mock(PlatformTransactionManager.class), 3, 60_000, 10);
+
+	@AfterEach
+	void tearDown() {
+		buffer.shutdown();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void historyIncludesMessagesNotYetFlushed() {
+		buffer.enqueue(message("s1", "hello"));
+		buffer.enqueue(message("s2", "other session"));
+
+		List<ChatMessage> history = buffer.readThrough(() -> List.of(message("s1", "stored")),
+				m -> "s1".equals(m.getSessionId()));
+
+		assertThat(history).extracting(ChatMessage::getMessage).containsExactly("stored", "hello");
+		verify(jdbcTemplate, never()).batchUpdate(any(String.class), any(Collection.class), anyInt(),
+				any(ParameterizedPreparedStatementSetter.class));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void flushWritesEverythingOnceInBatches() {
+		doAnswer(invocation -> {
+			table.addAll(invocation.getArgument(1, Collection.class));
+			return new int[0][];
+		}).when(jdbcTemplate).batchUpdate(eq(ChatMessageWriteBuffer.INSERT_SQL), any(Collection.class), anyInt(),
+				any(ParameterizedPreparedStatementSetter.class));
+
+		buffer.enqueue(message("s1", "a"));
+		buffer.enqueue(message("s1", "b"));
+		assertThat(buffer.flush()).isEqualTo(2);
+		assertThat(buffer.flush()).isZero();
+
+		assertThat(table).extracting(ChatMessage::getMessage).containsExactly("a", "b");
+		assertThat(buffer.pendingCount()).isZero();
+		assertThat(buffer.readThrough(() -> List.copyOf(table), m -> true)).hasSize(2);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void failedFlushKeepsMessagesWithinCapacity() {
+		doThrow(new RuntimeException("database down")).when(jdbcTemplate).batchUpdate(any(String.class),
+				any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+
+		for (int i = 0; i < 25; i++) {
+			buffer.enqueue(message("s1", "m" + i));
+		}
+
+		assertThat(buffer.pendingCount()).isLessThanOrEqualTo(10);
+		List<ChatMessage> pending = buffer.readThrough(List::of, m -> true);
+		assertThat(pending.get(pending.size() - 1).getMessage()).isEqualTo("m24");
+		assertThat(buffer.getStats().get("dropped")).isNotEqualTo(0L);
+	}
+
+	private static ChatMessage message(String sessionId, String text) {
+		ChatMessage message = new ChatMessage();
+		message.setSessionId(sessionId);
+		message.setPatientId(1L);
+		message.setMessage(text);
+		message.setIsUserMessage(true);
+		message.setCreatedAt(LocalDateTime.now());
+		return message;
+	}
+}
@@ -0,0 +1,186 @@
+package com.medvault.medvault.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medvault.medvault.event.DoctorProfileChangedEvent;
+import com.medvault.medvault.model.Doctor;
+import com.medvault.medvault.model.DoctorStatus;
+import com.medvault.medvault.repository.DoctorRepository;
+import com.medvault.medvault.service.chatbot.ChatIntentClassifier;
+import com.medvault.medvault.service.faq.FaqSearchIndex;
+import com.medvault.medvault.service.metrics.BusinessMetrics;
+import com.medvault.medvault.service.search.DoctorSearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+@Import({DoctorDirectory.class, ChatbotService.class, ChatIntentClassifier.class, DoctorDirectoryTests.Collaborators.class})
+// Changes commit or roll back on their own, like an admin approval would
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DoctorDirectoryTests {
+
+	@Autowired
+	private DoctorDirectory directory;
+
+	@Autowired
+	private ChatbotService chatbot;
+
+	@Autowired
+	private DoctorRepository doctorRepository;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@AfterEach
+	void cleanUp() {
+		doctorRepository.deleteAll();
+		directory.refresh();
+	}
+
+	@Test
+	void groupsApprovedDoctorsBySpecialty() {
+		doctor(6001L, "Cardiology", DoctorStatus.APPROVED);
+		doctor(6002L, "Cardiology", DoctorStatus.APPROVED);
+		doctor(6003L, "Cardiology", DoctorStatus.APPROVED);
+		doctor(6004L, "Dermatology", DoctorStatus.APPROVED);
+		doctor(6005L, "Neurology", DoctorStatus.PENDING);
+		doctor(6006L, null, DoctorStatus.APPROVED);
+
+		DoctorDirectory.Snapshot snapshot = directory.rebuild();
+
+		assertThat(snapshot.doctors()).hasSize(4);
+		assertThat(snapshot.specialties()).extracting(DoctorDirectory.Specialty::name)
+				.containsExactlyInAnyOrder("Cardiology", "Dermatology");
+		assertThat(snapshot.topSpecialties())
+				.extracting(DoctorDirectory.Specialty::name, DoctorDirectory.Specialty::count)
+				.containsExactly(tuple("Cardiology", 3), tuple("Dermatology", 1));
+		assertThat(directory.getStats()).containsEntry("doctors", 4).containsEntry("specialties", 2);
+	}
+
+	@Test
+	void servesTheSnapshotUntilAProfileChangeCommits() {
+		doctor(6011L, "Cardiology", DoctorStatus.APPROVED);
+		Doctor pending = doctor(6012L, "Cardiology", DoctorStatus.PENDING);
+		directory.rebuild();
+
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		transaction.executeWithoutResult(status -> {
+			approve(pending);
+			status.setRollbackOnly();
+		});
+		assertThat(directory.snapshot().doctors()).hasSize(1);
+
+		transaction.executeWithoutResult(status -> {
+			approve(pending);
+			// Rebuilt after commit, so not yet
+			assertThat(directory.snapshot().doctors()).hasSize(1);
+		});
+		assertThat(directory.snapshot().doctors()).extracting(DoctorDirectory.Entry::doctorId)
+				.contains(pending.getId());
+	}
+
+	@Test
+	void refreshPicksUpChangesMadeWithoutAnEvent() {
+		Doctor doctor = doctor(6021L, "Cardiology", DoctorStatus.APPROVED);
+		directory.rebuild();
+
+		// Like a row edited outside the app: only the periodic refresh notices
+		doctor.setStatus(DoctorStatus.REJECTED);
+		doctorRepository.save(doctor);
+		assertThat(directory.snapshot().doctors()).hasSize(1);
+
+		directory.refresh();
+
+		assertThat(directory.snapshot().isEmpty()).isTrue();
+	}
+
+	@Test
+	void chatbotAnswersFromTheDirectory() {
+		assertThat(chatbot.processMessage("show me doctors", 1L, "directory"))
+				.contains("currently updating our doctor profiles");
+
+		doctor(6031L, "Cardiology", DoctorStatus.APPROVED);
+		doctor(6032L, "Cardiology", DoctorStatus.APPROVED);
+		doctor(6033L, "Dermatology", DoctorStatus.APPROVED);
+		eventPublisher.publishEvent(new DoctorProfileChangedEvent(null, null));
+
+		assertThat(chatbot.processMessage("show me doctors", 1L, "directory"))
+				.contains("**Cardiology** (2 doctors)")
+				.contains("**Dermatology** (1 doctors)")
+				.contains("Dr. Doc 6031 - ₹750.0 consultation");
+	}
+
+	private void approve(Doctor doctor) {
+		Doctor approved = doctorRepository.findById(doctor.getId()).orElseThrow();
+		approved.setStatus(DoctorStatus.APPROVED);
+		doctorRepository.saveAndFlush(approved);
+		eventPublisher.publishEvent(new DoctorProfileChangedEvent(approved.getId(), approved.getUserId()));
+	}
+
+	private Doctor doctor(Long userId, String specialization, DoctorStatus status) {
+		Doctor doctor = new Doctor();
+		doctor.setUserId(userId);
+		doctor.setFirstName("Doc");
+		doctor.setLastName(String.valueOf(userId));
+		doctor.setSpecialization(specialization);
+		doctor.setConsultationFees(750.0);
+		doctor.setStatus(status);
+		return doctorRepository.save(doctor);
+	}
+
+	@TestConfiguration
+	static class Collaborators {
+
+		@Bean
+		ObjectMapper objectMapper() {
+			return new ObjectMapper().findAndRegisterModules();
+		}
+
+		// Not used for directory answers, only needed to build the chatbot
+		@Bean
+		FaqSearchIndex faqSearchIndex() {
+			return mock(FaqSearchIndex.class);
+		}
+
+		@Bean
+		IdentityCache identityCache() {
+			return mock(IdentityCache.class);
+		}
+
+		@Bean
+		DoctorSearchIndex doctorSearchIndex() {
+			return mock(DoctorSearchIndex.class);
+		}
+
+		@Bean
+		ChatMessageWriteBuffer chatMessageWriteBuffer() {
+			return mock(ChatMessageWriteBuffer.class);
+		}
+
+		@Bean
+		ChatArchiveService chatArchiveService() {
+			return mock(ChatArchiveService.class);
+		}
+
+		@Bean
+		BusinessMetrics businessMetrics() {
+			return mock(BusinessMetrics.class);
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package com.medvault.medvault.service;
+
+import com.medvault.medvault.dto.DoctorRatingDTO;
+import com.medvault.medvault.model.Doctor;
+import com.medvault.medvault.model.DoctorStatus;
+import com.medvault.medvault.repository.DoctorRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(DoctorRatingService.class)
+// Each rating commits on its own, like concurrent feedback submissions would
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DoctorRatingServiceTests {
+
+	private static final int SUBMITTERS = 8;
+	private static final int RATINGS_EACH = 10;
+
+	@Autowired
+	private DoctorRatingService ratings;
+
+	@Autowired
+	private DoctorRepository doctorRepository;
+
+	@Test
+	void firstRatingCreatesTheAggregate() {
+		Long doctorId = doctor(4001L).getId();
+		Long unrated = doctor(4002L).getId();
+		assertThat(ratings.getRating(doctorId).totalRatings()).isZero();
+
+		ratings.recordRating(doctorId, 5);
+		ratings.recordRating(doctorId, 4);
+		ratings.recordRating(doctorId, 4);
+
+		DoctorRatingDTO rating = ratings.getRating(doctorId);
+		assertThat(rating.totalRatings()).isEqualTo(3);
+		assertThat(rating.averageRating()).isEqualTo(4.3);
+		assertThat(rating.ratingDistribution()).containsOnly(
+				Map.entry(1, 0L), Map.entry(2, 0L), Map.entry(3, 0L), Map.entry(4, 2L), Map.entry(5, 1L));
+
+		Map<Long, DoctorRatingDTO> directory = ratings.getRatings(List.of(doctorId, unrated));
+		assertThat(directory.get(doctorId)).isEqualTo(rating);
+		assertThat(directory.get(unrated).totalRatings()).isZero();
+		assertThat(directory.get(unrated).averageRating()).isZero();
+	}
+
+	@Test
+	void approvalCreatesTheAggregateOnce() {
+		Long doctorId = doctor(4004L).getId();
+
+		ratings.createStats(doctorId);
+		ratings.recordRating(doctorId, 3);
+		ratings.createStats(doctorId);
+
+		DoctorRatingDTO rating = ratings.getRating(doctorId);
+		assertThat(rating.totalRatings()).isEqualTo(1);
+		assertThat(rating.averageRating()).isEqualTo(3.0);
+	}
+
+	@Test
+	void concurrentRatingsAreAllCounted() throws Exception {
+		Long doctorId = doctor(4003L).getId();
+		ratings.recordRating(doctorId, 1);
+
+		ExecutorService pool = Executors.newFixedThreadPool(SUBMITTERS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> submissions = new ArrayList<>();
+		try {
+			for (int i = 0; i < SUBMITTERS; i++) {
+				submissions.add(pool.submit(() -> {
+					start.await();
+					for (int j = 0; j < RATINGS_EACH; j++) {
+						ratings.recordRating(doctorId, 5);
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> submission : submissions) {
+				submission.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+
+		DoctorRatingDTO rating = ratings.getRating(doctorId);
+		assertThat(rating.totalRatings()).isEqualTo(1 + SUBMITTERS * RATINGS_EACH);
+		assertThat(rating.ratingDistribution()).containsEntry(5, (long) SUBMITTERS * RATINGS_EACH).containsEntry(1, 1L);
+	}
+
+	private Doctor doctor(Long userId) {
+		Doctor doctor = new Doctor();
+		doctor.setUserId(userId);
+		doctor.setFirstName("Doc");
+		doctor.setLastName(String.valueOf(userId));
+		doctor.setStatus(DoctorStatus.APPROVED);
+		return doctorRepository.save(doctor);
+	}
+}
@@ -0,0 +1,98 @@
+package com.medvault.medvault.service;
+
+import com.medvault.medvault.event.DoctorProfileChangedEvent;
+import com.medvault.medvault.model.Doctor;
+import com.medvault.medvault.model.DoctorStatus;
+import com.medvault.medvault.repository.DoctorRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({IdentityCache.class, SimpleMeterRegistry.class})
+// Updates commit or roll back on their own, like an admin approval would
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdentityCacheTests {
+
+	@Autowired
+	private IdentityCache cache;
+
+	@Autowired
+	private DoctorRepository doctorRepository;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void staysStaleUntilTheChangeIsPublishedAndCommitted() {
+		Doctor doctor = doctor(5001L, DoctorStatus.PENDING);
+		assertThat(cache.isApprovedDoctor(5001L)).isFalse();
+
+		// Written without an event: the cached snapshot is served until the TTL
+		doctor.setStatus(DoctorStatus.APPROVED);
+		doctorRepository.save(doctor);
+		assertThat(cache.isApprovedDoctor(5001L)).isFalse();
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			eventPublisher.publishEvent(new DoctorProfileChangedEvent(doctor.getId(), 5001L));
+			// Not evicted before commit
+			assertThat(cache.isApprovedDoctor(5001L)).isFalse();
+		});
+		assertThat(cache.isApprovedDoctor(5001L)).isTrue();
+	}
+
+	@Test
+	void evictsByDoctorIdWhenTheUserIdIsUnknown() {
+		Doctor doctor = doctor(5002L, DoctorStatus.APPROVED);
+		Doctor other = doctor(5003L, DoctorStatus.APPROVED);
+		assertThat(cache.isApprovedDoctor(5002L)).isTrue();
+		assertThat(cache.isApprovedDoctor(5003L)).isTrue();
+
+		doctor.setStatus(DoctorStatus.REJECTED);
+		doctorRepository.save(doctor);
+		eventPublisher.publishEvent(new DoctorProfileChangedEvent(doctor.getId(), null));
+
+		assertThat(cache.isApprovedDoctor(5002L)).isFalse();
+		assertThat(cache.findDoctor(5003L)).map(IdentityCache.DoctorIdentity::doctorId).contains(other.getId());
+	}
+
+	@Test
+	void rolledBackChangesAreEvictedToo() {
+		Doctor doctor = doctor(5004L, DoctorStatus.PENDING);
+
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		transaction.executeWithoutResult(status -> {
+			Doctor approved = doctorRepository.findById(doctor.getId()).orElseThrow();
+			approved.setStatus(DoctorStatus.APPROVED);
+			doctorRepository.saveAndFlush(approved);
+			eventPublisher.publishEvent(new DoctorProfileChangedEvent(doctor.getId(), 5004L));
+			// A lookup inside the transaction caches the uncommitted approval
+			assertThat(cache.isApprovedDoctor(5004L)).isTrue();
+			status.setRollbackOnly();
+		});
+
+		assertThat(cache.isApprovedDoctor(5004L)).isFalse();
+		assertThat(cache.findDoctor(5004L)).map(IdentityCache.DoctorIdentity::status).contains(DoctorStatus.PENDING);
+	}
+
+	private Doctor doctor(Long userId, DoctorStatus status) {
+		Doctor doctor = new Doctor();
+		doctor.setUserId(userId);
+		doctor.setFirstName("Doc");
+		doctor.setLastName(String.valueOf(userId));
+		doctor.setStatus(status);
+		return doctorRepository.save(doctor);
+	}
+}
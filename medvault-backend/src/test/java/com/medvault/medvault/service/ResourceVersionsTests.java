@@ -0,0 +1,57 @@
+package com.medvault.medvault.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResourceVersionsTests {
+
+	private final AtomicLong now = new AtomicLong(1_000);
+	private final ResourceVersions versions = new ResourceVersions(60_000, now::get);
+
+	@Test
+	void tagIsStableUntilTheDataChanges() {
+		String before = versions.etag(ResourceVersions.FAQS);
+		assertThat(versions.etag(ResourceVersions.FAQS)).isEqualTo(before).startsWith("W/\"");
+
+		versions.bump(ResourceVersions.FAQS);
+
+		assertThat(versions.etag(ResourceVersions.FAQS)).isNotEqualTo(before);
+	}
+
+	@Test
+	void changesOnlyAffectTheirOwnAggregate() {
+		String doctors = versions.etag(ResourceVersions.APPROVED_DOCTORS);
+		String otherSlots = versions.etag(ResourceVersions.slotsOf(2L));
+
+		versions.bump(ResourceVersions.slotsOf(1L));
+
+		assertThat(versions.etag(ResourceVersions.APPROVED_DOCTORS)).isEqualTo(doctors);
+		assertThat(versions.etag(ResourceVersions.slotsOf(2L))).isEqualTo(otherSlots);
+	}
+
+	@Test
+	void tagExpiresAfterTheStalenessWindow() {
+		String before = versions.etag(ResourceVersions.APPROVED_DOCTORS);
+
+		now.addAndGet(60_000);
+
+		assertThat(versions.etag(ResourceVersions.APPROVED_DOCTORS)).isNotEqualTo(before);
+	}
+
+	@Test
+	void nodesAgreeUntilOneOfThemCountsAChange() {
+		ResourceVersions otherNode = new ResourceVersions(60_000, now::get);
+		assertThat(otherNode.etag(ResourceVersions.FAQS)).isEqualTo(versions.etag(ResourceVersions.FAQS));
+
+		otherNode.bump(ResourceVersions.FAQS);
+		String unchanged = versions.etag(ResourceVersions.FAQS);
+		assertThat(otherNode.etag(ResourceVersions.FAQS)).isNotEqualTo(unchanged);
+
+		// This node learns of the change when the window rolls over
+		now.addAndGet(60_000);
+		assertThat(versions.etag(ResourceVersions.FAQS)).isNotEqualTo(unchanged);
+	}
+}
@@ -0,0 +1,110 @@
+package com.medvault.medvault.service.chatbot;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatIntentClassifierTests {
+
+	// Words and fragments that sit on keyword boundaries ("hi" in "history", "rate" in "accurate", ...)
+	private static final String[] FRAGMENTS = {
+			"hi", "hello", "hey", "good morning", "start", "begin", "history", "this", "which",
+			"book", "appointment", "book an appointment", "cancel", "cancel my", "reschedule", "my appointments",
+			"show doctors", "doctors", "find a doctor", "see doctor", "see doctors", "consultation",
+			"cardiologist", "cardiology", "psychiatrist", "psychiatry", "psychology", "radiologist", "urologist",
+			"medical records", "records", "access", "accessible", "my records", "lab results",
+			"emergency", "urgent", "help me", "help",
+			"mental health", "anxiety", "anxious", "sad", "stress", "therapy", "panic",
+			"review", "rate", "accurate", "rating", "stars", "feedback", "opinion",
+			"what is", "what are", "symptom", "symptoms", "feel", "sick", "pain", "ache", "fever",
+			"treatment", "cure", "how to treat", "how to", "how do i", "medicine", "dosage", "prevent", "avoid",
+			"diabetes", "asthma", "insurance", "payment methods", "where can i", "not well",
+			"the", "a", "please", "today", "!", ",", "?", " ", "x", "é", "😊"
+	};
+
+	private final ChatIntentClassifier classifier = new ChatIntentClassifier();
+
+	@Test
+	void matchesGoldenIntentsForRecordedMessages() throws IOException {
+		List<String[]> cases = loadGoldenCases();
+		assertThat(cases).hasSizeGreaterThan(100);
+
+		for (String[] golden : cases) {
+			ClassifiedMessage result = classifier.classify(golden[0]);
+			String specialty = result.specialty() == null ? "-" : result.specialty();
+
+			assertThat(result.intent()).as("intent for \"%s\"", golden[0]).isEqualTo(ChatIntent.valueOf(golden[1]));
+			assertThat(specialty).as("specialty for \"%s\"", golden[0]).isEqualTo(golden[2]);
+		}
+	}
+
+	@Test
+	void agreesWithLegacyKeywordChainOnGeneratedMessages() {
+		Random random = new Random(20240517L);
+
+		for (int i = 0; i < 20_000; i++) {
+			StringBuilder message = new StringBuilder();
+			int parts = 1 + random.nextInt(5);
+			for (int p = 0; p < parts; p++) {
+				if (p > 0 && random.nextBoolean()) {
+					message.append(' ');
+				}
+				message.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+			}
+			String text = message.toString().toLowerCase().trim();
+
+			ClassifiedMessage result = classifier.classify(text);
+
+			assertThat(result.intent()).as("intent for \"%s\"", text).isEqualTo(LegacyIntentRules.classify(text));
+			if (result.intent() == ChatIntent.SPECIALTY_DOCTORS) {
+				assertThat(result.specialty()).as("specialty for \"%s\"", text)
+						.isEqualTo(LegacyIntentRules.extractSpecialty(text));
+			}
+		}
+	}
+
+	@Test
+	void exposesResponseKeywordsWithoutRescanning() {
+		ClassifiedMessage cancel = classifier.classify("cancel my appointment");
+		ClassifiedMessage anxious = classifier.classify("i'm anxious about surgery");
+
+		assertThat(cancel.intent()).isEqualTo(ChatIntent.APPOINTMENT_MANAGEMENT);
+		assertThat(cancel.mentions("cancel")).isTrue();
+		assertThat(cancel.mentions("reschedule")).isFalse();
+		assertThat(anxious.mentions("anxiety", "anxious")).isTrue();
+	}
+
+	@Test
+	void findsOverlappingKeywords() {
+		KeywordAutomaton automaton = new KeywordAutomaton(List.of("he", "she", "his", "hers"));
+
+		KeywordAutomaton.Matches matches = automaton.scan("ushers");
+
+		assertThat(matches.contains(automaton.idOf("she"))).isTrue();
+		assertThat(matches.contains(automaton.idOf("he"))).isTrue();
+		assertThat(matches.contains(automaton.idOf("hers"))).isTrue();
+		assertThat(matches.contains(automaton.idOf("his"))).isFalse();
+		assertThat(matches.startsWith(automaton.idOf("she"))).isFalse();
+	}
+
+	private List<String[]> loadGoldenCases() throws IOException {
+		List<String[]> cases = new ArrayList<>();
+		try (InputStream in = getClass().getResourceAsStream("/chatbot/golden-intents.tsv")) {
+			assertThat(in).isNotNull();
+			for (String line : new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\n")) {
+				if (line.isBlank() || line.startsWith("#")) {
+					continue;
+				}
+				cases.add(line.split("\t"));
+			}
+		}
+		return cases;
+	}
+}
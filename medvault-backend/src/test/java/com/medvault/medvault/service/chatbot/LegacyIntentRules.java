@@ -0,0 +1,190 @@
+package com.medvault.medvault.service.chatbot;
+
+import java.util.Arrays;
+
+/**
+ * The keyword chain ChatbotService used before {@link ChatIntentClassifier}, kept verbatim
+ * as the reference behaviour for regression tests and for the benchmarks in
+ * ../medvault-bench, which get it through the test jar.
+ */
+public final class LegacyIntentRules {
+
+	private LegacyIntentRules() {
+	}
+
+	public static ChatIntent classify(String message) {
+		if (isPlatformSpecificQuery(message)) {
+			if (isGreeting(message)) return ChatIntent.GREETING;
+			if (isShowDoctorsQuery(message)) return ChatIntent.SHOW_DOCTORS;
+			if (isSpecificSpecialtyQuery(message)) return ChatIntent.SPECIALTY_DOCTORS;
+			if (isAppointmentBookingQuery(message)) return ChatIntent.APPOINTMENT_BOOKING;
+			if (isAppointmentManagementQuery(message)) return ChatIntent.APPOINTMENT_MANAGEMENT;
+			if (isMedicalRecordsQuery(message)) return ChatIntent.MEDICAL_RECORDS;
+			if (isEmergencyQuery(message)) return ChatIntent.EMERGENCY;
+			if (isMentalHealthQuery(message)) return ChatIntent.MENTAL_HEALTH;
+			if (isDoctorReviewQuery(message)) return ChatIntent.DOCTOR_REVIEW;
+			return classifyHealth(message);
+		}
+		if (isHealthQuestionForAI(message)) {
+			return classifyHealth(message);
+		}
+		return ChatIntent.CONTEXTUAL_HELP;
+	}
+
+	private static ChatIntent classifyHealth(String message) {
+		if (isSymptomQuery(message)) return ChatIntent.HEALTH_SYMPTOM;
+		if (isConditionQuery(message)) return ChatIntent.HEALTH_CONDITION;
+		if (isTreatmentQuery(message)) return ChatIntent.HEALTH_TREATMENT;
+		if (isMedicationQuery(message)) return ChatIntent.HEALTH_MEDICATION;
+		if (isPreventionQuery(message)) return ChatIntent.HEALTH_PREVENTION;
+		return ChatIntent.HEALTH_GENERAL;
+	}
+
+	private static boolean isPlatformSpecificQuery(String message) {
+		String[] platformKeywords = {
+				"hi", "hello", "hey", "good morning", "good afternoon", "good evening", "start", "begin",
+				"book appointment", "booking appointment", "schedule appointment",
+				"book an appointment", "make appointment", "want appointment", "need appointment",
+				"cancel appointment", "cancel my", "reschedule", "upcoming appointment",
+				"my appointments", "view appointments", "manage appointments",
+				"show doctors", "list doctors", "available doctors", "show me doctors",
+				"find doctor", "find a doctor", "doctors near me", "see doctors",
+				"cardiologist", "neurologist", "dermatologist", "orthopedic",
+				"pediatrician", "psychiatrist", "psychologist", "gynecologist",
+				"medical records", "my records", "health records", "medical history",
+				"prescription history", "lab results", "test results",
+				"emergency", "urgent", "emergency assistance",
+				"access", "how do i", "where can i", "how to",
+				"update profile", "payment methods", "insurance",
+				"see psychiatrist", "need psychiatrist", "book psychiatrist",
+				"mental health support"
+		};
+		return Arrays.stream(platformKeywords)
+				.anyMatch(keyword -> message.toLowerCase().contains(keyword.toLowerCase()));
+	}
+
+	private static boolean isGreeting(String message) {
+		String[] greetings = {"hi", "hello", "hey", "good morning", "good afternoon", "good evening", "start", "begin"};
+		return Arrays.stream(greetings).anyMatch(greeting ->
+				message.equals(greeting) || message.startsWith(greeting + " ") || message.startsWith(greeting + "!"));
+	}
+
+	private static boolean isShowDoctorsQuery(String message) {
+		return message.contains("show doctors") || message.contains("list doctors") ||
+				message.contains("available doctors") || message.contains("show me doctors") ||
+				message.contains("find doctor") || message.contains("find a doctor") ||
+				message.contains("see doctors") || message.equals("doctors");
+	}
+
+	private static boolean isSpecificSpecialtyQuery(String message) {
+		String[] specialties = {
+				"cardiologist", "neurologist", "dermatologist", "orthopedic",
+				"pediatrician", "psychiatrist", "psychologist", "gynecologist",
+				"cardiology", "neurology", "dermatology", "orthopedics",
+				"pediatrics", "psychiatry", "psychology", "gynecology",
+				"endocrinologist", "urologist", "oncologist", "radiologist"
+		};
+		return Arrays.stream(specialties).anyMatch(message::contains);
+	}
+
+	private static boolean isAppointmentBookingQuery(String message) {
+		String[] bookingKeywords = {
+				"book appointment", "book an appointment", "booking appointment",
+				"schedule appointment", "make appointment", "want appointment",
+				"need appointment", "see doctor", "visit doctor", "consultation",
+				"appointment with", "book with"
+		};
+		return Arrays.stream(bookingKeywords)
+				.anyMatch(keyword -> message.toLowerCase().contains(keyword.toLowerCase()));
+	}
+
+	private static boolean isDoctorReviewQuery(String message) {
+		return message.contains("review") || message.contains("rate") || message.contains("rating") ||
+				message.contains("stars") || message.contains("feedback") || message.contains("opinion");
+	}
+
+	private static boolean isMentalHealthQuery(String message) {
+		return message.contains("mental health") || message.contains("psychiatrist") ||
+				message.contains("psychologist") || message.contains("therapy") ||
+				message.contains("counseling") || message.contains("anxiety") ||
+				message.contains("depression") || message.contains("stress") ||
+				message.contains("anxious") || message.contains("sad") ||
+				message.contains("worried") || message.contains("panic") ||
+				message.contains("see psychiatrist") || message.contains("need psychiatrist");
+	}
+
+	private static boolean isAppointmentManagementQuery(String message) {
+		return message.contains("my appointments") || message.contains("reschedule") ||
+				message.contains("cancel appointment") || message.contains("upcoming appointment") ||
+				message.contains("cancel my") || message.contains("cancel upcoming") ||
+				message.contains("view appointments") || message.contains("manage appointments");
+	}
+
+	private static boolean isEmergencyQuery(String message) {
+		return message.contains("emergency") || message.contains("urgent") ||
+				message.contains("help me") || message.contains("emergency assistance");
+	}
+
+	private static boolean isMedicalRecordsQuery(String message) {
+		return message.contains("medical records") || message.contains("my records") ||
+				message.contains("health records") || message.contains("medical history") ||
+				message.contains("access") && (message.contains("records") || message.contains("history"));
+	}
+
+	private static boolean isHealthQuestionForAI(String message) {
+		String[] healthKeywords = {
+				"what causes", "what is", "what are", "symptoms", "causes",
+				"blood pressure", "diabetes", "anxiety", "headache", "fever",
+				"how do", "why do", "treatment", "medication", "side effects",
+				"pain", "hurt", "ache", "feel sick", "not well", "diagnosis",
+				"disease", "condition", "illness", "infection", "prevention"
+		};
+		String lowerMessage = message.toLowerCase();
+		return Arrays.stream(healthKeywords).anyMatch(lowerMessage::contains);
+	}
+
+	private static boolean isSymptomQuery(String message) {
+		return message.contains("symptom") || message.contains("feel") ||
+				message.contains("pain") || message.contains("hurt") ||
+				message.contains("ache") || message.contains("fever") ||
+				message.contains("headache") || message.contains("sick");
+	}
+
+	private static boolean isConditionQuery(String message) {
+		return message.contains("what is") || message.contains("what are") ||
+				message.contains("diabetes") || message.contains("hypertension") ||
+				message.contains("asthma") || message.contains("condition") ||
+				message.contains("disease") || message.contains("illness");
+	}
+
+	private static boolean isTreatmentQuery(String message) {
+		return message.contains("treatment") || message.contains("cure") ||
+				message.contains("how to treat") || message.contains("therapy");
+	}
+
+	private static boolean isMedicationQuery(String message) {
+		return message.contains("medication") || message.contains("medicine") ||
+				message.contains("pills") || message.contains("drugs") ||
+				message.contains("side effects") || message.contains("dosage");
+	}
+
+	private static boolean isPreventionQuery(String message) {
+		return message.contains("prevent") || message.contains("avoid") ||
+				message.contains("prevention") || message.contains("protect");
+	}
+
+	static String extractSpecialty(String message) {
+		if (message.contains("cardiologist") || message.contains("cardiology")) return "Cardiology";
+		if (message.contains("neurologist") || message.contains("neurology")) return "Neurology";
+		if (message.contains("dermatologist") || message.contains("dermatology")) return "Dermatology";
+		if (message.contains("orthopedic") || message.contains("orthopedics")) return "Orthopedics";
+		if (message.contains("pediatrician") || message.contains("pediatrics")) return "Pediatrics";
+		if (message.contains("psychiatrist") || message.contains("psychiatry")) return "Psychiatry";
+		if (message.contains("psychologist") || message.contains("psychology")) return "Psychology";
+		if (message.contains("gynecologist") || message.contains("gynecology")) return "Gynecology";
+		if (message.contains("endocrinologist")) return "Endocrinology";
+		if (message.contains("urologist")) return "Urology";
+		if (message.contains("oncologist")) return "Oncology";
+		return "General Medicine";
+	}
+}
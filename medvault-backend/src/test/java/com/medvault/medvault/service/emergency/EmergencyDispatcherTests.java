@@ -0,0 +1,209 @@
+package com.medvault.medvault.service.emergency;
+
+import com.medvault.medvault.event.AppointmentEvent;
+import com.medvault.medvault.model.Appointment;
+import com.medvault.medvault.model.AppointmentStatus;
+import com.medvault.medvault.model.Doctor;
+import com.medvault.medvault.model.DoctorStatus;
+import com.medvault.medvault.model.Patient;
+import com.medvault.medvault.repository.AppointmentRepository;
+import com.medvault.medvault.repository.DoctorRepository;
+import com.medvault.medvault.repository.PatientRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(EmergencyDispatcher.class)
+// Each claimer commits on its own, like concurrent requests would
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmergencyDispatcherTests {
+
+	private static final int CLAIMERS = 8;
+
+	@Autowired
+	private EmergencyDispatcher dispatcher;
+
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+
+	@Autowired
+	private DoctorRepository doctorRepository;
+
+	@Autowired
+	private PatientRepository patientRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Test
+	void concurrentClaimsHaveExactlyOneWinner() throws Exception {
+		Appointment emergency = appointmentRepository.save(emergency(patient(1001L), "HIGH"));
+		List<Doctor> doctors = new ArrayList<>();
+		for (int i = 0; i < CLAIMERS; i++) {
+			doctors.add(doctor(2000L + i));
+		}
+
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		ExecutorService pool = Executors.newFixedThreadPool(CLAIMERS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<EmergencyDispatcher.ClaimResult>> results = new ArrayList<>();
+		try {
+			for (Doctor doctor : doctors) {
+				results.add(pool.submit(() -> {
+					start.await();
+					return transaction.execute(status -> dispatcher.claim(emergency.getId(), doctor, "2030-01-01T10:00"));
+				}));
+			}
+			start.countDown();
+
+			List<EmergencyDispatcher.ClaimResult> outcomes = new ArrayList<>();
+			for (Future<EmergencyDispatcher.ClaimResult> result : results) {
+				outcomes.add(result.get(30, TimeUnit.SECONDS));
+			}
+			Map<EmergencyDispatcher.ClaimResult, Long> counts = outcomes.stream()
+					.collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+
+			assertThat(counts.get(EmergencyDispatcher.ClaimResult.CLAIMED)).isEqualTo(1L);
+			assertThat(counts.get(EmergencyDispatcher.ClaimResult.ALREADY_CLAIMED)).isEqualTo(CLAIMERS - 1L);
+
+			Long winner = doctors.get(outcomes.indexOf(EmergencyDispatcher.ClaimResult.CLAIMED)).getId();
+			Appointment stored = appointmentRepository.findById(emergency.getId()).orElseThrow();
+			assertThat(stored.getDoctor().getId()).isEqualTo(winner);
+			assertThat(stored.getStatus()).isEqualTo(AppointmentStatus.APPROVED);
+			assertThat(stored.getPatientNotes()).endsWith(" | Proposed Time: 2030-01-01T10:00");
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	void unknownOrNonEmergencyAppointmentsAreNotFound() {
+		Doctor doctor = doctor(3000L);
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+		EmergencyDispatcher.ClaimResult result = transaction.execute(status -> dispatcher.claim(-1L, doctor, null));
+
+		assertThat(result).isEqualTo(EmergencyDispatcher.ClaimResult.NOT_FOUND);
+	}
+
+	@Test
+	void claimLeavesTheQueueOnlyWhenItsEventCommits() {
+		Appointment emergency = appointmentRepository.save(emergency(patient(1002L), "CRITICAL"));
+		Doctor doctor = doctor(3001L);
+		dispatcher.loadOpenEmergencies();
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+		transaction.executeWithoutResult(status -> {
+			dispatcher.claim(emergency.getId(), doctor, null);
+			eventPublisher.publishEvent(event(emergency.getId()));
+			status.setRollbackOnly();
+		});
+		assertThat(queued()).contains(emergency.getId());
+		assertThat(unclaimed()).contains(emergency.getId());
+
+		transaction.executeWithoutResult(status -> {
+			dispatcher.claim(emergency.getId(), doctor, null);
+			eventPublisher.publishEvent(event(emergency.getId()));
+			assertThat(queued()).contains(emergency.getId());
+		});
+		assertThat(queued()).doesNotContain(emergency.getId());
+	}
+
+	@Test
+	void claimsMadeOnAnotherInstanceAreNotListed() {
+		Appointment emergency = appointmentRepository.save(emergency(patient(1003L), "HIGH"));
+		Doctor doctor = doctor(3002L);
+		dispatcher.loadOpenEmergencies();
+
+		// Another instance claims it; no event reaches this one
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		transaction.executeWithoutResult(status -> appointmentRepository.claimEmergency(emergency.getId(), doctor,
+				AppointmentStatus.APPROVED, "", LocalDateTime.now()));
+		assertThat(queued()).contains(emergency.getId());
+
+		assertThat(unclaimed()).doesNotContain(emergency.getId());
+		assertThat(queued()).doesNotContain(emergency.getId());
+	}
+
+	@Test
+	void dispatchOrderIsUrgencyThenAge() {
+		LocalDateTime now = LocalDateTime.now();
+		EmergencyDispatcher.OpenEmergency oldLow = open(1L, "LOW", now.minusMinutes(30), 0);
+		EmergencyDispatcher.OpenEmergency newHigh = open(2L, "HIGH", now, 0);
+		EmergencyDispatcher.OpenEmergency oldHigh = open(3L, "HIGH", now.minusMinutes(10), 0);
+		EmergencyDispatcher.OpenEmergency escalatedMedium = open(4L, "MEDIUM", now.minusMinutes(20), 2);
+
+		List<EmergencyDispatcher.OpenEmergency> ordered = new ArrayList<>(List.of(oldLow, newHigh, oldHigh, escalatedMedium));
+		ordered.sort(EmergencyDispatcher.DISPATCH_ORDER);
+
+		assertThat(ordered).extracting(EmergencyDispatcher.OpenEmergency::appointmentId).containsExactly(4L, 3L, 2L, 1L);
+	}
+
+	private List<Long> queued() {
+		return dispatcher.openEmergencies().stream().map(EmergencyDispatcher.OpenEmergency::appointmentId).toList();
+	}
+
+	private List<Long> unclaimed() {
+		return dispatcher.unclaimedEmergencies().stream().map(EmergencyDispatcher.OpenEmergency::appointmentId).toList();
+	}
+
+	private static AppointmentEvent event(Long appointmentId) {
+		return new AppointmentEvent(AppointmentEvent.Type.EMERGENCY_ACCEPTED, appointmentId, null, null, null,
+				LocalDateTime.now());
+	}
+
+	private Patient patient(Long userId) {
+		Patient patient = new Patient();
+		patient.setUserId(userId);
+		patient.setFirstName("Pat");
+		patient.setLastName("Ient");
+		return patientRepository.save(patient);
+	}
+
+	private Doctor doctor(Long userId) {
+		Doctor doctor = new Doctor();
+		doctor.setUserId(userId);
+		doctor.setFirstName("Doc");
+		doctor.setLastName(String.valueOf(userId));
+		doctor.setStatus(DoctorStatus.APPROVED);
+		return doctorRepository.save(doctor);
+	}
+
+	private static Appointment emergency(Patient patient, String urgency) {
+		Appointment appointment = new Appointment();
+		appointment.setPatient(patient);
+		appointment.setIsEmergency(true);
+		appointment.setUrgencyLevel(urgency);
+		appointment.setStatus(AppointmentStatus.PENDING);
+		appointment.setPatientNotes("EMERGENCY: chest pain");
+		return appointment;
+	}
+
+	private static EmergencyDispatcher.OpenEmergency open(Long id, String urgency, LocalDateTime createdAt, int level) {
+		return new EmergencyDispatcher.OpenEmergency(id, urgency, createdAt, null, "Pat Ient", null, null, level);
+	}
+}
@@ -0,0 +1,74 @@
+package com.medvault.medvault.service.emergency;
+
+import com.medvault.medvault.service.DoctorDirectory;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmergencyRouterTests {
+
+	private final EmergencyRouter router = new EmergencyRouter();
+
+	private final List<DoctorDirectory.Entry> doctors = List.of(
+			doctor(1L, "Cardiology"),
+			doctor(2L, "Cardiology"),
+			doctor(3L, "General Medicine"),
+			doctor(4L, "Dermatology"));
+
+	@Test
+	void infersSpecialtiesFromSymptoms() {
+		assertThat(router.inferSpecialties("Sudden CHEST PAIN and palpitations")).containsExactly("cardio");
+		assertThat(router.inferSpecialties("feeling tired")).isEmpty();
+		assertThat(router.inferSpecialties(null)).isEmpty();
+	}
+
+	@Test
+	void prefersMatchingSpecialtyThenAvailabilityThenLowLoad() {
+		DoctorAvailability.Snapshot availability = new DoctorAvailability.Snapshot(
+				Map.of(1L, 4, 2L, 4, 3L, 4, 4L, 4),
+				Map.of(1L, 1),
+				null);
+
+		List<EmergencyRouter.RankedDoctor> ranked = EmergencyRouter.rank(doctors, availability,
+				Set.of("cardio"), Set.of(), 3);
+
+		assertThat(ranked).extracting(r -> r.doctor().doctorId()).containsExactly(2L, 1L, 3L);
+	}
+
+	@Test
+	void routesToGeneralMedicineWhenNothingIsInferred() {
+		List<EmergencyRouter.RankedDoctor> ranked = EmergencyRouter.rank(doctors,
+				new DoctorAvailability.Snapshot(Map.of(), Map.of(), null), Set.of(), Set.of(), 1);
+
+		assertThat(ranked).extracting(r -> r.doctor().doctorId()).containsExactly(3L);
+	}
+
+	@Test
+	void skipsDoctorsAlreadyAlerted() {
+		List<EmergencyRouter.RankedDoctor> ranked = EmergencyRouter.rank(doctors,
+				new DoctorAvailability.Snapshot(Map.of(), Map.of(), null), Set.of("cardio"), Set.of(1L, 2L), 2);
+
+		assertThat(ranked).extracting(r -> r.doctor().doctorId()).containsExactly(3L, 4L);
+	}
+
+	@Test
+	void forgetsEmergenciesThatAreNoLongerOpen() {
+		router.alertedFor(10L).add(1L);
+		router.alertedFor(11L).add(2L);
+		router.alertedFor(12L).add(3L);
+
+		router.retainOpen(Set.of(11L));
+
+		assertThat(router.trackedEmergencies()).isEqualTo(1);
+		assertThat(router.alertedFor(11L)).containsExactly(2L);
+		assertThat(router.alertedFor(10L)).isEmpty();
+	}
+
+	private static DoctorDirectory.Entry doctor(Long id, String specialization) {
+		return new DoctorDirectory.Entry(id, "Dr", "No" + id, specialization, 500.0, null, "doc" + id + "@example.com");
+	}
+}
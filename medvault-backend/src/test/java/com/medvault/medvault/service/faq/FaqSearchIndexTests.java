@@ -0,0 +1,84 @@
+package com.medvault.medvault.service.faq;
+
+import com.medvault.medvault.model.FAQItem;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FaqSearchIndexTests {
+
+	private static final List<FAQItem> FAQS = List.of(
+			faq(1L, "Appointments", "How do I book an appointment?",
+					"Open 'Book Appointment', pick a doctor and choose a free time slot.", "booking, schedule", 5),
+			faq(2L, "Appointments", "Can I cancel or reschedule my appointment?",
+					"Yes, from 'My Appointments' up to two hours before the visit.", "cancel, cancellation, reschedule", 3),
+			faq(3L, "Records", "Who can see my medical records?",
+					"Only doctors you grant access to. You can revoke access at any time.", "privacy, permissions", 4),
+			faq(4L, "Payments", "Which payment methods are accepted?",
+					"Cards and UPI. Fees are shown before you book an appointment.", "fees, billing", 1),
+			faq(5L, "Account", "How do I reset my password?",
+					"Use 'Forgot password' on the login page.", "login, credentials", 2),
+			inactive(faq(6L, "Appointments", "Old booking rules", "Outdated appointment booking text.", "booking", 9)));
+
+	private final FaqSearchIndex.Snapshot index = FaqSearchIndex.Snapshot.build(FAQS);
+
+	@Test
+	void questionMatchesOutrankAnswerOnlyMatches() {
+		List<FaqSearchIndex.Hit> hits = index.search("book appointment", 5);
+
+		assertThat(hits).extracting(FaqSearchIndex.Hit::id).startsWith(1L).contains(4L);
+		assertThat(hits.get(0).score()).isGreaterThan(hits.get(hits.size() - 1).score());
+	}
+
+	@Test
+	void matchesInflectedForms() {
+		assertThat(index.search("cancelled bookings", 3)).extracting(FaqSearchIndex.Hit::id).contains(1L, 2L);
+		assertThat(index.search("rescheduling", 1)).extracting(FaqSearchIndex.Hit::id).containsExactly(2L);
+		assertThat(index.search("Who can access my records", 1)).extracting(FaqSearchIndex.Hit::id).containsExactly(3L);
+	}
+
+	@Test
+	void priorityBreaksTiesBetweenEquallyRelevantItems() {
+		List<FAQItem> twins = List.of(
+				faq(10L, "General", "Opening hours", "We are open every day.", "hours", 0),
+				faq(11L, "General", "Opening hours", "We are open every day.", "hours", 10));
+
+		assertThat(FaqSearchIndex.Snapshot.build(twins).search("opening hours", 2))
+				.extracting(FaqSearchIndex.Hit::id).containsExactly(11L, 10L);
+	}
+
+	@Test
+	void skipsInactiveItemsAndUnknownWords() {
+		assertThat(index.search("old booking rules", 10)).extracting(FaqSearchIndex.Hit::id).doesNotContain(6L);
+		assertThat(index.search("quantum chromodynamics", 10)).isEmpty();
+		assertThat(index.search("the and of", 10)).isEmpty();
+		assertThat(index.search("", 10)).isEmpty();
+	}
+
+	@Test
+	void stemmerIsConsistentForCommonForms() {
+		assertThat(FaqTextAnalyzer.analyze("Booking booked books")).containsOnly("book");
+		assertThat(FaqTextAnalyzer.analyze("Appointments appointment")).containsOnly("appointment");
+		assertThat(FaqTextAnalyzer.analyze("cancelled cancel cancelling")).containsOnly("cancel");
+		assertThat(FaqTextAnalyzer.analyze("therapies therapy")).containsOnly("therapy");
+	}
+
+	static FAQItem faq(Long id, String category, String question, String answer, String keywords, int priority) {
+		FAQItem item = new FAQItem();
+		item.setId(id);
+		item.setCategory(category);
+		item.setQuestion(question);
+		item.setAnswer(answer);
+		item.setKeywords(keywords);
+		item.setPriority(priority);
+		item.setIsActive(true);
+		return item;
+	}
+
+	private static FAQItem inactive(FAQItem item) {
+		item.setIsActive(false);
+		return item;
+	}
+}
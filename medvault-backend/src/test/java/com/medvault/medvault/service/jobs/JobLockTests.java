@@ -0,0 +1,147 @@
+package com.medvault.medvault.service.jobs;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Several application contexts standing in for cluster nodes, all sharing one
+ * in-memory database.
+ */
+class JobLockTests {
+
+	private static final String URL = "jdbc:h2:mem:scheduler_locks;DB_CLOSE_DELAY=-1";
+	private static final Duration NEVER = Duration.ofHours(1);
+
+	private final List<AnnotationConfigApplicationContext> nodes = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource(URL));
+		jdbc.execute("CREATE TABLE IF NOT EXISTS scheduler_locks (name VARCHAR(64) PRIMARY KEY, "
+				+ "locked_until TIMESTAMP NOT NULL, locked_at TIMESTAMP NOT NULL, locked_by VARCHAR(255) NOT NULL)");
+		jdbc.execute("DELETE FROM scheduler_locks");
+	}
+
+	@AfterEach
+	void tearDown() {
+		nodes.forEach(AnnotationConfigApplicationContext::close);
+	}
+
+	@Test
+	void clusterWideJobRunsOnOneNodePerTick() throws Exception {
+		AtomicInteger executions = new AtomicInteger();
+		List<JobOrchestrator> orchestrators = List.of(
+				startNode("node-a").getBean(JobOrchestrator.class),
+				startNode("node-b").getBean(JobOrchestrator.class),
+				startNode("node-c").getBean(JobOrchestrator.class));
+
+		orchestrators.forEach(orchestrator -> orchestrator.register(JobDefinition
+				.fixedRate("nightly-cleanup", NEVER, executions::incrementAndGet)
+				.initialDelay(NEVER)
+				.oncePerCluster()));
+		orchestrators.forEach(orchestrator -> orchestrator.trigger("nightly-cleanup"));
+		for (JobOrchestrator orchestrator : orchestrators) {
+			waitFor(() -> finished(orchestrator.status("nightly-cleanup").orElseThrow()));
+		}
+
+		assertThat(executions.get()).isEqualTo(1);
+		assertThat(orchestrators).extracting(o -> o.status("nightly-cleanup").orElseThrow().runs())
+				.containsExactlyInAnyOrder(1L, 0L, 0L);
+		assertThat(orchestrators).extracting(o -> o.status("nightly-cleanup").orElseThrow().lockedElsewhere())
+				.containsExactlyInAnyOrder(0L, 1L, 1L);
+	}
+
+	@Test
+	void anotherNodeTakesOverWhenTheHolderDies() throws Exception {
+		AnnotationConfigApplicationContext nodeA = startNode("node-a");
+		JobLock lockA = nodeA.getBean(JobLock.class);
+		JobLock lockB = startNode("node-b").getBean(JobLock.class);
+
+		assertThat(lockA.tryAcquire("slot-cleanup", Duration.ofMillis(300))).isPresent();
+		assertThat(lockB.tryAcquire("slot-cleanup", Duration.ofMillis(300))).isEmpty();
+
+		// Node A goes away without releasing; its lease has to run out on its own
+		nodeA.close();
+		waitFor(() -> lockB.tryAcquire("slot-cleanup", Duration.ofMinutes(1)).isPresent());
+		assertThat(lockedBy("slot-cleanup")).isEqualTo("node-b");
+	}
+
+	@Test
+	void releaseKeepsTheLeaseForLockAtLeastFor() {
+		JobLock lockA = startNode("node-a").getBean(JobLock.class);
+		JobLock lockB = startNode("node-b").getBean(JobLock.class);
+
+		lockA.release(lockA.tryAcquire("chat-archive", Duration.ofMinutes(1)).orElseThrow(), Duration.ZERO);
+		JobLock.Lease lease = lockB.tryAcquire("chat-archive", Duration.ofMinutes(1)).orElseThrow();
+
+		lockB.release(lease, Duration.ofMinutes(5));
+		assertThat(lockA.tryAcquire("chat-archive", Duration.ofMinutes(1))).isEmpty();
+	}
+
+	private AnnotationConfigApplicationContext startNode(String nodeId) {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.getEnvironment().getPropertySources()
+				.addFirst(new MapPropertySource("node", Map.of("app.jobs.lock.node-id", nodeId)));
+		context.register(NodeConfig.class, JobLock.class, JobOrchestrator.class);
+		context.refresh();
+		nodes.add(context);
+		return context;
+	}
+
+	private static String lockedBy(String name) {
+		return new JdbcTemplate(new DriverManagerDataSource(URL))
+				.queryForObject("SELECT locked_by FROM scheduler_locks WHERE name = ?", String.class, name);
+	}
+
+	private static boolean finished(JobOrchestrator.JobStatus status) {
+		return !status.history().isEmpty() && !status.running();
+	}
+
+	private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+			Thread.sleep(20);
+		}
+	}
+
+	@Configuration
+	static class NodeConfig {
+
+		@Bean
+		DataSource dataSource() {
+			return new DriverManagerDataSource(URL);
+		}
+
+		@Bean
+		JdbcTemplate jdbcTemplate(DataSource dataSource) {
+			return new JdbcTemplate(dataSource);
+		}
+
+		@Bean
+		ThreadPoolTaskScheduler taskScheduler() {
+			ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+			scheduler.setPoolSize(2);
+			return scheduler;
+		}
+	}
+}
@@ -0,0 +1,96 @@
+package com.medvault.medvault.service.jobs;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JobOrchestratorTests {
+
+	private static final Duration NEVER = Duration.ofHours(1);
+
+	private ThreadPoolTaskScheduler scheduler;
+	private JobOrchestrator orchestrator;
+
+	@BeforeEach
+	void setUp() {
+		scheduler = new ThreadPoolTaskScheduler();
+		scheduler.setPoolSize(2);
+		scheduler.initialize();
+		orchestrator = new JobOrchestrator();
+		ReflectionTestUtils.setField(orchestrator, "taskScheduler", scheduler);
+		ReflectionTestUtils.setField(orchestrator, "environment", new MockEnvironment());
+		ReflectionTestUtils.setField(orchestrator, "historySize", 20);
+	}
+
+	@AfterEach
+	void tearDown() {
+		scheduler.shutdown();
+	}
+
+	@Test
+	void doesNotStartASecondRunWhileOneIsInProgress() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		orchestrator.register(JobDefinition.fixedDelay("slow", NEVER, () -> await(release)).initialDelay(NEVER));
+
+		assertThat(orchestrator.trigger("slow")).isEqualTo(JobOrchestrator.TriggerResult.STARTED);
+		waitFor(() -> orchestrator.status("slow").orElseThrow().running());
+		assertThat(orchestrator.trigger("slow")).isEqualTo(JobOrchestrator.TriggerResult.ALREADY_RUNNING);
+
+		release.countDown();
+		waitFor(() -> finished(orchestrator.status("slow").orElseThrow()));
+		JobOrchestrator.JobStatus status = orchestrator.status("slow").orElseThrow();
+		assertThat(status.runs()).isEqualTo(1);
+		assertThat(status.history()).extracting(JobOrchestrator.JobRun::outcome)
+				.containsExactly(JobOrchestrator.Outcome.SUCCEEDED);
+	}
+
+	@Test
+	void interruptsRunsThatExceedTheirTimeout() throws Exception {
+		orchestrator.register(JobDefinition.fixedDelay("stuck", NEVER, () -> await(new CountDownLatch(1)))
+				.initialDelay(NEVER)
+				.timeout(Duration.ofMillis(100)));
+
+		orchestrator.trigger("stuck");
+		waitFor(() -> finished(orchestrator.status("stuck").orElseThrow()));
+
+		JobOrchestrator.JobStatus status = orchestrator.status("stuck").orElseThrow();
+		assertThat(status.timeouts()).isEqualTo(1);
+		assertThat(status.history().get(0).outcome()).isEqualTo(JobOrchestrator.Outcome.TIMED_OUT);
+	}
+
+	@Test
+	void unknownJobsAreReported() {
+		assertThat(orchestrator.trigger("missing")).isEqualTo(JobOrchestrator.TriggerResult.NOT_FOUND);
+		assertThat(orchestrator.status("missing")).isEmpty();
+	}
+
+	private static boolean finished(JobOrchestrator.JobStatus status) {
+		return !status.history().isEmpty() && !status.running();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package com.medvault.medvault.service.metrics;
+
+import com.medvault.medvault.service.chatbot.ChatIntent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BusinessMetricsTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final BusinessMetrics metrics = new BusinessMetrics(registry);
+
+	private final TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(
+			new DriverManagerDataSource("jdbc:h2:mem:metrics;DB_CLOSE_DELAY=-1")));
+
+	@Test
+	void bookingsAreTaggedByOutcomeAndReason() {
+		metrics.bookingFinished(metrics.start(), "booked", "none");
+		metrics.bookingFinished(metrics.start(), "booked", "none");
+		metrics.bookingFinished(metrics.start(), "rejected", "SELECT_DIFFERENT_SLOT");
+
+		assertThat(bookings("booked", "none")).isEqualTo(2);
+		assertThat(bookings("rejected", "select_different_slot")).isEqualTo(1);
+		assertThat(registry.find("medvault.booking").timers()).hasSize(2);
+	}
+
+	@Test
+	void bookingIsRecordedOnlyOnceItCommits() {
+		transaction.executeWithoutResult(status -> {
+			metrics.bookingFinished(metrics.start(), "booked", "none");
+			assertThat(registry.find("medvault.booking").timer()).isNull();
+		});
+
+		assertThat(bookings("booked", "none")).isEqualTo(1);
+	}
+
+	@Test
+	void rolledBackBookingCountsAsAnError() {
+		transaction.executeWithoutResult(status -> {
+			metrics.bookingFinished(metrics.start(), "booked", "none");
+			status.setRollbackOnly();
+		});
+
+		assertThat(registry.find("medvault.booking").tag("outcome", "booked").timer()).isNull();
+		assertThat(bookings("error", "rolled_back")).isEqualTo(1);
+	}
+
+	@Test
+	void countersAddUpPerTag() {
+		metrics.slotConflict();
+		metrics.slotConflict();
+		metrics.permissionChanged("revoked", "expired", 3);
+		metrics.permissionChanged("revoked", "expired", 2);
+		metrics.permissionChanged("granted", "manual", 1);
+
+		assertThat(registry.get("medvault.booking.slot.conflicts").counter().count()).isEqualTo(2);
+		assertThat(registry.get("medvault.permissions.changes").tags("action", "revoked", "reason", "expired")
+				.counter().count()).isEqualTo(5);
+		assertThat(registry.get("medvault.permissions.changes").tags("action", "granted", "reason", "manual")
+				.counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void timersUseLowercaseTags() {
+		metrics.emailFinished(metrics.start(), "html", false);
+		metrics.chatbotReplied(metrics.start(), ChatIntent.SHOW_DOCTORS);
+
+		assertThat(registry.get("medvault.email.send").tags("format", "html", "outcome", "failed")
+				.timer().count()).isEqualTo(1);
+		assertThat(registry.get("medvault.chatbot.reply").tag("intent", "show_doctors").timer().count())
+				.isEqualTo(1);
+	}
+
+	private long bookings(String outcome, String reason) {
+		return registry.get("medvault.booking").tags("outcome", outcome, "reason", reason).timer().count();
+	}
+}
@@ -0,0 +1,98 @@
+package com.medvault.medvault.service.notification;
+
+import com.medvault.medvault.event.AppointmentEvent;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationHubTests {
+
+	// A heartbeat that never fires during a test
+	private final NotificationHub hub = new NotificationHub(3600, 2);
+
+	@Test
+	void tabsShareOneChannelThatClosesWithTheLastOne() {
+		List<Long> received = new ArrayList<>();
+		Disposable firstTab = hub.subscribe(1L, false).subscribe(sse -> received.add(sse.data().appointmentId()));
+		Disposable secondTab = hub.subscribe(1L, false).subscribe(sse -> received.add(sse.data().appointmentId()));
+		assertThat(hub.getStats()).containsEntry("connections", 2L).containsEntry("connectedUsers", 1);
+
+		hub.onAppointmentEvent(event(AppointmentEvent.Type.APPROVED, 10L, 5L, 1L));
+		assertThat(received).containsExactly(10L, 10L);
+
+		firstTab.dispose();
+		assertThat(hub.getStats()).containsEntry("connections", 1L).containsEntry("connectedUsers", 1);
+
+		secondTab.dispose();
+		assertThat(hub.getStats()).containsEntry("connections", 0L).containsEntry("connectedUsers", 0);
+
+		hub.onAppointmentEvent(event(AppointmentEvent.Type.APPROVED, 11L, 5L, 1L));
+		assertThat(received).containsExactly(10L, 10L);
+		assertThat(hub.getStats()).containsEntry("eventsPublished", 2L);
+	}
+
+	@Test
+	void usersOnlyGetTheirOwnAppointments() {
+		StepVerifier.create(hub.subscribe(1L, false))
+				.then(() -> hub.onAppointmentEvent(event(AppointmentEvent.Type.BOOKED, 20L, 5L, 2L)))
+				.then(() -> hub.onAppointmentEvent(event(AppointmentEvent.Type.BOOKED, 21L, 5L, 1L)))
+				.assertNext(sse -> {
+					assertThat(sse.data().appointmentId()).isEqualTo(21L);
+					assertThat(sse.event()).isEqualTo("BOOKED");
+				})
+				.thenCancel()
+				.verify();
+	}
+
+	@Test
+	void emergenciesReachEveryDoctorOnceButNoOtherPatients() {
+		List<Long> assignedDoctor = new ArrayList<>();
+		List<Long> otherDoctor = new ArrayList<>();
+		List<Long> otherPatient = new ArrayList<>();
+		Disposable assigned = hub.subscribe(5L, true).subscribe(sse -> assignedDoctor.add(sse.data().appointmentId()));
+		Disposable other = hub.subscribe(6L, true).subscribe(sse -> otherDoctor.add(sse.data().appointmentId()));
+		Disposable patient = hub.subscribe(2L, false).subscribe(sse -> otherPatient.add(sse.data().appointmentId()));
+
+		hub.onAppointmentEvent(event(AppointmentEvent.Type.EMERGENCY_CREATED, 30L, null, 1L));
+		hub.onAppointmentEvent(event(AppointmentEvent.Type.EMERGENCY_ACCEPTED, 30L, 5L, 1L));
+		// Not an emergency, so only the assigned doctor hears about it
+		hub.onAppointmentEvent(event(AppointmentEvent.Type.APPROVED, 31L, 5L, 1L));
+
+		assertThat(assignedDoctor).containsExactly(30L, 30L, 31L);
+		assertThat(otherDoctor).containsExactly(30L, 30L);
+		assertThat(otherPatient).isEmpty();
+
+		assigned.dispose();
+		other.dispose();
+		patient.dispose();
+	}
+
+	@Test
+	void slowClientsKeepOnlyTheNewestEvents() {
+		StepVerifier.create(hub.subscribe(1L, false), 0)
+				.then(() -> {
+					for (long id = 1; id <= 5; id++) {
+						hub.onAppointmentEvent(event(AppointmentEvent.Type.RESCHEDULED, id, 5L, 1L));
+					}
+				})
+				.thenRequest(2)
+				.expectNextMatches(sse -> sse.data().appointmentId() == 4L)
+				.expectNextMatches(sse -> sse.data().appointmentId() == 5L)
+				.then(() -> hub.onAppointmentEvent(event(AppointmentEvent.Type.RESCHEDULED, 6L, 5L, 1L)))
+				.thenRequest(1)
+				.expectNextMatches(sse -> sse.data().appointmentId() == 6L)
+				.thenCancel()
+				.verify();
+	}
+
+	private static AppointmentEvent event(AppointmentEvent.Type type, Long appointmentId, Long doctorUserId,
+										  Long patientUserId) {
+		return new AppointmentEvent(type, appointmentId, doctorUserId, patientUserId, null, LocalDateTime.now());
+	}
+}
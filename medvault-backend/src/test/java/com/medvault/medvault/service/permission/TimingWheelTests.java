@@ -0,0 +1,78 @@
+package com.medvault.medvault.service.permission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTests {
+
+	private static final long START = 1_700_000_000_000L;
+
+	@Test
+	void firesOnTheFirstTickAtOrAfterTheDeadline() {
+		TimingWheel<String> wheel = new TimingWheel<>(1000, 60, START);
+		wheel.schedule("a", START + 2_500);
+
+		assertThat(wheel.advance(START + 2_000)).isEmpty();
+		assertThat(wheel.advance(START + 2_999)).isEmpty();
+		assertThat(wheel.advance(START + 3_000)).containsExactly("a");
+		assertThat(wheel.size()).isZero();
+	}
+
+	@Test
+	void cascadesFarDeadlinesDownThroughTheLevels() {
+		TimingWheel<Long> wheel = new TimingWheel<>(1000, 60, START);
+		Random random = new Random(42);
+		Map<Long, Long> deadlines = new HashMap<>();
+		for (long id = 0; id < 500; id++) {
+			long deadline = START + random.nextLong(3 * 24 * 3600_000L); // up to three days out
+			deadlines.put(id, deadline);
+			wheel.schedule(id, deadline);
+		}
+
+		List<Long> fired = new ArrayList<>();
+		for (long now = START; now <= START + 3 * 24 * 3600_000L + 1000; now += 1000) {
+			for (Long id : wheel.advance(now)) {
+				assertThat(now).isGreaterThanOrEqualTo(deadlines.get(id)).isLessThan(deadlines.get(id) + 1000);
+				fired.add(id);
+			}
+		}
+		assertThat(fired).containsExactlyInAnyOrderElementsOf(deadlines.keySet());
+	}
+
+	@Test
+	void catchesUpAfterALongPause() {
+		TimingWheel<String> wheel = new TimingWheel<>(1000, 60, START);
+		wheel.schedule("minutes", START + 90_000);
+		wheel.schedule("hours", START + 2 * 3600_000L);
+
+		assertThat(wheel.advance(START + 3 * 3600_000L)).containsExactlyInAnyOrder("minutes", "hours");
+	}
+
+	@Test
+	void cancelledAndRescheduledEntriesFireOnlyAsLastScheduled() {
+		TimingWheel<String> wheel = new TimingWheel<>(1000, 60, START);
+		wheel.schedule("cancelled", START + 5_000);
+		wheel.schedule("moved", START + 5_000);
+		wheel.cancel("cancelled");
+		wheel.schedule("moved", START + 600_000);
+
+		assertThat(wheel.advance(START + 10_000)).isEmpty();
+		assertThat(wheel.advance(START + 600_000)).containsExactly("moved");
+	}
+
+	@Test
+	void deadlinesInThePastFireOnTheNextAdvance() {
+		TimingWheel<String> wheel = new TimingWheel<>(1000, 60, START);
+		wheel.advance(START + 10_000);
+		wheel.schedule("late", START);
+
+		assertThat(wheel.advance(START + 10_000)).containsExactly("late");
+	}
+}
@@ -0,0 +1,108 @@
+package com.medvault.medvault.service.search;
+
+import com.medvault.medvault.service.search.DoctorSearchIndex.Criteria;
+import com.medvault.medvault.service.search.DoctorSearchIndex.Hit;
+import com.medvault.medvault.service.search.DoctorSearchIndex.Result;
+import com.medvault.medvault.service.search.DoctorSearchIndex.SortOrder;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DoctorSearchIndexTests {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 10, 9, 0);
+
+	private static final List<Hit> DOCTORS = List.of(
+			doctor(1L, "Rao", "Cardiology", "English, Hindi", 800.0, 12, 4.6, NOW.plusHours(2)),
+			doctor(2L, "Shah", "Cardiology", "English; Gujarati", 500.0, 4, 4.9, NOW.plusDays(3)),
+			doctor(3L, "Iyer", "Pediatric Cardiology", "Tamil, English", 650.0, 8, 4.1, null),
+			doctor(4L, "Menon", "Dermatology", "Malayalam, English", 400.0, 15, 3.8, NOW.plusHours(1)),
+			doctor(5L, "Das", "Dermatology", "Bengali", null, null, 0.0, NOW.plusDays(1)),
+			doctor(6L, "Khan", "General Medicine", "Hindi, Urdu", 300.0, 20, 4.6, NOW.plusHours(5)));
+
+	private final DoctorSearchIndex.Snapshot index = DoctorSearchIndex.Snapshot.build(DOCTORS);
+
+	@Test
+	void filtersCombineAndFacetsIgnoreTheirOwnFilter() {
+		Result result = index.search(new Criteria("cardio", "english", null, 700.0, null, null, null),
+				SortOrder.RATING, 0, 10);
+
+		assertThat(result.doctors()).extracting(Hit::doctorId).containsExactly(2L, 3L);
+		assertThat(result.total()).isEqualTo(2);
+		// English speakers up to 700 in every specialization, and cardiologists up to 700 in every language
+		assertThat(result.specializations()).containsExactly(
+				Map.entry("Cardiology", 1), Map.entry("Dermatology", 1), Map.entry("Pediatric Cardiology", 1));
+		assertThat(result.languages()).containsExactly(
+				Map.entry("English", 2), Map.entry("Gujarati", 1), Map.entry("Tamil", 1));
+	}
+
+	@Test
+	void rangeFiltersSkipDoctorsWithoutTheValue() {
+		assertThat(search(new Criteria(null, null, 400.0, 650.0, null, null, null), SortOrder.FEES))
+				.containsExactly(4L, 2L, 3L);
+		assertThat(search(new Criteria(null, null, null, null, 10, 4.5, null), SortOrder.EXPERIENCE))
+				.containsExactly(6L, 1L);
+		assertThat(search(new Criteria(null, null, null, null, null, null, NOW.plusHours(3)), SortOrder.NEXT_AVAILABLE))
+				.containsExactly(4L, 1L);
+	}
+
+	@Test
+	void pagesFollowTheSortOrder() {
+		Criteria everyone = new Criteria(null, null, null, null, null, null, null);
+
+		assertThat(index.search(everyone, SortOrder.RATING, 0, 4).doctors()).extracting(Hit::doctorId)
+				.containsExactly(2L, 1L, 6L, 3L);
+		assertThat(index.search(everyone, SortOrder.RATING, 1, 4).doctors()).extracting(Hit::doctorId)
+				.containsExactly(4L, 5L);
+		assertThat(index.search(everyone, SortOrder.NAME, 0, 3).doctors()).extracting(Hit::doctorId)
+				.containsExactly(5L, 3L, 6L);
+		assertThat(index.search(everyone, SortOrder.FEES, 2, 4).doctors()).isEmpty();
+		assertThat(index.search(everyone, SortOrder.FEES, 2, 4).total()).isEqualTo(6);
+	}
+
+	@Test
+	void incrementalChangesMatchAFullBuild() {
+		Hit moved = doctor(2L, "Shah", "Dermatology", "English", 450.0, 5, 4.9, NOW.plusMinutes(30));
+		Hit added = doctor(7L, "Bose", "Cardiology", "Bengali, English", 700.0, 9, 4.7, NOW.plusHours(4));
+
+		// Doctor 4 is no longer approved, doctor 2 changed, doctor 7 is new
+		DoctorSearchIndex.Snapshot updated = index.withChanges(Set.of(2L, 4L, 7L), Map.of(2L, moved, 7L, added));
+		DoctorSearchIndex.Snapshot rebuilt = DoctorSearchIndex.Snapshot.build(List.of(
+				DOCTORS.get(0), moved, DOCTORS.get(2), DOCTORS.get(4), DOCTORS.get(5), added));
+
+		for (Criteria criteria : List.of(
+				new Criteria(null, null, null, null, null, null, null),
+				new Criteria("cardio", null, null, null, null, null, null),
+				new Criteria("derma", "english", 100.0, null, null, null, null),
+				new Criteria(null, "bengali", null, null, null, null, NOW.plusDays(2)))) {
+			for (SortOrder sort : SortOrder.values()) {
+				assertThat(updated.search(criteria, sort, 0, 10)).isEqualTo(rebuilt.search(criteria, sort, 0, 10));
+			}
+		}
+		assertThat(updated.size()).isEqualTo(6);
+		// The snapshot it was made from is unchanged
+		assertThat(index.search(Criteria.bySpecialization("derma"), SortOrder.NAME, 0, 10).doctors())
+				.extracting(Hit::doctorId).containsExactly(5L, 4L);
+	}
+
+	@Test
+	void splitsAndDeduplicatesLanguages() {
+		assertThat(DoctorSearchIndex.languagesOf(" English,Hindi ; English/ ")).containsExactly("English", "Hindi");
+		assertThat(DoctorSearchIndex.languagesOf(null)).isEmpty();
+	}
+
+	private List<Long> search(Criteria criteria, SortOrder sort) {
+		return index.search(criteria, sort, 0, 10).doctors().stream().map(Hit::doctorId).toList();
+	}
+
+	private static Hit doctor(Long id, String lastName, String specialization, String languages, Double fees,
+							  Integer experience, double rating, LocalDateTime nextSlot) {
+		return new Hit(id, "Dr", lastName, specialization, DoctorSearchIndex.languagesOf(languages), "MBBS",
+				experience, fees, null, rating, rating > 0 ? 10 : 0, nextSlot);
+	}
+}
@@ -0,0 +1,76 @@
+package com.medvault.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result file with the recorded baseline and exits with 1 if any
+ * benchmark got slower by more than the tolerance. All benchmarks here report time
+ * per operation, so higher is worse.
+ * <pre>
+ * java -cp target/benchmarks.jar com.medvault.bench.BaselineCheck baseline.json results/current.json [0.10]
+ * </pre>
+ */
+public final class BaselineCheck {
+
+	private BaselineCheck() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.err.println("usage: BaselineCheck <baseline.json> <results.json> [tolerance, default 0.10]");
+			System.exit(2);
+		}
+		File baselineFile = new File(args[0]);
+		if (!baselineFile.isFile()) {
+			System.err.println("No baseline at " + baselineFile + "; record one with -rf json -rff " + baselineFile);
+			System.exit(2);
+		}
+		double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 0.10;
+
+		Map<String, Score> baseline = read(baselineFile);
+		Map<String, Score> current = read(new File(args[1]));
+		int regressions = 0;
+		for (Map.Entry<String, Score> entry : new TreeMap<>(current).entrySet()) {
+			Score now = entry.getValue();
+			Score before = baseline.get(entry.getKey());
+			if (before == null) {
+				System.out.printf("  new   %-70s %12.3f %s%n", entry.getKey(), now.value(), now.unit());
+				continue;
+			}
+			double change = (now.value() - before.value()) / before.value();
+			boolean regressed = change > tolerance;
+			regressions += regressed ? 1 : 0;
+			System.out.printf("%s %-70s %12.3f -> %12.3f %s (%+.1f%%)%n", regressed ? "  SLOWER" : "  ok    ",
+					entry.getKey(), before.value(), now.value(), now.unit(), change * 100);
+		}
+		System.out.printf("%d of %d benchmarks slower than baseline by more than %.0f%%%n", regressions,
+				current.size(), tolerance * 100);
+		System.exit(regressions > 0 ? 1 : 0);
+	}
+
+	private static Map<String, Score> read(File file) throws IOException {
+		Map<String, Score> scores = new LinkedHashMap<>();
+		for (JsonNode run : new ObjectMapper().readTree(file)) {
+			StringBuilder key = new StringBuilder(run.path("benchmark").asText().replace("com.medvault.bench.", ""));
+			Iterator<Map.Entry<String, JsonNode>> params = run.path("params").fields();
+			while (params.hasNext()) {
+				Map.Entry<String, JsonNode> param = params.next();
+				key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+			}
+			JsonNode metric = run.path("primaryMetric");
+			scores.put(key.toString(), new Score(metric.path("score").asDouble(), metric.path("scoreUnit").asText()));
+		}
+		return scores;
+	}
+
+	private record Score(double value, String unit) {
+	}
+}
@@ -0,0 +1,56 @@
+package com.medvault.bench;
+
+import com.medvault.medvault.service.chatbot.ChatIntent;
+import com.medvault.medvault.service.chatbot.ChatIntentClassifier;
+import com.medvault.medvault.service.chatbot.LegacyIntentRules;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the compiled classifier with the old keyword chain, which comes from the
+ * application's test jar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatIntentClassifierBenchmark {
+
+	@Param({
+			"hello there",
+			"i want to book an appointment with a cardiologist next week please",
+			"what causes high blood pressure and how do i prevent it",
+			"tell me a joke"
+	})
+	public String message;
+
+	private ChatIntentClassifier classifier;
+
+	@Setup
+	public void setUp() {
+		classifier = new ChatIntentClassifier();
+	}
+
+	@Benchmark
+	public ChatIntent automaton() {
+		return classifier.classify(message).intent();
+	}
+
+	@Benchmark
+	public ChatIntent legacyKeywordChain() {
+		return LegacyIntentRules.classify(message);
+	}
+}
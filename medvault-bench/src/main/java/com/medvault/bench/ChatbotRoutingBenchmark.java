@@ -0,0 +1,121 @@
+package com.medvault.bench;
+
+import com.medvault.medvault.model.Doctor;
+import com.medvault.medvault.model.FAQItem;
+import com.medvault.medvault.model.Patient;
+import com.medvault.medvault.repository.DoctorRatingStatsRepository;
+import com.medvault.medvault.repository.DoctorRepository;
+import com.medvault.medvault.repository.FAQRepository;
+import com.medvault.medvault.repository.PatientRepository;
+import com.medvault.medvault.repository.TimeSlotRepository;
+import com.medvault.medvault.service.ChatbotService;
+import com.medvault.medvault.service.DoctorDirectory;
+import com.medvault.medvault.service.IdentityCache;
+import com.medvault.medvault.service.chatbot.ChatIntentClassifier;
+import com.medvault.medvault.service.faq.FaqSearchIndex;
+import com.medvault.medvault.service.metrics.BusinessMetrics;
+import com.medvault.medvault.service.search.DoctorSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One chatbot reply from message to text: intent classification plus building the
+ * response, against an in-memory doctor directory and FAQ index. Saving the chat
+ * messages is left out; that goes through the write buffer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatbotRoutingBenchmark {
+
+	private static final String[] SPECIALTIES = {
+			"Cardiology", "Dermatology", "Neurology", "Orthopedics", "Pediatrics", "Psychiatry",
+			"General Medicine", "Gynecology"
+	};
+
+	@Param({
+			"hello there",
+			"show me all doctors",
+			"i need a cardiologist",
+			"how do i cancel my appointment",
+			"how do i reset my password"
+	})
+	public String message;
+
+	private MethodHandle route;
+	private Long patientUserId;
+
+	@Setup
+	public void setUp() {
+		Patient patient = Fixtures.patient(1);
+		patientUserId = patient.getUserId();
+
+		List<Doctor> doctors = new ArrayList<>();
+		for (int i = 0; i < 120; i++) {
+			Doctor doctor = Fixtures.doctor(i);
+			doctor.setSpecialization(SPECIALTIES[i % SPECIALTIES.length]);
+			doctors.add(doctor);
+		}
+		List<FAQItem> faqs = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			FAQItem faq = new FAQItem();
+			faq.setId((long) i);
+			faq.setCategory(i % 2 == 0 ? "ACCOUNT" : "APPOINTMENTS");
+			faq.setQuestion(i == 7 ? "How do I reset my password?" : "How do I update item " + i + "?");
+			faq.setAnswer("Open your profile settings and follow the steps for item " + i + ".");
+			faq.setKeywords(i == 7 ? "password,reset,login" : "profile,update");
+			faq.setPriority(i % 5);
+			faqs.add(faq);
+		}
+
+		DoctorRepository doctorRepository = Stubs.repository(DoctorRepository.class,
+				Map.of("findByStatus", args -> doctors));
+		PatientRepository patientRepository = Stubs.repository(PatientRepository.class,
+				Map.of("findByUserId", args -> Optional.of(patient)));
+		IdentityCache identityCache = new IdentityCache(doctorRepository, patientRepository,
+				new SimpleMeterRegistry(), 10_000, 300);
+
+		ChatbotService chatbot = new ChatbotService();
+		Stubs.inject(chatbot, "identityCache", identityCache);
+		Stubs.inject(chatbot, "patientRepository", patientRepository);
+		Stubs.inject(chatbot, "intentClassifier", new ChatIntentClassifier());
+		Stubs.inject(chatbot, "doctorDirectory", Stubs.inject(new DoctorDirectory(), "doctorRepository",
+				doctorRepository));
+		DoctorSearchIndex searchIndex = Stubs.inject(new DoctorSearchIndex(), "doctorRepository", doctorRepository);
+		Stubs.inject(searchIndex, "ratingStatsRepository", Stubs.repository(DoctorRatingStatsRepository.class));
+		Stubs.inject(searchIndex, "timeSlotRepository", Stubs.repository(TimeSlotRepository.class));
+		Stubs.inject(chatbot, "doctorSearchIndex", searchIndex);
+		Stubs.inject(chatbot, "faqSearchIndex", Stubs.inject(new FaqSearchIndex(), "faqRepository",
+				Stubs.repository(FAQRepository.class, Map.of("findByIsActiveTrueOrderByPriorityDesc", args -> faqs))));
+		Stubs.inject(chatbot, "faqMinScore", 2.0);
+		Stubs.inject(chatbot, "businessMetrics", new BusinessMetrics(new SimpleMeterRegistry()));
+
+		route = Stubs.privateMethod(chatbot, "generateEnhancedResponse", String.class, Long.class);
+	}
+
+	@Benchmark
+	public Object route() throws Throwable {
+		// processMessage lower-cases and trims before routing
+		return route.invoke(message.toLowerCase().trim(), patientUserId);
+	}
+}
@@ -0,0 +1,113 @@
+package com.medvault.bench;
+
+import com.medvault.medvault.model.Doctor;
+import com.medvault.medvault.model.DoctorRatingStats;
+import com.medvault.medvault.repository.DoctorRatingStatsRepository;
+import com.medvault.medvault.repository.DoctorRepository;
+import com.medvault.medvault.repository.TimeSlotRepository;
+import com.medvault.medvault.service.search.DoctorSearchIndex;
+import com.medvault.medvault.service.search.DoctorSearchIndex.Criteria;
+import com.medvault.medvault.service.search.DoctorSearchIndex.SortOrder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One doctor search page with both facet counts, over an index of 50,000 approved
+ * doctors built once in setup. Covers no filter, a text filter, and text plus range
+ * filters, on the first page and a deep one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DoctorSearchBenchmark {
+
+	private static final int DOCTORS = 50_000;
+	private static final int PAGE_SIZE = 20;
+
+	private static final String[] SPECIALTIES = {
+			"Cardiology", "Pediatric Cardiology", "Dermatology", "Neurology", "Orthopedics", "Pediatrics",
+			"Psychiatry", "General Medicine", "Gynecology", "Oncology", "Ophthalmology", "ENT"
+	};
+	private static final String[] LANGUAGES = {
+			"English", "Hindi", "Tamil", "Telugu", "Kannada", "Malayalam", "Bengali", "Marathi", "Gujarati", "Urdu"
+	};
+
+	@Param({"none", "specialization", "combined"})
+	public String filter;
+
+	@Param({"RATING", "NEXT_AVAILABLE"})
+	public SortOrder sort;
+
+	@Param({"0", "50"})
+	public int page;
+
+	private DoctorSearchIndex index;
+	private Criteria criteria;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		List<Doctor> doctors = new ArrayList<>(DOCTORS);
+		List<DoctorRatingStats> ratings = new ArrayList<>();
+		List<Object[]> nextSlots = new ArrayList<>();
+		for (int i = 0; i < DOCTORS; i++) {
+			Doctor doctor = Fixtures.doctor(i);
+			doctor.setSpecialization(SPECIALTIES[random.nextInt(SPECIALTIES.length)]);
+			doctor.setLanguagesSpoken(LANGUAGES[random.nextInt(LANGUAGES.length)] + ", "
+					+ LANGUAGES[random.nextInt(LANGUAGES.length)]);
+			doctor.setConsultationFees(200.0 + 50 * random.nextInt(30));
+			doctor.setYearsOfExperience(random.nextInt(35));
+			doctors.add(doctor);
+
+			// Most doctors have ratings and open slots, some have neither
+			if (random.nextInt(10) > 0) {
+				DoctorRatingStats stats = new DoctorRatingStats(doctor.getId());
+				long count = 1 + random.nextInt(200);
+				stats.setRatingCount(count);
+				stats.setRatingSum(count + (long) (random.nextDouble() * 4 * count));
+				ratings.add(stats);
+			}
+			if (random.nextInt(4) > 0) {
+				nextSlots.add(new Object[]{doctor.getId(), Fixtures.NOW.plusMinutes(30L * random.nextInt(2000))});
+			}
+		}
+
+		index = new DoctorSearchIndex();
+		Stubs.inject(index, "doctorRepository", Stubs.repository(DoctorRepository.class,
+				Map.of("findByStatus", args -> doctors)));
+		Stubs.inject(index, "ratingStatsRepository", Stubs.repository(DoctorRatingStatsRepository.class,
+				Map.of("findAll", args -> ratings)));
+		Stubs.inject(index, "timeSlotRepository", Stubs.repository(TimeSlotRepository.class,
+				Map.of("findNextAvailableStartByDoctor", args -> nextSlots)));
+		index.rebuild();
+
+		criteria = switch (filter) {
+			case "specialization" -> Criteria.bySpecialization("cardio");
+			case "combined" -> new Criteria("cardio", "english", 300.0, 1000.0, 5, 3.5, Fixtures.NOW.plusDays(7));
+			default -> new Criteria(null, null, null, null, null, null, null);
+		};
+	}
+
+	@Benchmark
+	public Object search() {
+		return index.search(criteria, sort, page, PAGE_SIZE);
+	}
+}
@@ -0,0 +1,80 @@
+package com.medvault.bench;
+
+import com.medvault.medvault.controller.DoctorController;
+import com.medvault.medvault.controller.PatientController;
+import com.medvault.medvault.model.Appointment;
+import com.medvault.medvault.model.Doctor;
+import com.medvault.medvault.model.Feedback;
+import com.medvault.medvault.model.Patient;
+import com.medvault.medvault.model.TimeSlot;
+import com.medvault.medvault.repository.TimeSlotRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The entity-to-DTO conversions behind the appointment and feedback lists. They are
+ * private controller methods, so they are called through method handles; the slot
+ * lookup each one does is answered from memory, so this is the conversion cost
+ * alone, without the database round trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoConversionBenchmark {
+
+	private Appointment appointment;
+	private Feedback feedback;
+	private MethodHandle patientConvertToDto;
+	private MethodHandle doctorConvertAppointment;
+	private MethodHandle doctorConvertFeedback;
+
+	@Setup
+	public void setUp() {
+		Doctor doctor = Fixtures.doctor(1);
+		Patient patient = Fixtures.patient(1);
+		TimeSlot slot = Fixtures.slot(1, doctor.getId());
+		appointment = Fixtures.appointment(1, doctor, patient, slot);
+		feedback = Fixtures.feedback(1, appointment);
+
+		TimeSlotRepository slots = Stubs.repository(TimeSlotRepository.class,
+				Map.of("findById", args -> Optional.of(slot)));
+		PatientController patientController = Stubs.inject(new PatientController(), "timeSlotRepository", slots);
+		DoctorController doctorController = Stubs.inject(new DoctorController(), "timeSlotRepository", slots);
+
+		patientConvertToDto = Stubs.privateMethod(patientController, "convertToDTO", Appointment.class);
+		doctorConvertAppointment = Stubs.privateMethod(doctorController, "convertAppointmentToDetailDTO",
+				Appointment.class);
+		doctorConvertFeedback = Stubs.privateMethod(doctorController, "convertFeedbackToDTO", Feedback.class);
+	}
+
+	@Benchmark
+	public Object convertToDTO() throws Throwable {
+		return patientConvertToDto.invoke(appointment);
+	}
+
+	@Benchmark
+	public Object convertAppointmentToDetailDTO() throws Throwable {
+		return doctorConvertAppointment.invoke(appointment);
+	}
+
+	@Benchmark
+	public Object convertFeedbackToDTO() throws Throwable {
+		return doctorConvertFeedback.invoke(feedback);
+	}
+}
@@ -0,0 +1,88 @@
+package com.medvault.bench;
+
+import com.medvault.medvault.service.EmailService;
+import com.medvault.medvault.service.metrics.BusinessMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import jakarta.mail.MessagingException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.lang.invoke.MethodHandle;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building an HTML notification: String.format of the body and the branded page,
+ * then the MIME message. Nothing is sent; the mail sender finalises the message as
+ * a real send would and keeps it instead of talking to an SMTP server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailRenderingBenchmark {
+
+	private EmailService emailService;
+	private MethodHandle template;
+	private CapturingMailSender mailSender;
+
+	@Setup
+	public void setUp() {
+		mailSender = new CapturingMailSender();
+		emailService = new EmailService();
+		Stubs.inject(emailService, "mailSender", mailSender);
+		Stubs.inject(emailService, "businessMetrics", new BusinessMetrics(new SimpleMeterRegistry()));
+		Stubs.inject(emailService, "fromEmail", "no-reply@medvault.example");
+		Stubs.inject(emailService, "appBaseUrl", "https://medvault.example");
+		template = Stubs.privateMethod(emailService, "createHtmlEmailTemplate", String.class, String.class);
+	}
+
+	@Benchmark
+	public Object templateOnly() throws Throwable {
+		return template.invoke("Your Appointment is Confirmed!", "<p>Dear Vikram,</p><p>See you soon.</p>");
+	}
+
+	@Benchmark
+	public MimeMessage appointmentConfirmation() {
+		emailService.sendAppointmentConfirmationToPatient("vikram.iyer@example.com", "Vikram", "Asha Raman",
+				Fixtures.NOW.plusDays(1));
+		return mailSender.last;
+	}
+
+	@Benchmark
+	public MimeMessage granularAccessGranted() {
+		emailService.sendGranularAccessGrantedNotification("asha.raman@example.com", "Asha", "Vikram Iyer",
+				"Lipid profile", List.of("bloodGroup", "bloodPressure", "medication"), 24);
+		return mailSender.last;
+	}
+
+	static final class CapturingMailSender extends JavaMailSenderImpl {
+
+		MimeMessage last;
+
+		@Override
+		protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) {
+			try {
+				for (MimeMessage message : mimeMessages) {
+					message.saveChanges();
+					last = message;
+				}
+			} catch (MessagingException e) {
+				throw new MailPreparationException(e);
+			}
+		}
+	}
+}
@@ -0,0 +1,109 @@
+package com.medvault.bench;
+
+import com.medvault.medvault.model.FAQItem;
+import com.medvault.medvault.repository.FAQRepository;
+import com.medvault.medvault.service.faq.FaqSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the FAQ index with the work the old searchFAQs query did per row: three
+ * case-insensitive substring scans, then a sort by priority. The database round
+ * trip is not included, so this understates the old cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FaqSearchBenchmark {
+
+	private static final String[] WORDS = {
+			"appointment", "doctor", "booking", "cancel", "payment", "records", "access", "password",
+			"profile", "emergency", "prescription", "insurance", "refund", "schedule", "specialist",
+			"video", "consultation", "report", "upload", "document", "reminder", "notification"
+	};
+
+	@Param({"100", "1000"})
+	public int faqCount;
+
+	@Param({"cancel", "payment refund"})
+	public String query;
+
+	private List<FAQItem> faqs;
+	private FaqSearchIndex index;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		faqs = new ArrayList<>();
+		for (int i = 0; i < faqCount; i++) {
+			faqs.add(faq((long) i, "General", sentence(random, 8) + "?",
+					sentence(random, 40) + ".", sentence(random, 4), random.nextInt(10)));
+		}
+		index = Stubs.inject(new FaqSearchIndex(), "faqRepository", Stubs.repository(FAQRepository.class,
+				Map.of("findByIsActiveTrueOrderByPriorityDesc", args -> faqs)));
+		index.refresh();
+	}
+
+	@Benchmark
+	public List<FaqSearchIndex.Hit> invertedIndex() {
+		return index.search(query, 10);
+	}
+
+	@Benchmark
+	public List<FAQItem> substringScan() {
+		String keyword = query.toLowerCase(Locale.ROOT);
+		List<FAQItem> result = new ArrayList<>();
+		for (FAQItem faq : faqs) {
+			if (faq.getQuestion().toLowerCase(Locale.ROOT).contains(keyword)
+					|| faq.getKeywords().toLowerCase(Locale.ROOT).contains(keyword)
+					|| faq.getAnswer().toLowerCase(Locale.ROOT).contains(keyword)) {
+				result.add(faq);
+			}
+		}
+		result.sort(Comparator.comparing(FAQItem::getPriority).reversed());
+		return result;
+	}
+
+	private static FAQItem faq(Long id, String category, String question, String answer, String keywords, int priority) {
+		FAQItem item = new FAQItem();
+		item.setId(id);
+		item.setCategory(category);
+		item.setQuestion(question);
+		item.setAnswer(answer);
+		item.setKeywords(keywords);
+		item.setPriority(priority);
+		item.setIsActive(true);
+		return item;
+	}
+
+	private static String sentence(Random random, int words) {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < words; i++) {
+			if (i > 0) {
+				text.append(' ');
+			}
+			text.append(WORDS[random.nextInt(WORDS.length)]);
+		}
+		return text.toString();
+	}
+}
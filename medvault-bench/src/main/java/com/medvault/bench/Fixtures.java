@@ -0,0 +1,114 @@
+package com.medvault.bench;
+
+import com.medvault.medvault.model.Appointment;
+import com.medvault.medvault.model.AppointmentStatus;
+import com.medvault.medvault.model.Doctor;
+import com.medvault.medvault.model.Feedback;
+import com.medvault.medvault.model.MedicalRecord;
+import com.medvault.medvault.model.Patient;
+import com.medvault.medvault.model.RecordPermission;
+import com.medvault.medvault.model.TimeSlot;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entities shaped like production rows, built the same way every run so results
+ * stay comparable.
+ */
+public final class Fixtures {
+
+	public static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 10, 9, 0);
+
+	private Fixtures() {
+	}
+
+	public static Doctor doctor(long id) {
+		Doctor doctor = new Doctor();
+		doctor.setId(id);
+		doctor.setUserId(1000 + id);
+		doctor.setFirstName("Asha");
+		doctor.setLastName("Raman");
+		doctor.setEmail("asha.raman" + id + "@example.com");
+		doctor.setSpecialization("Cardiology");
+		doctor.setContactNumber("+91 98450 12345");
+		doctor.setConsultationFees(750.0);
+		return doctor;
+	}
+
+	public static Patient patient(long id) {
+		Patient patient = new Patient();
+		patient.setId(id);
+		patient.setUserId(2000 + id);
+		patient.setFirstName("Vikram");
+		patient.setLastName("Iyer");
+		patient.setEmail("vikram.iyer" + id + "@example.com");
+		return patient;
+	}
+
+	public static TimeSlot slot(long id, long doctorId) {
+		TimeSlot slot = new TimeSlot();
+		slot.setId(id);
+		slot.setDoctorId(doctorId);
+		slot.setStartTime(NOW.plusDays(1));
+		slot.setEndTime(NOW.plusDays(1).plusMinutes(30));
+		slot.setDuration(30);
+		slot.setAppointmentType("IN_PERSON");
+		slot.setIsAvailable(false);
+		return slot;
+	}
+
+	public static Appointment appointment(long id, Doctor doctor, Patient patient, TimeSlot slot) {
+		Appointment appointment = new Appointment();
+		appointment.setId(id);
+		appointment.setDoctor(doctor);
+		appointment.setPatient(patient);
+		appointment.setSlotId(slot.getId());
+		appointment.setTimeSlot(slot);
+		appointment.setStatus(AppointmentStatus.APPROVED);
+		appointment.setPatientNotes("Chest tightness after climbing stairs, worse in the mornings.");
+		appointment.setCreatedAt(NOW.minusDays(2));
+		appointment.setUpdatedAt(NOW.minusDays(1));
+		return appointment;
+	}
+
+	public static Feedback feedback(long id, Appointment appointment) {
+		Feedback feedback = new Feedback();
+		feedback.setId(id);
+		feedback.setAppointment(appointment);
+		feedback.setDoctor(appointment.getDoctor());
+		feedback.setPatient(appointment.getPatient());
+		feedback.setRating(4);
+		feedback.setComment("Explained the ECG results clearly and did not rush the consultation.");
+		feedback.setFeedbackDate(NOW);
+		feedback.setIsAnonymous(id % 3 == 0);
+		return feedback;
+	}
+
+	public static MedicalRecord record(long id, Patient patient) {
+		MedicalRecord record = new MedicalRecord();
+		record.setId(id);
+		record.setPatient(patient);
+		record.setTitle("Lipid profile " + id);
+		record.setRecordType("LAB_REPORT");
+		return record;
+	}
+
+	/**
+	 * Every third permission is revoked or expired, like a patient's sharing history.
+	 * Times are relative to the real clock because the entity checks expiry against it.
+	 */
+	public static RecordPermission permission(long id, Doctor doctor, MedicalRecord record) {
+		LocalDateTime now = LocalDateTime.now();
+		RecordPermission permission = new RecordPermission();
+		permission.setId(id);
+		permission.setDoctor(doctor);
+		permission.setPatient(record.getPatient());
+		permission.setMedicalRecord(record);
+		permission.setPermissionType("READ");
+		permission.setIsGranted(id % 3 != 1);
+		permission.setGrantedAt(now.minusHours(30));
+		permission.setExpiresAt(id % 3 == 2 ? now.minusHours(6) : now.plusHours(18));
+		permission.setSharedFields("bloodGroup,bloodPressure,heartRate,medication");
+		return permission;
+	}
+}
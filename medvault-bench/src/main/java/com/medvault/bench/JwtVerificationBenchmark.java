@@ -0,0 +1,81 @@
+package com.medvault.bench;
+
+import com.medvault.medvault.model.Doctor;
+import com.medvault.medvault.model.Role;
+import com.medvault.medvault.model.User;
+import com.medvault.medvault.repository.DoctorRepository;
+import com.medvault.medvault.security.JwtService;
+import com.medvault.medvault.security.TokenRevocationList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolving the caller's doctor id per request: with a signed token (a fresh token,
+ * so signing and parsing, and a token already in the verification cache) against the
+ * old "jwt_token_&lt;userId&gt;_&lt;millis&gt;" placeholder followed by findByUserId.
+ * The old path's real cost is the database round trip, which is not measured here,
+ * so legacyLookup is only its lower bound.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+	private static final String SECRET = "benchmark-secret-that-is-long-enough-for-hs256";
+
+	private JwtService jwtService;
+	private JwtService uncached;
+	private User user;
+	private String token;
+	private String placeholder;
+	private DoctorRepository doctorRepository;
+
+	@Setup
+	public void setUp() {
+		Doctor doctor = Fixtures.doctor(1);
+		user = new User(doctor.getEmail(), doctor.getEmail(), "secret", Role.DOCTOR);
+		user.setId(doctor.getUserId());
+
+		jwtService = new JwtService(SECRET, 3_600_000, 10_000, new TokenRevocationList());
+		// Room for one entry, so every new token is parsed and the cache never grows
+		uncached = new JwtService(SECRET, 3_600_000, 1, new TokenRevocationList());
+		token = jwtService.generateToken(user, doctor.getId(), null);
+		jwtService.verify(token);
+
+		placeholder = "jwt_token_" + user.getId() + "_" + System.currentTimeMillis();
+		Map<Long, Doctor> byUserId = Map.of(doctor.getUserId(), doctor);
+		doctorRepository = Stubs.repository(DoctorRepository.class,
+				Map.of("findByUserId", args -> Optional.ofNullable(byUserId.get((Long) args[0]))));
+	}
+
+	@Benchmark
+	public Object signAndVerify() {
+		return uncached.verify(uncached.generateToken(user, 1L, null)).orElseThrow().getDoctorId();
+	}
+
+	@Benchmark
+	public Object verifyCached() {
+		return jwtService.verify(token).orElseThrow().getDoctorId();
+	}
+
+	@Benchmark
+	public Object legacyLookup() {
+		Long userId = Long.valueOf(placeholder.substring("jwt_token_".length(), placeholder.lastIndexOf('_')));
+		return doctorRepository.findByUserId(userId).orElseThrow().getId();
+	}
+}
@@ -0,0 +1,83 @@
+package com.medvault.bench;
+
+import com.medvault.medvault.model.Doctor;
+import com.medvault.medvault.model.MedicalRecord;
+import com.medvault.medvault.model.Patient;
+import com.medvault.medvault.model.RecordPermission;
+import com.medvault.medvault.repository.RecordPermissionRepository;
+import com.medvault.medvault.service.RecordPermissionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deciding whether a doctor may open a record: the in-memory filtering done on the
+ * doctor's active permissions for the patient, plus splitting the shared fields.
+ * The repository answers with the rows the active-permission query would return.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PermissionFilterBenchmark {
+
+	@Param({"5", "50", "500"})
+	public int permissions;
+
+	private RecordPermissionService service;
+	private Doctor doctor;
+	private MedicalRecord lastRecord;
+	private MedicalRecord unsharedRecord;
+	private RecordPermission permission;
+
+	@Setup
+	public void setUp() {
+		doctor = Fixtures.doctor(1);
+		Patient patient = Fixtures.patient(1);
+		List<RecordPermission> active = new ArrayList<>();
+		for (long id = 0; id < permissions * 3L; id++) {
+			MedicalRecord record = Fixtures.record(id, patient);
+			RecordPermission candidate = Fixtures.permission(id, doctor, record);
+			if (candidate.isActive()) {
+				active.add(candidate);
+			}
+		}
+		lastRecord = active.get(active.size() - 1).getMedicalRecord();
+		unsharedRecord = Fixtures.record(-1, patient);
+		permission = active.get(0);
+
+		service = Stubs.inject(new RecordPermissionService(), "recordPermissionRepository",
+				Stubs.repository(RecordPermissionRepository.class,
+						Map.of("findActivePermissionsByPatientAndDoctor", args -> active)));
+	}
+
+	@Benchmark
+	public boolean hasActiveAccessLastMatch() {
+		return service.hasActiveAccess(doctor, lastRecord);
+	}
+
+	@Benchmark
+	public boolean hasActiveAccessNoMatch() {
+		return service.hasActiveAccess(doctor, unsharedRecord);
+	}
+
+	@Benchmark
+	public List<String> sharedFields() {
+		return service.getSharedFields(permission);
+	}
+}
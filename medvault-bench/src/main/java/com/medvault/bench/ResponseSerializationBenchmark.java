@@ -0,0 +1,152 @@
+package com.medvault.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.medvault.medvault.dto.MedicalRecordDTO;
+import com.medvault.medvault.model.Doctor;
+import com.medvault.medvault.model.MedicalRecord;
+import com.medvault.medvault.model.Patient;
+import com.medvault.medvault.model.RecordPermission;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and serializing the patient's medical-records response: the per-row
+ * HashMaps the endpoint used to build against the MedicalRecordDTO records, with a
+ * plain ObjectMapper and with Blackbird. Run with {@code -prof gc} to see the bytes
+ * allocated per response (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+	private static final int SHARES_PER_RECORD = 2;
+
+	@Param({"10", "100"})
+	public int records;
+
+	private List<MedicalRecord> medicalRecords;
+	private Map<Long, List<RecordPermission>> grantedByRecord;
+	private ObjectMapper plain;
+	private ObjectMapper blackbird;
+
+	@Setup
+	public void setUp() {
+		Patient patient = Fixtures.patient(1);
+		medicalRecords = new ArrayList<>();
+		grantedByRecord = new HashMap<>();
+		for (long id = 1; id <= records; id++) {
+			MedicalRecord record = Fixtures.record(id, patient);
+			record.setUploadedAt(Fixtures.NOW.minusDays(id));
+			record.setBloodGroup("B+");
+			record.setHeartRate(72);
+			medicalRecords.add(record);
+			List<RecordPermission> shares = new ArrayList<>();
+			for (long d = 1; d <= SHARES_PER_RECORD; d++) {
+				Doctor doctor = Fixtures.doctor(d);
+				RecordPermission permission = Fixtures.permission(id * 10 + d, doctor, record);
+				permission.setIsGranted(true);
+				shares.add(permission);
+			}
+			grantedByRecord.put(id, shares);
+		}
+		plain = mapper();
+		blackbird = mapper().registerModule(new BlackbirdModule());
+	}
+
+	@Benchmark
+	public byte[] mapsPlain() throws Exception {
+		return plain.writeValueAsBytes(asMaps());
+	}
+
+	@Benchmark
+	public byte[] recordsPlain() throws Exception {
+		return plain.writeValueAsBytes(asRecords());
+	}
+
+	@Benchmark
+	public byte[] recordsBlackbird() throws Exception {
+		return blackbird.writeValueAsBytes(asRecords());
+	}
+
+	private List<MedicalRecordDTO> asRecords() {
+		LocalDateTime now = LocalDateTime.now();
+		List<MedicalRecordDTO> rows = new ArrayList<>(medicalRecords.size());
+		for (MedicalRecord record : medicalRecords) {
+			rows.add(MedicalRecordDTO.of(record, grantedByRecord.get(record.getId()), now));
+		}
+		return rows;
+	}
+
+	// What the endpoint built before the records, minus the database work
+	private List<Map<String, Object>> asMaps() {
+		List<Map<String, Object>> rows = new ArrayList<>(medicalRecords.size());
+		for (MedicalRecord record : medicalRecords) {
+			Map<String, Object> dto = new HashMap<>();
+			dto.put("id", record.getId());
+			dto.put("recordType", record.getRecordType());
+			dto.put("title", record.getTitle());
+			dto.put("description", record.getDescription());
+			dto.put("uploadedAt", record.getUploadedAt());
+			dto.put("updatedAt", record.getUpdatedAt());
+			dto.put("bloodGroup", record.getBloodGroup());
+			dto.put("bloodPressure", record.getBloodPressure());
+			dto.put("heartRate", record.getHeartRate());
+			dto.put("temperature", record.getTemperature());
+			dto.put("weight", record.getWeight());
+			dto.put("diagnosisCondition", record.getDiagnosisCondition());
+			dto.put("medication", record.getMedication());
+
+			List<RecordPermission> permissions = grantedByRecord.get(record.getId());
+			dto.put("sharedWithDoctors", permissions.size());
+			List<Map<String, Object>> shares = new ArrayList<>();
+			for (RecordPermission p : permissions) {
+				Map<String, Object> permMap = new HashMap<>();
+				permMap.put("id", p.getId());
+				permMap.put("permissionId", p.getId());
+				permMap.put("doctorId", p.getDoctor().getId());
+				permMap.put("doctorName", "Dr. " + p.getDoctor().getFirstName() + " " + p.getDoctor().getLastName());
+				permMap.put("permissionType", p.getPermissionType());
+				permMap.put("grantedAt", p.getGrantedAt());
+				permMap.put("expiresAt", p.getExpiresAt());
+				permMap.put("sharedFields", p.getSharedFields());
+				permMap.put("hoursRemaining", p.getExpiresAt() == null ? -1
+						: Math.max(0, Duration.between(LocalDateTime.now(), p.getExpiresAt()).toHours()));
+				shares.add(permMap);
+			}
+			dto.put("permissions", shares);
+			rows.add(dto);
+		}
+		return rows;
+	}
+
+	// Date handling as Spring Boot configures it
+	private static ObjectMapper mapper() {
+		return new ObjectMapper()
+				.registerModule(new JavaTimeModule())
+				.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+	}
+}
@@ -0,0 +1,57 @@
+package com.medvault.bench;
+
+import com.medvault.medvault.dto.TimeSlotRequest;
+import com.medvault.medvault.model.TimeSlot;
+import com.medvault.medvault.service.TimeSlotPlanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expanding a recurring slot request (three weekdays a week) into individual slots,
+ * for a month, a quarter and a year.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlotExpansionBenchmark {
+
+	@Param({"30", "90", "365"})
+	public int days;
+
+	private TimeSlotPlanner planner;
+	private TimeSlotRequest request;
+
+	@Setup
+	public void setUp() {
+		planner = new TimeSlotPlanner();
+		request = new TimeSlotRequest();
+		request.setStartTime(Fixtures.NOW);
+		request.setEndTime(Fixtures.NOW.plusMinutes(30));
+		request.setDuration(30);
+		request.setBufferTime(10);
+		request.setAppointmentType("IN_PERSON");
+		request.setIsRecurring(true);
+		request.setRecurringDays(List.of("MONDAY", "WEDNESDAY", "FRIDAY"));
+		request.setRecurringEndDate(Fixtures.NOW.toLocalDate().plusDays(days).toString());
+	}
+
+	@Benchmark
+	public List<TimeSlot> expandRecurring() {
+		return planner.expandRecurring(request, 1L);
+	}
+}
@@ -0,0 +1,104 @@
+package com.medvault.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Wiring for running application classes outside Spring: in-memory repositories,
+ * field injection and access to the private methods being measured.
+ */
+public final class Stubs {
+
+	private Stubs() {
+	}
+
+	/**
+	 * A repository that answers the named methods from the given functions and
+	 * everything else with an empty value (empty Optional or list, zero, false, null).
+	 */
+	@SuppressWarnings("unchecked")
+	public static <R> R repository(Class<R> type, Map<String, Function<Object[], Object>> answers) {
+		return (R) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+			Function<Object[], Object> answer = answers.get(method.getName());
+			if (answer != null) {
+				return answer.apply(args);
+			}
+			return switch (method.getName()) {
+				case "toString" -> type.getSimpleName() + " stub";
+				case "hashCode" -> System.identityHashCode(proxy);
+				case "equals" -> proxy == args[0];
+				default -> empty(method);
+			};
+		});
+	}
+
+	public static <R> R repository(Class<R> type) {
+		return repository(type, Map.of());
+	}
+
+	public static <T> T inject(T target, String field, Object value) {
+		try {
+			Field f = findField(target.getClass(), field);
+			f.setAccessible(true);
+			f.set(target, value);
+			return target;
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Cannot set " + field + " on " + target.getClass().getSimpleName(), e);
+		}
+	}
+
+	/**
+	 * A handle on a private method, bound to the given instance.
+	 */
+	public static MethodHandle privateMethod(Object target, String name, Class<?>... parameterTypes) {
+		try {
+			Method method = target.getClass().getDeclaredMethod(name, parameterTypes);
+			method.setAccessible(true);
+			return MethodHandles.lookup().unreflect(method).bindTo(target);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("No method " + name + " on " + target.getClass().getSimpleName(), e);
+		}
+	}
+
+	private static Field findField(Class<?> type, String name) throws NoSuchFieldException {
+		for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+			try {
+				return c.getDeclaredField(name);
+			} catch (NoSuchFieldException ignored) {
+				// keep looking in the superclass
+			}
+		}
+		throw new NoSuchFieldException(name);
+	}
+
+	private static Object empty(Method method) {
+		Class<?> type = method.getReturnType();
+		if (type == Optional.class) {
+			return Optional.empty();
+		}
+		if (Collection.class.isAssignableFrom(type) || type == Iterable.class) {
+			return List.of();
+		}
+		if (type == boolean.class) {
+			return false;
+		}
+		if (type == long.class) {
+			return 0L;
+		}
+		if (type == int.class) {
+			return 0;
+		}
+		if (type == double.class) {
+			return 0d;
+		}
+		return null;
+	}
+}